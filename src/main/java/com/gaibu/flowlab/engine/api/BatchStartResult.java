@@ -0,0 +1,134 @@
+package com.gaibu.flowlab.engine.api;
+
+import com.gaibu.flowlab.engine.runtime.enums.InstanceStatus;
+
+import java.util.Map;
+
+/**
+ * 批量启动结果，按输入顺序保存每个实例的 ID 与最终状态。
+ * <p>
+ * 以列式数组存储，不持有实例对象；失败原因仅为失败实例稀疏保存。
+ */
+public final class BatchStartResult {
+
+    /**
+     * 流程定义 ID。
+     */
+    private final String processId;
+
+    /**
+     * 实例 ID，下标与输入顺序一致。
+     */
+    private final String[] instanceIds;
+
+    /**
+     * 实例最终状态，下标与输入顺序一致。
+     */
+    private final InstanceStatus[] statuses;
+
+    /**
+     * 失败原因（下标 -> 异常），仅包含失败实例。
+     */
+    private final Map<Integer, Throwable> failures;
+
+    /**
+     * 完成实例数。
+     */
+    private final int completedCount;
+
+    /**
+     * 失败实例数。
+     */
+    private final int failedCount;
+
+    public BatchStartResult(
+            String processId,
+            String[] instanceIds,
+            InstanceStatus[] statuses,
+            Map<Integer, Throwable> failures) {
+        if (instanceIds.length != statuses.length) {
+            throw new IllegalArgumentException("instanceIds and statuses must have the same length");
+        }
+        this.processId = processId;
+        this.instanceIds = instanceIds;
+        this.statuses = statuses;
+        this.failures = Map.copyOf(failures);
+        int completed = 0;
+        int failed = 0;
+        for (InstanceStatus status : statuses) {
+            if (status == InstanceStatus.COMPLETED) {
+                completed++;
+            } else if (status == InstanceStatus.FAILED) {
+                failed++;
+            }
+        }
+        this.completedCount = completed;
+        this.failedCount = failed;
+    }
+
+    /**
+     * 返回流程定义 ID。
+     *
+     * @return 流程定义 ID
+     */
+    public String processId() {
+        return processId;
+    }
+
+    /**
+     * 实例数量。
+     *
+     * @return 实例数量
+     */
+    public int size() {
+        return instanceIds.length;
+    }
+
+    /**
+     * 返回第 index 个实例的 ID。
+     *
+     * @param index 输入下标
+     * @return 实例 ID
+     */
+    public String instanceId(int index) {
+        return instanceIds[index];
+    }
+
+    /**
+     * 返回第 index 个实例的最终状态。
+     *
+     * @param index 输入下标
+     * @return 实例状态
+     */
+    public InstanceStatus status(int index) {
+        return statuses[index];
+    }
+
+    /**
+     * 返回第 index 个实例的失败原因。
+     *
+     * @param index 输入下标
+     * @return 失败原因，未失败时为 null
+     */
+    public Throwable failureCause(int index) {
+        return failures.get(index);
+    }
+
+    /**
+     * 完成实例数。
+     *
+     * @return 状态为 COMPLETED 的实例数
+     */
+    public int completedCount() {
+        return completedCount;
+    }
+
+    /**
+     * 失败实例数。
+     *
+     * @return 状态为 FAILED 的实例数
+     */
+    public int failedCount() {
+        return failedCount;
+    }
+}
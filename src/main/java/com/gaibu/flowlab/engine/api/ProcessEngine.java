@@ -1,7 +1,10 @@
 package com.gaibu.flowlab.engine.api;
 
 import com.gaibu.flowlab.engine.runtime.ProcessInstance;
+import com.gaibu.flowlab.engine.runtime.enums.InstanceStatus;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -18,4 +21,27 @@ public interface ProcessEngine {
      */
     ProcessInstance start(String processId, Map<String, Object> variables);
 
+    /**
+     * 批量启动同一流程定义的实例，结果按输入顺序返回。
+     *
+     * @param processId 流程定义 ID
+     * @param variablesList 每个实例的启动变量
+     * @return 批量启动结果
+     */
+    default BatchStartResult startBatch(String processId, List<Map<String, Object>> variablesList) {
+        int size = variablesList.size();
+        String[] instanceIds = new String[size];
+        InstanceStatus[] statuses = new InstanceStatus[size];
+        Map<Integer, Throwable> failures = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            ProcessInstance instance = start(processId, variablesList.get(i));
+            instanceIds[i] = instance.getId();
+            statuses[i] = instance.getStatus();
+            if (instance.getFailureCause() != null) {
+                failures.put(i, instance.getFailureCause());
+            }
+        }
+        return new BatchStartResult(processId, instanceIds, statuses, failures);
+    }
+
 }
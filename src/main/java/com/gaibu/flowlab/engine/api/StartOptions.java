@@ -0,0 +1,37 @@
+package com.gaibu.flowlab.engine.api;
+
+import com.gaibu.flowlab.engine.trace.TraceSettings;
+
+/**
+ * 实例启动选项。
+ *
+ * @param ephemeral 是否为临时实例：不登记到引擎实例存储、结束后丢弃轨迹，
+ *                  调用方只能通过返回值获取结果，适用于高吞吐、无需事后查询的场景
+ * @param trace 本次启动的轨迹采集设置，null 时沿用流程定义或引擎默认设置
+ */
+public record StartOptions(boolean ephemeral, TraceSettings trace) {
+
+    /**
+     * 默认选项：登记实例，结束后按保留策略保留。
+     */
+    public static final StartOptions DEFAULT = new StartOptions(false, null);
+
+    /**
+     * 临时实例选项。
+     */
+    public static final StartOptions EPHEMERAL = new StartOptions(true, null);
+
+    public StartOptions(boolean ephemeral) {
+        this(ephemeral, null);
+    }
+
+    /**
+     * 返回指定轨迹采集设置的副本。
+     *
+     * @param trace 轨迹采集设置
+     * @return 新选项
+     */
+    public StartOptions withTrace(TraceSettings trace) {
+        return new StartOptions(ephemeral, trace);
+    }
+}
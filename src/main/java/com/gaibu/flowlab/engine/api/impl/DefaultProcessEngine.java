@@ -1,84 +1,133 @@
 package com.gaibu.flowlab.engine.api.impl;
 
+import com.gaibu.flowlab.engine.api.BatchStartResult;
 import com.gaibu.flowlab.engine.api.ProcessEngine;
+import com.gaibu.flowlab.engine.api.StartOptions;
 import com.gaibu.flowlab.engine.behavior.NodeBehaviorFactory;
 import com.gaibu.flowlab.engine.execution.ExecutionLoop;
+import com.gaibu.flowlab.engine.execution.InstanceDriver;
 import com.gaibu.flowlab.engine.execution.InstructionHandler;
 import com.gaibu.flowlab.engine.execution.TokenFactory;
+import com.gaibu.flowlab.engine.expression.ExpressionEngine;
 import com.gaibu.flowlab.engine.expression.impl.SpelExpressionEngine;
 import com.gaibu.flowlab.engine.graph.ExecutableGraph;
 import com.gaibu.flowlab.engine.graph.GraphCompiler;
 import com.gaibu.flowlab.engine.interceptor.NodeInterceptor;
 import com.gaibu.flowlab.engine.interceptor.ProcessInterceptor;
 import com.gaibu.flowlab.engine.interceptor.ProcessInterceptorChain;
+import com.gaibu.flowlab.engine.metrics.EngineMetricsSnapshot;
+import com.gaibu.flowlab.engine.metrics.MetricsInterceptor;
+import com.gaibu.flowlab.engine.metrics.ObservationNodeInterceptor;
 import com.gaibu.flowlab.engine.runtime.Execution;
 import com.gaibu.flowlab.engine.runtime.ExecutionId;
+import com.gaibu.flowlab.engine.runtime.IdAllocator;
 import com.gaibu.flowlab.engine.runtime.ProcessInstance;
 import com.gaibu.flowlab.engine.runtime.ScopeId;
 import com.gaibu.flowlab.engine.runtime.Token;
 import com.gaibu.flowlab.engine.runtime.enums.InstanceStatus;
 import com.gaibu.flowlab.engine.runtime.enums.TokenStatus;
 import com.gaibu.flowlab.engine.scheduler.InMemoryScheduler;
+import com.gaibu.flowlab.engine.scheduler.TimeoutScheduler;
+import com.gaibu.flowlab.engine.store.InstanceRetentionPolicy;
+import com.gaibu.flowlab.engine.store.InstanceStoreStats;
 import com.gaibu.flowlab.engine.store.ProcessDefinitionStore;
 import com.gaibu.flowlab.engine.store.impl.InMemoryProcessDefinitionStore;
+import com.gaibu.flowlab.engine.store.impl.InMemoryProcessInstanceStore;
 import com.gaibu.flowlab.engine.store.impl.InMemoryVariableStore;
 import com.gaibu.flowlab.engine.task.FlowTask;
+import com.gaibu.flowlab.engine.task.TaskExecutor;
 import com.gaibu.flowlab.engine.task.TaskRegistry;
+import com.gaibu.flowlab.engine.task.impl.BoundedTaskExecutor;
 import com.gaibu.flowlab.engine.task.impl.InMemoryTaskRegistry;
 import com.gaibu.flowlab.engine.task.impl.SpringBeanTaskRegistry;
+import com.gaibu.flowlab.engine.trace.AsyncTraceSink;
+import com.gaibu.flowlab.engine.trace.BoundedExecutionTraceStore;
 import com.gaibu.flowlab.engine.trace.ExecutionTraceMermaidRenderer;
 import com.gaibu.flowlab.engine.trace.ExecutionTraceStore;
-import com.gaibu.flowlab.engine.trace.InMemoryExecutionTraceStore;
+import com.gaibu.flowlab.engine.trace.TraceBudget;
+import com.gaibu.flowlab.engine.trace.TraceEvent;
 import com.gaibu.flowlab.engine.trace.TraceNodeInterceptor;
+import com.gaibu.flowlab.engine.trace.TraceSettings;
+import com.gaibu.flowlab.engine.trace.TraceSinkStats;
+import com.gaibu.flowlab.engine.trace.TraceStoreStats;
+import com.gaibu.flowlab.engine.trace.analysis.CriticalPathAnalyzer;
+import com.gaibu.flowlab.engine.trace.analysis.CriticalPathReport;
+import com.gaibu.flowlab.engine.trace.analysis.TraceTimingRenderer;
+import com.gaibu.flowlab.engine.trace.enums.TraceOverflowPolicy;
+import com.gaibu.flowlab.engine.trace.export.ChromeTraceExporter;
+import com.gaibu.flowlab.engine.trace.query.TraceIndex;
+import com.gaibu.flowlab.engine.trace.query.TraceQuery;
 import com.gaibu.flowlab.parser.model.entity.ProcessDefinition;
 import com.gaibu.flowlab.engine.store.VariableStore;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.context.ApplicationContext;
 
+import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * ProcessEngine 默认实现。
+ *
+ * <p>引擎级注册表均为并发结构，多个线程可同时调用 {@link #start(String, Map)}；
+ * 单个实例同一时刻只由一个线程推进：{@code start} 在发起线程执行至结束，
+ * {@link #startAsync(String, Map)} 在驱动执行器上执行，异步任务挂起期间不占用线程。
  */
 public class DefaultProcessEngine implements ProcessEngine {
 
+    /**
+     * 批量启动时每个工作线程每次领取的实例数。
+     */
+    private static final int BATCH_CHUNK_SIZE = 256;
+
     /**
      * 流程定义存储。
      */
     private final ProcessDefinitionStore definitionStore;
 
     /**
-     * 编译后图缓存。
+     * 编译后图缓存，同一流程 ID 并发未命中时只编译一次。
      */
-    private final Map<String, ExecutableGraph> graphByProcessId = new LinkedHashMap<>();
+    private final Map<String, ExecutableGraph> graphByProcessId = new ConcurrentHashMap<>();
 
     /**
-     * 实例运行态缓存。
+     * 实例存储：运行中实例常驻，结束的实例按保留策略保留，被移除时一并删除轨迹。
      */
-    private final Map<String, ProcessInstance> instances = new LinkedHashMap<>();
+    private final InMemoryProcessInstanceStore instanceStore;
 
     /**
-     * 实例所属流程索引。
+     * 节点拦截器列表（写时复制，执行期遍历无需加锁）。
      */
-    private final Map<String, String> processIdByInstance = new LinkedHashMap<>();
+    private final List<NodeInterceptor> nodeInterceptors = new CopyOnWriteArrayList<>();
 
     /**
-     * 节点拦截器列表。
+     * 流程拦截器列表（写时复制，执行期遍历无需加锁）。
      */
-    private final List<NodeInterceptor> nodeInterceptors = new ArrayList<>();
+    private final List<ProcessInterceptor> processInterceptors = new CopyOnWriteArrayList<>();
 
     /**
-     * 流程拦截器列表。
+     * 数值 ID 分配器，实例、Execution 与 Token 共用，按线程分块分配。
      */
-    private final List<ProcessInterceptor> processInterceptors = new ArrayList<>();
+    private final IdAllocator idAllocator = new IdAllocator();
 
     /**
-     * ID 生成器。
+     * Token 工厂，启动与执行期共享同一 ID 分配器。
      */
-    private final AtomicLong idSeq = new AtomicLong(1L);
+    private final TokenFactory tokenFactory;
 
     /**
      * 图编译器。
@@ -101,14 +150,69 @@ public class DefaultProcessEngine implements ProcessEngine {
     private final ProcessInterceptorChain processInterceptorChain;
 
     /**
-     * 执行轨迹存储。
+     * 执行轨迹存储，默认为有界内存存储。
+     */
+    private volatile ExecutionTraceStore traceStore;
+
+    /**
+     * 异步轨迹出口，引擎线程只发布事件，由后台线程写入轨迹存储。
      */
-    private final ExecutionTraceStore traceStore;
+    private final AsyncTraceSink traceSink;
 
     /**
      * 执行轨迹渲染器。
      */
-    private final ExecutionTraceMermaidRenderer traceRenderer;
+    private volatile ExecutionTraceMermaidRenderer traceRenderer;
+
+    /**
+     * 轨迹关键路径分析器。
+     */
+    private volatile CriticalPathAnalyzer traceAnalyzer;
+
+    /**
+     * Chrome Trace Event 导出器。
+     */
+    private volatile ChromeTraceExporter traceExporter;
+
+    /**
+     * 耗时分析渲染器。
+     */
+    private final TraceTimingRenderer timingRenderer = new TraceTimingRenderer();
+
+    /**
+     * 轨迹倒排索引，未开启时为 null。
+     */
+    private volatile TraceIndex traceIndex;
+
+    /**
+     * 按流程定义指定的轨迹采集设置（key=流程定义 ID）。
+     */
+    private final Map<String, TraceSettings> traceSettingsByProcessId = new ConcurrentHashMap<>();
+
+    /**
+     * 未按流程定义指定时的轨迹采集设置。
+     */
+    private volatile TraceSettings defaultTraceSettings = TraceSettings.FULL;
+
+    /**
+     * 新实例是否在 Token 完成后将其移出 Token 索引。
+     */
+    private volatile boolean evictCompletedTokens;
+
+    /**
+     * 指标采集拦截器，默认关闭。
+     */
+    private final MetricsInterceptor metricsInterceptor = new MetricsInterceptor();
+
+    /**
+     * Observation 上报拦截器，默认使用 NOOP 注册表。
+     */
+    private final ObservationNodeInterceptor observationInterceptor = new ObservationNodeInterceptor();
+
+    /**
+     * {@link #startAsync(String, Map)} 使用的驱动执行器，未设置时按需创建单线程执行器。
+     */
+    private volatile Executor loopExecutor;
 
     public DefaultProcessEngine() {
         this(new InMemoryProcessDefinitionStore(), new InMemoryTaskRegistry());
@@ -119,28 +223,110 @@ public class DefaultProcessEngine implements ProcessEngine {
     }
 
     public DefaultProcessEngine(ProcessDefinitionStore definitionStore, InMemoryTaskRegistry taskRegistry) {
+        this(definitionStore, taskRegistry, new SpelExpressionEngine());
+    }
+
+    /**
+     * 使用指定表达式引擎创建引擎，例如开启编译模式的 {@code new SpelExpressionEngine(SpelCompilerMode.MIXED)}。
+     *
+     * @param definitionStore 流程定义存储
+     * @param taskRegistry 内存任务注册表
+     * @param expressionEngine 网关条件表达式引擎
+     */
+    public DefaultProcessEngine(
+            ProcessDefinitionStore definitionStore,
+            InMemoryTaskRegistry taskRegistry,
+            ExpressionEngine expressionEngine) {
+        this(definitionStore, taskRegistry, expressionEngine, new BoundedTaskExecutor());
+    }
+
+    /**
+     * 使用指定任务执行器创建引擎，执行器承载 async/timeout 任务并提供饱和度指标。
+     *
+     * @param definitionStore 流程定义存储
+     * @param taskRegistry 内存任务注册表
+     * @param expressionEngine 网关条件表达式引擎
+     * @param taskExecutor 任务执行器
+     */
+    public DefaultProcessEngine(
+            ProcessDefinitionStore definitionStore,
+            InMemoryTaskRegistry taskRegistry,
+            ExpressionEngine expressionEngine,
+            TaskExecutor taskExecutor) {
         this.definitionStore = definitionStore;
         this.inMemoryTaskRegistry = taskRegistry;
-        this.traceStore = new InMemoryExecutionTraceStore();
+        this.traceStore = new BoundedExecutionTraceStore();
         this.traceRenderer = new ExecutionTraceMermaidRenderer(traceStore);
-        this.graphCompiler = new GraphCompiler(new NodeBehaviorFactory(new SpelExpressionEngine(), taskRegistry, this::launchSubProcess));
-        TokenFactory tokenFactory = new TokenFactory(idSeq);
+        this.traceAnalyzer = new CriticalPathAnalyzer(traceStore);
+        this.traceExporter = new ChromeTraceExporter(traceStore);
+        this.graphCompiler = new GraphCompiler(
+                new NodeBehaviorFactory(expressionEngine, taskRegistry, this::launchSubProcess, taskExecutor));
+        this.tokenFactory = new TokenFactory(idAllocator);
         this.executionLoop = new ExecutionLoop(new InstructionHandler(tokenFactory));
         this.processInterceptorChain = new ProcessInterceptorChain();
-        this.nodeInterceptors.add(new TraceNodeInterceptor(traceStore));
+        this.traceSink = new AsyncTraceSink(traceStore);
+        this.instanceStore = new InMemoryProcessInstanceStore(
+                InstanceRetentionPolicy.DEFAULT, timeoutScheduler(), evicted -> traceSink.publish(TraceEvent.removal(evicted.getId())));
+        TraceNodeInterceptor traceInterceptor = new TraceNodeInterceptor(traceSink);
+        this.nodeInterceptors.add(traceInterceptor);
+        this.processInterceptors.add(traceInterceptor);
+        this.nodeInterceptors.add(metricsInterceptor);
+        this.processInterceptors.add(metricsInterceptor);
+        this.nodeInterceptors.add(observationInterceptor);
     }
 
     public DefaultProcessEngine(ProcessDefinitionStore definitionStore, ApplicationContext applicationContext) {
+        this(definitionStore, applicationContext, new SpelExpressionEngine());
+    }
+
+    /**
+     * 使用 Spring Bean 任务映射和指定表达式引擎创建引擎。
+     *
+     * @param definitionStore 流程定义存储
+     * @param applicationContext Spring 上下文
+     * @param expressionEngine 网关条件表达式引擎
+     */
+    public DefaultProcessEngine(
+            ProcessDefinitionStore definitionStore,
+            ApplicationContext applicationContext,
+            ExpressionEngine expressionEngine) {
+        this(definitionStore, applicationContext, expressionEngine, new BoundedTaskExecutor());
+    }
+
+    /**
+     * 使用 Spring Bean 任务映射、指定表达式引擎与任务执行器创建引擎。
+     *
+     * @param definitionStore 流程定义存储
+     * @param applicationContext Spring 上下文
+     * @param expressionEngine 网关条件表达式引擎
+     * @param taskExecutor 任务执行器
+     */
+    public DefaultProcessEngine(
+            ProcessDefinitionStore definitionStore,
+            ApplicationContext applicationContext,
+            ExpressionEngine expressionEngine,
+            TaskExecutor taskExecutor) {
         this.definitionStore = definitionStore;
         this.inMemoryTaskRegistry = null;
-        this.traceStore = new InMemoryExecutionTraceStore();
+        this.traceStore = new BoundedExecutionTraceStore();
         this.traceRenderer = new ExecutionTraceMermaidRenderer(traceStore);
+        this.traceAnalyzer = new CriticalPathAnalyzer(traceStore);
+        this.traceExporter = new ChromeTraceExporter(traceStore);
         TaskRegistry springRegistry = new SpringBeanTaskRegistry(applicationContext);
-        this.graphCompiler = new GraphCompiler(new NodeBehaviorFactory(new SpelExpressionEngine(), springRegistry, this::launchSubProcess));
-        TokenFactory tokenFactory = new TokenFactory(idSeq);
+        this.graphCompiler = new GraphCompiler(
+                new NodeBehaviorFactory(expressionEngine, springRegistry, this::launchSubProcess, taskExecutor));
+        this.tokenFactory = new TokenFactory(idAllocator);
         this.executionLoop = new ExecutionLoop(new InstructionHandler(tokenFactory));
         this.processInterceptorChain = new ProcessInterceptorChain();
-        this.nodeInterceptors.add(new TraceNodeInterceptor(traceStore));
+        this.traceSink = new AsyncTraceSink(traceStore);
+        this.instanceStore = new InMemoryProcessInstanceStore(
+                InstanceRetentionPolicy.DEFAULT, timeoutScheduler(), evicted -> traceSink.publish(TraceEvent.removal(evicted.getId())));
+        TraceNodeInterceptor traceInterceptor = new TraceNodeInterceptor(traceSink);
+        this.nodeInterceptors.add(traceInterceptor);
+        this.processInterceptors.add(traceInterceptor);
+        this.nodeInterceptors.add(metricsInterceptor);
+        this.processInterceptors.add(metricsInterceptor);
+        this.nodeInterceptors.add(observationInterceptor);
     }
 
     /**
@@ -149,8 +335,10 @@ public class DefaultProcessEngine implements ProcessEngine {
      * @param definition 流程定义
      */
     public void deploy(ProcessDefinition definition) {
+        // 先编译再入库，非法定义不会残留在定义存储中。
+        ExecutableGraph graph = graphCompiler.compile(definition);
         definitionStore.put(definition);
-        graphByProcessId.put(definition.getId(), graphCompiler.compile(definition));
+        graphByProcessId.put(definition.getId(), graph);
     }
 
     /**
@@ -163,9 +351,35 @@ public class DefaultProcessEngine implements ProcessEngine {
         if (inMemoryTaskRegistry == null) {
             throw new IllegalStateException("Current engine is not using InMemoryTaskRegistry.");
         }
+        // 注册表会通知任务解析器刷新已部署节点的绑定。
         inMemoryTaskRegistry.register(nodeId, task);
     }
 
+    /**
+     * 返回 TASK 节点使用的任务执行器，可读取 {@link TaskExecutor#stats()} 饱和度指标。
+     *
+     * @return 任务执行器
+     */
+    public TaskExecutor taskExecutor() {
+        return graphCompiler.behaviorFactory().taskExecutor();
+    }
+
+    /**
+     * 返回 TASK 节点使用的超时调度服务（默认为进程级共享时间轮）。
+     *
+     * @return 超时调度服务
+     */
+    public TimeoutScheduler timeoutScheduler() {
+        return graphCompiler.behaviorFactory().timeoutScheduler();
+    }
+
+    /**
+     * 重新解析所有已绑定节点的任务，用于 Spring 容器刷新或 Bean 变更后。
+     */
+    public void refreshTaskBindings() {
+        graphCompiler.behaviorFactory().taskResolver().refreshAll();
+    }
+
     /**
      * 注册节点拦截器。
      *
@@ -184,13 +398,385 @@ public class DefaultProcessEngine implements ProcessEngine {
         processInterceptors.add(interceptor);
     }
 
+    /**
+     * 设置异步启动使用的驱动执行器。
+     *
+     * @param loopExecutor 驱动执行器
+     */
+    public void setLoopExecutor(Executor loopExecutor) {
+        this.loopExecutor = loopExecutor;
+    }
+
+    /**
+     * 设置已结束实例的保留策略（默认保留最近 100000 个），立即按新上限裁剪。
+     *
+     * @param policy 保留策略
+     */
+    public void setInstanceRetentionPolicy(InstanceRetentionPolicy policy) {
+        instanceStore.setRetentionPolicy(policy);
+    }
+
+    /**
+     * 返回实例存储占用快照：运行中与保留中的实例数、累计淘汰数与估算占用。
+     *
+     * @return 占用快照
+     */
+    public InstanceStoreStats instanceStoreStats() {
+        return instanceStore.stats();
+    }
+
+    /**
+     * 设置轨迹存储容量预算：单实例保留首尾步骤数与全局步数、字节上限。
+     *
+     * @param budget 容量预算
+     */
+    public void setTraceBudget(TraceBudget budget) {
+        boundedTraceStore().setBudget(budget);
+    }
+
+    /**
+     * 替换轨迹存储，例如 {@link com.gaibu.flowlab.engine.trace.file.MappedSegmentTraceStore} 文件存储。
+     * 已发布的事件先写入原存储，原存储中的轨迹不迁移。此后分配的实例 ID 续接存储中已有的最大实例序号；
+     * 存储的周期保留任务（如文件存储按 maxAge 删除分段）登记到引擎定时服务。
+     *
+     * @param traceStore 轨迹存储
+     */
+    public synchronized void setTraceStore(ExecutionTraceStore traceStore) {
+        traceSink.flush();
+        idAllocator.advanceTo(traceStore.maxInstanceSeq());
+        traceStore.scheduleRetention(timeoutScheduler());
+        this.traceStore = traceStore;
+        this.traceRenderer = new ExecutionTraceMermaidRenderer(traceStore);
+        this.traceAnalyzer = new CriticalPathAnalyzer(traceStore);
+        this.traceExporter = new ChromeTraceExporter(traceStore);
+        if (traceIndex != null) {
+            traceIndex.detach();
+            traceIndex = new TraceIndex(traceStore);
+        }
+        traceSink.setTraceStore(traceIndex != null ? traceIndex : traceStore);
+        if (traceIndex != null) {
+            traceIndex.backfill();
+        }
+    }
+
+    /**
+     * 开启或关闭轨迹倒排索引。开启后写入的步骤按节点、失败节点、连线建立实例位图，
+     * 供 {@link #findInstances(TraceQuery, int)} 查询。开启时按轨迹存储中现有的轨迹补建索引
+     * （文件存储需解码全部分段），此后存储按预算或保留策略淘汰的实例同步移出索引。
+     *
+     * @param enabled 是否开启
+     */
+    public synchronized void setTraceIndexEnabled(boolean enabled) {
+        if (enabled == (traceIndex != null)) {
+            return;
+        }
+        traceSink.flush();
+        if (traceIndex != null) {
+            traceIndex.detach();
+        }
+        traceIndex = enabled ? new TraceIndex(traceStore) : null;
+        traceSink.setTraceStore(enabled ? traceIndex : traceStore);
+        if (enabled) {
+            // 先切换写入目标再补建：此后写入的步骤都经过索引，等待切换前已取出的事件落盘后再取存储快照。
+            traceSink.flush();
+            traceIndex.backfill();
+        }
+    }
+
+    /**
+     * 按轨迹条件查询实例，例如 {@code TraceQuery.and(TraceQuery.visited("G1"), TraceQuery.failedAt("T3"))}。
+     *
+     * @param query 查询条件
+     * @param limit 最多返回数
+     * @return 实例 ID 列表
+     */
+    public List<String> findInstances(TraceQuery query, int limit) {
+        return requireTraceIndex().find(query, limit);
+    }
+
+    /**
+     * 统计满足轨迹条件的实例数。
+     *
+     * @param query 查询条件
+     * @return 实例数
+     */
+    public int countInstances(TraceQuery query) {
+        return requireTraceIndex().count(query);
+    }
+
+    private TraceIndex requireTraceIndex() {
+        TraceIndex index = traceIndex;
+        if (index == null) {
+            throw new IllegalStateException("Trace index is not enabled.");
+        }
+        traceSink.flush();
+        return index;
+    }
+
+    /**
+     * 设置引擎默认轨迹采集设置（初始为 FULL）。
+     *
+     * @param settings 轨迹采集设置
+     */
+    public void setDefaultTraceSettings(TraceSettings settings) {
+        this.defaultTraceSettings = settings;
+    }
+
+    /**
+     * 为指定流程定义设置轨迹采集设置，优先于引擎默认设置；单次启动可由 {@link StartOptions#trace()} 覆盖。
+     *
+     * @param processId 流程定义 ID
+     * @param settings 轨迹采集设置，null 表示恢复为引擎默认设置
+     */
+    public void setTraceSettings(String processId, TraceSettings settings) {
+        if (settings == null) {
+            traceSettingsByProcessId.remove(processId);
+        } else {
+            traceSettingsByProcessId.put(processId, settings);
+        }
+    }
+
+    /**
+     * 返回轨迹存储占用快照。
+     *
+     * @return 占用快照
+     */
+    public TraceStoreStats traceStoreStats() {
+        traceSink.flush();
+        return boundedTraceStore().stats();
+    }
+
+    private BoundedExecutionTraceStore boundedTraceStore() {
+        if (traceStore instanceof BoundedExecutionTraceStore bounded) {
+            return bounded;
+        }
+        throw new IllegalStateException("Trace store is not a BoundedExecutionTraceStore: "
+                + traceStore.getClass().getName());
+    }
+
+    /**
+     * 设置异步轨迹队列已满时的处理策略（默认 BLOCK）。
+     *
+     * @param overflowPolicy 处理策略
+     */
+    public void setTraceOverflowPolicy(TraceOverflowPolicy overflowPolicy) {
+        traceSink.setOverflowPolicy(overflowPolicy);
+    }
+
+    /**
+     * 返回异步轨迹出口指标：入队、写入、丢弃与待写入事件数。
+     *
+     * @return 指标快照
+     */
+    public TraceSinkStats traceSinkStats() {
+        return traceSink.stats();
+    }
+
+    /**
+     * 开启或关闭引擎指标采集：节点耗时分布与执行、失败、重试、超时次数，以及实例启动、完成、失败数。
+     *
+     * @param enabled 是否开启
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        metricsInterceptor.setEnabled(enabled);
+    }
+
+    /**
+     * 以 Micrometer Observation 上报节点执行，配合计时器或链路追踪处理器使用。
+     * 重复调用替换注册表而非叠加，传入 null 或 {@link ObservationRegistry#NOOP} 停止上报。
+     *
+     * @param registry 观测注册表
+     */
+    public void setObservationRegistry(ObservationRegistry registry) {
+        observationInterceptor.setRegistry(registry);
+    }
+
+    /**
+     * 返回引擎指标快照。累计指标仅在开启采集期间增长；运行中实例数、Token 数与队列深度为即时读数，
+     * 与是否开启采集无关，只统计实例存储中登记的实例（不含 EPHEMERAL 启动的临时实例），
+     * 读取时不与引擎线程同步，仅作近似值。
+     *
+     * @return 指标快照
+     */
+    public EngineMetricsSnapshot metrics() {
+        long[] tokens = new long[2];
+        instanceStore.forEachRunning(instance -> {
+            tokens[0] += instance.tokenCount(TokenStatus.ACTIVE);
+            tokens[1] += instance.tokenCount(TokenStatus.WAITING);
+        });
+        long started = metricsInterceptor.instancesStarted();
+        long completed = metricsInterceptor.instancesCompleted();
+        long failed = metricsInterceptor.instancesFailed();
+        Executor executor = loopExecutor;
+        int loopQueueDepth = executor instanceof ThreadPoolExecutor pool ? pool.getQueue().size() : -1;
+        return new EngineMetricsSnapshot(started, completed, failed, instanceStore.stats().running(),
+                tokens[0], tokens[1], loopQueueDepth, taskExecutor().stats(), metricsInterceptor.nodeSnapshots());
+    }
+
+    /**
+     * 设置新实例是否驱逐已完成 Token。开启后实例只保留在途与失败 Token，
+     * 适用于大扇出或长循环流程；Token 状态计数不受影响。
+     *
+     * @param evictCompletedTokens 是否驱逐
+     */
+    public void setEvictCompletedTokens(boolean evictCompletedTokens) {
+        this.evictCompletedTokens = evictCompletedTokens;
+    }
+
     @Override
     public ProcessInstance start(String processId, Map<String, Object> variables) {
-        InMemoryVariableStore store = new InMemoryVariableStore();
-        if (variables != null) {
-            variables.forEach(store::put);
+        return startInternal(processId, toVariableStore(variables), StartOptions.DEFAULT);
+    }
+
+    /**
+     * 按启动选项启动流程实例，例如以 {@link StartOptions#EPHEMERAL} 启动不登记的临时实例。
+     *
+     * @param processId 流程定义 ID
+     * @param variables 启动变量
+     * @param options 启动选项
+     * @return 流程实例
+     */
+    public ProcessInstance start(String processId, Map<String, Object> variables, StartOptions options) {
+        return startInternal(processId, toVariableStore(variables), options);
+    }
+
+    /**
+     * 异步启动流程实例：调用线程立即返回，实例在驱动执行器上推进；
+     * {@link com.gaibu.flowlab.engine.task.AsyncFlowTask} 挂起期间不占用驱动线程。
+     *
+     * @param processId 流程定义 ID
+     * @param variables 启动变量
+     * @return 实例结束（完成、失败或中断）时完成的 future
+     */
+    public CompletableFuture<ProcessInstance> startAsync(String processId, Map<String, Object> variables) {
+        return startAsync(processId, variables, StartOptions.DEFAULT);
+    }
+
+    /**
+     * 按启动选项异步启动流程实例。
+     *
+     * @param processId 流程定义 ID
+     * @param variables 启动变量
+     * @param options 启动选项
+     * @return 实例结束时完成的 future
+     */
+    public CompletableFuture<ProcessInstance> startAsync(
+            String processId,
+            Map<String, Object> variables,
+            StartOptions options) {
+        InstanceDriver driver = prepareInstance(processId, toVariableStore(variables), options);
+        CompletableFuture<ProcessInstance> result = new CompletableFuture<>();
+        ProcessInstance instance = driver.instance();
+        executionLoop.runAsync(driver, nodeInterceptors, resolveLoopExecutor(), () -> {
+            try {
+                finishProcess(instance);
+            } finally {
+                result.complete(instance);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public BatchStartResult startBatch(String processId, List<Map<String, Object>> variablesList) {
+        return startBatch(processId, variablesList.iterator(), 1);
+    }
+
+    /**
+     * 批量启动实例，可指定并行度。
+     *
+     * @param processId 流程定义 ID
+     * @param variablesList 每个实例的启动变量
+     * @param parallelism 并行线程数（含调用线程），1 表示在调用线程顺序执行
+     * @return 批量启动结果
+     */
+    public BatchStartResult startBatch(String processId, List<Map<String, Object>> variablesList, int parallelism) {
+        return startBatch(processId, variablesList.iterator(), parallelism);
+    }
+
+    /**
+     * 流式批量启动实例：逐块读取输入，适合输入量较大或来自游标的导入场景。
+     *
+     * @param processId 流程定义 ID
+     * @param variables 启动变量迭代器
+     * @return 批量启动结果
+     */
+    public BatchStartResult startBatch(String processId, Iterator<? extends Map<String, Object>> variables) {
+        return startBatch(processId, variables, 1);
+    }
+
+    /**
+     * 流式批量启动实例：流程图只解析一次，实例 ID 按线程分块分配，每个工作线程复用同一调度器；
+     * parallelism 大于 1 时由调用线程与 parallelism-1 个临时线程按块领取输入并行执行。
+     *
+     * @param processId 流程定义 ID
+     * @param variables 启动变量迭代器
+     * @param parallelism 并行线程数（含调用线程）
+     * @return 批量启动结果，按输入顺序排列
+     */
+    public BatchStartResult startBatch(
+            String processId,
+            Iterator<? extends Map<String, Object>> variables,
+            int parallelism) {
+        return startBatch(processId, variables, parallelism, StartOptions.DEFAULT);
+    }
+
+    /**
+     * 按启动选项流式批量启动实例；以 {@link StartOptions#EPHEMERAL} 导入时实例不进入实例存储，
+     * 结果仅保留在返回的 {@link BatchStartResult} 中。
+     *
+     * @param processId 流程定义 ID
+     * @param variables 启动变量迭代器
+     * @param parallelism 并行线程数（含调用线程）
+     * @param options 启动选项
+     * @return 批量启动结果，按输入顺序排列
+     */
+    public BatchStartResult startBatch(
+            String processId,
+            Iterator<? extends Map<String, Object>> variables,
+            int parallelism,
+            StartOptions options) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        }
+        ExecutableGraph graph = requireGraph(processId);
+        BatchCursor cursor = new BatchCursor(variables);
+        Queue<BatchChunk> chunks = new ConcurrentLinkedQueue<>();
+        Runnable worker = () -> runBatchWorker(processId, graph, cursor, chunks, options);
+        if (parallelism == 1) {
+            worker.run();
+        } else {
+            AtomicReference<RuntimeException> failure = new AtomicReference<>();
+            Runnable guarded = () -> {
+                try {
+                    worker.run();
+                } catch (RuntimeException ex) {
+                    failure.compareAndSet(null, ex);
+                    cursor.abort();
+                }
+            };
+            List<Thread> threads = new ArrayList<>(parallelism - 1);
+            for (int i = 1; i < parallelism; i++) {
+                Thread thread = new Thread(guarded, "flow-batch-" + i);
+                thread.setDaemon(true);
+                thread.start();
+                threads.add(thread);
+            }
+            guarded.run();
+            for (Thread thread : threads) {
+                try {
+                    thread.join();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    cursor.abort();
+                    throw new IllegalStateException("Batch start interrupted.", ex);
+                }
+            }
+            if (failure.get() != null) {
+                throw failure.get();
+            }
         }
-        return startInternal(processId, store);
+        return mergeChunks(processId, chunks);
     }
 
     /**
@@ -210,26 +796,116 @@ public class DefaultProcessEngine implements ProcessEngine {
      * @return Mermaid 文本
      */
     public String renderExecutionTraceMermaid(String instanceId) {
-        requireInstance(instanceId);
+        requireTrace(instanceId);
         return traceRenderer.render(instanceId);
     }
 
+    /**
+     * 分析实例执行耗时：关键路径、各分支耗时与汇聚等待。
+     *
+     * @param instanceId 实例 ID
+     * @return 分析结果
+     */
+    public CriticalPathReport analyzeExecutionTrace(String instanceId) {
+        requireTrace(instanceId);
+        return traceAnalyzer.analyze(instanceId);
+    }
+
+    /**
+     * 渲染实例关键路径图（Mermaid），节点标注耗时、连线标注排队时长。
+     *
+     * @param instanceId 实例 ID
+     * @return Mermaid 文本
+     */
+    public String renderCriticalPathMermaid(String instanceId) {
+        return timingRenderer.renderMermaid(analyzeExecutionTrace(instanceId));
+    }
+
+    /**
+     * 渲染实例耗时表格（Markdown）。
+     *
+     * @param instanceId 实例 ID
+     * @return Markdown 文本
+     */
+    public String renderExecutionTimingTable(String instanceId) {
+        return timingRenderer.renderTable(analyzeExecutionTrace(instanceId));
+    }
+
+    /**
+     * 导出实例轨迹为 Chrome Trace Event JSON，可在 Perfetto 中查看各 Token 的并行、排队与耗时。
+     *
+     * @param instanceId 实例 ID
+     * @return JSON 文本
+     */
+    public String exportChromeTrace(String instanceId) {
+        requireTrace(instanceId);
+        return traceExporter.export(instanceId);
+    }
+
+    /**
+     * 导出实例轨迹为 Chrome Trace Event JSON 到输出流，输出流不会被关闭。
+     *
+     * @param instanceId 实例 ID
+     * @param out 输出流
+     */
+    public void exportChromeTrace(String instanceId, OutputStream out) {
+        requireTrace(instanceId);
+        traceExporter.export(instanceId, out);
+    }
+
+    /**
+     * 等待已发布轨迹写完并确认轨迹存在：以轨迹存储为准，实例已被淘汰但轨迹仍在（如持久存储）时照常返回；
+     * 实例仍在但未采集轨迹时视为空轨迹。
+     */
+    private void requireTrace(String instanceId) {
+        traceSink.flush();
+        long seq = parseInstanceSeq(instanceId);
+        if (seq > 0 && instanceStore.get(seq) != null) {
+            return;
+        }
+        if (traceStore.getByInstanceId(instanceId).isEmpty()) {
+            throw new IllegalArgumentException("Execution trace not found: " + instanceId);
+        }
+    }
+
     private ProcessInstance requireInstance(String instanceId) {
-        ProcessInstance instance = instances.get(instanceId);
+        long seq = parseInstanceSeq(instanceId);
+        ProcessInstance instance = seq > 0 ? instanceStore.get(seq) : null;
         if (instance == null) {
             throw new IllegalArgumentException("Process instance not found: " + instanceId);
         }
         return instance;
     }
 
+    /**
+     * 解析 {@code PI-<seq>} 形式的实例 ID。
+     *
+     * @return 数值 ID，格式不符时返回 -1
+     */
+    private static long parseInstanceSeq(String instanceId) {
+        if (instanceId == null || !instanceId.startsWith(ProcessInstance.ID_PREFIX)) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(instanceId, ProcessInstance.ID_PREFIX.length(), instanceId.length(), 10);
+        } catch (NumberFormatException ex) {
+            return -1L;
+        }
+    }
+
+    private TraceSettings resolveTraceSettings(String processId, StartOptions options) {
+        if (options.trace() != null) {
+            return options.trace();
+        }
+        TraceSettings settings = traceSettingsByProcessId.get(processId);
+        return settings != null ? settings : defaultTraceSettings;
+    }
+
     private ExecutableGraph requireGraph(String processId) {
         ExecutableGraph graph = graphByProcessId.get(processId);
         if (graph == null) {
-            ProcessDefinition definition = definitionStore.get(processId);
-            if (definition != null) {
-                graph = graphCompiler.compile(definition);
-                graphByProcessId.put(processId, graph);
-            }
+            // computeIfAbsent 保证同一流程 ID 只有一个线程执行编译，其余线程等待并复用结果。
+            graph = graphByProcessId.computeIfAbsent(processId, this::compileFromStore);
         }
         if (graph == null) {
             throw new IllegalArgumentException("Process definition not found: " + processId);
@@ -237,38 +913,90 @@ public class DefaultProcessEngine implements ProcessEngine {
         return graph;
     }
 
-    private ProcessInstance startInternal(String processId, VariableStore variableStore) {
-        ExecutableGraph graph = requireGraph(processId);
+    private ExecutableGraph compileFromStore(String processId) {
+        ProcessDefinition definition = definitionStore.get(processId);
+        if (definition == null) {
+            return null;
+        }
+        return graphCompiler.compile(definition);
+    }
+
+    private InMemoryVariableStore toVariableStore(Map<String, Object> variables) {
+        InMemoryVariableStore store = new InMemoryVariableStore();
+        if (variables != null) {
+            variables.forEach(store::put);
+        }
+        return store;
+    }
+
+    private Executor resolveLoopExecutor() {
+        Executor executor = loopExecutor;
+        if (executor != null) {
+            return executor;
+        }
+        synchronized (this) {
+            if (loopExecutor == null) {
+                ThreadPoolExecutor defaultExecutor = new ThreadPoolExecutor(
+                        1, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                            Thread thread = new Thread(runnable, "flow-loop");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+                defaultExecutor.allowCoreThreadTimeOut(true);
+                loopExecutor = defaultExecutor;
+            }
+            return loopExecutor;
+        }
+    }
 
+    private ProcessInstance startInternal(String processId, VariableStore variableStore, StartOptions options) {
+        InstanceDriver driver = prepareInstance(processId, variableStore, options);
+        executeProcess(driver);
+        return driver.instance();
+    }
+
+    private InstanceDriver prepareInstance(String processId, VariableStore variableStore, StartOptions options) {
+        return prepareInstance(processId, requireGraph(processId), variableStore, new InMemoryScheduler(), options);
+    }
+
+    private InstanceDriver prepareInstance(
+            String processId,
+            ExecutableGraph graph,
+            VariableStore variableStore,
+            InMemoryScheduler scheduler,
+            StartOptions options) {
         ProcessInstance instance = new ProcessInstance();
-        instance.setId("PI-" + idSeq.incrementAndGet());
+        instance.setSeq(idAllocator.next());
+        instance.setProcessId(processId);
+        instance.setEphemeral(options.ephemeral());
+        instance.setTraceMode(resolveTraceSettings(processId, options).resolve());
         instance.setStatus(InstanceStatus.RUNNING);
         instance.setVariables(variableStore);
+        instance.setEvictCompletedTokens(evictCompletedTokens);
 
         Execution rootExecution = new Execution();
-        rootExecution.setId(new ExecutionId("EX-" + idSeq.incrementAndGet()));
-        rootExecution.setScopeId(new ScopeId("ROOT"));
+        rootExecution.setId(new ExecutionId(idAllocator.next()));
+        rootExecution.setScopeId(ScopeId.ROOT);
         instance.setRootExecution(rootExecution);
 
-        Token rootToken = new TokenFactory(idSeq).create(graph.startNodeId(), rootExecution);
+        Token rootToken = tokenFactory.create(graph.startNodeId(), graph.startNodeIndex(), rootExecution);
         instance.addToken(rootToken);
 
         processInterceptorChain.beforeStart(processInterceptors, instance);
 
-        InMemoryScheduler scheduler = new InMemoryScheduler();
         scheduler.schedule(rootToken);
 
-        instances.put(instance.getId(), instance);
-        processIdByInstance.put(instance.getId(), processId);
+        if (!options.ephemeral()) {
+            instanceStore.register(instance);
+        }
 
-        executeProcess(instance, graph, scheduler);
-        return instance;
+        return new InstanceDriver(instance, graph, scheduler);
     }
 
-    private void executeProcess(ProcessInstance instance, ExecutableGraph graph, InMemoryScheduler scheduler) {
+    private void executeProcess(InstanceDriver driver) {
+        ProcessInstance instance = driver.instance();
         try {
-            executionLoop.run(instance, graph, scheduler, nodeInterceptors);
-            refreshInstanceStatus(instance);
+            executionLoop.runToCompletion(driver, nodeInterceptors);
         } catch (Exception ex) {
             instance.setStatus(InstanceStatus.FAILED);
             instance.setFailureCause(ex);
@@ -278,24 +1006,36 @@ public class DefaultProcessEngine implements ProcessEngine {
                 instance.getVariables().put("process.error.type", ex.getClass().getName());
             }
         }
+        finishProcess(instance);
+    }
 
-        if (instance.getStatus() == InstanceStatus.FAILED) {
-            Throwable ex = instance.getFailureCause();
-            if (ex == null) {
-                ex = new IllegalStateException("Process finished with FAILED status, instanceId=" + instance.getId());
+    private void finishProcess(ProcessInstance instance) {
+        refreshInstanceStatus(instance);
+        try {
+            if (instance.getStatus() == InstanceStatus.FAILED) {
+                Throwable ex = instance.getFailureCause();
+                if (ex == null) {
+                    ex = new IllegalStateException("Process finished with FAILED status, instanceId=" + instance.getId());
+                }
+                processInterceptorChain.onFailed(processInterceptors, instance, ex);
+                return;
+            }
+            processInterceptorChain.onCompleted(processInterceptors, instance);
+        } finally {
+            // 结束回调中仍可按 ID 查询实例，之后才交由保留策略管理。
+            if (instance.isEphemeral()) {
+                traceSink.publish(TraceEvent.removal(instance.getId()));
+            } else {
+                instanceStore.terminate(instance);
             }
-            processInterceptorChain.onFailed(processInterceptors, instance, ex);
-            return;
         }
-        processInterceptorChain.onCompleted(processInterceptors, instance);
     }
 
     private void refreshInstanceStatus(ProcessInstance instance) {
         if (instance.getStatus() == InstanceStatus.INTERRUPTED) {
             return;
         }
-        boolean hasFailed = instance.getTokensById().values().stream().anyMatch(token -> token.getStatus() == TokenStatus.FAILED);
-        if (hasFailed || instance.getStatus() == InstanceStatus.FAILED) {
+        if (instance.tokenCount(TokenStatus.FAILED) > 0 || instance.getStatus() == InstanceStatus.FAILED) {
             instance.setStatus(InstanceStatus.FAILED);
             return;
         }
@@ -306,12 +1046,107 @@ public class DefaultProcessEngine implements ProcessEngine {
         instance.setStatus(InstanceStatus.COMPLETED);
     }
 
-    private void launchSubProcess(String subProcessId, VariableStore sharedVariables) {
-        ProcessInstance childInstance = startInternal(subProcessId, sharedVariables);
+    private void runBatchWorker(
+            String processId,
+            ExecutableGraph graph,
+            BatchCursor cursor,
+            Queue<BatchChunk> chunks,
+            StartOptions options) {
+        // 同步执行结束时调度队列已排空，同一线程内的实例可复用调度器。
+        InMemoryScheduler scheduler = new InMemoryScheduler();
+        List<Map<String, Object>> inputs = new ArrayList<>(BATCH_CHUNK_SIZE);
+        int start;
+        while ((start = cursor.claim(inputs)) >= 0) {
+            int size = inputs.size();
+            String[] instanceIds = new String[size];
+            InstanceStatus[] statuses = new InstanceStatus[size];
+            Map<Integer, Throwable> failures = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                scheduler.clear();
+                InstanceDriver driver = prepareInstance(processId, graph, toVariableStore(inputs.get(i)), scheduler, options);
+                executeProcess(driver);
+                ProcessInstance instance = driver.instance();
+                instanceIds[i] = instance.getId();
+                statuses[i] = instance.getStatus();
+                if (instance.getFailureCause() != null) {
+                    failures.put(start + i, instance.getFailureCause());
+                }
+            }
+            chunks.add(new BatchChunk(start, instanceIds, statuses, failures));
+            inputs.clear();
+        }
+    }
+
+    private BatchStartResult mergeChunks(String processId, Queue<BatchChunk> chunks) {
+        List<BatchChunk> ordered = new ArrayList<>(chunks);
+        ordered.sort(Comparator.comparingInt(BatchChunk::start));
+        int total = 0;
+        for (BatchChunk chunk : ordered) {
+            total += chunk.instanceIds().length;
+        }
+        String[] instanceIds = new String[total];
+        InstanceStatus[] statuses = new InstanceStatus[total];
+        Map<Integer, Throwable> failures = new HashMap<>();
+        for (BatchChunk chunk : ordered) {
+            System.arraycopy(chunk.instanceIds(), 0, instanceIds, chunk.start(), chunk.instanceIds().length);
+            System.arraycopy(chunk.statuses(), 0, statuses, chunk.start(), chunk.statuses().length);
+            failures.putAll(chunk.failures());
+        }
+        return new BatchStartResult(processId, instanceIds, statuses, failures);
+    }
+
+    private void launchSubProcess(String subProcessId, VariableStore sharedVariables, ProcessInstance parent) {
+        // 子流程沿用父实例的登记方式；轨迹设置仍按子流程定义解析，父实例的采样结果不传递。
+        StartOptions options = parent.isEphemeral() ? StartOptions.EPHEMERAL : StartOptions.DEFAULT;
+        ProcessInstance childInstance = startInternal(subProcessId, sharedVariables, options);
         InstanceStatus status = childInstance.getStatus();
         if (status != InstanceStatus.COMPLETED) {
             throw new IllegalStateException("Sub process did not complete successfully, processId="
                     + subProcessId + ", status=" + status);
         }
     }
+
+    /**
+     * 批量输入游标，多个工作线程按块互斥领取。
+     */
+    private static final class BatchCursor {
+
+        private final Iterator<? extends Map<String, Object>> source;
+
+        private int next;
+
+        private boolean aborted;
+
+        BatchCursor(Iterator<? extends Map<String, Object>> source) {
+            this.source = source;
+        }
+
+        /**
+         * 领取下一块输入。
+         *
+         * @param sink 接收输入的列表
+         * @return 该块首个元素的输入下标，输入耗尽或已中止时返回 -1
+         */
+        synchronized int claim(List<Map<String, Object>> sink) {
+            if (aborted) {
+                return -1;
+            }
+            int start = next;
+            while (sink.size() < BATCH_CHUNK_SIZE && source.hasNext()) {
+                sink.add(source.next());
+            }
+            next += sink.size();
+            return sink.isEmpty() ? -1 : start;
+        }
+
+        synchronized void abort() {
+            aborted = true;
+        }
+    }
+
+    /**
+     * 一块输入的执行结果。
+     */
+    private record BatchChunk(int start, String[] instanceIds, InstanceStatus[] statuses, Map<Integer, Throwable> failures) {
+    }
 }
@@ -1,7 +1,9 @@
 package com.gaibu.flowlab.engine.behavior;
 
+import com.gaibu.flowlab.engine.expression.CompiledExpression;
 import com.gaibu.flowlab.engine.expression.ExpressionEngine;
 import com.gaibu.flowlab.engine.execution.ExecutionContext;
+import com.gaibu.flowlab.engine.graph.ExecutableEdge;
 
 /**
  * 网关行为公共能力基类。
@@ -18,13 +20,17 @@ public abstract class AbstractGatewayBehavior implements NodeBehavior {
     }
 
     /**
-     * 计算条件表达式结果。
+     * 计算连线条件结果，优先使用部署期预编译的表达式。
      *
-     * @param expression 条件表达式
+     * @param edge 条件连线
      * @param context 执行上下文
      * @return 命中结果
      */
-    protected boolean evaluateCondition(String expression, ExecutionContext context) {
-        return expressionEngine.evaluateBoolean(expression, context.variables().snapshot());
+    protected boolean evaluateCondition(ExecutableEdge edge, ExecutionContext context) {
+        CompiledExpression compiled = edge.getCompiledExpression();
+        if (compiled != null) {
+            return compiled.evaluateBoolean(context.variables().snapshot());
+        }
+        return expressionEngine.evaluateBoolean(edge.getConditionExpression(), context.variables().snapshot());
     }
 }
@@ -4,8 +4,10 @@ import com.gaibu.flowlab.engine.expression.ExpressionEngine;
 import com.gaibu.flowlab.engine.execution.ExecutionContext;
 import com.gaibu.flowlab.engine.execution.instruction.FailInstruction;
 import com.gaibu.flowlab.engine.execution.instruction.Instruction;
-import com.gaibu.flowlab.engine.execution.instruction.MoveInstruction;
 import com.gaibu.flowlab.engine.graph.ExecutableEdge;
+import com.gaibu.flowlab.engine.graph.RoutingPlan;
+
+import java.util.List;
 
 /**
  * 排他网关行为。
@@ -18,18 +20,19 @@ public class ExclusiveGatewayBehavior extends AbstractGatewayBehavior {
 
     @Override
     public Instruction handle(ExecutionContext context) {
-        ExecutableEdge defaultEdge = null;
-        for (ExecutableEdge edge : context.outgoing()) {
+        RoutingPlan plan = context.node().getRoutingPlan();
+        List<ExecutableEdge> outgoing = context.outgoing();
+        for (int i = 0; i < outgoing.size(); i++) {
+            ExecutableEdge edge = outgoing.get(i);
             if (edge.isDefaultEdge()) {
-                defaultEdge = edge;
                 continue;
             }
-            if (evaluateCondition(edge.getConditionExpression(), context)) {
-                return new MoveInstruction(edge.getTarget());
+            if (evaluateCondition(edge, context)) {
+                return plan.getMoves().get(i);
             }
         }
-        if (defaultEdge != null) {
-            return new MoveInstruction(defaultEdge.getTarget());
+        if (plan.getDefaultMove() != null) {
+            return plan.getDefaultMove();
         }
         return new FailInstruction("No matching route for exclusive gateway: " + context.node().getId().value());
     }
@@ -3,11 +3,9 @@ package com.gaibu.flowlab.engine.behavior;
 import com.gaibu.flowlab.engine.expression.ExpressionEngine;
 import com.gaibu.flowlab.engine.execution.ExecutionContext;
 import com.gaibu.flowlab.engine.execution.instruction.FailInstruction;
-import com.gaibu.flowlab.engine.execution.instruction.ForkInstruction;
 import com.gaibu.flowlab.engine.execution.instruction.Instruction;
-import com.gaibu.flowlab.engine.execution.instruction.JoinInstruction;
-import com.gaibu.flowlab.engine.execution.instruction.MoveInstruction;
 import com.gaibu.flowlab.engine.graph.ExecutableEdge;
+import com.gaibu.flowlab.engine.graph.RoutingPlan;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -23,30 +21,38 @@ public class InclusiveGatewayBehavior extends AbstractGatewayBehavior {
 
     @Override
     public Instruction handle(ExecutionContext context) {
-        if (context.incoming().size() > 1) {
-            return new JoinInstruction(context.node().getId());
+        RoutingPlan plan = context.node().getRoutingPlan();
+        if (plan.isJoin()) {
+            return plan.getJoinInstruction();
         }
 
-        List<ExecutableEdge> selected = new ArrayList<>();
-        ExecutableEdge defaultEdge = null;
-        for (ExecutableEdge edge : context.outgoing()) {
-            if (edge.isDefaultEdge()) {
-                defaultEdge = edge;
+        List<ExecutableEdge> outgoing = context.outgoing();
+        List<ExecutableEdge> selected = null;
+        int firstSelected = -1;
+        for (int i = 0; i < outgoing.size(); i++) {
+            ExecutableEdge edge = outgoing.get(i);
+            if (edge.isDefaultEdge() || !evaluateCondition(edge, context)) {
                 continue;
             }
-            if (evaluateCondition(edge.getConditionExpression(), context)) {
-                selected.add(edge);
+            if (firstSelected < 0) {
+                firstSelected = i;
+                continue;
+            }
+            if (selected == null) {
+                selected = new ArrayList<>();
+                selected.add(outgoing.get(firstSelected));
             }
+            selected.add(edge);
         }
 
-        if (selected.isEmpty() && defaultEdge != null) {
-            return new MoveInstruction(defaultEdge.getTarget());
+        if (selected != null) {
+            return RoutingPlan.fork(selected);
         }
-        if (selected.size() == 1) {
-            return new MoveInstruction(selected.get(0).getTarget());
+        if (firstSelected >= 0) {
+            return plan.getMoves().get(firstSelected);
         }
-        if (!selected.isEmpty()) {
-            return new ForkInstruction(selected.stream().map(ExecutableEdge::getTarget).toList());
+        if (plan.getDefaultMove() != null) {
+            return plan.getDefaultMove();
         }
         return new FailInstruction("No matching route for inclusive gateway: " + context.node().getId().value());
     }
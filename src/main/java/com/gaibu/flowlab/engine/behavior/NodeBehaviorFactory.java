@@ -2,7 +2,12 @@ package com.gaibu.flowlab.engine.behavior;
 
 import com.gaibu.flowlab.engine.expression.ExpressionEngine;
 import com.gaibu.flowlab.engine.expression.impl.SpelExpressionEngine;
+import com.gaibu.flowlab.engine.scheduler.HashedWheelTimer;
+import com.gaibu.flowlab.engine.scheduler.TimeoutScheduler;
 import com.gaibu.flowlab.engine.task.TaskRegistry;
+import com.gaibu.flowlab.engine.task.TaskExecutor;
+import com.gaibu.flowlab.engine.task.TaskResolver;
+import com.gaibu.flowlab.engine.task.impl.BoundedTaskExecutor;
 import com.gaibu.flowlab.engine.task.impl.InMemoryTaskRegistry;
 import com.gaibu.flowlab.parser.model.entity.Node;
 import com.gaibu.flowlab.parser.model.enums.GatewayType;
@@ -18,19 +23,27 @@ public class NodeBehaviorFactory {
      */
     private final ExpressionEngine expressionEngine;
     /**
-     * 任务注册表。
+     * 任务解析器，部署期为 TASK 节点绑定任务实现。
      */
-    private final TaskRegistry taskRegistry;
+    private final TaskResolver taskResolver;
     /**
      * 子流程启动器。
      */
     private final SubProcessLauncher subProcessLauncher;
+    /**
+     * TASK 节点 async/timeout 执行器。
+     */
+    private final TaskExecutor taskExecutor;
+    /**
+     * TASK 节点超时调度服务。
+     */
+    private final TimeoutScheduler timeoutScheduler;
 
     public NodeBehaviorFactory() {
         this(
                 new SpelExpressionEngine(),
                 new InMemoryTaskRegistry(),
-                (processId, variables) -> {
+                (processId, variables, parent) -> {
                     throw new IllegalStateException("Sub process is not enabled in current engine context: " + processId);
                 }
         );
@@ -40,7 +53,7 @@ public class NodeBehaviorFactory {
         this(
                 expressionEngine,
                 new InMemoryTaskRegistry(),
-                (processId, variables) -> {
+                (processId, variables, parent) -> {
                     throw new IllegalStateException("Sub process is not enabled in current engine context: " + processId);
                 }
         );
@@ -50,7 +63,7 @@ public class NodeBehaviorFactory {
         this(
                 expressionEngine,
                 taskRegistry,
-                (processId, variables) -> {
+                (processId, variables, parent) -> {
                     throw new IllegalStateException("Sub process is not enabled in current engine context: " + processId);
                 }
         );
@@ -60,9 +73,64 @@ public class NodeBehaviorFactory {
             ExpressionEngine expressionEngine,
             TaskRegistry taskRegistry,
             SubProcessLauncher subProcessLauncher) {
+        this(expressionEngine, taskRegistry, subProcessLauncher, new BoundedTaskExecutor());
+    }
+
+    public NodeBehaviorFactory(
+            ExpressionEngine expressionEngine,
+            TaskRegistry taskRegistry,
+            SubProcessLauncher subProcessLauncher,
+            TaskExecutor taskExecutor) {
+        this(expressionEngine, taskRegistry, subProcessLauncher, taskExecutor, HashedWheelTimer.shared());
+    }
+
+    public NodeBehaviorFactory(
+            ExpressionEngine expressionEngine,
+            TaskRegistry taskRegistry,
+            SubProcessLauncher subProcessLauncher,
+            TaskExecutor taskExecutor,
+            TimeoutScheduler timeoutScheduler) {
         this.expressionEngine = expressionEngine;
-        this.taskRegistry = taskRegistry;
+        this.taskResolver = new TaskResolver(taskRegistry);
         this.subProcessLauncher = subProcessLauncher;
+        this.taskExecutor = taskExecutor;
+        this.timeoutScheduler = timeoutScheduler;
+    }
+
+    /**
+     * 返回网关条件所用的表达式引擎，供图编译期预编译连线条件。
+     *
+     * @return 表达式引擎
+     */
+    public ExpressionEngine expressionEngine() {
+        return expressionEngine;
+    }
+
+    /**
+     * 返回 TASK 节点使用的任务执行器。
+     *
+     * @return 任务执行器
+     */
+    public TaskExecutor taskExecutor() {
+        return taskExecutor;
+    }
+
+    /**
+     * 返回 TASK 节点使用的超时调度服务。
+     *
+     * @return 超时调度服务
+     */
+    public TimeoutScheduler timeoutScheduler() {
+        return timeoutScheduler;
+    }
+
+    /**
+     * 返回任务解析器，用于任务注册变更后刷新绑定。
+     *
+     * @return 任务解析器
+     */
+    public TaskResolver taskResolver() {
+        return taskResolver;
     }
 
     /**
@@ -73,7 +141,11 @@ public class NodeBehaviorFactory {
      */
     public NodeBehavior create(Node node) {
         if (node.getType() == NodeType.TASK) {
-            return new TaskNodeBehavior(taskRegistry);
+            return new TaskNodeBehavior(
+                    taskResolver.bind(node.getId()),
+                    TaskNodeConfig.parse(node.getId(), node.getMetadata()),
+                    taskExecutor,
+                    timeoutScheduler);
         }
         if (node.getType() == NodeType.SUB_PROCESS) {
             return new SubProcessNodeBehavior(subProcessLauncher);
@@ -1,5 +1,6 @@
 package com.gaibu.flowlab.engine.behavior;
 
+import com.gaibu.flowlab.engine.runtime.ProcessInstance;
 import com.gaibu.flowlab.engine.store.VariableStore;
 
 /**
@@ -13,6 +14,7 @@ public interface SubProcessLauncher {
      *
      * @param processId 子流程定义 ID
      * @param variables 子流程变量存储（默认复用父流程上下文）
+     * @param parent 父流程实例，子流程沿用其启动方式（临时实例的子流程同样不登记）
      */
-    void launch(String processId, VariableStore variables);
+    void launch(String processId, VariableStore variables, ProcessInstance parent);
 }
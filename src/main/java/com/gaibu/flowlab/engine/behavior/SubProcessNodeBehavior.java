@@ -2,6 +2,7 @@ package com.gaibu.flowlab.engine.behavior;
 
 import com.gaibu.flowlab.engine.execution.ExecutionContext;
 import com.gaibu.flowlab.engine.execution.instruction.Instruction;
+import com.gaibu.flowlab.engine.jfr.SubProcessEvent;
 
 /**
  * SUB_PROCESS 节点行为，执行子流程并在完成后继续父流程。
@@ -33,7 +34,16 @@ public class SubProcessNodeBehavior implements NodeBehavior {
         if (subProcessId.isBlank()) {
             throw new IllegalStateException("Sub process id is blank at node: " + nodeId);
         }
-        subProcessLauncher.launch(subProcessId, context.variables());
+        SubProcessEvent event = SubProcessEvent.beginIfEnabled();
+        boolean completed = false;
+        try {
+            subProcessLauncher.launch(subProcessId, context.variables(), context.instance());
+            completed = true;
+        } finally {
+            if (event != null) {
+                event.commit(context, subProcessId, completed);
+            }
+        }
 
         return genericNodeBehavior.handle(context);
     }
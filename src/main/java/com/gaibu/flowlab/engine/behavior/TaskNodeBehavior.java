@@ -1,37 +1,46 @@
 package com.gaibu.flowlab.engine.behavior;
 
+import com.gaibu.flowlab.engine.exception.TaskTimeoutException;
 import com.gaibu.flowlab.engine.execution.ExecutionContext;
 import com.gaibu.flowlab.engine.execution.instruction.CompleteInstruction;
 import com.gaibu.flowlab.engine.execution.instruction.Instruction;
+import com.gaibu.flowlab.engine.execution.instruction.MoveInstruction;
+import com.gaibu.flowlab.engine.execution.instruction.RetryInstruction;
+import com.gaibu.flowlab.engine.execution.instruction.WaitInstruction;
+import com.gaibu.flowlab.engine.jfr.TaskRetryEvent;
+import com.gaibu.flowlab.engine.jfr.TaskTimeoutEvent;
 import com.gaibu.flowlab.engine.runtime.enums.InstanceStatus;
+import com.gaibu.flowlab.engine.scheduler.HashedWheelTimer;
+import com.gaibu.flowlab.engine.scheduler.Timeout;
+import com.gaibu.flowlab.engine.scheduler.TimeoutScheduler;
+import com.gaibu.flowlab.engine.task.AsyncFlowTask;
 import com.gaibu.flowlab.engine.task.FlowTask;
-import com.gaibu.flowlab.engine.task.TaskRegistry;
+import com.gaibu.flowlab.engine.task.TaskBinding;
+import com.gaibu.flowlab.engine.task.TaskExecutor;
 import com.gaibu.flowlab.engine.task.context.DefaultTaskContext;
 
-import java.time.Duration;
-import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Future;
-import java.util.concurrent.SynchronousQueue;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 /**
  * TASK 节点行为，按 nodeId 执行对应任务。
+ * <p>
+ * 普通同步任务在引擎线程内执行；异步任务、async=true 或配置了 timeout 的任务以
+ * {@link WaitInstruction} 挂起 Token，超时由时间轮计时，不占用引擎线程。失败重试同样以延迟重新执行
+ * Token 的方式调度，重试计数记录在 Token 上。
  */
 public class TaskNodeBehavior implements NodeBehavior {
-    private static final Pattern SIMPLE_TIMEOUT_PATTERN = Pattern.compile("^(\\d+)(ms|s)$", Pattern.CASE_INSENSITIVE);
+    /**
+     * 部署期绑定的任务。
+     */
+    private final TaskBinding binding;
 
     /**
-     * 任务注册表。
+     * 部署期解析的任务执行配置。
      */
-    private final TaskRegistry taskRegistry;
+    private final TaskNodeConfig config;
 
     /**
      * 任务执行完成后的通用路由逻辑。
@@ -39,143 +48,172 @@ public class TaskNodeBehavior implements NodeBehavior {
     private final GenericNodeBehavior genericNodeBehavior = new GenericNodeBehavior();
 
     /**
-     * 任务异步执行线程池。
+     * 任务执行器（async/timeout 场景使用），由引擎注入。
      */
-    private static final ExecutorService ASYNC_POOL = new ThreadPoolExecutor(
-            0,
-            64,
-            60L,
-            TimeUnit.SECONDS,
-            new SynchronousQueue<>(),
-            new TaskThreadFactory()
-    );
-
-    public TaskNodeBehavior(TaskRegistry taskRegistry) {
-        this.taskRegistry = taskRegistry;
+    private final TaskExecutor taskExecutor;
+
+    /**
+     * 超时调度服务，由引擎共享。
+     */
+    private final TimeoutScheduler timeoutScheduler;
+
+    public TaskNodeBehavior(TaskBinding binding, TaskExecutor taskExecutor) {
+        this(binding, TaskNodeConfig.DEFAULT, taskExecutor);
+    }
+
+    public TaskNodeBehavior(TaskBinding binding, TaskNodeConfig config, TaskExecutor taskExecutor) {
+        this(binding, config, taskExecutor, HashedWheelTimer.shared());
+    }
+
+    public TaskNodeBehavior(
+            TaskBinding binding,
+            TaskNodeConfig config,
+            TaskExecutor taskExecutor,
+            TimeoutScheduler timeoutScheduler) {
+        this.binding = binding;
+        this.config = config;
+        this.taskExecutor = taskExecutor;
+        this.timeoutScheduler = timeoutScheduler;
+    }
+
+    /**
+     * 返回任务执行配置。
+     *
+     * @return 配置对象
+     */
+    public TaskNodeConfig config() {
+        return config;
     }
 
     @Override
     public Instruction handle(ExecutionContext context) {
-        String nodeId = context.node().getId().value();
-        FlowTask task = taskRegistry.getTask(nodeId);
+        FlowTask task = binding.task();
         if (task == null) {
             // 未注册任务时按空任务处理，保持流程可继续流转。
             return genericNodeBehavior.handle(context);
         }
 
+        int attempt = context.token().getAttempt() + 1;
         DefaultTaskContext taskContext = new DefaultTaskContext(context.instance(), context.token());
-        int retry = parseRetry(context);
-        boolean async = parseAsync(context);
-        Duration timeout = parseTimeout(context);
-
-        int maxAttempts = retry + 1;
-        int currentAttempt = 0;
-        while (currentAttempt < maxAttempts) {
-            currentAttempt++;
-            try {
-                executeTask(task, taskContext, async, timeout);
-                break;
-            } catch (Exception ex) {
-                if (currentAttempt >= maxAttempts) {
-                    throw new IllegalStateException("FlowTask execute failed for nodeId: " + nodeId
-                            + ", attempts=" + currentAttempt, ex);
-                }
-            }
+        if (task instanceof AsyncFlowTask || config.async() || config.timeout() != null) {
+            // 完成回调在本步骤之后执行，需持有独立上下文。
+            ExecutionContext detached = context.detach();
+            return new WaitInstruction(attempt(task, taskContext, detached, attempt)
+                    .handle((ignored, error) -> error == null ? afterTask(detached) : onFailure(detached, error, attempt)));
+        }
+
+        try {
+            task.execute(taskContext);
+        } catch (Exception ex) {
+            return onFailure(context, ex, attempt);
         }
+        return afterTask(context);
+    }
 
+    private Instruction afterTask(ExecutionContext context) {
+        context.token().setAttempt(0);
         if (context.instance().getStatus() == InstanceStatus.INTERRUPTED) {
             return new CompleteInstruction();
         }
-
         return genericNodeBehavior.handle(context);
     }
 
-    private void executeTask(
-            FlowTask task,
-            DefaultTaskContext context,
-            boolean async,
-            Duration timeout) throws Exception {
-        if (!async && timeout == null) {
-            task.execute(context);
-            return;
+    /**
+     * 单次执行失败：仍有重试次数时延迟重新执行 Token；重试耗尽后超时且存在 timeout 出边时沿该边流转，
+     * 否则按失败上抛。
+     */
+    private Instruction onFailure(ExecutionContext context, Throwable error, int attempt) {
+        Throwable cause = unwrap(error);
+        if (attempt < config.maxAttempts()) {
+            context.token().setAttempt(attempt);
+            long delayNanos = config.retryDelayNanos(attempt);
+            TaskRetryEvent.emit(context, attempt, delayNanos);
+            return retry(context, cause, delayNanos);
         }
-
-        Callable<Void> callable = () -> {
-            task.execute(context);
-            return null;
-        };
-        Future<Void> future = ASYNC_POOL.submit(callable);
-        try {
-            if (timeout == null) {
-                future.get();
-            } else {
-                future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
-            }
-        } catch (TimeoutException ex) {
-            future.cancel(true);
-            throw new IllegalStateException("Task execute timeout: " + timeout, ex);
-        } catch (InterruptedException ex) {
-            Thread.currentThread().interrupt();
-            throw new IllegalStateException("Task execution interrupted.", ex);
-        } catch (ExecutionException ex) {
-            Throwable cause = ex.getCause();
-            if (cause instanceof Exception e) {
-                throw e;
+        context.token().setAttempt(0);
+        MoveInstruction timeoutMove = context.node().getRoutingPlan().getTimeoutMove();
+        if (timeoutMove != null && cause instanceof TaskTimeoutException) {
+            if (context.instance().getStatus() == InstanceStatus.INTERRUPTED) {
+                return new CompleteInstruction();
             }
-            throw new IllegalStateException("Task execution failed.", cause);
+            return timeoutMove;
         }
+        throw new IllegalStateException("FlowTask execute failed for nodeId: " + context.node().getId().value()
+                + ", attempts=" + attempt, cause);
     }
 
-    private int parseRetry(ExecutionContext context) {
-        Object retry = context.node().getMetadata().get("retry");
-        if (retry == null) {
-            return 0;
-        }
-        if (retry instanceof Number number) {
-            return Math.max(0, number.intValue());
+    /**
+     * 重试作为 Token 的延迟重新执行：本次尝试以失败结束，等待期间 Token 以 WAITING 挂起，
+     * 由时间轮到期后投递回本节点，引擎线程可继续推进其他 Token 与实例。
+     */
+    private Instruction retry(ExecutionContext context, Throwable cause, long delayNanos) {
+        MoveInstruction retryMove = context.node().getRoutingPlan().getRetryMove();
+        if (delayNanos <= 0) {
+            return new RetryInstruction(cause, retryMove, null);
         }
-        return Math.max(0, Integer.parseInt(Objects.toString(retry, "0")));
+        CompletableFuture<Void> delayed = new CompletableFuture<>();
+        timeoutScheduler.schedule(() -> delayed.complete(null), delayNanos, TimeUnit.NANOSECONDS);
+        return new RetryInstruction(cause, retryMove, delayed);
     }
 
-    private boolean parseAsync(ExecutionContext context) {
-        Object async = context.node().getMetadata().get("async");
-        if (async == null) {
-            return false;
+    /**
+     * 执行单次尝试。配置 timeout 时在时间轮上登记截止时间，到期即以
+     * {@link TaskTimeoutException} 结束本次尝试并取消任务；任务先完成则撤销截止时间。
+     */
+    private CompletableFuture<Void> attempt(
+            FlowTask task,
+            DefaultTaskContext context,
+            ExecutionContext executionContext,
+            int attempt) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Future<?> source;
+        if (task instanceof AsyncFlowTask asyncTask) {
+            CompletableFuture<Void> started;
+            try {
+                started = asyncTask.executeAsync(context).toCompletableFuture();
+            } catch (Exception ex) {
+                started = CompletableFuture.failedFuture(ex);
+            }
+            source = started;
+            started.whenComplete((ignored, error) -> complete(result, error));
+        } else {
+            try {
+                source = taskExecutor.submit(() -> {
+                    try {
+                        task.execute(context);
+                        result.complete(null);
+                    } catch (Throwable ex) {
+                        result.completeExceptionally(ex);
+                    }
+                    return null;
+                });
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+                return result;
+            }
         }
-        if (async instanceof Boolean bool) {
-            return bool;
+        if (config.timeout() != null && !result.isDone()) {
+            String nodeId = executionContext.node().getId().value();
+            Timeout timeout = timeoutScheduler.schedule(() -> {
+                if (result.completeExceptionally(new TaskTimeoutException(nodeId, config.timeout()))) {
+                    TaskTimeoutEvent.emit(executionContext, attempt, config.timeout().toNanos());
+                    source.cancel(true);
+                }
+            }, config.timeout().toNanos(), TimeUnit.NANOSECONDS);
+            result.whenComplete((ignored, error) -> timeout.cancel());
         }
-        return Boolean.parseBoolean(Objects.toString(async, "false"));
+        return result;
     }
 
-    private Duration parseTimeout(ExecutionContext context) {
-        Object timeout = context.node().getMetadata().get("timeout");
-        if (timeout == null) {
-            return null;
+    private static void complete(CompletableFuture<Void> result, Throwable error) {
+        if (error == null) {
+            result.complete(null);
+        } else {
+            result.completeExceptionally(unwrap(error));
         }
-        String raw = Objects.toString(timeout, "").trim();
-        Matcher matcher = SIMPLE_TIMEOUT_PATTERN.matcher(raw);
-        if (!matcher.matches()) {
-            throw new IllegalArgumentException("Invalid timeout format: " + raw + ", expected like 50ms or 5s");
-        }
-
-        long value = Long.parseLong(matcher.group(1));
-        String unit = matcher.group(2).toLowerCase();
-        if ("ms".equals(unit)) {
-            return Duration.ofMillis(value);
-        }
-        return Duration.ofSeconds(value);
     }
 
-    private static class TaskThreadFactory implements ThreadFactory {
-
-        private int sequence = 0;
-
-        @Override
-        public synchronized Thread newThread(Runnable runnable) {
-            Thread thread = new Thread(runnable, "flow-task-" + (++sequence));
-            thread.setDaemon(true);
-            return thread;
-        }
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
     }
 }
@@ -0,0 +1,230 @@
+package com.gaibu.flowlab.engine.behavior;
+
+import com.gaibu.flowlab.parser.exception.DefinitionException;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * TASK 节点执行配置，部署期由节点元数据解析得到，运行期只读。
+ *
+ * @param retry 失败重试次数（不含首次执行）
+ * @param backoff 首次重试前的等待时间，之后每次翻倍
+ * @param maxBackoff 重试等待时间上限，为 null 表示不封顶
+ * @param jitter 随机抖动比例（0~1），实际等待在 [delay*(1-jitter), delay] 内均匀分布
+ * @param async 是否在任务线程池执行
+ * @param timeout 单次执行超时时间，为 null 表示不限制
+ * @param extras 其余未识别的元数据（只读），供后续扩展键使用
+ */
+public record TaskNodeConfig(
+        int retry,
+        Duration backoff,
+        Duration maxBackoff,
+        double jitter,
+        boolean async,
+        Duration timeout,
+        Map<String, Object> extras) {
+
+    /**
+     * 默认配置：不重试、同步执行、不限时。
+     */
+    public static final TaskNodeConfig DEFAULT = new TaskNodeConfig(0, Duration.ZERO, null, 0D, false, null, Map.of());
+
+    /**
+     * 重试次数元数据键。
+     */
+    public static final String RETRY_KEY = "retry";
+
+    /**
+     * 重试间隔元数据键。
+     */
+    public static final String BACKOFF_KEY = "backoff";
+
+    /**
+     * 重试间隔上限元数据键。
+     */
+    public static final String MAX_BACKOFF_KEY = "maxBackoff";
+
+    /**
+     * 重试间隔抖动比例元数据键。
+     */
+    public static final String JITTER_KEY = "jitter";
+
+    /**
+     * 异步执行元数据键。
+     */
+    public static final String ASYNC_KEY = "async";
+
+    /**
+     * 超时时间元数据键。
+     */
+    public static final String TIMEOUT_KEY = "timeout";
+
+    private static final Set<String> KNOWN_KEYS = Set.of(
+            RETRY_KEY, BACKOFF_KEY, MAX_BACKOFF_KEY, JITTER_KEY, ASYNC_KEY, TIMEOUT_KEY);
+
+    private static final Pattern SIMPLE_DURATION_PATTERN = Pattern.compile("^(\\d+)(ms|s)$", Pattern.CASE_INSENSITIVE);
+
+    public TaskNodeConfig {
+        Objects.requireNonNull(backoff, "backoff");
+        extras = extras == null ? Map.of() : extras;
+    }
+
+    /**
+     * 总执行次数上限（首次 + 重试）。
+     *
+     * @return 最大执行次数
+     */
+    public int maxAttempts() {
+        return retry + 1;
+    }
+
+    /**
+     * 计算第 failedAttempts 次失败后的重试等待时间：backoff 按次数翻倍，
+     * 受 maxBackoff 封顶，再按 jitter 随机缩短，避免大量 Token 同时重试。
+     *
+     * @param failedAttempts 已失败次数（从 1 开始）
+     * @return 等待时间（纳秒），0 表示立即重试
+     */
+    public long retryDelayNanos(int failedAttempts) {
+        if (backoff.isZero()) {
+            return 0L;
+        }
+        long base = backoff.toNanos();
+        int shift = Math.min(Math.max(failedAttempts - 1, 0), 62);
+        long delay = base > (Long.MAX_VALUE >> shift) ? Long.MAX_VALUE : base << shift;
+        if (maxBackoff != null) {
+            delay = Math.min(delay, maxBackoff.toNanos());
+        }
+        if (jitter > 0D) {
+            delay -= (long) (delay * jitter * ThreadLocalRandom.current().nextDouble());
+        }
+        return delay;
+    }
+
+    /**
+     * 从节点元数据解析配置。
+     *
+     * @param nodeId 节点 ID，用于错误信息
+     * @param metadata 节点元数据
+     * @return 配置对象
+     * @throws DefinitionException 元数据取值非法时抛出
+     */
+    public static TaskNodeConfig parse(String nodeId, Map<String, Object> metadata) {
+        if (metadata == null || metadata.isEmpty()) {
+            return DEFAULT;
+        }
+        Map<String, Object> extras = new LinkedHashMap<>();
+        metadata.forEach((key, value) -> {
+            if (!KNOWN_KEYS.contains(key)) {
+                extras.put(key, value);
+            }
+        });
+        Duration backoff = parseDuration(nodeId, BACKOFF_KEY, metadata.get(BACKOFF_KEY), Duration.ZERO);
+        Duration maxBackoff = parseDuration(nodeId, MAX_BACKOFF_KEY, metadata.get(MAX_BACKOFF_KEY), null);
+        if (maxBackoff != null && maxBackoff.compareTo(backoff) < 0) {
+            throw new DefinitionException("Invalid maxBackoff on task node " + nodeId + ": " + maxBackoff
+                    + ", must not be less than backoff " + backoff);
+        }
+        return new TaskNodeConfig(
+                parseRetry(nodeId, metadata.get(RETRY_KEY)),
+                backoff,
+                maxBackoff,
+                parseJitter(nodeId, metadata.get(JITTER_KEY)),
+                parseAsync(nodeId, metadata.get(ASYNC_KEY)),
+                parseDuration(nodeId, TIMEOUT_KEY, metadata.get(TIMEOUT_KEY), null),
+                extras.isEmpty() ? Map.of() : Collections.unmodifiableMap(extras)
+        );
+    }
+
+    private static int parseRetry(String nodeId, Object retry) {
+        if (retry == null) {
+            return 0;
+        }
+        int value;
+        if (retry instanceof Number number) {
+            value = number.intValue();
+        } else {
+            try {
+                value = Integer.parseInt(Objects.toString(retry).trim());
+            } catch (NumberFormatException ex) {
+                throw new DefinitionException("Invalid retry on task node " + nodeId + ": " + retry
+                        + ", expected a non-negative integer", ex);
+            }
+        }
+        if (value < 0) {
+            throw new DefinitionException("Invalid retry on task node " + nodeId + ": " + retry
+                    + ", expected a non-negative integer");
+        }
+        return value;
+    }
+
+    private static double parseJitter(String nodeId, Object jitter) {
+        if (jitter == null) {
+            return 0D;
+        }
+        double value;
+        if (jitter instanceof Number number) {
+            value = number.doubleValue();
+        } else {
+            try {
+                value = Double.parseDouble(Objects.toString(jitter).trim());
+            } catch (NumberFormatException ex) {
+                throw new DefinitionException("Invalid jitter on task node " + nodeId + ": " + jitter
+                        + ", expected a decimal between 0 and 1", ex);
+            }
+        }
+        if (!(value >= 0D && value <= 1D)) {
+            throw new DefinitionException("Invalid jitter on task node " + nodeId + ": " + jitter
+                    + ", expected a decimal between 0 and 1");
+        }
+        return value;
+    }
+
+    private static boolean parseAsync(String nodeId, Object async) {
+        if (async == null) {
+            return false;
+        }
+        if (async instanceof Boolean bool) {
+            return bool;
+        }
+        String raw = Objects.toString(async).trim().toLowerCase(Locale.ROOT);
+        if ("true".equals(raw)) {
+            return true;
+        }
+        if ("false".equals(raw)) {
+            return false;
+        }
+        throw new DefinitionException("Invalid async on task node " + nodeId + ": " + async + ", expected true or false");
+    }
+
+    private static Duration parseDuration(String nodeId, String key, Object value, Duration absent) {
+        if (value == null) {
+            return absent;
+        }
+        String raw = Objects.toString(value, "").trim();
+        Matcher matcher = SIMPLE_DURATION_PATTERN.matcher(raw);
+        if (!matcher.matches()) {
+            throw new DefinitionException("Invalid " + key + " format on task node " + nodeId + ": " + raw
+                    + ", expected like 50ms or 5s");
+        }
+        long amount;
+        try {
+            amount = Long.parseLong(matcher.group(1));
+        } catch (NumberFormatException ex) {
+            throw new DefinitionException("Invalid " + key + " on task node " + nodeId + ": " + raw + ", value too large", ex);
+        }
+        if ("ms".equals(matcher.group(2).toLowerCase(Locale.ROOT))) {
+            return Duration.ofMillis(amount);
+        }
+        return Duration.ofSeconds(amount);
+    }
+}
@@ -0,0 +1,112 @@
+package com.gaibu.flowlab.engine.collection;
+
+import java.util.function.Consumer;
+
+/**
+ * 线程安全的 long 键哈希表，按键分段加锁，段内为 {@link LongObjectMap}。
+ * <p>
+ * 键 0 保留，不可使用。
+ *
+ * @param <V> 值类型
+ */
+public class ConcurrentLongObjectMap<V> {
+
+    private static final int DEFAULT_SEGMENTS = 32;
+
+    /**
+     * 分段表，段数为 2 的幂。
+     */
+    private final LongObjectMap<V>[] segments;
+
+    /**
+     * 段下标掩码。
+     */
+    private final int mask;
+
+    public ConcurrentLongObjectMap() {
+        this(DEFAULT_SEGMENTS);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentLongObjectMap(int segmentCount) {
+        int size = Integer.highestOneBit(Math.max(segmentCount, 1) * 2 - 1);
+        this.segments = new LongObjectMap[size];
+        for (int i = 0; i < size; i++) {
+            segments[i] = new LongObjectMap<>();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 写入键值。
+     *
+     * @param key 键（非 0）
+     * @param value 值（非 null）
+     * @return 旧值，不存在时为 null
+     */
+    public V put(long key, V value) {
+        LongObjectMap<V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.put(key, value);
+        }
+    }
+
+    /**
+     * 读取键对应的值。
+     *
+     * @param key 键
+     * @return 值，不存在时为 null
+     */
+    public V get(long key) {
+        LongObjectMap<V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    /**
+     * 删除键。
+     *
+     * @param key 键
+     * @return 被删除的值，不存在时为 null
+     */
+    public V remove(long key) {
+        LongObjectMap<V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.remove(key);
+        }
+    }
+
+    /**
+     * 元素数量（各段依次加锁统计，并发写入时为近似值）。
+     *
+     * @return 数量
+     */
+    public int size() {
+        int total = 0;
+        for (LongObjectMap<V> segment : segments) {
+            synchronized (segment) {
+                total += segment.size();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 逐段遍历所有值，回调在段锁内执行，不应再访问本表。
+     *
+     * @param action 回调
+     */
+    public void forEachValue(Consumer<? super V> action) {
+        for (LongObjectMap<V> segment : segments) {
+            synchronized (segment) {
+                segment.forEachValue(action);
+            }
+        }
+    }
+
+    private LongObjectMap<V> segmentFor(long key) {
+        long h = key * 0xC2B2AE3D27D4EB4FL;
+        return segments[(int) (h >>> 40) & mask];
+    }
+}
@@ -0,0 +1,265 @@
+package com.gaibu.flowlab.engine.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * long 键哈希表，开放寻址 + 线性探测，键不装箱。
+ * <p>
+ * 非线程安全；键 0 保留为空槽标记，不可使用。
+ *
+ * @param <V> 值类型
+ */
+public class LongObjectMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    /**
+     * 键数组，0 表示空槽。
+     */
+    private long[] keys;
+
+    /**
+     * 值数组，与键下标一致。
+     */
+    private Object[] values;
+
+    /**
+     * 元素数量。
+     */
+    private int size;
+
+    /**
+     * 扩容阈值。
+     */
+    private int threshold;
+
+    public LongObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongObjectMap(int expectedSize) {
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR));
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * 写入键值。
+     *
+     * @param key 键（非 0）
+     * @param value 值（非 null）
+     * @return 旧值，不存在时为 null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        checkKey(key);
+        if (value == null) {
+            throw new IllegalArgumentException("value must not be null");
+        }
+        int mask = keys.length - 1;
+        int index = slot(key, mask);
+        while (keys[index] != 0L) {
+            if (keys[index] == key) {
+                V old = (V) values[index];
+                values[index] = value;
+                return old;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > threshold) {
+            resize(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * 读取键对应的值。
+     *
+     * @param key 键
+     * @return 值，不存在时为 null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0L) {
+            return null;
+        }
+        int mask = keys.length - 1;
+        int index = slot(key, mask);
+        while (keys[index] != 0L) {
+            if (keys[index] == key) {
+                return (V) values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * 是否包含键。
+     *
+     * @param key 键
+     * @return 包含返回 true
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * 删除键。
+     *
+     * @param key 键
+     * @return 被删除的值，不存在时为 null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == 0L) {
+            return null;
+        }
+        int mask = keys.length - 1;
+        int index = slot(key, mask);
+        while (keys[index] != 0L) {
+            if (keys[index] == key) {
+                V old = (V) values[index];
+                deleteAt(index, mask);
+                size--;
+                return old;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * 元素数量。
+     *
+     * @return 数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 是否为空。
+     *
+     * @return 为空返回 true
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 遍历所有值（顺序不保证）。
+     *
+     * @param action 回调
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0L) {
+                action.accept((V) values[i]);
+            }
+        }
+    }
+
+    /**
+     * 是否存在满足条件的值。
+     *
+     * @param predicate 条件
+     * @return 存在返回 true
+     */
+    @SuppressWarnings("unchecked")
+    public boolean anyValueMatch(Predicate<? super V> predicate) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0L && predicate.test((V) values[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 返回值快照。
+     *
+     * @return 值列表
+     */
+    public List<V> values() {
+        List<V> snapshot = new ArrayList<>(size);
+        forEachValue(snapshot::add);
+        return snapshot;
+    }
+
+    /**
+     * 清空所有元素，保留容量。
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * 删除后回填：把后续同簇元素前移，保持探测链连续（无墓碑）。
+     */
+    private void deleteAt(int index, int mask) {
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (keys[next] != 0L) {
+            int home = slot(keys[next], mask);
+            // 元素的理想位置不在 (hole, next] 区间内时，才能移入空洞。
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0L;
+        values[hole] = null;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0L) {
+                int index = slot(key, mask);
+                while (keys[index] != 0L) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static void checkKey(long key) {
+        if (key == 0L) {
+            throw new IllegalArgumentException("key 0 is reserved");
+        }
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        return Math.max(size, 2);
+    }
+}
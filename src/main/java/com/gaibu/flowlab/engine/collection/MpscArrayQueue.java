@@ -0,0 +1,152 @@
+package com.gaibu.flowlab.engine.collection;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 有界多生产者单消费者无锁队列，基于环形数组。
+ * <p>
+ * 生产者以 CAS 认领槽位后写入元素；唯一消费者按序读取，遇到已认领但尚未写入的槽位时自旋等待。
+ * {@link #poll()} 与 {@link #drain(Consumer, int)} 只能由同一线程调用。
+ *
+ * @param <E> 元素类型
+ */
+public class MpscArrayQueue<E> {
+
+    /**
+     * 环形数组，容量为 2 的幂。
+     */
+    private final AtomicReferenceArray<E> buffer;
+
+    /**
+     * 下标掩码。
+     */
+    private final int mask;
+
+    /**
+     * 下一个待认领的生产位置。
+     */
+    private final AtomicLong producerIndex = new AtomicLong();
+
+    /**
+     * 下一个待消费的位置，仅消费者写入。
+     */
+    private volatile long consumerIndex;
+
+    public MpscArrayQueue(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be in (0, 2^30]");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * 入队。
+     *
+     * @param element 元素（非 null）
+     * @return 队列已满返回 false
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("element must not be null");
+        }
+        long capacity = mask + 1L;
+        while (true) {
+            long index = producerIndex.get();
+            if (index - consumerIndex >= capacity) {
+                return false;
+            }
+            if (producerIndex.compareAndSet(index, index + 1)) {
+                buffer.lazySet((int) index & mask, element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 出队，仅消费者线程调用。
+     *
+     * @return 队首元素，队列为空返回 null
+     */
+    public E poll() {
+        long index = consumerIndex;
+        int slot = (int) index & mask;
+        E element = buffer.get(slot);
+        if (element == null) {
+            if (index == producerIndex.get()) {
+                return null;
+            }
+            // 槽位已被认领，等待生产者完成写入。
+            do {
+                Thread.onSpinWait();
+                element = buffer.get(slot);
+            } while (element == null);
+        }
+        buffer.lazySet(slot, null);
+        consumerIndex = index + 1;
+        return element;
+    }
+
+    /**
+     * 批量出队，仅消费者线程调用。
+     *
+     * @param action 元素回调
+     * @param limit 本次最多出队数
+     * @return 实际出队数
+     */
+    public int drain(Consumer<? super E> action, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            E element = poll();
+            if (element == null) {
+                break;
+            }
+            action.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * 累计已认领的生产位置数，即成功入队的元素总数（含正在写入槽位者）。
+     * 消费者按位置顺序出队，累计出队数达到该值时，此前入队的元素均已出队。
+     *
+     * @return 生产位置
+     */
+    public long producerIndex() {
+        return producerIndex.get();
+    }
+
+    /**
+     * 当前元素数（近似值）。
+     *
+     * @return 元素数
+     */
+    public int size() {
+        return (int) Math.max(0L, producerIndex.get() - consumerIndex);
+    }
+
+    /**
+     * 是否为空（近似值）。
+     *
+     * @return 为空返回 true
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 队列容量。
+     *
+     * @return 容量
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
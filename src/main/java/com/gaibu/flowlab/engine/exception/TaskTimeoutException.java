@@ -0,0 +1,28 @@
+package com.gaibu.flowlab.engine.exception;
+
+import java.time.Duration;
+
+/**
+ * TASK 节点执行超过配置的 timeout 时抛出的异常。
+ */
+public class TaskTimeoutException extends RuntimeException {
+
+    /**
+     * 超时配置。
+     */
+    private final Duration timeout;
+
+    public TaskTimeoutException(String nodeId, Duration timeout) {
+        super("Task execute timeout: " + timeout + ", nodeId=" + nodeId);
+        this.timeout = timeout;
+    }
+
+    /**
+     * 返回超时配置。
+     *
+     * @return 超时时长
+     */
+    public Duration timeout() {
+        return timeout;
+    }
+}
@@ -8,10 +8,14 @@ import com.gaibu.flowlab.engine.runtime.Token;
 import com.gaibu.flowlab.engine.store.VariableStore;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * 默认执行上下文实现。
+ * <p>
+ * 执行循环为每个实例复用同一个可变上下文，逐步重新绑定 Token，稳态下不产生分配；
+ * 需要跨步骤持有时通过 {@link #detach()} 获取独立副本。
  */
 public class DefaultExecutionContext implements ExecutionContext {
 
@@ -20,25 +24,64 @@ public class DefaultExecutionContext implements ExecutionContext {
      */
     private final ProcessInstance instance;
 
+    /**
+     * 可执行图。
+     */
+    private final ExecutableGraph graph;
+
+    /**
+     * 是否为执行循环复用的上下文。
+     */
+    private final boolean reusable;
+
     /**
      * 当前 Token。
      */
-    private final Token token;
+    private Token token;
 
     /**
-     * 可执行图。
+     * 事件收集器，首次发布事件时创建。
      */
-    private final ExecutableGraph graph;
+    private List<Object> events;
 
     /**
-     * 事件收集器。
+     * 步骤状态，按键值交替存放，首次写入时创建。
      */
-    private final List<Object> events = new ArrayList<>();
+    private Object[] stepAttributes;
 
     public DefaultExecutionContext(ProcessInstance instance, Token token, ExecutableGraph graph) {
+        this(instance, token, graph, false);
+    }
+
+    private DefaultExecutionContext(ProcessInstance instance, Token token, ExecutableGraph graph, boolean reusable) {
         this.instance = instance;
         this.token = token;
         this.graph = graph;
+        this.reusable = reusable;
+    }
+
+    /**
+     * 创建执行循环复用的上下文。
+     *
+     * @param instance 流程实例
+     * @param graph 可执行图
+     * @return 可复用上下文
+     */
+    static DefaultExecutionContext reusable(ProcessInstance instance, ExecutableGraph graph) {
+        return new DefaultExecutionContext(instance, null, graph, true);
+    }
+
+    /**
+     * 绑定下一步执行的 Token 并清空上一步事件。
+     *
+     * @param next 当前 Token
+     * @return 当前上下文
+     */
+    DefaultExecutionContext bind(Token next) {
+        this.token = next;
+        this.events = null;
+        this.stepAttributes = null;
+        return this;
     }
 
     @Override
@@ -63,30 +106,81 @@ public class DefaultExecutionContext implements ExecutionContext {
 
     @Override
     public ExecutableNode node() {
-        return graph.getNode(token.getCurrentNode());
+        return graph.node(token.getNodeIndex());
     }
 
     @Override
     public List<ExecutableEdge> outgoing() {
-        return graph.outgoing(token.getCurrentNode());
+        return graph.outgoing(token.getNodeIndex());
     }
 
     @Override
     public List<ExecutableEdge> incoming() {
-        return graph.incoming(token.getCurrentNode());
+        return graph.incoming(token.getNodeIndex());
     }
 
     @Override
     public void publishEvent(Object event) {
+        if (events == null) {
+            events = new ArrayList<>(2);
+        }
         events.add(event);
     }
 
+    @Override
+    public void setStepAttribute(Object key, Object value) {
+        Object[] attributes = stepAttributes;
+        if (attributes == null) {
+            stepAttributes = new Object[]{key, value};
+            return;
+        }
+        for (int i = 0; i < attributes.length; i += 2) {
+            if (attributes[i].equals(key)) {
+                attributes[i + 1] = value;
+                return;
+            }
+        }
+        Object[] grown = Arrays.copyOf(attributes, attributes.length + 2);
+        grown[attributes.length] = key;
+        grown[attributes.length + 1] = value;
+        stepAttributes = grown;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getStepAttribute(Object key) {
+        Object[] attributes = stepAttributes;
+        if (attributes != null) {
+            for (int i = 0; i < attributes.length; i += 2) {
+                if (attributes[i].equals(key)) {
+                    return (T) attributes[i + 1];
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public DefaultExecutionContext detach() {
+        if (!reusable) {
+            return this;
+        }
+        DefaultExecutionContext copy = new DefaultExecutionContext(instance, token, graph);
+        if (events != null) {
+            copy.events = new ArrayList<>(events);
+        }
+        if (stepAttributes != null) {
+            copy.stepAttributes = stepAttributes.clone();
+        }
+        return copy;
+    }
+
     /**
      * 返回上下文内收集的事件。
      *
-     * @return 事件列表
+     * @return 事件列表，未发布事件时为空列表
      */
     public List<Object> events() {
-        return events;
+        return events == null ? List.of() : events;
     }
 }
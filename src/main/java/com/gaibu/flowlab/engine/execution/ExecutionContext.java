@@ -11,6 +11,9 @@ import java.util.List;
 
 /**
  * 节点执行上下文。
+ * <p>
+ * 上下文对象可能在同一实例的多个节点步骤间复用，只在当前回调内有效；
+ * 异步回调等需要跨步骤持有时，应先调用 {@link #detach()}。
  */
 public interface ExecutionContext {
 
@@ -69,4 +72,29 @@ public interface ExecutionContext {
      * @param event 事件对象
      */
     void publishEvent(Object event);
+
+    /**
+     * 保存当前步骤的拦截器状态，从 before 回调到 afterSuccess/afterFailure 回调有效（异步挂起期间随上下文保留），
+     * 下一步骤开始时清空。
+     *
+     * @param key 状态键，建议使用拦截器私有的常量对象
+     * @param value 状态值
+     */
+    void setStepAttribute(Object key, Object value);
+
+    /**
+     * 读取当前步骤的拦截器状态。
+     *
+     * @param key 状态键
+     * @param <T> 状态类型
+     * @return 状态值，未设置时返回 null
+     */
+    <T> T getStepAttribute(Object key);
+
+    /**
+     * 返回绑定当前 Token 的独立上下文，可在本步骤结束后继续持有。
+     *
+     * @return 独立上下文
+     */
+    ExecutionContext detach();
 }
@@ -1,9 +1,13 @@
 package com.gaibu.flowlab.engine.execution;
 
+import com.gaibu.flowlab.engine.execution.instruction.Instruction;
+import com.gaibu.flowlab.engine.execution.instruction.RetryInstruction;
+import com.gaibu.flowlab.engine.execution.instruction.WaitInstruction;
 import com.gaibu.flowlab.engine.graph.ExecutableGraph;
 import com.gaibu.flowlab.engine.graph.ExecutableNode;
 import com.gaibu.flowlab.engine.interceptor.NodeInterceptorChain;
 import com.gaibu.flowlab.engine.interceptor.NodeInterceptor;
+import com.gaibu.flowlab.engine.jfr.NodeExecutionEvent;
 import com.gaibu.flowlab.engine.runtime.ProcessInstance;
 import com.gaibu.flowlab.engine.runtime.Token;
 import com.gaibu.flowlab.engine.runtime.enums.InstanceStatus;
@@ -11,6 +15,8 @@ import com.gaibu.flowlab.engine.runtime.enums.TokenStatus;
 import com.gaibu.flowlab.engine.scheduler.Scheduler;
 
 import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Token 执行循环。
@@ -21,6 +27,11 @@ public class ExecutionLoop {
     private static final String ERROR_TYPE_KEY = "process.error.type";
     private static final String ERROR_NODE_KEY = "process.error.nodeId";
 
+    /**
+     * 进行中 JFR 节点事件的步骤状态键。
+     */
+    private static final Object NODE_EVENT_KEY = new Object();
+
     private final NodeInterceptorChain interceptorChain;
 
     /**
@@ -34,7 +45,7 @@ public class ExecutionLoop {
     }
 
     /**
-     * 执行实例调度循环。
+     * 执行实例调度循环，直到调度队列清空（不等待异步挂起的 Token）。
      *
      * @param instance 流程实例
      * @param graph 可执行图
@@ -42,40 +53,233 @@ public class ExecutionLoop {
      * @param interceptors 节点拦截器
      */
     public void run(ProcessInstance instance, ExecutableGraph graph, Scheduler scheduler, List<NodeInterceptor> interceptors) {
-        while (scheduler.hasNext() && instance.getStatus() == InstanceStatus.RUNNING) {
+        run(new InstanceDriver(instance, graph, scheduler), interceptors);
+    }
+
+    /**
+     * 在当前线程推进实例，遇到异步挂起时阻塞等待恢复，直到实例稳定。
+     *
+     * @param driver 实例驱动状态
+     * @param interceptors 节点拦截器
+     */
+    public void runToCompletion(InstanceDriver driver, List<NodeInterceptor> interceptors) {
+        while (true) {
+            run(driver, interceptors);
+            if (driver.isSettled()) {
+                return;
+            }
+            try {
+                driver.awaitResumption();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                recordFailure(driver.instance(), new IllegalStateException("Process execution interrupted.", ex), null);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 在执行器上推进实例：异步结果就绪时自动重新投递驱动任务，同一实例同一时刻只有一个线程在推进。
+     *
+     * @param driver 实例驱动状态
+     * @param interceptors 节点拦截器
+     * @param executor 驱动执行器
+     * @param onSettled 实例稳定后的回调，只触发一次
+     */
+    public void runAsync(InstanceDriver driver, List<NodeInterceptor> interceptors, Executor executor, Runnable onSettled) {
+        Runnable drive = new Runnable() {
+            @Override
+            public void run() {
+                do {
+                    try {
+                        ExecutionLoop.this.run(driver, interceptors);
+                    } catch (RuntimeException | Error ex) {
+                        recordFailure(driver.instance(), ex, null);
+                    }
+                    if (driver.isSettled()) {
+                        // 保持 driving=true，之后迟到的恢复事件不再触发驱动。
+                        onSettled.run();
+                        return;
+                    }
+                    driver.driving().set(false);
+                } while (driver.hasResumptions() && driver.driving().compareAndSet(false, true));
+            }
+        };
+        driver.setWakeup(() -> {
+            if (driver.driving().compareAndSet(false, true)) {
+                executor.execute(drive);
+            }
+        });
+        driver.driving().set(true);
+        executor.execute(drive);
+    }
+
+    /**
+     * 推进实例直到调度队列与恢复队列均为空。
+     *
+     * @param driver 实例驱动状态
+     * @param interceptors 节点拦截器
+     */
+    public void run(InstanceDriver driver, List<NodeInterceptor> interceptors) {
+        ProcessInstance instance = driver.instance();
+        ExecutableGraph graph = driver.graph();
+        Scheduler scheduler = driver.scheduler();
+        while (instance.getStatus() == InstanceStatus.RUNNING) {
+            Resumption resumption = driver.pollResumption();
+            if (resumption != null) {
+                if (!resume(driver, resumption, interceptors)) {
+                    return;
+                }
+                continue;
+            }
+            if (!scheduler.hasNext()) {
+                return;
+            }
+
             Token token = scheduler.poll();
             if (token == null || token.getStatus() != TokenStatus.ACTIVE) {
                 continue;
             }
 
-            ExecutableNode node = graph.getNode(token.getCurrentNode());
+            if (token.getNodeIndex() < 0) {
+                token.setNodeIndex(graph.indexOf(token.getCurrentNode()));
+            }
+            ExecutableNode node = graph.node(token.getNodeIndex());
             if (node == null) {
-                token.setStatus(TokenStatus.FAILED);
+                instance.updateTokenStatus(token, TokenStatus.FAILED);
                 instance.setStatus(InstanceStatus.FAILED);
-                instance.removeActiveToken(token);
                 continue;
             }
 
-            DefaultExecutionContext context = new DefaultExecutionContext(instance, token, graph);
+            DefaultExecutionContext context = driver.loopContext().bind(token);
+            NodeExecutionEvent event = NodeExecutionEvent.beginIfEnabled();
+            if (event != null) {
+                context.setStepAttribute(NODE_EVENT_KEY, event);
+            }
             try {
                 interceptorChain.before(interceptors, context);
-                var instruction = node.getBehavior().handle(context);
-                interceptorChain.afterSuccess(interceptors, context, instruction);
-                instructionHandler.apply(instruction, context, scheduler);
+                dispatch(driver, context, node.getBehavior().handle(context), interceptors);
             } catch (Exception ex) {
-                interceptorChain.afterFailure(interceptors, context, ex);
-                token.setStatus(TokenStatus.FAILED);
-                instance.removeActiveToken(token);
-                instance.setStatus(InstanceStatus.FAILED);
-                instance.setFailureCause(ex);
-                if (instance.getVariables() != null) {
-                    instance.getVariables().put(ERROR_KEY, ex);
-                    instance.getVariables().put(ERROR_MESSAGE_KEY, ex.getMessage());
-                    instance.getVariables().put(ERROR_TYPE_KEY, ex.getClass().getName());
-                    instance.getVariables().put(ERROR_NODE_KEY, context.node().getId().value());
-                }
+                fail(context, ex, interceptors);
                 return;
             }
         }
     }
+
+    private void dispatch(
+            InstanceDriver driver,
+            DefaultExecutionContext context,
+            Instruction instruction,
+            List<NodeInterceptor> interceptors) {
+        if (instruction instanceof WaitInstruction wait) {
+            park(driver, context, wait);
+            return;
+        }
+        if (instruction instanceof RetryInstruction retry) {
+            retry(driver, context, retry, interceptors);
+            return;
+        }
+        interceptorChain.afterSuccess(interceptors, context, instruction);
+        NodeExecutionEvent event = context.getStepAttribute(NODE_EVENT_KEY);
+        if (event != null) {
+            event.commit(context, instruction.getClass().getSimpleName());
+        }
+        instructionHandler.apply(instruction, context, driver.scheduler());
+    }
+
+    private void park(InstanceDriver driver, DefaultExecutionContext context, WaitInstruction wait) {
+        // 节点拦截器的 after 回调推迟到恢复时触发，使 before/after 覆盖整个异步执行过程。
+        // 循环上下文会被后续步骤重新绑定，挂起的 Token 需持有独立副本。
+        DefaultExecutionContext parked = context.detach();
+        parked.instance().updateTokenStatus(parked.token(), TokenStatus.WAITING);
+        driver.park();
+        wait.stage().whenComplete((instruction, error) -> driver.resume(new Resumption(parked, instruction, unwrap(error))));
+    }
+
+    /**
+     * 以失败结束本次尝试，退避期间 Token 挂起，结束后直接重新调度，不再触发拦截器。
+     */
+    private void retry(
+            InstanceDriver driver,
+            DefaultExecutionContext context,
+            RetryInstruction retry,
+            List<NodeInterceptor> interceptors) {
+        interceptorChain.afterRetry(interceptors, context, retry.cause());
+        NodeExecutionEvent event = context.getStepAttribute(NODE_EVENT_KEY);
+        if (event != null) {
+            event.commit(context, "Retry");
+        }
+        if (retry.backoff() == null) {
+            instructionHandler.apply(retry.next(), context, driver.scheduler());
+            return;
+        }
+        DefaultExecutionContext parked = context.detach();
+        parked.instance().updateTokenStatus(parked.token(), TokenStatus.WAITING);
+        driver.park();
+        retry.backoff().whenComplete((ignored, error) ->
+                driver.resume(new Resumption(parked, retry.next(), unwrap(error), true)));
+    }
+
+    private boolean resume(InstanceDriver driver, Resumption resumption, List<NodeInterceptor> interceptors) {
+        driver.unpark();
+        DefaultExecutionContext context = resumption.context();
+        if (context.token().getStatus() != TokenStatus.WAITING) {
+            return true;
+        }
+        context.instance().updateTokenStatus(context.token(), TokenStatus.ACTIVE);
+        try {
+            if (resumption.error() != null) {
+                throw resumption.error();
+            }
+            if (resumption.instruction() == null) {
+                throw new IllegalStateException("Async node completed without instruction: " + context.node().getId().value());
+            }
+            if (resumption.backoff()) {
+                Token token = context.token();
+                if (token.getReadyNanos() != 0L) {
+                    // 退避结束时重新就绪，退避不计入排队时长。
+                    token.setReadyNanos(System.nanoTime());
+                }
+                instructionHandler.apply(resumption.instruction(), context, driver.scheduler());
+                return true;
+            }
+            dispatch(driver, context, resumption.instruction(), interceptors);
+            return true;
+        } catch (Throwable ex) {
+            fail(context, ex, interceptors);
+            return false;
+        }
+    }
+
+    private void fail(DefaultExecutionContext context, Throwable ex, List<NodeInterceptor> interceptors) {
+        interceptorChain.afterFailure(interceptors, context, ex);
+        NodeExecutionEvent event = context.getStepAttribute(NODE_EVENT_KEY);
+        if (event != null) {
+            event.commit(context, "Failure");
+        }
+        Token token = context.token();
+        ProcessInstance instance = context.instance();
+        instance.updateTokenStatus(token, TokenStatus.FAILED);
+        recordFailure(instance, ex, context.node().getId().value());
+    }
+
+    private void recordFailure(ProcessInstance instance, Throwable ex, String nodeId) {
+        instance.setStatus(InstanceStatus.FAILED);
+        instance.setFailureCause(ex);
+        if (instance.getVariables() != null) {
+            instance.getVariables().put(ERROR_KEY, ex);
+            instance.getVariables().put(ERROR_MESSAGE_KEY, ex.getMessage());
+            instance.getVariables().put(ERROR_TYPE_KEY, ex.getClass().getName());
+            if (nodeId != null) {
+                instance.getVariables().put(ERROR_NODE_KEY, nodeId);
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
 }
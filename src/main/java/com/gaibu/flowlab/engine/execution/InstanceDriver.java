@@ -0,0 +1,178 @@
+package com.gaibu.flowlab.engine.execution;
+
+import com.gaibu.flowlab.engine.graph.ExecutableGraph;
+import com.gaibu.flowlab.engine.runtime.ProcessInstance;
+import com.gaibu.flowlab.engine.runtime.enums.InstanceStatus;
+import com.gaibu.flowlab.engine.scheduler.Scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 单个流程实例的驱动状态：调度队列、异步恢复队列与挂起计数。
+ * <p>
+ * 调度队列与挂起计数只由当前驱动线程访问；恢复队列允许任意线程投递，
+ * 投递后通过唤醒回调（异步模式）或监视器通知（同步模式）让驱动线程继续推进。
+ */
+public class InstanceDriver {
+
+    /**
+     * 流程实例。
+     */
+    private final ProcessInstance instance;
+
+    /**
+     * 可执行图。
+     */
+    private final ExecutableGraph graph;
+
+    /**
+     * Token 调度器。
+     */
+    private final Scheduler scheduler;
+
+    /**
+     * 异步恢复队列（多生产者、单消费者）。
+     */
+    private final Queue<Resumption> resumptions = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 同步模式下等待恢复事件的监视器。
+     */
+    private final Object monitor = new Object();
+
+    /**
+     * 异步模式下是否已有线程在驱动该实例。
+     */
+    private final AtomicBoolean driving = new AtomicBoolean();
+
+    /**
+     * 处于 WAITING 的 Token 数。
+     */
+    private int waiting;
+
+    /**
+     * 异步模式唤醒回调，同步模式为 null。
+     */
+    private volatile Runnable wakeup;
+
+    /**
+     * 执行循环复用的上下文；同一实例同一时刻只有一个线程推进，无需同步。
+     */
+    private final DefaultExecutionContext loopContext;
+
+    public InstanceDriver(ProcessInstance instance, ExecutableGraph graph, Scheduler scheduler) {
+        this.instance = instance;
+        this.graph = graph;
+        this.scheduler = scheduler;
+        this.loopContext = DefaultExecutionContext.reusable(instance, graph);
+    }
+
+    /**
+     * 返回执行循环复用的上下文。
+     *
+     * @return 可复用上下文
+     */
+    DefaultExecutionContext loopContext() {
+        return loopContext;
+    }
+
+    /**
+     * 流程实例。
+     *
+     * @return 实例对象
+     */
+    public ProcessInstance instance() {
+        return instance;
+    }
+
+    /**
+     * 可执行图。
+     *
+     * @return 图对象
+     */
+    public ExecutableGraph graph() {
+        return graph;
+    }
+
+    /**
+     * Token 调度器。
+     *
+     * @return 调度器
+     */
+    public Scheduler scheduler() {
+        return scheduler;
+    }
+
+    /**
+     * 当前挂起的 Token 数。
+     *
+     * @return 挂起数量
+     */
+    public int waitingCount() {
+        return waiting;
+    }
+
+    /**
+     * 实例是否已无可推进的工作：已结束，或没有待调度、待恢复和挂起中的 Token。
+     *
+     * @return 已稳定返回 true
+     */
+    public boolean isSettled() {
+        if (instance.getStatus() != InstanceStatus.RUNNING) {
+            return true;
+        }
+        return waiting == 0 && !scheduler.hasNext() && resumptions.isEmpty();
+    }
+
+    void park() {
+        waiting++;
+    }
+
+    void unpark() {
+        waiting--;
+    }
+
+    Resumption pollResumption() {
+        return resumptions.poll();
+    }
+
+    boolean hasResumptions() {
+        return !resumptions.isEmpty();
+    }
+
+    /**
+     * 投递恢复事件，可在任意线程调用。
+     */
+    void resume(Resumption resumption) {
+        resumptions.offer(resumption);
+        Runnable callback = wakeup;
+        if (callback != null) {
+            callback.run();
+            return;
+        }
+        synchronized (monitor) {
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * 同步模式下阻塞等待恢复事件。
+     */
+    void awaitResumption() throws InterruptedException {
+        synchronized (monitor) {
+            while (resumptions.isEmpty()) {
+                monitor.wait();
+            }
+        }
+    }
+
+    AtomicBoolean driving() {
+        return driving;
+    }
+
+    void setWakeup(Runnable wakeup) {
+        this.wakeup = wakeup;
+    }
+}
@@ -6,18 +6,19 @@ import com.gaibu.flowlab.engine.execution.instruction.ForkInstruction;
 import com.gaibu.flowlab.engine.execution.instruction.Instruction;
 import com.gaibu.flowlab.engine.execution.instruction.JoinInstruction;
 import com.gaibu.flowlab.engine.execution.instruction.MoveInstruction;
+import com.gaibu.flowlab.engine.graph.ExecutableEdge;
 import com.gaibu.flowlab.engine.graph.ExecutableNode;
+import com.gaibu.flowlab.engine.graph.RoutingPlan;
+import com.gaibu.flowlab.engine.jfr.InstructionEvent;
+import com.gaibu.flowlab.engine.jfr.JoinCompletedEvent;
 import com.gaibu.flowlab.engine.runtime.NodeId;
 import com.gaibu.flowlab.engine.runtime.ProcessInstance;
-import com.gaibu.flowlab.engine.runtime.ScopeId;
 import com.gaibu.flowlab.engine.runtime.Token;
 import com.gaibu.flowlab.engine.runtime.enums.InstanceStatus;
 import com.gaibu.flowlab.engine.runtime.enums.ScopeStatus;
 import com.gaibu.flowlab.engine.runtime.enums.TokenStatus;
 import com.gaibu.flowlab.engine.scheduler.Scheduler;
 import com.gaibu.flowlab.engine.scope.ScopeRuntime;
-import com.gaibu.flowlab.parser.model.enums.GatewayType;
-import com.gaibu.flowlab.parser.model.enums.NodeType;
 
 /**
  * 指令处理器，作为运行时状态唯一修改点。
@@ -41,6 +42,14 @@ public class InstructionHandler {
      * @param scheduler 调度器
      */
     public void apply(Instruction instruction, DefaultExecutionContext ctx, Scheduler scheduler) {
+        InstructionEvent event = InstructionEvent.beginIfEnabled();
+        doApply(instruction, ctx, scheduler);
+        if (event != null) {
+            event.commit(ctx, instruction.getClass().getSimpleName());
+        }
+    }
+
+    private void doApply(Instruction instruction, DefaultExecutionContext ctx, Scheduler scheduler) {
         if (instruction instanceof MoveInstruction move) {
             move(ctx, move, scheduler);
             return;
@@ -66,12 +75,15 @@ public class InstructionHandler {
 
     private void move(DefaultExecutionContext ctx, MoveInstruction move, Scheduler scheduler) {
         Token token = ctx.token();
-        if (isJoinGateway(ctx, move.nextNode())) {
-            collectJoinArrival(ctx, token, move.nextNode(), scheduler);
+        int nextIndex = resolveIndex(ctx, move.nextNode(), move.nextIndex());
+        ExecutableNode nextNode = ctx.graph().node(nextIndex);
+        if (nextNode != null && nextNode.getRoutingPlan().isJoin()) {
+            collectJoinArrival(ctx, token, nextNode, scheduler);
             return;
         }
         token.setCurrentNode(move.nextNode());
-        token.setStatus(TokenStatus.ACTIVE);
+        token.setNodeIndex(nextIndex);
+        ctx.instance().updateTokenStatus(token, TokenStatus.ACTIVE);
         scheduler.schedule(token);
     }
 
@@ -79,11 +91,14 @@ public class InstructionHandler {
         Token current = ctx.token();
         ProcessInstance instance = ctx.instance();
 
-        current.setStatus(TokenStatus.COMPLETED);
-        instance.removeActiveToken(current);
+        instance.updateTokenStatus(current, TokenStatus.COMPLETED);
 
-        for (var nextNode : fork.nextNodes()) {
-            Token child = tokenFactory.create(nextNode, current.getExecution());
+        int[] nextIndexes = fork.nextIndexes();
+        for (int i = 0; i < fork.nextNodes().size(); i++) {
+            NodeId nextNode = fork.nextNodes().get(i);
+            int nextIndex = resolveIndex(ctx, nextNode, nextIndexes == null ? -1 : nextIndexes[i]);
+            Token child = tokenFactory.create(nextNode, nextIndex, current.getExecution());
+            child.setReadyNanos(current.getReadyNanos());
             instance.addToken(child);
             scheduler.schedule(child);
         }
@@ -98,14 +113,17 @@ public class InstructionHandler {
             return;
         }
         if (outgoingSize == 1) {
-            token.setCurrentNode(ctx.outgoing().get(0).getTarget());
-            token.setStatus(TokenStatus.ACTIVE);
+            ExecutableEdge edge = ctx.outgoing().get(0);
+            token.setCurrentNode(edge.getTarget());
+            token.setNodeIndex(edge.getTargetIndex());
+            instance.updateTokenStatus(token, TokenStatus.ACTIVE);
             scheduler.schedule(token);
             return;
         }
 
         for (var edge : ctx.outgoing()) {
-            Token child = tokenFactory.create(edge.getTarget(), token.getExecution());
+            Token child = tokenFactory.create(edge.getTarget(), edge.getTargetIndex(), token.getExecution());
+            child.setReadyNanos(token.getReadyNanos());
             instance.addToken(child);
             scheduler.schedule(child);
         }
@@ -114,45 +132,39 @@ public class InstructionHandler {
     private void complete(DefaultExecutionContext ctx) {
         Token token = ctx.token();
         ProcessInstance instance = ctx.instance();
-        token.setStatus(TokenStatus.COMPLETED);
-        instance.removeActiveToken(token);
+        instance.updateTokenStatus(token, TokenStatus.COMPLETED);
     }
 
     private void fail(DefaultExecutionContext ctx, FailInstruction fail) {
         Token token = ctx.token();
         ProcessInstance instance = ctx.instance();
-        token.setStatus(TokenStatus.FAILED);
+        instance.updateTokenStatus(token, TokenStatus.FAILED);
         instance.setStatus(InstanceStatus.FAILED);
-        instance.removeActiveToken(token);
     }
 
-    private boolean isJoinGateway(DefaultExecutionContext ctx, NodeId target) {
-        ExecutableNode targetNode = ctx.graph().getNode(target);
-        if (targetNode == null || targetNode.getType() != NodeType.GATEWAY) {
-            return false;
-        }
-        GatewayType gatewayType = targetNode.getGatewayType();
-        if (gatewayType != GatewayType.PARALLEL && gatewayType != GatewayType.INCLUSIVE) {
-            return false;
-        }
-        return ctx.graph().incoming(target).size() > 1;
+    private int resolveIndex(DefaultExecutionContext ctx, NodeId nodeId, int index) {
+        return index >= 0 ? index : ctx.graph().indexOf(nodeId);
     }
 
-    private void collectJoinArrival(DefaultExecutionContext ctx, Token token, NodeId joinNode, Scheduler scheduler) {
+    private void collectJoinArrival(
+            DefaultExecutionContext ctx,
+            Token token,
+            ExecutableNode joinNode,
+            Scheduler scheduler) {
         ProcessInstance instance = ctx.instance();
-        String scopeKey = "JOIN:" + joinNode.value();
+        RoutingPlan plan = joinNode.getRoutingPlan();
+        String scopeKey = plan.getJoinScopeKey();
         ScopeRuntime scope = instance.getScopes().computeIfAbsent(scopeKey, key -> {
             ScopeRuntime runtime = new ScopeRuntime();
-            runtime.setId(new ScopeId("SC-" + key));
-            runtime.setJoinNodeId(joinNode);
-            runtime.setExpectedTokenCount(Math.max(1, ctx.graph().incoming(joinNode).size()));
+            runtime.setId(plan.getJoinScopeId());
+            runtime.setJoinNodeId(joinNode.getId());
+            runtime.setExpectedTokenCount(plan.getExpectedArrivals());
             runtime.setStatus(ScopeStatus.ACTIVE);
             return runtime;
         });
 
         scope.getArrivedTokens().add(token.getId());
-        token.setStatus(TokenStatus.COMPLETED);
-        instance.removeActiveToken(token);
+        instance.updateTokenStatus(token, TokenStatus.COMPLETED);
 
         if (scope.getArrivedTokens().size() < scope.getExpectedTokenCount()) {
             return;
@@ -160,10 +172,11 @@ public class InstructionHandler {
 
         scope.setStatus(ScopeStatus.COMPLETED);
         instance.getScopes().remove(scopeKey);
+        JoinCompletedEvent.emit(ctx, joinNode.getId().value(), scope.getArrivedTokens().size());
 
-        token.setCurrentNode(joinNode);
-        token.setStatus(TokenStatus.ACTIVE);
-        instance.getActiveTokens().add(token);
+        token.setCurrentNode(joinNode.getId());
+        token.setNodeIndex(joinNode.getIndex());
+        instance.updateTokenStatus(token, TokenStatus.ACTIVE);
         scheduler.schedule(token);
     }
 }
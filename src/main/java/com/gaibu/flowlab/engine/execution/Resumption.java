@@ -0,0 +1,18 @@
+package com.gaibu.flowlab.engine.execution;
+
+import com.gaibu.flowlab.engine.execution.instruction.Instruction;
+
+/**
+ * 异步等待结束后的恢复事件。
+ *
+ * @param context 挂起时的执行上下文
+ * @param instruction 后续指令，失败时为 null
+ * @param error 失败原因，成功时为 null
+ * @param backoff 是否为重试退避结束：步骤已结束，直接应用指令而不再触发拦截器
+ */
+record Resumption(DefaultExecutionContext context, Instruction instruction, Throwable error, boolean backoff) {
+
+    Resumption(DefaultExecutionContext context, Instruction instruction, Throwable error) {
+        this(context, instruction, error, false);
+    }
+}
@@ -1,25 +1,24 @@
 package com.gaibu.flowlab.engine.execution;
 
 import com.gaibu.flowlab.engine.runtime.Execution;
+import com.gaibu.flowlab.engine.runtime.IdAllocator;
 import com.gaibu.flowlab.engine.runtime.NodeId;
 import com.gaibu.flowlab.engine.runtime.Token;
 import com.gaibu.flowlab.engine.runtime.TokenId;
 import com.gaibu.flowlab.engine.runtime.enums.TokenStatus;
 
-import java.util.concurrent.atomic.AtomicLong;
-
 /**
  * Token 工厂。
  */
 public class TokenFactory {
 
     /**
-     * Token ID 生成器。
+     * Token ID 分配器。
      */
-    private final AtomicLong tokenSeq;
+    private final IdAllocator idAllocator;
 
-    public TokenFactory(AtomicLong tokenSeq) {
-        this.tokenSeq = tokenSeq;
+    public TokenFactory(IdAllocator idAllocator) {
+        this.idAllocator = idAllocator;
     }
 
     /**
@@ -30,9 +29,35 @@ public class TokenFactory {
      * @return 新 token
      */
     public Token create(NodeId nodeId, Execution execution) {
+        return create(nodeId, -1, execution);
+    }
+
+    /**
+     * 创建一个活跃 Token，并携带节点下标。
+     *
+     * @param nodeId 节点 ID
+     * @param nodeIndex 节点下标
+     * @param execution 所属 execution
+     * @return 新 token
+     */
+    public Token create(NodeId nodeId, int nodeIndex, Execution execution) {
+        return create(idAllocator.next(), nodeId, nodeIndex, execution);
+    }
+
+    /**
+     * 使用指定数值 ID 创建活跃 Token。
+     *
+     * @param seq 数值 ID
+     * @param nodeId 节点 ID
+     * @param nodeIndex 节点下标
+     * @param execution 所属 execution
+     * @return 新 token
+     */
+    public Token create(long seq, NodeId nodeId, int nodeIndex, Execution execution) {
         Token token = new Token();
-        token.setId(new TokenId("TK-" + tokenSeq.incrementAndGet()));
+        token.setId(new TokenId(seq));
         token.setCurrentNode(nodeId);
+        token.setNodeIndex(nodeIndex);
         token.setExecution(execution);
         token.setStatus(TokenStatus.ACTIVE);
         return token;
@@ -8,6 +8,11 @@ import java.util.List;
  * 分叉指令。
  *
  * @param nextNodes 分叉后的目标节点列表
+ * @param nextIndexes 目标节点下标，与 nextNodes 一一对应；为 null 时由引擎按 ID 解析
  */
-public record ForkInstruction(List<NodeId> nextNodes) implements Instruction {
+public record ForkInstruction(List<NodeId> nextNodes, int[] nextIndexes) implements Instruction {
+
+    public ForkInstruction(List<NodeId> nextNodes) {
+        this(nextNodes, null);
+    }
 }
@@ -7,5 +7,7 @@ public sealed interface Instruction permits MoveInstruction,
         ForkInstruction,
         JoinInstruction,
         CompleteInstruction,
-        FailInstruction {
+        FailInstruction,
+        WaitInstruction,
+        RetryInstruction {
 }
@@ -6,6 +6,11 @@ import com.gaibu.flowlab.engine.runtime.NodeId;
  * 单路径移动指令。
  *
  * @param nextNode 下一节点
+ * @param nextIndex 下一节点在图中的下标，-1 表示由引擎按 ID 解析
  */
-public record MoveInstruction(NodeId nextNode) implements Instruction {
+public record MoveInstruction(NodeId nextNode, int nextIndex) implements Instruction {
+
+    public MoveInstruction(NodeId nextNode) {
+        this(nextNode, -1);
+    }
 }
@@ -0,0 +1,14 @@
+package com.gaibu.flowlab.engine.execution.instruction;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 重试指令：本次尝试失败但仍有重试次数。执行循环以失败结束本步骤（触发拦截器的 afterRetry），
+ * 随后 Token 以 WAITING 等待退避结束，再按 next 重新调度到本节点；退避不计入步骤耗时。
+ *
+ * @param cause 本次尝试的失败原因
+ * @param next 重新执行本节点的移动指令
+ * @param backoff 退避等待，无需等待时为 null
+ */
+public record RetryInstruction(Throwable cause, MoveInstruction next, CompletionStage<?> backoff) implements Instruction {
+}
@@ -0,0 +1,11 @@
+package com.gaibu.flowlab.engine.execution.instruction;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 等待指令：Token 进入 WAITING 并让出执行线程，异步结果就绪后按结果指令继续流转。
+ *
+ * @param stage 异步阶段，正常完成时给出后续指令，异常完成时节点按失败处理
+ */
+public record WaitInstruction(CompletionStage<? extends Instruction> stage) implements Instruction {
+}
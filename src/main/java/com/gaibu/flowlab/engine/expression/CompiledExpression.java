@@ -0,0 +1,18 @@
+package com.gaibu.flowlab.engine.expression;
+
+import java.util.Map;
+
+/**
+ * 部署期预编译的条件表达式，运行期只做求值不再解析。
+ */
+@FunctionalInterface
+public interface CompiledExpression {
+
+    /**
+     * 计算表达式布尔结果。
+     *
+     * @param variables 变量上下文
+     * @return true 表示条件命中
+     */
+    boolean evaluateBoolean(Map<String, Object> variables);
+}
@@ -15,4 +15,16 @@ public interface ExpressionEngine {
      * @return true 表示条件命中
      */
     boolean evaluateBoolean(String expression, Map<String, Object> variables);
+
+    /**
+     * 预编译表达式，供图编译期缓存到连线上。
+     *
+     * <p>默认实现不做预处理，每次求值仍委托 {@link #evaluateBoolean(String, Map)}。
+     *
+     * @param expression 表达式文本
+     * @return 可重复求值的表达式对象
+     */
+    default CompiledExpression compile(String expression) {
+        return variables -> evaluateBoolean(expression, variables);
+    }
 }
@@ -0,0 +1,491 @@
+package com.gaibu.flowlab.engine.expression.impl;
+
+import com.gaibu.flowlab.engine.expression.CompiledExpression;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 轻量条件表达式编译器，把常见条件子集编译为闭包树。
+ *
+ * <p>支持的语法：比较（== != > >= < <=）、逻辑（&& || ! 及 and/or/not）、括号、
+ * 数字/字符串/布尔/null 字面量、裸变量名与 #变量引用。超出子集时返回 null，由调用方回退到 SpEL。
+ * 语义与 {@link SpelExpressionEngine} 保持一致：变量缺失时报错、null 小于任意非 null 值、数字跨类型按数值比较。
+ */
+final class LiteExpressionCompiler {
+
+    /**
+     * 表达式原文。
+     */
+    private final String source;
+
+    /**
+     * 词法单元序列。
+     */
+    private final List<Token> tokens;
+
+    /**
+     * 当前读取位置。
+     */
+    private int position;
+
+    private LiteExpressionCompiler(String source, List<Token> tokens) {
+        this.source = source;
+        this.tokens = tokens;
+    }
+
+    /**
+     * 编译表达式。
+     *
+     * @param expression 表达式文本（已去除首尾空白）
+     * @return 编译结果，超出支持子集时返回 null
+     */
+    static CompiledExpression compile(String expression) {
+        List<Token> tokens = tokenize(expression);
+        if (tokens == null) {
+            return null;
+        }
+        LiteExpressionCompiler compiler = new LiteExpressionCompiler(expression, tokens);
+        Operand root = compiler.parseOr();
+        if (root == null || compiler.peek().kind() != TokenKind.END) {
+            return null;
+        }
+        if (root.condition() != null) {
+            return root.condition()::test;
+        }
+        // 顶层取值与 SpEL 引擎一致：只有 Boolean.TRUE 视为命中，不做类型转换。
+        ValueNode value = root.value();
+        return variables -> Boolean.TRUE.equals(value.eval(variables));
+    }
+
+    private Operand parseOr() {
+        Operand left = parseAnd();
+        while (left != null && (peekSymbol("||") || peekKeyword("or"))) {
+            position++;
+            Operand right = parseAnd();
+            if (right == null) {
+                return null;
+            }
+            Condition l = left.asCondition(source);
+            Condition r = right.asCondition(source);
+            left = Operand.of(variables -> l.test(variables) || r.test(variables));
+        }
+        return left;
+    }
+
+    private Operand parseAnd() {
+        Operand left = parseUnary();
+        while (left != null && (peekSymbol("&&") || peekKeyword("and"))) {
+            position++;
+            Operand right = parseUnary();
+            if (right == null) {
+                return null;
+            }
+            Condition l = left.asCondition(source);
+            Condition r = right.asCondition(source);
+            left = Operand.of(variables -> l.test(variables) && r.test(variables));
+        }
+        return left;
+    }
+
+    private Operand parseUnary() {
+        if (peekSymbol("!") || peekKeyword("not")) {
+            position++;
+            Operand operand = parseUnary();
+            if (operand == null) {
+                return null;
+            }
+            Condition inner = operand.asCondition(source);
+            return Operand.of(variables -> !inner.test(variables));
+        }
+        return parseComparison();
+    }
+
+    private Operand parseComparison() {
+        Operand left = parsePrimary();
+        if (left == null) {
+            return null;
+        }
+        Token next = peek();
+        if (next.kind() != TokenKind.SYMBOL || !isComparison(next.text())) {
+            return left;
+        }
+        position++;
+        Operand right = parsePrimary();
+        if (right == null) {
+            return null;
+        }
+        return Operand.of(comparison(next.text(), left.value(), right.value()));
+    }
+
+    private Operand parsePrimary() {
+        Token token = peek();
+        position++;
+        switch (token.kind()) {
+            case NUMBER, STRING -> {
+                Object literal = token.literal();
+                return Operand.value(variables -> literal);
+            }
+            case IDENTIFIER -> {
+                return identifier(token.text());
+            }
+            case VARIABLE -> {
+                String name = token.text();
+                return Operand.value(variables -> variables.get(name));
+            }
+            case SYMBOL -> {
+                if (!"(".equals(token.text())) {
+                    return null;
+                }
+                Operand inner = parseOr();
+                if (inner == null || !peekSymbol(")")) {
+                    return null;
+                }
+                position++;
+                return inner;
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private Operand identifier(String name) {
+        String lower = name.toLowerCase();
+        if ("true".equals(lower)) {
+            return Operand.value(variables -> Boolean.TRUE);
+        }
+        if ("false".equals(lower)) {
+            return Operand.value(variables -> Boolean.FALSE);
+        }
+        if ("null".equals(lower)) {
+            return Operand.value(variables -> null);
+        }
+        if (isKeyword(lower)) {
+            return null;
+        }
+        return Operand.value(variables -> {
+            Object value = variables.get(name);
+            if (value == null && !variables.containsKey(name)) {
+                throw new IllegalArgumentException("Variable not found in expression context: " + name);
+            }
+            return value;
+        });
+    }
+
+    private Condition comparison(String operator, ValueNode left, ValueNode right) {
+        return switch (operator) {
+            case "==" -> variables -> valueEquals(left.eval(variables), right.eval(variables));
+            case "!=" -> variables -> !valueEquals(left.eval(variables), right.eval(variables));
+            case ">" -> variables -> compare(left.eval(variables), right.eval(variables)) > 0;
+            case ">=" -> variables -> compare(left.eval(variables), right.eval(variables)) >= 0;
+            case "<" -> variables -> compare(left.eval(variables), right.eval(variables)) < 0;
+            default -> variables -> compare(left.eval(variables), right.eval(variables)) <= 0;
+        };
+    }
+
+    private Token peek() {
+        return tokens.get(position);
+    }
+
+    private boolean peekSymbol(String symbol) {
+        Token token = peek();
+        return token.kind() == TokenKind.SYMBOL && token.text().equals(symbol);
+    }
+
+    private boolean peekKeyword(String keyword) {
+        Token token = peek();
+        return token.kind() == TokenKind.IDENTIFIER && token.text().equalsIgnoreCase(keyword);
+    }
+
+    private static boolean isComparison(String symbol) {
+        return switch (symbol) {
+            case "==", "!=", ">", ">=", "<", "<=" -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isKeyword(String lower) {
+        return switch (lower) {
+            case "and", "or", "not" -> true;
+            default -> false;
+        };
+    }
+
+    static boolean toBoolean(Object value, String expression) {
+        if (value instanceof Boolean bool) {
+            return bool;
+        }
+        if (value instanceof String text) {
+            String lower = text.trim().toLowerCase();
+            switch (lower) {
+                case "true", "on", "yes", "1" -> {
+                    return true;
+                }
+                case "false", "off", "no", "0" -> {
+                    return false;
+                }
+                default -> {
+                }
+            }
+        }
+        throw new IllegalArgumentException("Cannot convert value to boolean in expression '" + expression + "': " + value);
+    }
+
+    static boolean valueEquals(Object left, Object right) {
+        if (left == right) {
+            return true;
+        }
+        if (left instanceof Number l && right instanceof Number r) {
+            return compareNumbers(l, r) == 0;
+        }
+        if (Objects.equals(left, right)) {
+            return true;
+        }
+        if (left instanceof Comparable<?> && right != null && left.getClass() == right.getClass()) {
+            return compare(left, right) == 0;
+        }
+        return false;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int compare(Object left, Object right) {
+        if (left == null) {
+            return right == null ? 0 : -1;
+        }
+        if (right == null) {
+            return 1;
+        }
+        if (left instanceof Number l && right instanceof Number r) {
+            return compareNumbers(l, r);
+        }
+        if (left instanceof Comparable comparable && left.getClass().isInstance(right)) {
+            return comparable.compareTo(right);
+        }
+        throw new IllegalArgumentException("Cannot compare " + left.getClass().getName()
+                + " with " + right.getClass().getName());
+    }
+
+    private static int compareNumbers(Number left, Number right) {
+        if (isIntegral(left) && isIntegral(right)) {
+            return Long.compare(left.longValue(), right.longValue());
+        }
+        if (left instanceof BigDecimal || right instanceof BigDecimal
+                || left instanceof BigInteger || right instanceof BigInteger) {
+            return toBigDecimal(left).compareTo(toBigDecimal(right));
+        }
+        return Double.compare(left.doubleValue(), right.doubleValue());
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Integer || number instanceof Long
+                || number instanceof Short || number instanceof Byte;
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (number instanceof BigInteger integer) {
+            return new BigDecimal(integer);
+        }
+        if (isIntegral(number)) {
+            return BigDecimal.valueOf(number.longValue());
+        }
+        return BigDecimal.valueOf(number.doubleValue());
+    }
+
+    private static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (Character.isDigit(c)) {
+                int start = i;
+                while (i < length && Character.isDigit(text.charAt(i))) {
+                    i++;
+                }
+                boolean decimal = false;
+                if (i + 1 < length && text.charAt(i) == '.' && Character.isDigit(text.charAt(i + 1))) {
+                    decimal = true;
+                    i++;
+                    while (i < length && Character.isDigit(text.charAt(i))) {
+                        i++;
+                    }
+                }
+                if (i < length && Character.isLetter(text.charAt(i))) {
+                    // 1000L / 1.5d 等带后缀字面量交给 SpEL。
+                    return null;
+                }
+                Object literal = parseNumber(text.substring(start, i), decimal);
+                if (literal == null) {
+                    return null;
+                }
+                tokens.add(new Token(TokenKind.NUMBER, text.substring(start, i), literal));
+                continue;
+            }
+            if (c == '\'' || c == '"') {
+                StringBuilder sb = new StringBuilder();
+                int j = i + 1;
+                boolean closed = false;
+                while (j < length) {
+                    char current = text.charAt(j);
+                    if (current == c) {
+                        // SpEL 以连续两个引号表示转义。
+                        if (j + 1 < length && text.charAt(j + 1) == c) {
+                            sb.append(c);
+                            j += 2;
+                            continue;
+                        }
+                        closed = true;
+                        break;
+                    }
+                    sb.append(current);
+                    j++;
+                }
+                if (!closed) {
+                    return null;
+                }
+                tokens.add(new Token(TokenKind.STRING, text.substring(i, j + 1), sb.toString()));
+                i = j + 1;
+                continue;
+            }
+            if (Character.isLetter(c) || c == '_' || c == '#') {
+                int start = c == '#' ? i + 1 : i;
+                int j = start;
+                while (j < length && (Character.isLetterOrDigit(text.charAt(j)) || text.charAt(j) == '_')) {
+                    j++;
+                }
+                if (j == start) {
+                    return null;
+                }
+                TokenKind kind = c == '#' ? TokenKind.VARIABLE : TokenKind.IDENTIFIER;
+                tokens.add(new Token(kind, text.substring(start, j), null));
+                i = j;
+                continue;
+            }
+            String symbol = matchSymbol(text, i);
+            if (symbol == null) {
+                return null;
+            }
+            tokens.add(new Token(TokenKind.SYMBOL, symbol, null));
+            i += symbol.length();
+        }
+        tokens.add(new Token(TokenKind.END, "", null));
+        return tokens;
+    }
+
+    private static String matchSymbol(String text, int index) {
+        String two = index + 2 <= text.length() ? text.substring(index, index + 2) : "";
+        switch (two) {
+            case "==", "!=", ">=", "<=", "&&", "||" -> {
+                return two;
+            }
+            default -> {
+            }
+        }
+        char c = text.charAt(index);
+        return switch (c) {
+            case '>', '<', '!', '(', ')' -> String.valueOf(c);
+            default -> null;
+        };
+    }
+
+    private static Object parseNumber(String raw, boolean decimal) {
+        try {
+            if (decimal) {
+                return Double.parseDouble(raw);
+            }
+            // 与 SpEL 一致：整数字面量为 int，超出范围视为非法（交由 SpEL 报错）。
+            return Integer.parseInt(raw);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * 求值节点。
+     */
+    @FunctionalInterface
+    interface ValueNode {
+
+        /**
+         * 计算节点值。
+         *
+         * @param variables 变量上下文
+         * @return 节点值
+         */
+        Object eval(Map<String, Object> variables);
+    }
+
+    /**
+     * 布尔条件节点。
+     */
+    @FunctionalInterface
+    interface Condition {
+
+        /**
+         * 计算条件。
+         *
+         * @param variables 变量上下文
+         * @return 条件结果
+         */
+        boolean test(Map<String, Object> variables);
+    }
+
+    /**
+     * 语法分析中间结果，可能是取值节点或已确定的布尔条件。
+     *
+     * @param value 取值节点
+     * @param condition 布尔条件，取值节点时为 null
+     */
+    private record Operand(ValueNode value, Condition condition) {
+
+        static Operand value(ValueNode value) {
+            return new Operand(value, null);
+        }
+
+        static Operand of(Condition condition) {
+            return new Operand(variables -> condition.test(variables), condition);
+        }
+
+        Condition asCondition(String expression) {
+            if (condition != null) {
+                return condition;
+            }
+            ValueNode node = value;
+            return variables -> toBoolean(node.eval(variables), expression);
+        }
+    }
+
+    /**
+     * 词法单元类型。
+     */
+    private enum TokenKind {
+        NUMBER,
+        STRING,
+        IDENTIFIER,
+        VARIABLE,
+        SYMBOL,
+        END
+    }
+
+    /**
+     * 词法单元。
+     *
+     * @param kind 类型
+     * @param text 原文
+     * @param literal 字面量值
+     */
+    private record Token(TokenKind kind, String text, Object literal) {
+    }
+}
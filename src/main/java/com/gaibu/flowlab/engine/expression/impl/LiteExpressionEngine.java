@@ -0,0 +1,55 @@
+package com.gaibu.flowlab.engine.expression.impl;
+
+import com.gaibu.flowlab.engine.expression.CompiledExpression;
+import com.gaibu.flowlab.engine.expression.ExpressionEngine;
+
+import java.util.Map;
+
+/**
+ * 轻量表达式引擎，面向边标签中最常见的简单条件。
+ *
+ * <p>比较、逻辑运算、字面量、变量引用和 null 判断在部署期编译为闭包树，运行期直接读取变量 Map，
+ * 不经过反射属性访问；其余写法（方法调用、算术、三元、集合选择等）整体回退到 SpEL 引擎。
+ */
+public class LiteExpressionEngine implements ExpressionEngine {
+
+    /**
+     * 不支持语法时的回退引擎。
+     */
+    private final ExpressionEngine fallback;
+
+    public LiteExpressionEngine() {
+        this(new SpelExpressionEngine());
+    }
+
+    public LiteExpressionEngine(ExpressionEngine fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public boolean evaluateBoolean(String expression, Map<String, Object> variables) {
+        return compile(expression).evaluateBoolean(variables);
+    }
+
+    @Override
+    public CompiledExpression compile(String expression) {
+        if (expression == null || expression.isBlank()) {
+            return fallback.compile(expression);
+        }
+        CompiledExpression compiled = LiteExpressionCompiler.compile(expression.trim());
+        if (compiled == null) {
+            return fallback.compile(expression);
+        }
+        return variables -> compiled.evaluateBoolean(variables == null ? Map.of() : variables);
+    }
+
+    /**
+     * 判断表达式是否可由轻量编译器直接处理（不回退 SpEL）。
+     *
+     * @param expression 表达式文本
+     * @return true 表示在支持子集内
+     */
+    public boolean supports(String expression) {
+        return expression != null && !expression.isBlank() && LiteExpressionCompiler.compile(expression.trim()) != null;
+    }
+}
@@ -1,93 +1,215 @@
 package com.gaibu.flowlab.engine.expression.impl;
 
+import com.gaibu.flowlab.engine.expression.CompiledExpression;
 import com.gaibu.flowlab.engine.expression.ExpressionEngine;
 import org.springframework.expression.AccessException;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.ConstructorResolver;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.IndexAccessor;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.OperatorOverloader;
 import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypeComparator;
+import org.springframework.expression.TypeConverter;
+import org.springframework.expression.TypeLocator;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.MapAccessor;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
+import java.util.List;
 import java.util.Map;
 
 /**
  * 基于 SpEL 的表达式引擎实现。
+ *
+ * <p>变量 Map 直接作为根对象，裸变量名（如 amount > 1000）经 {@link MapAccessor} 读取，
+ * 根 Map 中不存在的裸变量名直接报错，不会解析为 Map 自身的属性（如 empty），与 LiteExpressionEngine 一致；
+ * 也可通过 #amount 形式按变量引用。解析器、属性访问器和求值上下文配置在引擎内共享，
+ * 每次求值只创建一个轻量的变量视图上下文。
  */
 public class SpelExpressionEngine implements ExpressionEngine {
 
+    /**
+     * 恒为 true 的表达式。
+     */
+    private static final CompiledExpression ALWAYS_TRUE = variables -> true;
+
+    /**
+     * 恒为 false 的表达式。
+     */
+    private static final CompiledExpression ALWAYS_FALSE = variables -> false;
+
     /**
      * SpEL 解析器。
      */
-    private final ExpressionParser parser = new SpelExpressionParser();
+    private final ExpressionParser parser;
+
+    /**
+     * 共享求值配置（属性访问器、类型转换等），只读使用。
+     */
+    private final StandardEvaluationContext sharedContext;
+
+    public SpelExpressionEngine() {
+        this(SpelCompilerMode.OFF);
+    }
+
+    /**
+     * 指定 SpEL 编译模式创建引擎。
+     *
+     * @param compilerMode OFF 为纯解释执行；IMMEDIATE/MIXED 会在热点表达式上生成字节码
+     */
+    public SpelExpressionEngine(SpelCompilerMode compilerMode) {
+        this.parser = new SpelExpressionParser(new SpelParserConfiguration(compilerMode, getClass().getClassLoader()));
+        this.sharedContext = new StandardEvaluationContext();
+        this.sharedContext.addPropertyAccessor(new RootVariableAccessor());
+    }
 
     @Override
     public boolean evaluateBoolean(String expression, Map<String, Object> variables) {
+        return compile(expression).evaluateBoolean(variables);
+    }
+
+    @Override
+    public CompiledExpression compile(String expression) {
         if (expression == null || expression.isBlank()) {
-            return false;
+            return ALWAYS_FALSE;
         }
 
         String trimmed = expression.trim();
         if ("true".equalsIgnoreCase(trimmed)) {
-            return true;
+            return ALWAYS_TRUE;
         }
         if ("false".equalsIgnoreCase(trimmed)) {
-            return false;
+            return ALWAYS_FALSE;
         }
+        return new SpelCompiledExpression(parser.parseExpression(trimmed), sharedContext);
+    }
 
-        Map<String, Object> safeVariables = variables == null ? Map.of() : variables;
-
-        StandardEvaluationContext context = new StandardEvaluationContext(new VariableRoot(safeVariables));
-        context.setVariables(safeVariables);
-        context.addPropertyAccessor(new VariableRootAccessor());
+    /**
+     * 已解析的 SpEL 表达式。
+     *
+     * @param expression SpEL 表达式
+     * @param sharedContext 共享求值配置
+     */
+    private record SpelCompiledExpression(Expression expression, StandardEvaluationContext sharedContext)
+            implements CompiledExpression {
 
-        Expression parsed = parser.parseExpression(trimmed);
-        Object value = parsed.getValue(context);
-        if (value instanceof Boolean bool) {
-            return bool;
+        @Override
+        public boolean evaluateBoolean(Map<String, Object> variables) {
+            Map<String, Object> safeVariables = variables == null ? Map.of() : variables;
+            Object value = expression.getValue(new VariableEvaluationContext(sharedContext, safeVariables), safeVariables);
+            if (value instanceof Boolean bool) {
+                return bool;
+            }
+            return Boolean.TRUE.equals(value);
         }
-        return Boolean.TRUE.equals(value);
     }
 
     /**
-     * 表达式根对象。
-     *
-     * @param values 变量 Map
+     * 根变量访问器：根 Map 上的任何名称都由本访问器读取，不存在的键抛出异常而不是回落到反射访问器，
+     * 否则 empty 等名称会解析为 {@code Map.isEmpty()}。嵌套 Map 的读取与编译后的字节码沿用 {@link MapAccessor}。
      */
-    private record VariableRoot(Map<String, Object> values) {
+    private static final class RootVariableAccessor extends MapAccessor {
+
+        private RootVariableAccessor() {
+            super(false);
+        }
+
+        @Override
+        public boolean canRead(EvaluationContext context, Object target, String name) throws AccessException {
+            return super.canRead(context, target, name) || target == context.getRootObject().getValue();
+        }
     }
 
     /**
-     * 变量属性访问器，使 SpEL 可直接使用裸变量名（如 amount > 1000）。
+     * 单次求值的变量视图上下文，除变量查找外全部委托共享配置。
      */
-    private static class VariableRootAccessor implements PropertyAccessor {
+    private static final class VariableEvaluationContext implements EvaluationContext {
+
+        /**
+         * 共享求值配置。
+         */
+        private final StandardEvaluationContext delegate;
+
+        /**
+         * 当前变量。
+         */
+        private final Map<String, Object> variables;
+
+        private VariableEvaluationContext(StandardEvaluationContext delegate, Map<String, Object> variables) {
+            this.delegate = delegate;
+            this.variables = variables;
+        }
 
         @Override
-        public Class<?>[] getSpecificTargetClasses() {
-            return new Class[]{VariableRoot.class};
+        public TypedValue getRootObject() {
+            return new TypedValue(variables);
         }
 
         @Override
-        public boolean canRead(EvaluationContext context, Object target, String name) {
-            VariableRoot root = (VariableRoot) target;
-            return root.values().containsKey(name);
+        public List<PropertyAccessor> getPropertyAccessors() {
+            return delegate.getPropertyAccessors();
         }
 
         @Override
-        public TypedValue read(EvaluationContext context, Object target, String name) throws AccessException {
-            VariableRoot root = (VariableRoot) target;
-            return new TypedValue(root.values().get(name));
+        public List<IndexAccessor> getIndexAccessors() {
+            return delegate.getIndexAccessors();
         }
 
         @Override
-        public boolean canWrite(EvaluationContext context, Object target, String name) {
-            return false;
+        public List<ConstructorResolver> getConstructorResolvers() {
+            return delegate.getConstructorResolvers();
+        }
+
+        @Override
+        public List<MethodResolver> getMethodResolvers() {
+            return delegate.getMethodResolvers();
+        }
+
+        @Override
+        public BeanResolver getBeanResolver() {
+            return delegate.getBeanResolver();
         }
 
         @Override
-        public void write(EvaluationContext context, Object target, String name, Object newValue) {
-            throw new UnsupportedOperationException("Read-only accessor.");
+        public TypeLocator getTypeLocator() {
+            return delegate.getTypeLocator();
+        }
+
+        @Override
+        public TypeConverter getTypeConverter() {
+            return delegate.getTypeConverter();
+        }
+
+        @Override
+        public TypeComparator getTypeComparator() {
+            return delegate.getTypeComparator();
+        }
+
+        @Override
+        public OperatorOverloader getOperatorOverloader() {
+            return delegate.getOperatorOverloader();
+        }
+
+        @Override
+        public void setVariable(String name, Object value) {
+            throw new UnsupportedOperationException("Read-only evaluation context.");
+        }
+
+        @Override
+        public Object lookupVariable(String name) {
+            return variables.get(name);
+        }
+
+        @Override
+        public boolean isAssignmentEnabled() {
+            return false;
         }
     }
 }
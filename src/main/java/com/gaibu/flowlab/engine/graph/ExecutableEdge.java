@@ -1,5 +1,6 @@
 package com.gaibu.flowlab.engine.graph;
 
+import com.gaibu.flowlab.engine.expression.CompiledExpression;
 import com.gaibu.flowlab.engine.runtime.NodeId;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -28,11 +29,26 @@ public class ExecutableEdge {
      */
     private NodeId target;
 
+    /**
+     * 源节点下标。
+     */
+    private int sourceIndex = -1;
+
+    /**
+     * 目标节点下标。
+     */
+    private int targetIndex = -1;
+
     /**
      * 条件表达式（XOR/OR 场景使用）。
      */
     private String conditionExpression;
 
+    /**
+     * 部署期预编译的条件表达式，为空时按 conditionExpression 文本求值。
+     */
+    private CompiledExpression compiledExpression;
+
     /**
      * 是否为默认路径。
      */
@@ -6,6 +6,9 @@ import java.util.List;
 
 /**
  * 编译后的流程可执行图接口。
+ * <p>
+ * 节点在编译期分配 [0, nodeCount) 的稠密下标，运行期热路径统一按下标访问；
+ * 基于 {@link NodeId} 的方法仅用于部署、调试等边界场景。
  */
 public interface ExecutableGraph {
 
@@ -39,4 +42,66 @@ public interface ExecutableGraph {
      * @return 开始节点 ID
      */
     NodeId startNodeId();
+
+    /**
+     * 节点总数。
+     *
+     * @return 节点数量
+     */
+    int nodeCount();
+
+    /**
+     * 查询节点下标。
+     *
+     * @param nodeId 节点 ID
+     * @return 节点下标，不存在返回 -1
+     */
+    int indexOf(NodeId nodeId);
+
+    /**
+     * 按下标获取节点。
+     *
+     * @param index 节点下标
+     * @return 节点对象，越界返回 null
+     */
+    ExecutableNode node(int index);
+
+    /**
+     * 按下标获取节点出边。
+     *
+     * @param index 节点下标
+     * @return 出边列表
+     */
+    List<ExecutableEdge> outgoing(int index);
+
+    /**
+     * 按下标获取节点入边。
+     *
+     * @param index 节点下标
+     * @return 入边列表
+     */
+    List<ExecutableEdge> incoming(int index);
+
+    /**
+     * 节点入度。
+     *
+     * @param index 节点下标
+     * @return 入边数量
+     */
+    int inDegree(int index);
+
+    /**
+     * 节点出度。
+     *
+     * @param index 节点下标
+     * @return 出边数量
+     */
+    int outDegree(int index);
+
+    /**
+     * 获取开始节点下标。
+     *
+     * @return 开始节点下标
+     */
+    int startNodeIndex();
 }
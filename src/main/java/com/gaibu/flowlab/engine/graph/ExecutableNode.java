@@ -24,6 +24,11 @@ public class ExecutableNode {
      */
     private NodeId id;
 
+    /**
+     * 编译期分配的稠密下标。
+     */
+    private int index = -1;
+
     /**
      * 节点类型。
      */
@@ -39,6 +44,11 @@ public class ExecutableNode {
      */
     private NodeBehavior behavior;
 
+    /**
+     * 编译期生成的路由计划。
+     */
+    private RoutingPlan routingPlan;
+
     /**
      * 节点元数据。
      */
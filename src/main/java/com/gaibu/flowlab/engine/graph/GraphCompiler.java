@@ -1,16 +1,23 @@
 package com.gaibu.flowlab.engine.graph;
 
 import com.gaibu.flowlab.engine.behavior.NodeBehaviorFactory;
+import com.gaibu.flowlab.engine.expression.CompiledExpression;
 import com.gaibu.flowlab.engine.runtime.NodeId;
+import com.gaibu.flowlab.parser.exception.DefinitionException;
 import com.gaibu.flowlab.parser.model.entity.Edge;
 import com.gaibu.flowlab.parser.model.entity.Node;
 import com.gaibu.flowlab.parser.model.entity.ProcessDefinition;
+import com.gaibu.flowlab.parser.model.enums.GatewayType;
 import com.gaibu.flowlab.parser.model.enums.NodeType;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 流程定义到可执行图的编译器。
@@ -30,6 +37,15 @@ public class GraphCompiler {
         this.behaviorFactory = behaviorFactory;
     }
 
+    /**
+     * 返回节点行为工厂。
+     *
+     * @return 行为工厂
+     */
+    public NodeBehaviorFactory behaviorFactory() {
+        return behaviorFactory;
+    }
+
     /**
      * 编译流程定义。
      *
@@ -37,8 +53,8 @@ public class GraphCompiler {
      * @return 可执行图
      */
     public ExecutableGraph compile(ProcessDefinition definition) {
-        InMemoryExecutableGraph graph = new InMemoryExecutableGraph();
-
+        Map<NodeId, ExecutableNode> nodes = new LinkedHashMap<>();
+        NodeId startNodeId = null;
         for (Node node : definition.getNodes().values()) {
             ExecutableNode executableNode = new ExecutableNode();
             executableNode.setId(new NodeId(node.getId()));
@@ -46,16 +62,19 @@ public class GraphCompiler {
             executableNode.setGatewayType(node.getGatewayType());
             executableNode.getMetadata().putAll(node.getMetadata());
             executableNode.setBehavior(behaviorFactory.create(node));
-            graph.mutableNodes().put(executableNode.getId(), executableNode);
+            nodes.put(executableNode.getId(), executableNode);
 
             if (node.getType() == NodeType.START) {
-                graph.setStartNodeId(executableNode.getId());
+                startNodeId = executableNode.getId();
             }
         }
 
-        Map<NodeId, List<ExecutableEdge>> outgoing = new LinkedHashMap<>();
-        Map<NodeId, List<ExecutableEdge>> incoming = new LinkedHashMap<>();
+        if (startNodeId == null) {
+            throw new IllegalStateException("No start node found in process definition: " + definition.getId());
+        }
 
+        List<ExecutableEdge> edges = new ArrayList<>();
+        Map<NodeId, List<NodeId>> successors = new LinkedHashMap<>();
         for (Edge edge : definition.getEdges().values()) {
             ExecutableEdge executableEdge = new ExecutableEdge();
             executableEdge.setId(edge.getId());
@@ -63,18 +82,83 @@ public class GraphCompiler {
             executableEdge.setTarget(new NodeId(edge.getTargetRef()));
             executableEdge.setConditionExpression(edge.getConditionExpression());
             executableEdge.setDefaultEdge(edge.isDefaultEdge());
+            if (isConditionalRoute(definition, edge)) {
+                CompiledExpression compiled = compileCondition(edge);
+                edge.setCompiledExpression(compiled);
+                executableEdge.setCompiledExpression(compiled);
+            }
+            if (!nodes.containsKey(executableEdge.getSource()) || !nodes.containsKey(executableEdge.getTarget())) {
+                throw new DefinitionException("Edge " + edge.getId() + " references unknown node: "
+                        + edge.getSourceRef() + " -> " + edge.getTargetRef());
+            }
 
-            outgoing.computeIfAbsent(executableEdge.getSource(), key -> new ArrayList<>()).add(executableEdge);
-            incoming.computeIfAbsent(executableEdge.getTarget(), key -> new ArrayList<>()).add(executableEdge);
+            edges.add(executableEdge);
+            successors.computeIfAbsent(executableEdge.getSource(), key -> new ArrayList<>()).add(executableEdge.getTarget());
         }
 
-        graph.mutableOutgoingIndex().putAll(outgoing);
-        graph.mutableIncomingIndex().putAll(incoming);
-
-        if (graph.startNodeId() == null) {
-            throw new IllegalStateException("No start node found in process definition: " + definition.getId());
+        List<ExecutableNode> ordered = orderNodes(nodes, successors, startNodeId);
+        for (int i = 0; i < ordered.size(); i++) {
+            ordered.get(i).setIndex(i);
+        }
+        for (ExecutableEdge edge : edges) {
+            edge.setSourceIndex(nodes.get(edge.getSource()).getIndex());
+            edge.setTargetIndex(nodes.get(edge.getTarget()).getIndex());
         }
 
+        IndexedExecutableGraph graph = new IndexedExecutableGraph(ordered, edges, nodes.get(startNodeId).getIndex());
+        for (ExecutableNode node : ordered) {
+            node.setRoutingPlan(RoutingPlan.of(node, graph));
+        }
         return graph;
     }
+
+    /**
+     * 自开始节点按 BFS 排列节点，使同一路径上相邻执行的节点下标相近；不可达节点追加在末尾。
+     */
+    private List<ExecutableNode> orderNodes(
+            Map<NodeId, ExecutableNode> nodes,
+            Map<NodeId, List<NodeId>> successors,
+            NodeId startNodeId) {
+        Set<NodeId> visited = new LinkedHashSet<>();
+        Deque<NodeId> queue = new ArrayDeque<>();
+        visited.add(startNodeId);
+        queue.add(startNodeId);
+        while (!queue.isEmpty()) {
+            NodeId current = queue.poll();
+            for (NodeId next : successors.getOrDefault(current, List.of())) {
+                if (visited.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        visited.addAll(nodes.keySet());
+
+        List<ExecutableNode> ordered = new ArrayList<>(nodes.size());
+        for (NodeId nodeId : visited) {
+            ordered.add(nodes.get(nodeId));
+        }
+        return ordered;
+    }
+
+    private boolean isConditionalRoute(ProcessDefinition definition, Edge edge) {
+        if (edge.isDefaultEdge() || edge.getConditionExpression() == null) {
+            return false;
+        }
+        // 只有 XOR/OR 网关会对出边条件求值，其余连线上的标签仅作说明，不参与编译。
+        Node source = definition.getNodes().get(edge.getSourceRef());
+        if (source == null || source.getType() != NodeType.GATEWAY) {
+            return false;
+        }
+        return source.getGatewayType() == GatewayType.EXCLUSIVE || source.getGatewayType() == GatewayType.INCLUSIVE;
+    }
+
+    private CompiledExpression compileCondition(Edge edge) {
+        try {
+            return behaviorFactory.expressionEngine().compile(edge.getConditionExpression());
+        } catch (RuntimeException ex) {
+            throw new DefinitionException("Invalid condition expression on edge "
+                    + edge.getId() + " (" + edge.getSourceRef() + " -> " + edge.getTargetRef() + "): "
+                    + edge.getConditionExpression(), ex);
+        }
+    }
 }
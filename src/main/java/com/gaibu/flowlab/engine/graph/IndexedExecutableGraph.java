@@ -0,0 +1,184 @@
+package com.gaibu.flowlab.engine.graph;
+
+import com.gaibu.flowlab.engine.runtime.NodeId;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于稠密下标与 CSR 邻接数组的可执行图实现。
+ * <p>
+ * 节点按编译器给定顺序（自开始节点 BFS）编号，出/入边按源/目标节点下标连续存放，
+ * 第 i 个节点的出边为 {@code outEdges[outOffsets[i] .. outOffsets[i + 1])}。
+ * 图在构建后不可变，可被多个实例并发共享。
+ */
+public class IndexedExecutableGraph implements ExecutableGraph {
+
+    /**
+     * 按下标排列的节点。
+     */
+    private final ExecutableNode[] nodes;
+
+    /**
+     * 出边偏移，长度为 nodeCount + 1。
+     */
+    private final int[] outOffsets;
+
+    /**
+     * 按源节点下标连续排列的出边。
+     */
+    private final ExecutableEdge[] outEdges;
+
+    /**
+     * 入边偏移，长度为 nodeCount + 1。
+     */
+    private final int[] inOffsets;
+
+    /**
+     * 按目标节点下标连续排列的入边。
+     */
+    private final ExecutableEdge[] inEdges;
+
+    /**
+     * 每个节点出边的只读视图，避免运行期重复创建列表。
+     */
+    private final List<ExecutableEdge>[] outgoingViews;
+
+    /**
+     * 每个节点入边的只读视图。
+     */
+    private final List<ExecutableEdge>[] incomingViews;
+
+    /**
+     * 节点 ID 到下标的映射，仅用于边界查询。
+     */
+    private final Map<NodeId, Integer> indexById;
+
+    /**
+     * 开始节点下标。
+     */
+    private final int startIndex;
+
+    /**
+     * 构建索引图，要求节点与连线已写入下标。
+     *
+     * @param orderedNodes 按下标排列的节点
+     * @param edges 全部连线（保持定义顺序）
+     * @param startIndex 开始节点下标
+     */
+    IndexedExecutableGraph(List<ExecutableNode> orderedNodes, List<ExecutableEdge> edges, int startIndex) {
+        int nodeCount = orderedNodes.size();
+        this.nodes = orderedNodes.toArray(new ExecutableNode[0]);
+        this.startIndex = startIndex;
+        this.indexById = new HashMap<>(nodeCount * 2);
+        for (ExecutableNode node : nodes) {
+            indexById.put(node.getId(), node.getIndex());
+        }
+
+        this.outOffsets = new int[nodeCount + 1];
+        this.inOffsets = new int[nodeCount + 1];
+        for (ExecutableEdge edge : edges) {
+            outOffsets[edge.getSourceIndex() + 1]++;
+            inOffsets[edge.getTargetIndex() + 1]++;
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            outOffsets[i + 1] += outOffsets[i];
+            inOffsets[i + 1] += inOffsets[i];
+        }
+
+        this.outEdges = new ExecutableEdge[edges.size()];
+        this.inEdges = new ExecutableEdge[edges.size()];
+        int[] outCursor = Arrays.copyOf(outOffsets, nodeCount);
+        int[] inCursor = Arrays.copyOf(inOffsets, nodeCount);
+        for (ExecutableEdge edge : edges) {
+            outEdges[outCursor[edge.getSourceIndex()]++] = edge;
+            inEdges[inCursor[edge.getTargetIndex()]++] = edge;
+        }
+
+        this.outgoingViews = views(outEdges, outOffsets, nodeCount);
+        this.incomingViews = views(inEdges, inOffsets, nodeCount);
+    }
+
+    @Override
+    public ExecutableNode getNode(NodeId nodeId) {
+        return node(indexOf(nodeId));
+    }
+
+    @Override
+    public List<ExecutableEdge> outgoing(NodeId nodeId) {
+        return outgoing(indexOf(nodeId));
+    }
+
+    @Override
+    public List<ExecutableEdge> incoming(NodeId nodeId) {
+        return incoming(indexOf(nodeId));
+    }
+
+    @Override
+    public NodeId startNodeId() {
+        return nodes[startIndex].getId();
+    }
+
+    @Override
+    public int nodeCount() {
+        return nodes.length;
+    }
+
+    @Override
+    public int indexOf(NodeId nodeId) {
+        Integer index = nodeId == null ? null : indexById.get(nodeId);
+        return index == null ? -1 : index;
+    }
+
+    @Override
+    public ExecutableNode node(int index) {
+        if (index < 0 || index >= nodes.length) {
+            return null;
+        }
+        return nodes[index];
+    }
+
+    @Override
+    public List<ExecutableEdge> outgoing(int index) {
+        if (index < 0 || index >= nodes.length) {
+            return List.of();
+        }
+        return outgoingViews[index];
+    }
+
+    @Override
+    public List<ExecutableEdge> incoming(int index) {
+        if (index < 0 || index >= nodes.length) {
+            return List.of();
+        }
+        return incomingViews[index];
+    }
+
+    @Override
+    public int inDegree(int index) {
+        return inOffsets[index + 1] - inOffsets[index];
+    }
+
+    @Override
+    public int outDegree(int index) {
+        return outOffsets[index + 1] - outOffsets[index];
+    }
+
+    @Override
+    public int startNodeIndex() {
+        return startIndex;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<ExecutableEdge>[] views(ExecutableEdge[] edges, int[] offsets, int nodeCount) {
+        List<ExecutableEdge>[] views = new List[nodeCount];
+        List<ExecutableEdge> all = Collections.unmodifiableList(Arrays.asList(edges));
+        for (int i = 0; i < nodeCount; i++) {
+            views[i] = offsets[i] == offsets[i + 1] ? List.of() : all.subList(offsets[i], offsets[i + 1]);
+        }
+        return views;
+    }
+}
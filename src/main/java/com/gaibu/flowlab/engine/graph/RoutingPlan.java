@@ -0,0 +1,179 @@
+package com.gaibu.flowlab.engine.graph;
+
+import com.gaibu.flowlab.engine.execution.instruction.CompleteInstruction;
+import com.gaibu.flowlab.engine.execution.instruction.ForkInstruction;
+import com.gaibu.flowlab.engine.execution.instruction.Instruction;
+import com.gaibu.flowlab.engine.execution.instruction.JoinInstruction;
+import com.gaibu.flowlab.engine.execution.instruction.MoveInstruction;
+import com.gaibu.flowlab.engine.runtime.NodeId;
+import com.gaibu.flowlab.engine.runtime.ScopeId;
+import com.gaibu.flowlab.parser.model.enums.GatewayType;
+import com.gaibu.flowlab.parser.model.enums.NodeType;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 节点路由计划，由图编译器预先生成，运行期只读共享。
+ * <p>
+ * 缓存的指令对象均不可变，可被所有实例、所有 Token 复用。
+ */
+@Getter
+public final class RoutingPlan {
+
+    /**
+     * 完成指令单例。
+     */
+    public static final CompleteInstruction COMPLETE = new CompleteInstruction();
+
+    /**
+     * 沿全部出边流转的指令：无出边或 END 为完成，单出边为移动，多出边为分叉。
+     * TASK 节点的超时出边不参与常规流转。
+     */
+    private final Instruction route;
+
+    /**
+     * 与出边一一对应的移动指令。
+     */
+    private final List<MoveInstruction> moves;
+
+    /**
+     * 默认出边，不存在时为 null。
+     */
+    private final ExecutableEdge defaultEdge;
+
+    /**
+     * 沿默认出边移动的指令，不存在时为 null。
+     */
+    private final MoveInstruction defaultMove;
+
+    /**
+     * TASK 节点超时出边（标签为 timeout）的移动指令，不存在时为 null。
+     */
+    private final MoveInstruction timeoutMove;
+
+    /**
+     * TASK 节点重新执行自身的移动指令，用于延迟重试；非 TASK 节点为 null。
+     */
+    private final MoveInstruction retryMove;
+
+    /**
+     * 是否为汇聚节点（AND/OR 网关且入边多于一条）。
+     */
+    private final boolean join;
+
+    /**
+     * 汇聚指令，仅 join=true 时有效。
+     */
+    private final JoinInstruction joinInstruction;
+
+    /**
+     * 期望到达汇聚节点的 Token 数。
+     */
+    private final int expectedArrivals;
+
+    /**
+     * 汇聚作用域键，仅 join=true 时有效。
+     */
+    private final String joinScopeKey;
+
+    /**
+     * 汇聚作用域 ID，仅 join=true 时有效。
+     */
+    private final ScopeId joinScopeId;
+
+    private RoutingPlan(ExecutableNode node, ExecutableGraph graph) {
+        List<ExecutableEdge> outgoing = graph.outgoing(node.getIndex());
+        List<MoveInstruction> moveList = new ArrayList<>(outgoing.size());
+        List<ExecutableEdge> routed = new ArrayList<>(outgoing.size());
+        ExecutableEdge defaultCandidate = null;
+        MoveInstruction defaultCandidateMove = null;
+        MoveInstruction timeoutCandidate = null;
+        for (ExecutableEdge edge : outgoing) {
+            MoveInstruction move = move(edge);
+            moveList.add(move);
+            if (node.getType() == NodeType.TASK && isTimeoutEdge(edge)) {
+                if (timeoutCandidate == null) {
+                    timeoutCandidate = move;
+                }
+                continue;
+            }
+            routed.add(edge);
+            if (edge.isDefaultEdge() && defaultCandidate == null) {
+                defaultCandidate = edge;
+                defaultCandidateMove = move;
+            }
+        }
+        this.moves = List.copyOf(moveList);
+        this.defaultEdge = defaultCandidate;
+        this.defaultMove = defaultCandidateMove;
+        this.timeoutMove = timeoutCandidate;
+        this.retryMove = node.getType() == NodeType.TASK ? new MoveInstruction(node.getId(), node.getIndex()) : null;
+
+        if (node.getType() == NodeType.END || routed.isEmpty()) {
+            this.route = COMPLETE;
+        } else if (routed.size() == 1) {
+            this.route = routed.size() == outgoing.size() ? moves.get(0) : move(routed.get(0));
+        } else {
+            this.route = fork(routed);
+        }
+
+        int inDegree = graph.inDegree(node.getIndex());
+        this.join = node.getType() == NodeType.GATEWAY
+                && (node.getGatewayType() == GatewayType.PARALLEL || node.getGatewayType() == GatewayType.INCLUSIVE)
+                && inDegree > 1;
+        this.joinInstruction = join ? new JoinInstruction(node.getId()) : null;
+        this.expectedArrivals = Math.max(1, inDegree);
+        this.joinScopeKey = join ? "JOIN:" + node.getId().value() : null;
+        this.joinScopeId = join ? new ScopeId("SC-" + joinScopeKey) : null;
+    }
+
+    /**
+     * 为图中节点生成路由计划。
+     *
+     * @param node 节点（已分配下标）
+     * @param graph 所属图
+     * @return 路由计划
+     */
+    public static RoutingPlan of(ExecutableNode node, ExecutableGraph graph) {
+        return new RoutingPlan(node, graph);
+    }
+
+    /**
+     * 是否为超时出边（连线标签为 timeout，忽略大小写）。
+     *
+     * @param edge 连线
+     * @return 超时出边返回 true
+     */
+    public static boolean isTimeoutEdge(ExecutableEdge edge) {
+        return "timeout".equalsIgnoreCase(edge.getConditionExpression());
+    }
+
+    /**
+     * 沿单条连线移动。
+     *
+     * @param edge 连线
+     * @return 移动指令
+     */
+    public static MoveInstruction move(ExecutableEdge edge) {
+        return new MoveInstruction(edge.getTarget(), edge.getTargetIndex());
+    }
+
+    /**
+     * 沿多条连线分叉。
+     *
+     * @param edges 连线列表
+     * @return 分叉指令
+     */
+    public static ForkInstruction fork(List<ExecutableEdge> edges) {
+        List<NodeId> targets = new ArrayList<>(edges.size());
+        int[] indexes = new int[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            ExecutableEdge edge = edges.get(i);
+            targets.add(edge.getTarget());
+            indexes[i] = edge.getTargetIndex();
+        }
+        return new ForkInstruction(List.copyOf(targets), indexes);
+    }
+}
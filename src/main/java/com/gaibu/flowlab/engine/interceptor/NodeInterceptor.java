@@ -30,4 +30,15 @@ public interface NodeInterceptor {
      * @param ex 失败异常
      */
     void afterFailure(ExecutionContext ctx, Throwable ex);
+
+    /**
+     * 节点本次尝试失败、将退避后重新执行时回调，默认按失败处理。
+     * 步骤在此结束，重新执行时会再次触发 before 回调。
+     *
+     * @param ctx 执行上下文
+     * @param ex 本次尝试的失败原因
+     */
+    default void afterRetry(ExecutionContext ctx, Throwable ex) {
+        afterFailure(ctx, ex);
+    }
 }
@@ -7,6 +7,8 @@ import java.util.List;
 
 /**
  * 节点拦截器分发器，封装拦截器循环调用细节。
+ * <p>
+ * 按下标遍历，避免每步创建迭代器；拦截器列表只追加，遍历中新增的拦截器可能在本轮即生效。
  */
 public class NodeInterceptorChain {
 
@@ -17,8 +19,8 @@ public class NodeInterceptorChain {
      * @param ctx 执行上下文
      */
     public void before(List<NodeInterceptor> interceptors, ExecutionContext ctx) {
-        for (NodeInterceptor interceptor : interceptors) {
-            interceptor.before(ctx);
+        for (int i = 0; i < interceptors.size(); i++) {
+            interceptors.get(i).before(ctx);
         }
     }
 
@@ -30,8 +32,8 @@ public class NodeInterceptorChain {
      * @param instruction 节点返回指令
      */
     public void afterSuccess(List<NodeInterceptor> interceptors, ExecutionContext ctx, Instruction instruction) {
-        for (NodeInterceptor interceptor : interceptors) {
-            interceptor.afterSuccess(ctx, instruction);
+        for (int i = 0; i < interceptors.size(); i++) {
+            interceptors.get(i).afterSuccess(ctx, instruction);
         }
     }
 
@@ -43,8 +45,21 @@ public class NodeInterceptorChain {
      * @param ex 异常
      */
     public void afterFailure(List<NodeInterceptor> interceptors, ExecutionContext ctx, Throwable ex) {
-        for (NodeInterceptor interceptor : interceptors) {
-            interceptor.afterFailure(ctx, ex);
+        for (int i = 0; i < interceptors.size(); i++) {
+            interceptors.get(i).afterFailure(ctx, ex);
+        }
+    }
+
+    /**
+     * 触发 afterRetry 回调。
+     *
+     * @param interceptors 节点拦截器
+     * @param ctx 执行上下文
+     * @param ex 本次尝试的失败原因
+     */
+    public void afterRetry(List<NodeInterceptor> interceptors, ExecutionContext ctx, Throwable ex) {
+        for (int i = 0; i < interceptors.size(); i++) {
+            interceptors.get(i).afterRetry(ctx, ex);
         }
     }
 }
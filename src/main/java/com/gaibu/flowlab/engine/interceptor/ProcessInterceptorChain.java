@@ -16,8 +16,8 @@ public class ProcessInterceptorChain {
      * @param instance 流程实例
      */
     public void beforeStart(List<ProcessInterceptor> interceptors, ProcessInstance instance) {
-        for (ProcessInterceptor interceptor : interceptors) {
-            interceptor.beforeStart(instance);
+        for (int i = 0; i < interceptors.size(); i++) {
+            interceptors.get(i).beforeStart(instance);
         }
     }
 
@@ -28,8 +28,8 @@ public class ProcessInterceptorChain {
      * @param instance 流程实例
      */
     public void onCompleted(List<ProcessInterceptor> interceptors, ProcessInstance instance) {
-        for (ProcessInterceptor interceptor : interceptors) {
-            interceptor.onCompleted(instance);
+        for (int i = 0; i < interceptors.size(); i++) {
+            interceptors.get(i).onCompleted(instance);
         }
     }
 
@@ -41,8 +41,8 @@ public class ProcessInterceptorChain {
      * @param ex 异常
      */
     public void onFailed(List<ProcessInterceptor> interceptors, ProcessInstance instance, Throwable ex) {
-        for (ProcessInterceptor interceptor : interceptors) {
-            interceptor.onFailed(instance, ex);
+        for (int i = 0; i < interceptors.size(); i++) {
+            interceptors.get(i).onFailed(instance, ex);
         }
     }
 }
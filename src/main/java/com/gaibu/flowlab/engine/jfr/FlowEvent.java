@@ -0,0 +1,45 @@
+package com.gaibu.flowlab.engine.jfr;
+
+import com.gaibu.flowlab.engine.execution.ExecutionContext;
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * 引擎 JFR 事件基类，携带流程定义、节点、实例与 Token 标识。
+ * <p>
+ * 所有事件默认关闭，需在录制配置中显式开启（如 {@code jfr configure +flowlab.NodeExecution#enabled=true}
+ * 或 {@code Recording.enable(...)}）。未录制时埋点只剩一次开关判断，事件对象经逃逸分析消除；
+ * 字段仅在确定提交时填充。
+ */
+@Enabled(false)
+@StackTrace(false)
+@Category("Flow Lab")
+public abstract class FlowEvent extends Event {
+
+    @Label("Process Definition")
+    String processId;
+
+    @Label("Node")
+    String nodeId;
+
+    @Label("Instance")
+    String instanceId;
+
+    @Label("Token")
+    long tokenId;
+
+    /**
+     * 填充标识字段。
+     *
+     * @param ctx 执行上下文
+     */
+    void bind(ExecutionContext ctx) {
+        this.processId = ctx.instance().getProcessId();
+        this.nodeId = ctx.node().getId().value();
+        this.instanceId = ctx.instance().getId();
+        this.tokenId = ctx.token().getId().seq();
+    }
+}
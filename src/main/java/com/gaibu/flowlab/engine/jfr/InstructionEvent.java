@@ -0,0 +1,50 @@
+package com.gaibu.flowlab.engine.jfr;
+
+import com.gaibu.flowlab.engine.execution.ExecutionContext;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 指令应用事件，覆盖指令处理器修改运行时状态的时长。
+ */
+@Name("flowlab.Instruction")
+@Label("Instruction")
+public class InstructionEvent extends FlowEvent {
+
+    /**
+     * 仅用于查询开关，未录制时不为每条指令分配事件对象。
+     */
+    private static final InstructionEvent PROBE = new InstructionEvent();
+
+    @Label("Instruction Type")
+    String instruction;
+
+    /**
+     * 录制开启时创建并开始事件。
+     *
+     * @return 已开始的事件，未开启时返回 null
+     */
+    public static InstructionEvent beginIfEnabled() {
+        if (!PROBE.isEnabled()) {
+            return null;
+        }
+        InstructionEvent event = new InstructionEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 结束并在需要时提交。
+     *
+     * @param ctx 执行上下文
+     * @param instruction 指令类型
+     */
+    public void commit(ExecutionContext ctx, String instruction) {
+        end();
+        if (shouldCommit()) {
+            bind(ctx);
+            this.instruction = instruction;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.gaibu.flowlab.engine.jfr;
+
+import com.gaibu.flowlab.engine.execution.ExecutionContext;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 汇聚完成事件，在最后一个分支到达汇聚节点时发出；节点字段为汇聚节点，Token 为继续流转的 Token。
+ */
+@Name("flowlab.JoinCompleted")
+@Label("Join Completed")
+public class JoinCompletedEvent extends FlowEvent {
+
+    /**
+     * 仅用于查询开关，未录制时不为每次汇聚分配事件对象。
+     */
+    private static final JoinCompletedEvent PROBE = new JoinCompletedEvent();
+
+    @Label("Arrivals")
+    int arrivals;
+
+    /**
+     * 在需要时提交。
+     *
+     * @param ctx 最后到达分支的执行上下文
+     * @param joinNodeId 汇聚节点 ID
+     * @param arrivals 到达的分支数
+     */
+    public static void emit(ExecutionContext ctx, String joinNodeId, int arrivals) {
+        if (!PROBE.isEnabled()) {
+            return;
+        }
+        JoinCompletedEvent event = new JoinCompletedEvent();
+        if (event.shouldCommit()) {
+            event.bind(ctx);
+            event.nodeId = joinNodeId;
+            event.arrivals = arrivals;
+            event.commit();
+        }
+    }
+}
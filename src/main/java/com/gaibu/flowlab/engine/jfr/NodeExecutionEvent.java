@@ -0,0 +1,52 @@
+package com.gaibu.flowlab.engine.jfr;
+
+import com.gaibu.flowlab.engine.execution.ExecutionContext;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 节点步骤事件，覆盖从 before 拦截器到节点返回指令（异步节点含等待结果）的时长。
+ */
+@Name("flowlab.NodeExecution")
+@Label("Node Execution")
+public class NodeExecutionEvent extends FlowEvent {
+
+    /**
+     * 仅用于查询开关：开关是事件类级别的，借助实例方法判断，避免未录制时为每个步骤分配事件对象。
+     */
+    private static final NodeExecutionEvent PROBE = new NodeExecutionEvent();
+
+    @Label("Outcome")
+    @Description("Returned instruction type, or Failure")
+    String outcome;
+
+    /**
+     * 录制开启时创建并开始事件。事件需跨异步挂起保存在上下文中，无法依赖逃逸分析消除分配。
+     *
+     * @return 已开始的事件，未开启时返回 null
+     */
+    public static NodeExecutionEvent beginIfEnabled() {
+        if (!PROBE.isEnabled()) {
+            return null;
+        }
+        NodeExecutionEvent event = new NodeExecutionEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 结束并在需要时提交。
+     *
+     * @param ctx 执行上下文
+     * @param outcome 结果
+     */
+    public void commit(ExecutionContext ctx, String outcome) {
+        end();
+        if (shouldCommit()) {
+            bind(ctx);
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
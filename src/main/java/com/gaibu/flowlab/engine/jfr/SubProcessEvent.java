@@ -0,0 +1,55 @@
+package com.gaibu.flowlab.engine.jfr;
+
+import com.gaibu.flowlab.engine.execution.ExecutionContext;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 子流程调用事件，覆盖同步执行子流程的时长；标识字段为父流程的调用节点。
+ */
+@Name("flowlab.SubProcess")
+@Label("Sub Process")
+public class SubProcessEvent extends FlowEvent {
+
+    /**
+     * 仅用于查询开关，未录制时不为每次子流程调用分配事件对象。
+     */
+    private static final SubProcessEvent PROBE = new SubProcessEvent();
+
+    @Label("Sub Process Definition")
+    String subProcessId;
+
+    @Label("Completed")
+    boolean completed;
+
+    /**
+     * 录制开启时创建并开始事件。
+     *
+     * @return 已开始的事件，未开启时返回 null
+     */
+    public static SubProcessEvent beginIfEnabled() {
+        if (!PROBE.isEnabled()) {
+            return null;
+        }
+        SubProcessEvent event = new SubProcessEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 结束并在需要时提交。
+     *
+     * @param ctx 父流程执行上下文
+     * @param subProcessId 子流程定义 ID
+     * @param completed 子流程是否成功完成
+     */
+    public void commit(ExecutionContext ctx, String subProcessId, boolean completed) {
+        end();
+        if (shouldCommit()) {
+            bind(ctx);
+            this.subProcessId = subProcessId;
+            this.completed = completed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.gaibu.flowlab.engine.jfr;
+
+import com.gaibu.flowlab.engine.execution.ExecutionContext;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * 任务重试事件，在单次尝试失败并安排重试时发出。
+ */
+@Name("flowlab.TaskRetry")
+@Label("Task Retry")
+public class TaskRetryEvent extends FlowEvent {
+
+    @Label("Failed Attempt")
+    int attempt;
+
+    @Label("Retry Delay")
+    @Timespan(Timespan.NANOSECONDS)
+    long delay;
+
+    /**
+     * 在需要时提交。
+     *
+     * @param ctx 执行上下文
+     * @param attempt 失败的尝试序号（从 1 开始）
+     * @param delayNanos 重试延迟
+     */
+    public static void emit(ExecutionContext ctx, int attempt, long delayNanos) {
+        TaskRetryEvent event = new TaskRetryEvent();
+        if (event.shouldCommit()) {
+            event.bind(ctx);
+            event.attempt = attempt;
+            event.delay = delayNanos;
+            event.commit();
+        }
+    }
+}
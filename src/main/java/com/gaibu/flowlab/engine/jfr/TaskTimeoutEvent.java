@@ -0,0 +1,38 @@
+package com.gaibu.flowlab.engine.jfr;
+
+import com.gaibu.flowlab.engine.execution.ExecutionContext;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * 任务超时事件，在单次尝试到达截止时间时由时间轮线程发出。
+ */
+@Name("flowlab.TaskTimeout")
+@Label("Task Timeout")
+public class TaskTimeoutEvent extends FlowEvent {
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Timeout")
+    @Timespan(Timespan.NANOSECONDS)
+    long timeout;
+
+    /**
+     * 在需要时提交。
+     *
+     * @param ctx 执行上下文
+     * @param attempt 超时的尝试序号（从 1 开始）
+     * @param timeoutNanos 超时配置
+     */
+    public static void emit(ExecutionContext ctx, int attempt, long timeoutNanos) {
+        TaskTimeoutEvent event = new TaskTimeoutEvent();
+        if (event.shouldCommit()) {
+            event.bind(ctx);
+            event.attempt = attempt;
+            event.timeout = timeoutNanos;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.gaibu.flowlab.engine.metrics;
+
+import com.gaibu.flowlab.engine.task.TaskExecutorStats;
+
+import java.util.List;
+
+/**
+ * 引擎指标快照。
+ *
+ * @param instancesStarted 累计启动实例数
+ * @param instancesCompleted 累计完成实例数
+ * @param instancesFailed 累计失败实例数
+ * @param activeInstances 已登记的运行中实例数，不含 EPHEMERAL 启动的临时实例，不依赖指标开关
+ * @param activeTokens 已登记运行中实例的可执行 Token 数（即各实例调度队列深度与正在执行的 Token）
+ * @param waitingTokens 已登记运行中实例的挂起 Token 数
+ * @param loopQueueDepth 等待驱动线程推进的异步实例数，驱动执行器不是 ThreadPoolExecutor 时为 -1
+ * @param taskPool 任务执行器饱和度
+ * @param nodes 各节点指标
+ */
+public record EngineMetricsSnapshot(
+        long instancesStarted,
+        long instancesCompleted,
+        long instancesFailed,
+        long activeInstances,
+        long activeTokens,
+        long waitingTokens,
+        int loopQueueDepth,
+        TaskExecutorStats taskPool,
+        List<NodeMetricsSnapshot> nodes) {
+
+    /**
+     * 查找节点指标。
+     *
+     * @param processId 流程定义 ID
+     * @param nodeId 节点 ID
+     * @return 节点指标，未执行过时返回 null
+     */
+    public NodeMetricsSnapshot node(String processId, String nodeId) {
+        for (NodeMetricsSnapshot node : nodes) {
+            if (node.processId().equals(processId) && node.nodeId().equals(nodeId)) {
+                return node;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,112 @@
+package com.gaibu.flowlab.engine.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 低开销耗时直方图（纳秒），采用 HDR 风格的对数-线性分桶。
+ * <p>
+ * 小于 32ns 的值逐一计数；更大的值按 2 的幂分段，每段再线性分为 32 个子桶，相对误差不超过约 3%。
+ * 记录只涉及一次无锁自增，分桶数组固定，不随样本数增长。超过约 18 分钟的值计入最后一个桶。
+ */
+public class LatencyHistogram {
+
+    /**
+     * 每个 2 的幂分段的子桶位数。
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 可区分的最大值位数（2^40ns ≈ 18 分钟）。
+     */
+    private static final int MAX_EXPONENT = 40;
+
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * 记录一次耗时。
+     *
+     * @param nanos 耗时（纳秒），负值按 0 计
+     */
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        totalNanos.add(value);
+        if (value > maxNanos.get()) {
+            maxNanos.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * 返回分位数快照，统计期间的并发写入可能只被部分计入。
+     *
+     * @return 快照
+     */
+    public LatencySnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        long max = maxNanos.get();
+        return new LatencySnapshot(
+                count,
+                totalNanos.sum(),
+                max,
+                percentile(copy, count, max, 0.5D),
+                percentile(copy, count, max, 0.9D),
+                percentile(copy, count, max, 0.99D),
+                percentile(copy, count, max, 0.999D));
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * 桶内最大值，分位数按此值报告。
+     */
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int offset = bucket - SUB_BUCKETS;
+        int shift = offset / SUB_BUCKETS;
+        long sub = SUB_BUCKETS + offset % SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    private static long percentile(long[] counts, long total, long max, double quantile) {
+        if (total == 0L) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0L;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // 末桶兼收超出范围的值，以实际最大值为准。
+                return i == counts.length - 1 ? max : Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,31 @@
+package com.gaibu.flowlab.engine.metrics;
+
+/**
+ * 耗时直方图快照（纳秒）。
+ *
+ * @param count 样本数
+ * @param totalNanos 耗时合计
+ * @param maxNanos 最大耗时
+ * @param p50Nanos 50 分位
+ * @param p90Nanos 90 分位
+ * @param p99Nanos 99 分位
+ * @param p999Nanos 99.9 分位
+ */
+public record LatencySnapshot(
+        long count,
+        long totalNanos,
+        long maxNanos,
+        long p50Nanos,
+        long p90Nanos,
+        long p99Nanos,
+        long p999Nanos) {
+
+    /**
+     * 平均耗时。
+     *
+     * @return 纳秒，无样本时为 0
+     */
+    public long meanNanos() {
+        return count == 0L ? 0L : totalNanos / count;
+    }
+}
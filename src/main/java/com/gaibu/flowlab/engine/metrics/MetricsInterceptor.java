@@ -0,0 +1,194 @@
+package com.gaibu.flowlab.engine.metrics;
+
+import com.gaibu.flowlab.engine.exception.TaskTimeoutException;
+import com.gaibu.flowlab.engine.execution.ExecutionContext;
+import com.gaibu.flowlab.engine.execution.instruction.Instruction;
+import com.gaibu.flowlab.engine.graph.ExecutableGraph;
+import com.gaibu.flowlab.engine.graph.ExecutableNode;
+import com.gaibu.flowlab.engine.interceptor.NodeInterceptor;
+import com.gaibu.flowlab.engine.interceptor.ProcessInterceptor;
+import com.gaibu.flowlab.engine.runtime.ProcessInstance;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 指标采集拦截器。
+ * <p>
+ * 按流程定义、节点下标维护 {@link NodeMetrics}：步骤开始时间存于执行上下文的步骤状态中，
+ * 异步节点的耗时因此覆盖到结果返回为止，重试退避不计入。失败与超时按尝试计数，与最终路由结果无关：
+ * 每次失败的尝试（含随后重试、沿超时出边流转的尝试）计一次失败，其中因 {@link TaskTimeoutException}
+ * 结束的同时计一次超时；失败后安排重试另计一次重试。同时作为流程拦截器统计实例启动、完成与失败数。
+ * 默认关闭，关闭时每个回调只读取一次开关。
+ */
+public class MetricsInterceptor implements NodeInterceptor, ProcessInterceptor {
+
+    /**
+     * 步骤开始时间的状态键。
+     */
+    private static final Object START_KEY = new Object();
+
+    private volatile boolean enabled;
+
+    /**
+     * 流程定义 ID -> 节点指标。
+     */
+    private final Map<String, ProcessMetrics> processes = new ConcurrentHashMap<>();
+
+    private final LongAdder instancesStarted = new LongAdder();
+
+    private final LongAdder instancesCompleted = new LongAdder();
+
+    private final LongAdder instancesFailed = new LongAdder();
+
+    /**
+     * 开启或关闭采集，已累计的指标保留。
+     *
+     * @param enabled 是否开启
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void before(ExecutionContext ctx) {
+        if (!enabled) {
+            return;
+        }
+        ctx.setStepAttribute(START_KEY, System.nanoTime());
+    }
+
+    @Override
+    public void afterSuccess(ExecutionContext ctx, Instruction instruction) {
+        Long start = enabled ? ctx.getStepAttribute(START_KEY) : null;
+        if (start == null) {
+            return;
+        }
+        // 沿超时出边流转：最后一次尝试已超时失败，仅路由结果为成功。
+        boolean timedOut = instruction == ctx.node().getRoutingPlan().getTimeoutMove();
+        nodeMetrics(ctx).recordAttempt(System.nanoTime() - start, timedOut, timedOut, false);
+    }
+
+    @Override
+    public void afterRetry(ExecutionContext ctx, Throwable ex) {
+        Long start = enabled ? ctx.getStepAttribute(START_KEY) : null;
+        if (start == null) {
+            return;
+        }
+        nodeMetrics(ctx).recordAttempt(System.nanoTime() - start, true, isTimeout(ex), true);
+    }
+
+    @Override
+    public void afterFailure(ExecutionContext ctx, Throwable ex) {
+        Long start = enabled ? ctx.getStepAttribute(START_KEY) : null;
+        if (start == null) {
+            return;
+        }
+        nodeMetrics(ctx).recordAttempt(System.nanoTime() - start, true, isTimeout(ex), false);
+    }
+
+    @Override
+    public void beforeStart(ProcessInstance instance) {
+        if (enabled) {
+            instancesStarted.increment();
+        }
+    }
+
+    @Override
+    public void onCompleted(ProcessInstance instance) {
+        if (enabled) {
+            instancesCompleted.increment();
+        }
+    }
+
+    @Override
+    public void onFailed(ProcessInstance instance, Throwable ex) {
+        if (enabled) {
+            instancesFailed.increment();
+        }
+    }
+
+    public long instancesStarted() {
+        return instancesStarted.sum();
+    }
+
+    public long instancesCompleted() {
+        return instancesCompleted.sum();
+    }
+
+    public long instancesFailed() {
+        return instancesFailed.sum();
+    }
+
+    /**
+     * 返回执行过的节点指标快照。
+     *
+     * @return 节点指标列表
+     */
+    public List<NodeMetricsSnapshot> nodeSnapshots() {
+        List<NodeMetricsSnapshot> result = new ArrayList<>();
+        for (ProcessMetrics process : processes.values()) {
+            for (NodeMetrics node : process.nodes) {
+                if (node.isUsed()) {
+                    result.add(node.snapshot());
+                }
+            }
+        }
+        return result;
+    }
+
+    private NodeMetrics nodeMetrics(ExecutionContext ctx) {
+        ExecutableGraph graph = ctx.graph();
+        String processId = ctx.instance().getProcessId();
+        ProcessMetrics process = processes.get(processId);
+        if (process == null || process.graph != graph) {
+            process = processes.compute(processId, (key, previous) ->
+                    previous != null && previous.graph == graph ? previous : new ProcessMetrics(key, graph, previous));
+        }
+        return process.nodes[ctx.node().getIndex()];
+    }
+
+    private static boolean isTimeout(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TaskTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 单个流程定义的节点指标，按编译后的节点下标排列。重新部署后按节点 ID 沿用原有指标。
+     */
+    private static final class ProcessMetrics {
+
+        private final ExecutableGraph graph;
+
+        private final NodeMetrics[] nodes;
+
+        private ProcessMetrics(String processId, ExecutableGraph graph, ProcessMetrics previous) {
+            this.graph = graph;
+            Map<String, NodeMetrics> existing = new HashMap<>();
+            if (previous != null) {
+                for (int i = 0; i < previous.nodes.length; i++) {
+                    existing.put(previous.graph.node(i).getId().value(), previous.nodes[i]);
+                }
+            }
+            this.nodes = new NodeMetrics[graph.nodeCount()];
+            for (int i = 0; i < nodes.length; i++) {
+                ExecutableNode node = graph.node(i);
+                String nodeId = node.getId().value();
+                NodeMetrics metrics = existing.get(nodeId);
+                nodes[i] = metrics != null ? metrics : new NodeMetrics(processId, nodeId);
+            }
+        }
+    }
+}
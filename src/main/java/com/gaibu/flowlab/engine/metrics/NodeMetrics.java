@@ -0,0 +1,69 @@
+package com.gaibu.flowlab.engine.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个节点的累计指标。
+ */
+public class NodeMetrics {
+
+    private final String processId;
+
+    private final String nodeId;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private final LongAdder executions = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LongAdder retries = new LongAdder();
+
+    private final LongAdder timeouts = new LongAdder();
+
+    public NodeMetrics(String processId, String nodeId) {
+        this.processId = processId;
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * 记录一次尝试。
+     *
+     * @param nanos 尝试耗时
+     * @param failed 尝试是否失败
+     * @param timeout 尝试是否因超时结束
+     * @param retry 失败后是否安排重试
+     */
+    void recordAttempt(long nanos, boolean failed, boolean timeout, boolean retry) {
+        executions.increment();
+        latency.record(nanos);
+        if (failed) {
+            failures.increment();
+        }
+        if (timeout) {
+            timeouts.increment();
+        }
+        if (retry) {
+            retries.increment();
+        }
+    }
+
+    /**
+     * 是否执行过。
+     *
+     * @return 执行过返回 true
+     */
+    public boolean isUsed() {
+        return executions.sum() > 0L;
+    }
+
+    /**
+     * 返回指标快照。
+     *
+     * @return 快照
+     */
+    public NodeMetricsSnapshot snapshot() {
+        return new NodeMetricsSnapshot(processId, nodeId, executions.sum(), failures.sum(), retries.sum(),
+                timeouts.sum(), latency.snapshot());
+    }
+}
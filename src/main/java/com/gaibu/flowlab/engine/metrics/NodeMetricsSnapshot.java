@@ -0,0 +1,22 @@
+package com.gaibu.flowlab.engine.metrics;
+
+/**
+ * 单个节点的指标快照。
+ *
+ * @param processId 流程定义 ID
+ * @param nodeId 节点 ID
+ * @param executions 执行次数（按尝试计，含失败）
+ * @param failures 失败的尝试次数（含随后重试或沿 timeout 出边流转的尝试）
+ * @param retries 失败后安排重试的次数
+ * @param timeouts 因超时结束的尝试次数
+ * @param latency 单次尝试耗时分布，异步节点含等待结果的时间，不含重试退避
+ */
+public record NodeMetricsSnapshot(
+        String processId,
+        String nodeId,
+        long executions,
+        long failures,
+        long retries,
+        long timeouts,
+        LatencySnapshot latency) {
+}
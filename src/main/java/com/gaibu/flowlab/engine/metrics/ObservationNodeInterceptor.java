@@ -0,0 +1,90 @@
+package com.gaibu.flowlab.engine.metrics;
+
+import com.gaibu.flowlab.engine.execution.ExecutionContext;
+import com.gaibu.flowlab.engine.execution.instruction.Instruction;
+import com.gaibu.flowlab.engine.interceptor.NodeInterceptor;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * 以 Micrometer Observation 上报节点执行的拦截器。
+ * <p>
+ * 每个步骤对应一次名为 {@value #OBSERVATION_NAME} 的观测，低基数标签为流程定义 ID、节点 ID 与结果
+ * （success/retry/timeout/error）。注册了 {@code DefaultMeterObservationHandler} 的
+ * {@link ObservationRegistry} 会据此生成计时器，接入链路追踪的注册表则生成 span。
+ */
+public class ObservationNodeInterceptor implements NodeInterceptor {
+
+    /**
+     * 观测名称。
+     */
+    public static final String OBSERVATION_NAME = "flow.node";
+
+    /**
+     * 进行中观测的状态键。
+     */
+    private static final Object OBSERVATION_KEY = new Object();
+
+    /**
+     * 当前注册表，可运行期替换；进行中的观测仍在开始时的注册表上结束。
+     */
+    private volatile ObservationRegistry registry;
+
+    public ObservationNodeInterceptor() {
+        this(ObservationRegistry.NOOP);
+    }
+
+    public ObservationNodeInterceptor(ObservationRegistry registry) {
+        setRegistry(registry);
+    }
+
+    /**
+     * 替换观测注册表，null 或 {@link ObservationRegistry#NOOP} 表示停止上报。
+     *
+     * @param registry 观测注册表
+     */
+    public void setRegistry(ObservationRegistry registry) {
+        this.registry = registry != null ? registry : ObservationRegistry.NOOP;
+    }
+
+    @Override
+    public void before(ExecutionContext ctx) {
+        ObservationRegistry registry = this.registry;
+        if (registry.isNoop()) {
+            return;
+        }
+        Observation observation = Observation.createNotStarted(OBSERVATION_NAME, registry)
+                .lowCardinalityKeyValue("process", ctx.instance().getProcessId())
+                .lowCardinalityKeyValue("node", ctx.node().getId().value())
+                .start();
+        ctx.setStepAttribute(OBSERVATION_KEY, observation);
+    }
+
+    @Override
+    public void afterSuccess(ExecutionContext ctx, Instruction instruction) {
+        Observation observation = ctx.getStepAttribute(OBSERVATION_KEY);
+        if (observation == null) {
+            return;
+        }
+        String outcome = instruction == ctx.node().getRoutingPlan().getTimeoutMove() ? "timeout" : "success";
+        observation.lowCardinalityKeyValue("outcome", outcome).stop();
+    }
+
+    @Override
+    public void afterRetry(ExecutionContext ctx, Throwable ex) {
+        Observation observation = ctx.getStepAttribute(OBSERVATION_KEY);
+        if (observation == null) {
+            return;
+        }
+        observation.lowCardinalityKeyValue("outcome", "retry").error(ex).stop();
+    }
+
+    @Override
+    public void afterFailure(ExecutionContext ctx, Throwable ex) {
+        Observation observation = ctx.getStepAttribute(OBSERVATION_KEY);
+        if (observation == null) {
+            return;
+        }
+        observation.lowCardinalityKeyValue("outcome", "error").error(ex).stop();
+    }
+}
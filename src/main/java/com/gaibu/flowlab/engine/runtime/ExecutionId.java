@@ -1,7 +1,28 @@
 package com.gaibu.flowlab.engine.runtime;
 
 /**
- * 执行容器唯一标识。
+ * 执行容器唯一标识，以数值存储，字符串形式 {@code EX-<seq>} 仅在对外展示时格式化。
+ *
+ * @param seq 数值 ID
  */
-public record ExecutionId(String value) {
+public record ExecutionId(long seq) {
+
+    /**
+     * 字符串形式前缀。
+     */
+    public static final String PREFIX = "EX-";
+
+    /**
+     * 字符串形式。
+     *
+     * @return 如 {@code EX-42}
+     */
+    public String value() {
+        return PREFIX + seq;
+    }
+
+    @Override
+    public String toString() {
+        return value();
+    }
 }
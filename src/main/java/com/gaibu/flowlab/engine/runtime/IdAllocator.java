@@ -0,0 +1,80 @@
+package com.gaibu.flowlab.engine.runtime;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数值 ID 分配器。
+ * <p>
+ * 每个线程一次从共享计数器领取一块连续 ID，块内分配只读写线程本地状态，
+ * 共享计数器每块只竞争一次。ID 全局唯一、从 1 开始，但跨线程不保证单调。
+ */
+public class IdAllocator {
+
+    /**
+     * 默认块大小。
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    /**
+     * 共享计数器，记录已分配出去的最大 ID。
+     */
+    private final AtomicLong sequence;
+
+    /**
+     * 块大小。
+     */
+    private final int blockSize;
+
+    /**
+     * 线程本地块：[下一个可用 ID, 块上界（不含）, 领取时的代号]。
+     */
+    private final ThreadLocal<long[]> localBlock = ThreadLocal.withInitial(() -> new long[3]);
+
+    /**
+     * 代号，{@link #advanceTo(long)} 时递增，使各线程已领取的块作废。
+     */
+    private volatile long generation;
+
+    public IdAllocator() {
+        this(new AtomicLong(), DEFAULT_BLOCK_SIZE);
+    }
+
+    public IdAllocator(AtomicLong sequence, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be > 0");
+        }
+        this.sequence = sequence;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * 分配下一个 ID。
+     *
+     * @return 新 ID（大于 0）
+     */
+    public long next() {
+        long[] block = localBlock.get();
+        long current = generation;
+        if (block[0] == block[1] || block[2] != current) {
+            long base = sequence.getAndAdd(blockSize);
+            block[0] = base + 1;
+            block[1] = base + 1 + blockSize;
+            block[2] = current;
+        }
+        return block[0]++;
+    }
+
+    /**
+     * 保证此后分配的 ID 均大于给定值，例如重启后续接持久轨迹中已有的实例序号。
+     *
+     * @param minimum 已被占用的最大 ID
+     */
+    public synchronized void advanceTo(long minimum) {
+        if (minimum <= 0L) {
+            return;
+        }
+        // 已领取的块可能含不大于 minimum 的未分配 ID，一律作废。
+        sequence.accumulateAndGet(minimum, Math::max);
+        generation++;
+    }
+}
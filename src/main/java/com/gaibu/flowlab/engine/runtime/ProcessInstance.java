@@ -1,19 +1,26 @@
 package com.gaibu.flowlab.engine.runtime;
 
+import com.gaibu.flowlab.engine.collection.LongObjectMap;
 import com.gaibu.flowlab.engine.runtime.enums.InstanceStatus;
+import com.gaibu.flowlab.engine.runtime.enums.TokenStatus;
 import com.gaibu.flowlab.engine.scope.ScopeRuntime;
 import com.gaibu.flowlab.engine.store.VariableStore;
+import com.gaibu.flowlab.engine.trace.TraceBuffer;
+import com.gaibu.flowlab.engine.trace.enums.TraceMode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * 流程实例运行时根对象。
+ * <p>
+ * Token 状态变更统一经 {@link #updateTokenStatus(Token, TokenStatus)}，以 O(1) 维护活跃列表与各状态计数。
  */
 @Getter
 @Setter
@@ -21,29 +28,64 @@ import java.util.Map;
 public class ProcessInstance {
 
     /**
-     * 实例唯一标识。
+     * 实例 ID 字符串形式前缀。
+     */
+    public static final String ID_PREFIX = "PI-";
+
+    /**
+     * 外部指定的实例标识；引擎创建的实例为 null，由 seq 格式化得到。
      */
     private String id;
 
+    /**
+     * 实例数值 ID，引擎内部以此为键，0 表示未分配。
+     */
+    private long seq;
+
+    /**
+     * 所属流程定义 ID。
+     */
+    private String processId;
+
+    /**
+     * 是否为临时实例：不登记到引擎实例存储，结束后不可查询。
+     */
+    private boolean ephemeral;
+
     /**
      * 根 Execution 容器。
      */
     private Execution rootExecution;
 
     /**
-     * 当前活跃 Token 列表。
+     * 当前活跃 Token 列表（ACTIVE 与 WAITING），Token 记录自身下标，移除时与末尾交换。
      */
     private final List<Token> activeTokens = new ArrayList<>();
 
+    /**
+     * 活跃列表只读视图。
+     */
+    private final List<Token> activeTokensView = Collections.unmodifiableList(activeTokens);
+
+    /**
+     * 各状态 Token 计数（下标=TokenStatus.ordinal），含已驱逐的 Token。
+     */
+    private final int[] tokenCounts = new int[TokenStatus.values().length];
+
+    /**
+     * 是否在 Token 完成后将其移出 tokensById，使实例占用与在途 Token 数成正比。
+     */
+    private boolean evictCompletedTokens;
+
     /**
      * 实例变量存储。
      */
     private VariableStore variables;
 
     /**
-     * 实例状态。
+     * 实例状态，异步执行时可能由其他线程读取。
      */
-    private InstanceStatus status;
+    private volatile InstanceStatus status;
 
     /**
      * 中断原因，仅 status=INTERRUPTED 时有效。
@@ -56,9 +98,9 @@ public class ProcessInstance {
     private Throwable failureCause;
 
     /**
-     * Token 索引（key=tokenId），用于快速定位 Token。
+     * Token 索引（key=tokenId.seq），用于快速定位 Token；开启 evictCompletedTokens 时不含已完成 Token。
      */
-    private final Map<TokenId, Token> tokensById = new LinkedHashMap<>();
+    private final LongObjectMap<Token> tokensById = new LongObjectMap<>();
 
     /**
      * Scope 运行时存储（key=scopeId.value）。
@@ -66,22 +108,112 @@ public class ProcessInstance {
     private final Map<String, ScopeRuntime> scopes = new LinkedHashMap<>();
 
     /**
-     * 追加活跃 Token 并同步索引。
+     * 本实例的轨迹采集模式（启动时确定，SAMPLED 已解析为 FULL 或 OFF），null 按 FULL 处理。
+     */
+    private TraceMode traceMode;
+
+    /**
+     * ERROR_ONLY 模式下的轨迹缓冲，首次记录时创建。
+     */
+    private TraceBuffer traceBuffer;
+
+    /**
+     * 实例唯一标识：外部指定时原样返回，否则按 {@code PI-<seq>} 格式化。
+     *
+     * @return 实例 ID
+     */
+    public String getId() {
+        if (id != null) {
+            return id;
+        }
+        return seq > 0 ? ID_PREFIX + seq : null;
+    }
+
+    /**
+     * 当前活跃 Token 的只读视图，变更需经 {@link #addToken(Token)} 与 {@link #updateTokenStatus(Token, TokenStatus)}。
+     *
+     * @return 活跃 Token 列表
+     */
+    public List<Token> getActiveTokens() {
+        return activeTokensView;
+    }
+
+    /**
+     * 指定状态的 Token 数。
+     *
+     * @param status Token 状态
+     * @return 计数
+     */
+    public int tokenCount(TokenStatus status) {
+        return tokenCounts[status.ordinal()];
+    }
+
+    /**
+     * 登记新 Token 并按其当前状态计数，活跃 Token 同时加入活跃列表。
      *
      * @param token 需要添加的 Token
      */
     public void addToken(Token token) {
-        tokensById.put(token.getId(), token);
-        activeTokens.add(token);
+        tokensById.put(token.getId().seq(), token);
+        if (token.getStatus() != null) {
+            tokenCounts[token.getStatus().ordinal()]++;
+            if (isLive(token.getStatus())) {
+                link(token);
+            }
+        }
     }
 
     /**
-     * 移除活跃 Token，不删除总索引。
+     * 变更 Token 状态：同步状态计数；进入 ACTIVE/WAITING 时加入活跃列表，进入终态时 O(1) 移出。
      *
-     * @param token 需要移除的 Token
+     * @param token Token
+     * @param status 新状态
      */
-    public void removeActiveToken(Token token) {
-        activeTokens.remove(token);
+    public void updateTokenStatus(Token token, TokenStatus status) {
+        TokenStatus previous = token.getStatus();
+        if (previous == status) {
+            return;
+        }
+        if (previous != null) {
+            tokenCounts[previous.ordinal()]--;
+        }
+        tokenCounts[status.ordinal()]++;
+        token.setStatus(status);
+        if (isLive(status)) {
+            if (token.getActiveSlot() < 0) {
+                link(token);
+                // 汇聚后复用的 Token 可能已被驱逐，重新登记。
+                tokensById.put(token.getId().seq(), token);
+            }
+            return;
+        }
+        unlink(token);
+        if (status == TokenStatus.COMPLETED && evictCompletedTokens) {
+            tokensById.remove(token.getId().seq());
+        }
+    }
+
+    private void link(Token token) {
+        token.setActiveSlot(activeTokens.size());
+        activeTokens.add(token);
+    }
+
+    private void unlink(Token token) {
+        int slot = token.getActiveSlot();
+        if (slot < 0) {
+            return;
+        }
+        int last = activeTokens.size() - 1;
+        Token moved = activeTokens.remove(last);
+        if (slot != last) {
+            activeTokens.set(slot, moved);
+            moved.setActiveSlot(slot);
+        }
+        token.setActiveSlot(-1);
+    }
+
+    private static boolean isLive(TokenStatus status) {
+        return status == TokenStatus.ACTIVE || status == TokenStatus.WAITING;
     }
 
 }
@@ -2,6 +2,13 @@ package com.gaibu.flowlab.engine.runtime;
 
 /**
  * 作用域唯一标识。
+ * <p>
+ * 作用域由图结构决定（根作用域、汇聚节点），取值在编译期确定并共享，不按实例生成。
  */
 public record ScopeId(String value) {
+
+    /**
+     * 根作用域。
+     */
+    public static final ScopeId ROOT = new ScopeId("ROOT");
 }
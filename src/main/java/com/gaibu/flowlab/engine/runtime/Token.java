@@ -23,6 +23,11 @@ public class Token {
      */
     private NodeId currentNode;
 
+    /**
+     * 当前节点在可执行图中的下标，-1 表示尚未解析。
+     */
+    private int nodeIndex = -1;
+
     /**
      * Token 所属 Execution 容器。
      */
@@ -32,4 +37,24 @@ public class Token {
      * Token 当前状态。
      */
     private TokenStatus status;
+
+    /**
+     * 当前节点已失败的执行次数，用于 TASK 重试计数，节点执行成功或最终失败后清零。
+     */
+    private int attempt;
+
+    /**
+     * 在实例活跃列表中的下标，-1 表示不在列表中，由 {@link ProcessInstance} 维护。
+     */
+    private int activeSlot = -1;
+
+    /**
+     * 进入调度队列的时间（{@link System#nanoTime()}），仅采集轨迹时维护。
+     */
+    private long readyNanos;
+
+    /**
+     * 当前步骤开始执行的时间（{@link System#nanoTime()}），仅采集轨迹时维护。
+     */
+    private long stepStartNanos;
 }
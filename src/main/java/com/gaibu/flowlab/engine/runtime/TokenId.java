@@ -1,7 +1,28 @@
 package com.gaibu.flowlab.engine.runtime;
 
 /**
- * Token 唯一标识。
+ * Token 唯一标识，以数值存储，字符串形式 {@code TK-<seq>} 仅在对外展示时格式化。
+ *
+ * @param seq 数值 ID
  */
-public record TokenId(String value) {
+public record TokenId(long seq) {
+
+    /**
+     * 字符串形式前缀。
+     */
+    public static final String PREFIX = "TK-";
+
+    /**
+     * 字符串形式。
+     *
+     * @return 如 {@code TK-42}
+     */
+    public String value() {
+        return PREFIX + seq;
+    }
+
+    @Override
+    public String toString() {
+        return value();
+    }
 }
@@ -8,6 +8,7 @@ import lombok.Getter;
 @Getter
 public enum TokenStatus {
     ACTIVE("active", "活跃可调度"),
+    WAITING("waiting", "等待异步结果"),
     COMPLETED("completed", "执行完成"),
     FAILED("failed", "执行失败");
 
@@ -0,0 +1,367 @@
+package com.gaibu.flowlab.engine.scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 哈希时间轮定时器。
+ * <p>
+ * 单个工作线程按固定刻度推进时间轮，调度与取消均为 O(1)，可承载数十万级并发截止时间，
+ * 精度为一个刻度。调度线程只入队，桶由工作线程独占维护，无需加锁。
+ */
+public class HashedWheelTimer implements TimeoutScheduler {
+
+    /**
+     * 默认刻度（毫秒）。
+     */
+    public static final long DEFAULT_TICK_MILLIS = 10L;
+
+    /**
+     * 默认时间轮槽数。
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    /**
+     * 单个刻度最多迁移的新定时任务数，避免工作线程被突发调度拖住。
+     */
+    private static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    private static final int WORKER_INIT = 0;
+    private static final int WORKER_STARTED = 1;
+    private static final int WORKER_STOPPED = 2;
+
+    /**
+     * 进程级共享实例。
+     */
+    private static volatile HashedWheelTimer shared;
+
+    /**
+     * 刻度（纳秒）。
+     */
+    private final long tickNanos;
+
+    /**
+     * 时间轮槽位。
+     */
+    private final Bucket[] wheel;
+
+    /**
+     * 槽位掩码（槽数为 2 的幂）。
+     */
+    private final int mask;
+
+    /**
+     * 待迁入时间轮的定时任务。
+     */
+    private final Queue<WheelTimeout> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 待从桶中摘除的已取消任务。
+     */
+    private final Queue<WheelTimeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 待触发数量。
+     */
+    private final AtomicLong pendingCount = new AtomicLong();
+
+    /**
+     * 工作线程状态。
+     */
+    private final AtomicInteger workerState = new AtomicInteger(WORKER_INIT);
+
+    /**
+     * 工作线程。
+     */
+    private final Thread worker;
+
+    /**
+     * 时间基准（纳秒），工作线程启动时确定。
+     */
+    private volatile long startTime;
+
+    public HashedWheelTimer() {
+        this(DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE, "flow-timer");
+    }
+
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize, String threadName) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be > 0");
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("wheelSize must be in (0, 2^30]");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.worker = new Thread(this::runWorker, threadName);
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * 返回进程级共享定时器（守护线程，首次调度时启动）。
+     *
+     * @return 共享定时器
+     */
+    public static HashedWheelTimer shared() {
+        HashedWheelTimer timer = shared;
+        if (timer == null) {
+            synchronized (HashedWheelTimer.class) {
+                timer = shared;
+                if (timer == null) {
+                    timer = new HashedWheelTimer();
+                    shared = timer;
+                }
+            }
+        }
+        return timer;
+    }
+
+    @Override
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (task == null) {
+            throw new IllegalArgumentException("task must not be null");
+        }
+        start();
+        long delayNanos = Math.max(0L, unit.toNanos(delay));
+        long deadline = System.nanoTime() - startTime + delayNanos;
+        if (delayNanos > 0L && deadline < 0L) {
+            // 超长延迟（如 Long.MAX_VALUE 纳秒）溢出为负数会被当作已过期立即触发，截断为永不到期。
+            deadline = Long.MAX_VALUE;
+        }
+        WheelTimeout timeout = new WheelTimeout(task, deadline);
+        pendingCount.incrementAndGet();
+        pending.add(timeout);
+        return timeout;
+    }
+
+    @Override
+    public long pendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * 停止工作线程，未触发的定时任务被丢弃。共享实例不允许停止。
+     */
+    public void stop() {
+        if (this == shared) {
+            throw new IllegalStateException("Shared timer can not be stopped.");
+        }
+        if (workerState.getAndSet(WORKER_STOPPED) == WORKER_STARTED) {
+            worker.interrupt();
+        }
+    }
+
+    private void start() {
+        int state = workerState.get();
+        if (state == WORKER_STARTED) {
+            return;
+        }
+        if (state == WORKER_STOPPED) {
+            throw new IllegalStateException("Timer has been stopped.");
+        }
+        synchronized (this) {
+            if (workerState.get() == WORKER_INIT) {
+                startTime = System.nanoTime();
+                workerState.set(WORKER_STARTED);
+                worker.start();
+            }
+        }
+    }
+
+    private void runWorker() {
+        long tick = 0;
+        while (workerState.get() == WORKER_STARTED) {
+            long deadline = waitForNextTick(tick);
+            if (deadline < 0) {
+                break;
+            }
+            removeCancelled();
+            transferPending(tick);
+            wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+    }
+
+    /**
+     * 等待到下一刻度边界。
+     *
+     * @return 该刻度的相对时间；被停止时返回 -1
+     */
+    private long waitForNextTick(long tick) {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long current = System.nanoTime() - startTime;
+            long sleepNanos = deadline - current;
+            if (sleepNanos <= 0) {
+                return current;
+            }
+            LockSupport.parkNanos(this, sleepNanos);
+            if (workerState.get() != WORKER_STARTED) {
+                return -1;
+            }
+        }
+    }
+
+    private void transferPending(long tick) {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            WheelTimeout timeout = pending.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // 已过期的任务放入当前槽，本刻度即触发。
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelled() {
+        WheelTimeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * 时间轮槽位，双向链表，仅由工作线程访问。
+     */
+    private static final class Bucket {
+
+        private WheelTimeout head;
+
+        private WheelTimeout tail;
+
+        void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire(long deadline) {
+            WheelTimeout timeout = head;
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    if (timeout.deadline <= deadline) {
+                        remove(timeout);
+                        timeout.expire();
+                    }
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(WheelTimeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            WheelTimeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    /**
+     * 时间轮中的定时任务。
+     */
+    private final class WheelTimeout implements Timeout {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final Runnable task;
+
+        /**
+         * 相对 startTime 的截止时间（纳秒）。
+         */
+        private final long deadline;
+
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+
+        private long remainingRounds;
+
+        private Bucket bucket;
+
+        private WheelTimeout prev;
+
+        private WheelTimeout next;
+
+        WheelTimeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            pendingCount.decrementAndGet();
+            cancelled.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        void expire() {
+            if (!state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            pendingCount.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable ignored) {
+                // 回调异常不能终止工作线程。
+            }
+        }
+    }
+}
@@ -29,4 +29,11 @@ public class InMemoryScheduler implements Scheduler {
     public boolean hasNext() {
         return !queue.isEmpty();
     }
+
+    /**
+     * 清空队列，供批量启动在同一线程内复用调度器。
+     */
+    public void clear() {
+        queue.clear();
+    }
 }
@@ -0,0 +1,28 @@
+package com.gaibu.flowlab.engine.scheduler;
+
+/**
+ * 定时任务句柄。
+ */
+public interface Timeout {
+
+    /**
+     * 取消尚未触发的定时任务。
+     *
+     * @return 本次调用成功取消返回 true，已触发或已取消返回 false
+     */
+    boolean cancel();
+
+    /**
+     * 是否已触发。
+     *
+     * @return 已触发返回 true
+     */
+    boolean isExpired();
+
+    /**
+     * 是否已取消。
+     *
+     * @return 已取消返回 true
+     */
+    boolean isCancelled();
+}
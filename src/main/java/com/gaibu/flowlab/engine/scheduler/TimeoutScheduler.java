@@ -0,0 +1,28 @@
+package com.gaibu.flowlab.engine.scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 截止时间调度服务，用于任务超时与延迟重试。
+ * <p>
+ * 回调在调度线程上执行，应只做完成 future、投递事件等轻量操作。
+ */
+public interface TimeoutScheduler {
+
+    /**
+     * 在指定延迟后执行回调。
+     *
+     * @param task 回调
+     * @param delay 延迟
+     * @param unit 时间单位
+     * @return 定时任务句柄
+     */
+    Timeout schedule(Runnable task, long delay, TimeUnit unit);
+
+    /**
+     * 当前未触发且未取消的定时任务数。
+     *
+     * @return 待触发数量
+     */
+    long pendingCount();
+}
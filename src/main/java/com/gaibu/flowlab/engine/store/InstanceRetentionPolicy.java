@@ -0,0 +1,75 @@
+package com.gaibu.flowlab.engine.store;
+
+import java.time.Duration;
+
+/**
+ * 已结束实例的保留策略。运行中实例始终保留；结束（完成、失败、中断）的实例按最近访问顺序
+ * 保留至多 maxRetained 个，超过 ttl 未被访问的实例由后台清理任务移除。
+ *
+ * @param maxRetained 已结束实例的最大保留数，0 表示结束即移除
+ * @param ttl 已结束实例自最近访问起的存活时间，null 表示不按时间清理
+ * @param reapInterval 后台清理周期，null 时取 ttl 的一半（不小于 1 秒）
+ */
+public record InstanceRetentionPolicy(int maxRetained, Duration ttl, Duration reapInterval) {
+
+    /**
+     * 默认策略：保留最近 100000 个已结束实例，不按时间清理。
+     */
+    public static final InstanceRetentionPolicy DEFAULT = new InstanceRetentionPolicy(100_000, null, null);
+
+    /**
+     * 不限量保留所有已结束实例。
+     */
+    public static final InstanceRetentionPolicy UNBOUNDED = new InstanceRetentionPolicy(Integer.MAX_VALUE, null, null);
+
+    private static final Duration MIN_REAP_INTERVAL = Duration.ofSeconds(1);
+
+    public InstanceRetentionPolicy {
+        if (maxRetained < 0) {
+            throw new IllegalArgumentException("maxRetained must be >= 0");
+        }
+        if (ttl != null && (ttl.isNegative() || ttl.isZero())) {
+            throw new IllegalArgumentException("ttl must be > 0");
+        }
+        if (reapInterval != null && (reapInterval.isNegative() || reapInterval.isZero())) {
+            throw new IllegalArgumentException("reapInterval must be > 0");
+        }
+    }
+
+    /**
+     * 仅限量保留的策略。
+     *
+     * @param maxRetained 最大保留数
+     * @return 策略
+     */
+    public static InstanceRetentionPolicy bounded(int maxRetained) {
+        return new InstanceRetentionPolicy(maxRetained, null, null);
+    }
+
+    /**
+     * 限量且按存活时间清理的策略。
+     *
+     * @param maxRetained 最大保留数
+     * @param ttl 存活时间
+     * @return 策略
+     */
+    public static InstanceRetentionPolicy boundedWithTtl(int maxRetained, Duration ttl) {
+        return new InstanceRetentionPolicy(maxRetained, ttl, null);
+    }
+
+    /**
+     * 实际清理周期。
+     *
+     * @return 清理周期，未配置 ttl 时为 null
+     */
+    public Duration effectiveReapInterval() {
+        if (ttl == null) {
+            return null;
+        }
+        if (reapInterval != null) {
+            return reapInterval;
+        }
+        Duration half = ttl.dividedBy(2);
+        return half.compareTo(MIN_REAP_INTERVAL) < 0 ? MIN_REAP_INTERVAL : half;
+    }
+}
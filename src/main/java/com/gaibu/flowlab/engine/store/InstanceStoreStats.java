@@ -0,0 +1,13 @@
+package com.gaibu.flowlab.engine.store;
+
+/**
+ * 实例存储占用快照。
+ *
+ * @param running 运行中实例数
+ * @param retained 保留中的已结束实例数
+ * @param evicted 因超出保留数被移除的累计实例数
+ * @param expired 因超过存活时间被移除的累计实例数
+ * @param estimatedRetainedBytes 保留中已结束实例的估算占用（字节，粗略值）
+ */
+public record InstanceStoreStats(int running, int retained, long evicted, long expired, long estimatedRetainedBytes) {
+}
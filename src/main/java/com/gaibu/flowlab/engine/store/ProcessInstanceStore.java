@@ -0,0 +1,47 @@
+package com.gaibu.flowlab.engine.store;
+
+import com.gaibu.flowlab.engine.runtime.ProcessInstance;
+
+import java.util.function.Consumer;
+
+/**
+ * 流程实例存储接口。
+ */
+public interface ProcessInstanceStore {
+
+    /**
+     * 登记运行中实例。
+     *
+     * @param instance 流程实例
+     */
+    void register(ProcessInstance instance);
+
+    /**
+     * 标记实例已结束，之后按保留策略保留或移除。
+     *
+     * @param instance 流程实例
+     */
+    void terminate(ProcessInstance instance);
+
+    /**
+     * 读取实例。
+     *
+     * @param seq 实例数值 ID
+     * @return 流程实例，不存在或已移除返回 null
+     */
+    ProcessInstance get(long seq);
+
+    /**
+     * 遍历已登记的运行中实例，回调期间实例可能仍在推进。
+     *
+     * @param action 回调
+     */
+    void forEachRunning(Consumer<ProcessInstance> action);
+
+    /**
+     * 返回存储占用快照。
+     *
+     * @return 占用快照
+     */
+    InstanceStoreStats stats();
+}
@@ -3,8 +3,8 @@ package com.gaibu.flowlab.engine.store.impl;
 import com.gaibu.flowlab.engine.store.ProcessDefinitionStore;
 import com.gaibu.flowlab.parser.model.entity.ProcessDefinition;
 
-import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 内存版流程定义存储实现。
@@ -14,7 +14,7 @@ public class InMemoryProcessDefinitionStore implements ProcessDefinitionStore {
     /**
      * 流程定义索引。
      */
-    private final Map<String, ProcessDefinition> definitions = new LinkedHashMap<>();
+    private final Map<String, ProcessDefinition> definitions = new ConcurrentHashMap<>();
 
     @Override
     public void put(ProcessDefinition definition) {
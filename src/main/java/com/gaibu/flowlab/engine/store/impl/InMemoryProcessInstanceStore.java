@@ -0,0 +1,292 @@
+package com.gaibu.flowlab.engine.store.impl;
+
+import com.gaibu.flowlab.engine.collection.ConcurrentLongObjectMap;
+import com.gaibu.flowlab.engine.runtime.ProcessInstance;
+import com.gaibu.flowlab.engine.scheduler.TimeoutScheduler;
+import com.gaibu.flowlab.engine.store.InstanceRetentionPolicy;
+import com.gaibu.flowlab.engine.store.InstanceStoreStats;
+import com.gaibu.flowlab.engine.store.ProcessInstanceStore;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 内存版流程实例存储。
+ * <p>
+ * 运行中实例存于分段并发表；结束的实例移入按访问顺序排列的保留区，超出上限时淘汰最久未访问者，
+ * 配置 ttl 时由时间轮周期触发清理。被移除的实例通过回调通知，便于释放关联的轨迹等数据。
+ */
+public class InMemoryProcessInstanceStore implements ProcessInstanceStore {
+
+    /**
+     * 实例对象及执行容器的估算基础占用（字节）。
+     */
+    private static final long INSTANCE_BASE_BYTES = 512L;
+
+    /**
+     * 单个 Token 及其索引槽位的估算占用（字节）。
+     */
+    private static final long TOKEN_BYTES = 96L;
+
+    /**
+     * 单个变量条目的估算占用（字节，不含值对象本身）。
+     */
+    private static final long VARIABLE_BYTES = 64L;
+
+    /**
+     * 单个 Scope 运行时的估算占用（字节）。
+     */
+    private static final long SCOPE_BYTES = 160L;
+
+    /**
+     * 运行中实例（key=实例数值 ID）。
+     */
+    private final ConcurrentLongObjectMap<ProcessInstance> running = new ConcurrentLongObjectMap<>();
+
+    /**
+     * 已结束实例，按访问顺序排列，读写均在自身锁内。
+     */
+    private final LinkedHashMap<Long, Retained> retained = new LinkedHashMap<>(16, 0.75F, true);
+
+    /**
+     * 清理任务使用的定时服务。
+     */
+    private final TimeoutScheduler scheduler;
+
+    /**
+     * 实例被移除时的回调。
+     */
+    private final Consumer<ProcessInstance> evictionListener;
+
+    /**
+     * 当前保留策略。
+     */
+    private volatile InstanceRetentionPolicy policy;
+
+    /**
+     * 已登记清理任务的策略，策略变更后重新登记。
+     */
+    private InstanceRetentionPolicy reaperPolicy;
+
+    private long retainedBytes;
+
+    private long evicted;
+
+    private long expired;
+
+    public InMemoryProcessInstanceStore(TimeoutScheduler scheduler) {
+        this(InstanceRetentionPolicy.DEFAULT, scheduler, instance -> {
+        });
+    }
+
+    public InMemoryProcessInstanceStore(
+            InstanceRetentionPolicy policy,
+            TimeoutScheduler scheduler,
+            Consumer<ProcessInstance> evictionListener) {
+        this.policy = policy;
+        this.scheduler = scheduler;
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * 替换保留策略，立即按新上限裁剪保留区。
+     *
+     * @param policy 保留策略
+     */
+    public void setRetentionPolicy(InstanceRetentionPolicy policy) {
+        this.policy = policy;
+        List<ProcessInstance> removed = new ArrayList<>();
+        synchronized (retained) {
+            trim(policy, removed);
+            ensureReaper(policy);
+        }
+        notifyRemoved(removed);
+    }
+
+    /**
+     * 返回当前保留策略。
+     *
+     * @return 保留策略
+     */
+    public InstanceRetentionPolicy retentionPolicy() {
+        return policy;
+    }
+
+    @Override
+    public void register(ProcessInstance instance) {
+        running.put(instance.getSeq(), instance);
+    }
+
+    @Override
+    public void terminate(ProcessInstance instance) {
+        InstanceRetentionPolicy current = policy;
+        List<ProcessInstance> removed = new ArrayList<>(1);
+        if (current.maxRetained() > 0) {
+            synchronized (retained) {
+                Retained entry = new Retained(instance, estimateBytes(instance), System.nanoTime());
+                Retained previous = retained.put(instance.getSeq(), entry);
+                if (previous != null) {
+                    retainedBytes -= previous.estimatedBytes;
+                }
+                retainedBytes += entry.estimatedBytes;
+                trim(current, removed);
+                ensureReaper(current);
+            }
+        } else {
+            removed.add(instance);
+        }
+        // 先进入保留区再移出运行表，并发读取总能在其中之一命中。
+        running.remove(instance.getSeq());
+        notifyRemoved(removed);
+    }
+
+    @Override
+    public ProcessInstance get(long seq) {
+        ProcessInstance instance = running.get(seq);
+        if (instance != null) {
+            return instance;
+        }
+        Duration ttl = policy.ttl();
+        long now = System.nanoTime();
+        Retained entry;
+        synchronized (retained) {
+            entry = retained.get(seq);
+            if (entry == null) {
+                return null;
+            }
+            if (ttl == null || now - entry.lastAccessNanos <= ttl.toNanos()) {
+                entry.lastAccessNanos = now;
+                return entry.instance;
+            }
+            // 已过期但尚未被清理：就地移除，保持保留区按访问时间有序。
+            retained.remove(seq);
+            retainedBytes -= entry.estimatedBytes;
+            expired++;
+        }
+        evictionListener.accept(entry.instance);
+        return null;
+    }
+
+    @Override
+    public void forEachRunning(Consumer<ProcessInstance> action) {
+        running.forEachValue(action);
+    }
+
+    @Override
+    public InstanceStoreStats stats() {
+        synchronized (retained) {
+            return new InstanceStoreStats(running.size(), retained.size(), evicted, expired, retainedBytes);
+        }
+    }
+
+    /**
+     * 移除超过存活时间的已结束实例。
+     *
+     * @return 本次移除数
+     */
+    public int reapExpired() {
+        Duration ttl = policy.ttl();
+        if (ttl == null) {
+            return 0;
+        }
+        long deadline = System.nanoTime() - ttl.toNanos();
+        List<ProcessInstance> removed = new ArrayList<>();
+        synchronized (retained) {
+            // 访问顺序即最近访问时间顺序，遇到未过期条目即可停止。
+            Iterator<Retained> iterator = retained.values().iterator();
+            while (iterator.hasNext()) {
+                Retained entry = iterator.next();
+                if (entry.lastAccessNanos - deadline > 0) {
+                    break;
+                }
+                iterator.remove();
+                retainedBytes -= entry.estimatedBytes;
+                expired++;
+                removed.add(entry.instance);
+            }
+        }
+        notifyRemoved(removed);
+        return removed.size();
+    }
+
+    private void trim(InstanceRetentionPolicy current, List<ProcessInstance> removed) {
+        Iterator<Retained> iterator = retained.values().iterator();
+        while (retained.size() > current.maxRetained() && iterator.hasNext()) {
+            Retained entry = iterator.next();
+            iterator.remove();
+            retainedBytes -= entry.estimatedBytes;
+            evicted++;
+            removed.add(entry.instance);
+        }
+    }
+
+    private void ensureReaper(InstanceRetentionPolicy current) {
+        if (current.ttl() == null || current == reaperPolicy) {
+            return;
+        }
+        reaperPolicy = current;
+        scheduleReap(new WeakReference<>(this), current);
+    }
+
+    /**
+     * 周期清理任务仅弱引用存储，存储不再使用后任务随之停止。
+     */
+    private static void scheduleReap(WeakReference<InMemoryProcessInstanceStore> ref, InstanceRetentionPolicy owner) {
+        InMemoryProcessInstanceStore store = ref.get();
+        if (store == null) {
+            return;
+        }
+        long interval = owner.effectiveReapInterval().toNanos();
+        store.scheduler.schedule(() -> {
+            InMemoryProcessInstanceStore target = ref.get();
+            if (target == null || target.policy != owner) {
+                return;
+            }
+            target.reapExpired();
+            scheduleReap(ref, owner);
+        }, interval, TimeUnit.NANOSECONDS);
+    }
+
+    private void notifyRemoved(List<ProcessInstance> removed) {
+        for (int i = 0; i < removed.size(); i++) {
+            evictionListener.accept(removed.get(i));
+        }
+    }
+
+    /**
+     * 粗略估算已结束实例的堆占用，用于容量规划而非精确计量。
+     */
+    private static long estimateBytes(ProcessInstance instance) {
+        long bytes = INSTANCE_BASE_BYTES
+                + TOKEN_BYTES * instance.getTokensById().size()
+                + SCOPE_BYTES * instance.getScopes().size();
+        if (instance.getVariables() != null) {
+            bytes += VARIABLE_BYTES * instance.getVariables().snapshot().size();
+        }
+        return bytes;
+    }
+
+    /**
+     * 保留区条目。
+     */
+    private static final class Retained {
+
+        private final ProcessInstance instance;
+
+        private final long estimatedBytes;
+
+        private long lastAccessNanos;
+
+        Retained(ProcessInstance instance, long estimatedBytes, long lastAccessNanos) {
+            this.instance = instance;
+            this.estimatedBytes = estimatedBytes;
+            this.lastAccessNanos = lastAccessNanos;
+        }
+    }
+}
@@ -12,9 +12,9 @@ import java.util.Map;
 public class InMemoryVariableStore implements VariableStore {
 
     /**
-     * 变量容器，单线程调度模型下无需额外并发结构。
+     * 变量容器；异步任务可能在回调线程写入，单次读写加锁，快照为只读视图。
      */
-    private final Map<String, Object> values = new LinkedHashMap<>();
+    private final Map<String, Object> values = Collections.synchronizedMap(new LinkedHashMap<>());
 
     @Override
     public Object get(String key) {
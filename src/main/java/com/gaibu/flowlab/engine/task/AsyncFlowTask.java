@@ -0,0 +1,33 @@
+package com.gaibu.flowlab.engine.task;
+
+import com.gaibu.flowlab.engine.task.context.TaskContext;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 非阻塞任务节点接口，适用于 HTTP、DB 等 I/O 密集型任务。
+ * <p>
+ * 返回的阶段未完成期间 Token 处于 WAITING，执行线程可继续推进其他 Token 与实例；
+ * 阶段完成后 Token 被重新调度。回调线程中可通过上下文读写变量。
+ */
+public interface AsyncFlowTask extends FlowTask {
+
+    /**
+     * 异步执行任务逻辑。
+     *
+     * @param context 任务上下文
+     * @return 任务完成阶段，异常完成视为任务失败
+     */
+    CompletionStage<Void> executeAsync(TaskContext context);
+
+    /**
+     * 同步执行时等待异步结果。
+     *
+     * @param context 任务上下文
+     * @throws Exception 任务异常
+     */
+    @Override
+    default void execute(TaskContext context) throws Exception {
+        executeAsync(context).toCompletableFuture().get();
+    }
+}
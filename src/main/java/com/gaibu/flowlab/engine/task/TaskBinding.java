@@ -0,0 +1,64 @@
+package com.gaibu.flowlab.engine.task;
+
+/**
+ * 节点与任务实现的绑定，部署期解析一次，运行期直接读取。
+ * <p>
+ * 未找到任务时同样缓存（negative cache），任务变更后由 {@link TaskResolver} 刷新。
+ */
+public final class TaskBinding {
+
+    /**
+     * 节点 ID。
+     */
+    private final String nodeId;
+
+    /**
+     * 任务注册表，仅在不可缓存时按次解析。
+     */
+    private final TaskRegistry registry;
+
+    /**
+     * 已绑定的任务，未找到时为 null。
+     */
+    private volatile FlowTask task;
+
+    /**
+     * 是否允许缓存解析结果（如 Spring 原型 Bean 需每次获取新实例）。
+     */
+    private volatile boolean cacheable;
+
+    TaskBinding(String nodeId, TaskRegistry registry) {
+        this.nodeId = nodeId;
+        this.registry = registry;
+        refresh();
+    }
+
+    /**
+     * 节点 ID。
+     *
+     * @return 节点 ID
+     */
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 获取绑定任务。
+     *
+     * @return 任务实现，未注册返回 null
+     */
+    public FlowTask task() {
+        if (cacheable) {
+            return task;
+        }
+        return registry.getTask(nodeId);
+    }
+
+    /**
+     * 重新从注册表解析任务。
+     */
+    void refresh() {
+        this.cacheable = registry.isCacheable(nodeId);
+        this.task = cacheable ? registry.getTask(nodeId) : null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.gaibu.flowlab.engine.task;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+/**
+ * TASK 节点（async/timeout）使用的任务执行器，按引擎实例注入。
+ */
+public interface TaskExecutor extends Executor {
+
+    /**
+     * 提交任务。
+     *
+     * @param task 任务
+     * @param <T> 结果类型
+     * @return 任务 future
+     * @throws java.util.concurrent.RejectedExecutionException 执行器饱和且背压策略拒绝时抛出
+     */
+    <T> Future<T> submit(Callable<T> task);
+
+    /**
+     * 当前饱和度指标快照。
+     *
+     * @return 指标快照
+     */
+    TaskExecutorStats stats();
+
+    /**
+     * 关闭执行器，已提交任务继续执行。
+     */
+    void shutdown();
+}
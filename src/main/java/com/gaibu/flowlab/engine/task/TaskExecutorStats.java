@@ -0,0 +1,24 @@
+package com.gaibu.flowlab.engine.task;
+
+/**
+ * 任务执行器饱和度指标快照。
+ *
+ * @param poolSize 当前线程数
+ * @param maxPoolSize 最大线程数
+ * @param active 正在执行的任务数
+ * @param queued 排队中的任务数
+ * @param queueCapacity 队列容量
+ * @param completed 已完成任务数
+ * @param rejected 累计拒绝次数
+ * @param callerRuns 累计由提交线程执行的次数
+ */
+public record TaskExecutorStats(
+        int poolSize,
+        int maxPoolSize,
+        int active,
+        int queued,
+        int queueCapacity,
+        long completed,
+        long rejected,
+        long callerRuns) {
+}
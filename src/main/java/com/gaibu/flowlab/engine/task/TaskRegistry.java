@@ -1,5 +1,7 @@
 package com.gaibu.flowlab.engine.task;
 
+import java.util.function.Consumer;
+
 /**
  * 任务注册表，负责根据节点 ID 解析任务实现。
  */
@@ -12,4 +14,22 @@ public interface TaskRegistry {
      * @return 对应任务，不存在返回 null
      */
     FlowTask getTask(String nodeId);
+
+    /**
+     * 解析结果是否可在部署期绑定后复用。
+     *
+     * @param nodeId 节点 ID
+     * @return 可复用返回 true
+     */
+    default boolean isCacheable(String nodeId) {
+        return true;
+    }
+
+    /**
+     * 注册任务变更监听器，注册表内容变化时回调变更的节点 ID。
+     *
+     * @param listener 监听器
+     */
+    default void addChangeListener(Consumer<String> listener) {
+    }
 }
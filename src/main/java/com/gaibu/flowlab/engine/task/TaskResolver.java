@@ -0,0 +1,56 @@
+package com.gaibu.flowlab.engine.task;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 任务解析器，为 TASK 节点生成并维护 {@link TaskBinding}。
+ * <p>
+ * 同一节点 ID 在多个流程中共享一份绑定；注册表变更时按节点或全量刷新。
+ */
+public class TaskResolver {
+
+    /**
+     * 任务注册表。
+     */
+    private final TaskRegistry registry;
+
+    /**
+     * 节点绑定索引（key=nodeId）。
+     */
+    private final Map<String, TaskBinding> bindings = new ConcurrentHashMap<>();
+
+    public TaskResolver(TaskRegistry registry) {
+        this.registry = registry;
+        registry.addChangeListener(this::refresh);
+    }
+
+    /**
+     * 获取节点绑定，首次调用时解析。
+     *
+     * @param nodeId 节点 ID
+     * @return 任务绑定
+     */
+    public TaskBinding bind(String nodeId) {
+        return bindings.computeIfAbsent(nodeId, key -> new TaskBinding(key, registry));
+    }
+
+    /**
+     * 刷新单个节点绑定。
+     *
+     * @param nodeId 节点 ID
+     */
+    public void refresh(String nodeId) {
+        TaskBinding binding = bindings.get(nodeId);
+        if (binding != null) {
+            binding.refresh();
+        }
+    }
+
+    /**
+     * 刷新全部绑定，用于 Spring 容器刷新等批量变更场景。
+     */
+    public void refreshAll() {
+        bindings.values().forEach(TaskBinding::refresh);
+    }
+}
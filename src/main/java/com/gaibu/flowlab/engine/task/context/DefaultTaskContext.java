@@ -5,7 +5,7 @@ import com.gaibu.flowlab.engine.runtime.Token;
 import com.gaibu.flowlab.engine.runtime.enums.InstanceStatus;
 import com.gaibu.flowlab.engine.runtime.enums.TokenStatus;
 
-import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -81,10 +81,10 @@ public class DefaultTaskContext implements TaskContext {
         instance.setInterruptReason(reason);
         instance.setStatus(InstanceStatus.INTERRUPTED);
 
-        for (Token active : new ArrayList<>(instance.getActiveTokens())) {
-            active.setStatus(TokenStatus.COMPLETED);
+        List<Token> activeTokens = instance.getActiveTokens();
+        while (!activeTokens.isEmpty()) {
+            instance.updateTokenStatus(activeTokens.get(activeTokens.size() - 1), TokenStatus.COMPLETED);
         }
-        instance.getActiveTokens().clear();
     }
 
     @Override
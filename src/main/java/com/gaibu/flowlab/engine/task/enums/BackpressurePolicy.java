@@ -0,0 +1,28 @@
+package com.gaibu.flowlab.engine.task.enums;
+
+import lombok.Getter;
+
+/**
+ * 任务执行器饱和（线程与队列均已满）时的背压策略。
+ */
+@Getter
+public enum BackpressurePolicy {
+    CALLER_RUNS("caller_runs", "由提交线程直接执行"),
+    BOUNDED_WAIT("bounded_wait", "在限定时间内阻塞提交线程等待队列空位，超时拒绝"),
+    REJECT("reject", "立即拒绝并计数");
+
+    /**
+     * 枚举编码。
+     */
+    private final String code;
+
+    /**
+     * 枚举语义描述。
+     */
+    private final String desc;
+
+    BackpressurePolicy(String code, String desc) {
+        this.code = code;
+        this.desc = desc;
+    }
+}
@@ -0,0 +1,156 @@
+package com.gaibu.flowlab.engine.task.impl;
+
+import com.gaibu.flowlab.engine.task.TaskExecutor;
+import com.gaibu.flowlab.engine.task.TaskExecutorStats;
+import com.gaibu.flowlab.engine.task.enums.BackpressurePolicy;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于 {@link ThreadPoolExecutor} 的有界任务执行器，支持背压策略与饱和度指标。
+ */
+public class BoundedTaskExecutor implements TaskExecutor {
+
+    /**
+     * 底层线程池。
+     */
+    private final ThreadPoolExecutor pool;
+
+    /**
+     * 执行器配置。
+     */
+    private final TaskExecutorProperties properties;
+
+    /**
+     * 累计拒绝次数。
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * 累计由提交线程执行的次数。
+     */
+    private final LongAdder callerRuns = new LongAdder();
+
+    public BoundedTaskExecutor() {
+        this(new TaskExecutorProperties());
+    }
+
+    public BoundedTaskExecutor(TaskExecutorProperties properties) {
+        if (properties.getMaxPoolSize() <= 0 || properties.getCorePoolSize() < 0
+                || properties.getCorePoolSize() > properties.getMaxPoolSize() || properties.getQueueCapacity() < 0) {
+            throw new IllegalArgumentException("Invalid task executor sizing: core=" + properties.getCorePoolSize()
+                    + ", max=" + properties.getMaxPoolSize() + ", queue=" + properties.getQueueCapacity());
+        }
+        this.properties = properties;
+        BlockingQueue<Runnable> queue = properties.getQueueCapacity() == 0
+                ? new SynchronousQueue<>()
+                : new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.pool = new ThreadPoolExecutor(
+                properties.getCorePoolSize(),
+                properties.getMaxPoolSize(),
+                properties.getKeepAlive().toMillis(),
+                TimeUnit.MILLISECONDS,
+                queue,
+                new TaskThreadFactory(properties.getThreadNamePrefix()),
+                new BackpressureHandler()
+        );
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        pool.execute(command);
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        return pool.submit(task);
+    }
+
+    @Override
+    public TaskExecutorStats stats() {
+        return new TaskExecutorStats(
+                pool.getPoolSize(),
+                pool.getMaximumPoolSize(),
+                pool.getActiveCount(),
+                pool.getQueue().size(),
+                properties.getQueueCapacity(),
+                pool.getCompletedTaskCount(),
+                rejected.sum(),
+                callerRuns.sum()
+        );
+    }
+
+    @Override
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * 按配置的背压策略处理饱和提交。
+     */
+    private class BackpressureHandler implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                rejected.increment();
+                throw new RejectedExecutionException("Task executor has been shut down.");
+            }
+            BackpressurePolicy policy = properties.getBackpressurePolicy();
+            if (policy == BackpressurePolicy.CALLER_RUNS) {
+                callerRuns.increment();
+                runnable.run();
+                return;
+            }
+            if (policy == BackpressurePolicy.BOUNDED_WAIT && offerWithin(runnable, executor)) {
+                // 直接入队绕过了线程创建逻辑，确保至少有一个工作线程消费队列。
+                if (executor.getPoolSize() == 0) {
+                    executor.prestartCoreThread();
+                }
+                return;
+            }
+            rejected.increment();
+            throw new RejectedExecutionException("Task executor saturated: active=" + executor.getActiveCount()
+                    + ", queued=" + executor.getQueue().size() + ", policy=" + policy);
+        }
+
+        private boolean offerWithin(Runnable runnable, ThreadPoolExecutor executor) {
+            try {
+                return executor.getQueue().offer(runnable, properties.getMaxWait().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private static class TaskThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        TaskThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
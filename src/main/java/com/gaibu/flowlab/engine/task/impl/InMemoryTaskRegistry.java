@@ -3,8 +3,11 @@ package com.gaibu.flowlab.engine.task.impl;
 import com.gaibu.flowlab.engine.task.FlowTask;
 import com.gaibu.flowlab.engine.task.TaskRegistry;
 
-import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * 内存版任务注册表。
@@ -14,13 +17,23 @@ public class InMemoryTaskRegistry implements TaskRegistry {
     /**
      * 节点任务映射。
      */
-    private final Map<String, FlowTask> tasks = new LinkedHashMap<>();
+    private final Map<String, FlowTask> tasks = new ConcurrentHashMap<>();
+
+    /**
+     * 任务变更监听器。
+     */
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
 
     @Override
     public FlowTask getTask(String nodeId) {
         return tasks.get(nodeId);
     }
 
+    @Override
+    public void addChangeListener(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
     /**
      * 注册任务实现。
      *
@@ -29,5 +42,6 @@ public class InMemoryTaskRegistry implements TaskRegistry {
      */
     public void register(String nodeId, FlowTask task) {
         tasks.put(nodeId, task);
+        listeners.forEach(listener -> listener.accept(nodeId));
     }
 }
@@ -2,7 +2,6 @@ package com.gaibu.flowlab.engine.task.impl;
 
 import com.gaibu.flowlab.engine.task.FlowTask;
 import com.gaibu.flowlab.engine.task.TaskRegistry;
-import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 
 /**
@@ -21,10 +20,16 @@ public class SpringBeanTaskRegistry implements TaskRegistry {
 
     @Override
     public FlowTask getTask(String nodeId) {
-        try {
-            return applicationContext.getBean(nodeId, FlowTask.class);
-        } catch (BeansException ex) {
+        // 先做存在性与类型判断，避免以异常表达"未找到"。
+        if (!applicationContext.containsBean(nodeId) || !applicationContext.isTypeMatch(nodeId, FlowTask.class)) {
             return null;
         }
+        return applicationContext.getBean(nodeId, FlowTask.class);
+    }
+
+    @Override
+    public boolean isCacheable(String nodeId) {
+        // 原型 Bean 每次执行都应获取新实例，不做绑定缓存。
+        return !applicationContext.containsBean(nodeId) || !applicationContext.isPrototype(nodeId);
     }
 }
@@ -0,0 +1,53 @@
+package com.gaibu.flowlab.engine.task.impl;
+
+import com.gaibu.flowlab.engine.task.enums.BackpressurePolicy;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Duration;
+
+/**
+ * 有界任务执行器配置。
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class TaskExecutorProperties {
+
+    /**
+     * 核心线程数（空闲超时后同样回收）。
+     */
+    private int corePoolSize = 64;
+
+    /**
+     * 最大线程数，队列满后才会扩容到该值。
+     */
+    private int maxPoolSize = 64;
+
+    /**
+     * 等待队列容量，0 表示不排队直接移交线程。
+     */
+    private int queueCapacity = 1024;
+
+    /**
+     * 空闲线程存活时间。
+     */
+    private Duration keepAlive = Duration.ofSeconds(60);
+
+    /**
+     * 饱和时的背压策略，默认立即拒绝：提交失败按任务失败进入重试/失败路径并计入 rejected。
+     * BOUNDED_WAIT 需显式开启，等待期间阻塞提交线程（即实例驱动线程）。
+     */
+    private BackpressurePolicy backpressurePolicy = BackpressurePolicy.REJECT;
+
+    /**
+     * BOUNDED_WAIT 策略下的最长等待时间，该时间内驱动线程无法推进其他实例。
+     */
+    private Duration maxWait = Duration.ofSeconds(1);
+
+    /**
+     * 线程名前缀。
+     */
+    private String threadNamePrefix = "flow-task-";
+}
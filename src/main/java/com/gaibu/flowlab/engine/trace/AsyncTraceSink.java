@@ -0,0 +1,203 @@
+package com.gaibu.flowlab.engine.trace;
+
+import com.gaibu.flowlab.engine.collection.MpscArrayQueue;
+import com.gaibu.flowlab.engine.trace.enums.TraceOverflowPolicy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步轨迹出口。
+ * <p>
+ * 引擎线程将紧凑事件发布到无锁多生产者队列，单个后台写入线程批量取出并写入存储，
+ * 存储只被写入线程修改。写入线程按需启动，空闲一段时间后退出，不随引擎常驻。
+ */
+public class AsyncTraceSink implements TraceSink {
+
+    /**
+     * 默认队列容量。
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * 默认单批写入事件数。
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    /**
+     * 队列为空时写入线程的单次休眠时长。
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * 写入线程连续空闲超过该时长后退出。
+     */
+    private static final long IDLE_EXIT_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    /**
+     * BLOCK 策略下生产者等待空位的单次休眠时长。
+     */
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private static final int WRITER_IDLE = 0;
+    private static final int WRITER_RUNNING = 1;
+
+    /**
+     * 目标存储。
+     */
+    private volatile ExecutionTraceStore traceStore;
+
+    /**
+     * 事件队列。
+     */
+    private final MpscArrayQueue<TraceEvent> queue;
+
+    /**
+     * 单批写入事件数。
+     */
+    private final int batchSize;
+
+    /**
+     * 写入线程名。
+     */
+    private final String threadName;
+
+    private final AtomicInteger writerState = new AtomicInteger(WRITER_IDLE);
+
+    private final AtomicLong published = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * 已写入事件数，仅写入线程更新；每个出队事件写入后计数，与队列消费位置一致。
+     */
+    private volatile long written;
+
+    /**
+     * 当前写入线程。
+     */
+    private volatile Thread writer;
+
+    /**
+     * 队列已满时的处理策略。
+     */
+    private volatile TraceOverflowPolicy overflowPolicy;
+
+    public AsyncTraceSink(ExecutionTraceStore traceStore) {
+        this(traceStore, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, TraceOverflowPolicy.BLOCK, "flow-trace-writer");
+    }
+
+    public AsyncTraceSink(
+            ExecutionTraceStore traceStore,
+            int capacity,
+            int batchSize,
+            TraceOverflowPolicy overflowPolicy,
+            String threadName) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be > 0");
+        }
+        this.traceStore = traceStore;
+        this.queue = new MpscArrayQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.threadName = threadName;
+    }
+
+    /**
+     * 设置队列已满时的处理策略。
+     *
+     * @param overflowPolicy 处理策略
+     */
+    public void setOverflowPolicy(TraceOverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * 切换目标存储，已入队未写入的事件写入新存储；需要先落到旧存储时应先调用 {@link #flush()}。
+     *
+     * @param traceStore 目标存储
+     */
+    public void setTraceStore(ExecutionTraceStore traceStore) {
+        this.traceStore = traceStore;
+    }
+
+    @Override
+    public void publish(TraceEvent event) {
+        if (!queue.offer(event)) {
+            if (overflowPolicy == TraceOverflowPolicy.DROP) {
+                dropped.incrementAndGet();
+                return;
+            }
+            do {
+                ensureWriter();
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+            } while (!queue.offer(event));
+        }
+        published.incrementAndGet();
+        ensureWriter();
+    }
+
+    @Override
+    public void flush() {
+        // 以队列生产位置为目标：published 在入队之后才递增，并发发布时可能漏算已入队事件之前的事件。
+        long target = queue.producerIndex();
+        while (written < target) {
+            ensureWriter();
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+        }
+    }
+
+    /**
+     * 返回出口指标快照。
+     *
+     * @return 指标快照
+     */
+    public TraceSinkStats stats() {
+        return new TraceSinkStats(published.get(), written, dropped.get(), queue.size());
+    }
+
+    private void ensureWriter() {
+        if (writerState.get() == WRITER_RUNNING || !writerState.compareAndSet(WRITER_IDLE, WRITER_RUNNING)) {
+            return;
+        }
+        Thread thread = new Thread(this::runWriter, threadName);
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    private void runWriter() {
+        long idleSince = System.nanoTime();
+        while (true) {
+            int drained = queue.drain(this::write, batchSize);
+            if (drained > 0) {
+                idleSince = System.nanoTime();
+                continue;
+            }
+            if (System.nanoTime() - idleSince < IDLE_EXIT_NANOS) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            writerState.set(WRITER_IDLE);
+            // 退出前复查：生产者可能在状态切换前入队且未能启动新线程。
+            if (queue.isEmpty() || !writerState.compareAndSet(WRITER_IDLE, WRITER_RUNNING)) {
+                return;
+            }
+            writer = Thread.currentThread();
+            idleSince = System.nanoTime();
+        }
+    }
+
+    private void write(TraceEvent event) {
+        try {
+            event.applyTo(traceStore);
+        } catch (RuntimeException ignored) {
+            // 单个事件写入失败不能终止写入线程。
+        }
+        written++;
+    }
+}
@@ -0,0 +1,256 @@
+package com.gaibu.flowlab.engine.trace;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 有界内存轨迹存储。
+ * <p>
+ * 每个实例保留最早 headSteps 步与最近 tailSteps 步（环形缓冲），中间步骤只计数，查询时以
+ * {@link TraceStep#TRUNCATED} 标记步骤占位；全局步数或估算字节超出预算时按最近使用顺序整实例淘汰。
+ */
+public class BoundedExecutionTraceStore implements ExecutionTraceStore {
+
+    /**
+     * 单个步骤对象的估算基础占用（字节）。
+     */
+    private static final long STEP_BASE_BYTES = 120L;
+
+    /**
+     * 单个目标节点列表元素的估算占用（字节，不含字符串）。
+     */
+    private static final long TARGET_ENTRY_BYTES = 16L;
+
+    /**
+     * 实例轨迹，按访问顺序排列，读写均在自身锁内。
+     */
+    private final LinkedHashMap<String, InstanceTrace> traces = new LinkedHashMap<>(16, 0.75F, true);
+
+    /**
+     * 当前预算。
+     */
+    private TraceBudget budget;
+
+    /**
+     * 按预算淘汰实例时的回调。
+     */
+    private Consumer<String> evictionListener;
+
+    private long totalSteps;
+
+    private long totalBytes;
+
+    private long evictedInstances;
+
+    private long droppedSteps;
+
+    public BoundedExecutionTraceStore() {
+        this(TraceBudget.DEFAULT);
+    }
+
+    public BoundedExecutionTraceStore(TraceBudget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * 替换预算。新的单实例上限只作用于之后创建的实例轨迹，全局上限立即生效。
+     *
+     * @param budget 容量预算
+     */
+    public void setBudget(TraceBudget budget) {
+        synchronized (traces) {
+            this.budget = budget;
+            evictOverBudget(null);
+        }
+    }
+
+    @Override
+    public void append(TraceStep step) {
+        long bytes = estimateBytes(step);
+        synchronized (traces) {
+            InstanceTrace trace = traces.get(step.getInstanceId());
+            if (trace == null) {
+                trace = new InstanceTrace(budget.headSteps(), budget.tailSteps());
+                traces.put(step.getInstanceId(), trace);
+            }
+            TraceStep overwritten = trace.add(step);
+            totalSteps++;
+            totalBytes += bytes;
+            if (overwritten != null) {
+                long overwrittenBytes = estimateBytes(overwritten);
+                trace.bytes -= overwrittenBytes;
+                totalSteps--;
+                totalBytes -= overwrittenBytes;
+                droppedSteps++;
+            }
+            trace.bytes += bytes;
+            evictOverBudget(trace);
+        }
+    }
+
+    @Override
+    public List<TraceStep> getByInstanceId(String instanceId) {
+        synchronized (traces) {
+            InstanceTrace trace = traces.get(instanceId);
+            if (trace == null) {
+                return List.of();
+            }
+            return trace.snapshot(instanceId);
+        }
+    }
+
+    @Override
+    public void remove(String instanceId) {
+        synchronized (traces) {
+            InstanceTrace trace = traces.remove(instanceId);
+            if (trace != null) {
+                release(trace);
+            }
+        }
+    }
+
+    @Override
+    public void forEachTrace(BiConsumer<String, List<TraceStep>> action) {
+        // 先在锁内复制快照再回调，遍历不改变访问顺序。
+        Map<String, List<TraceStep>> snapshots = new LinkedHashMap<>();
+        synchronized (traces) {
+            for (Map.Entry<String, InstanceTrace> entry : traces.entrySet()) {
+                snapshots.put(entry.getKey(), entry.getValue().snapshot(entry.getKey()));
+            }
+        }
+        snapshots.forEach(action);
+    }
+
+    @Override
+    public void setEvictionListener(Consumer<String> listener) {
+        synchronized (traces) {
+            this.evictionListener = listener;
+        }
+    }
+
+    /**
+     * 返回存储占用快照。
+     *
+     * @return 占用快照
+     */
+    public TraceStoreStats stats() {
+        synchronized (traces) {
+            return new TraceStoreStats(traces.size(), totalSteps, totalBytes, evictedInstances, droppedSteps);
+        }
+    }
+
+    /**
+     * 淘汰最久未使用的实例直至回到预算内，正在追加的实例不淘汰。
+     */
+    private void evictOverBudget(InstanceTrace current) {
+        Iterator<Map.Entry<String, InstanceTrace>> iterator = traces.entrySet().iterator();
+        while ((totalSteps > budget.maxTotalSteps() || totalBytes > budget.maxTotalBytes()) && iterator.hasNext()) {
+            Map.Entry<String, InstanceTrace> eldest = iterator.next();
+            if (eldest.getValue() == current) {
+                return;
+            }
+            iterator.remove();
+            release(eldest.getValue());
+            evictedInstances++;
+            if (evictionListener != null) {
+                evictionListener.accept(eldest.getKey());
+            }
+        }
+    }
+
+    private void release(InstanceTrace trace) {
+        totalSteps -= trace.size();
+        totalBytes -= trace.bytes;
+    }
+
+    /**
+     * 粗略估算步骤的堆占用（字符串按 UTF-16 计）。
+     */
+    private static long estimateBytes(TraceStep step) {
+        long bytes = STEP_BASE_BYTES
+                + chars(step.getTokenId())
+                + chars(step.getFromNodeId())
+                + chars(step.getErrorMessage());
+        List<String> targets = step.getToNodeIds();
+        for (int i = 0; i < targets.size(); i++) {
+            bytes += TARGET_ENTRY_BYTES + chars(targets.get(i));
+        }
+        return bytes;
+    }
+
+    private static long chars(String text) {
+        return text == null ? 0L : 2L * text.length();
+    }
+
+    /**
+     * 单实例轨迹：固定头部数组与尾部环形缓冲。
+     */
+    private static final class InstanceTrace {
+
+        private final TraceStep[] head;
+
+        private final TraceStep[] tail;
+
+        private int headSize;
+
+        /**
+         * 进入尾部缓冲的累计步骤数（含已被覆盖者）。
+         */
+        private long tailAppended;
+
+        private long bytes;
+
+        InstanceTrace(int headSteps, int tailSteps) {
+            this.head = new TraceStep[headSteps];
+            this.tail = new TraceStep[tailSteps];
+        }
+
+        /**
+         * 追加步骤。
+         *
+         * @return 被覆盖而丢弃的步骤，没有时返回 null
+         */
+        TraceStep add(TraceStep step) {
+            if (headSize < head.length) {
+                head[headSize++] = step;
+                return null;
+            }
+            if (tail.length == 0) {
+                // 仅保留头部时新步骤直接丢弃，以自身作为被丢弃者返回。
+                tailAppended++;
+                return step;
+            }
+            int slot = (int) (tailAppended % tail.length);
+            TraceStep overwritten = tail[slot];
+            tail[slot] = step;
+            tailAppended++;
+            return overwritten;
+        }
+
+        int size() {
+            return headSize + (int) Math.min(tailAppended, tail.length);
+        }
+
+        List<TraceStep> snapshot(String instanceId) {
+            int tailSize = (int) Math.min(tailAppended, tail.length);
+            long dropped = tailAppended - tailSize;
+            List<TraceStep> steps = new ArrayList<>(headSize + tailSize + (dropped > 0 ? 1 : 0));
+            for (int i = 0; i < headSize; i++) {
+                steps.add(head[i]);
+            }
+            if (dropped > 0) {
+                steps.add(TraceStep.truncated(instanceId, dropped));
+            }
+            long first = tailAppended - tailSize;
+            for (long i = first; i < tailAppended; i++) {
+                steps.add(tail[(int) (i % tail.length)]);
+            }
+            return List.copyOf(steps);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.gaibu.flowlab.engine.trace;
+
+/**
+ * 同步轨迹出口，在发布线程直接写入存储。
+ */
+public class DirectTraceSink implements TraceSink {
+
+    /**
+     * 轨迹存储。
+     */
+    private final ExecutionTraceStore traceStore;
+
+    public DirectTraceSink(ExecutionTraceStore traceStore) {
+        this.traceStore = traceStore;
+    }
+
+    @Override
+    public void publish(TraceEvent event) {
+        event.applyTo(traceStore);
+    }
+
+    @Override
+    public void flush() {
+    }
+}
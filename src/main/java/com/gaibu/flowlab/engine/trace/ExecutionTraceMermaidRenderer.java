@@ -21,7 +21,7 @@ public class ExecutionTraceMermaidRenderer {
     }
 
     /**
-     * 渲染实例执行链路图。
+     * 渲染实例执行链路图，轨迹被截断时以虚线省略节点标出丢弃位置。
      *
      * @param instanceId 实例 ID
      * @return Mermaid flowchart 文本
@@ -34,8 +34,23 @@ public class ExecutionTraceMermaidRenderer {
         Map<String, String> nodeAlias = new LinkedHashMap<>();
         Set<String> edges = new LinkedHashSet<>();
 
+        String gapAlias = null;
+        String previousAlias = null;
         for (TraceStep step : steps) {
+            if (step.isTruncationMarker()) {
+                // 截断处以虚线连接到省略节点，标明被丢弃的步骤数。
+                gapAlias = alias("... " + step.getDroppedSteps() + " steps dropped ...", nodeAlias);
+                if (previousAlias != null) {
+                    edges.add(previousAlias + " -.-> " + gapAlias);
+                }
+                continue;
+            }
             String fromAlias = alias(step.getFromNodeId(), nodeAlias);
+            if (gapAlias != null) {
+                edges.add(gapAlias + " -.-> " + fromAlias);
+                gapAlias = null;
+            }
+            previousAlias = fromAlias;
             if (step.getToNodeIds().isEmpty()) {
                 if (!step.isSuccess()) {
                     String failNode = "FAIL_" + step.getFromNodeId();
@@ -1,6 +1,10 @@
 package com.gaibu.flowlab.engine.trace;
 
+import com.gaibu.flowlab.engine.scheduler.TimeoutScheduler;
+
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * 执行轨迹存储接口。
@@ -21,4 +25,57 @@ public interface ExecutionTraceStore {
      * @return 步骤列表
      */
     List<TraceStep> getByInstanceId(String instanceId);
+
+    /**
+     * 删除实例轨迹，实例被移除或不保留时调用（持久存储不会收到实例移除通知）。
+     *
+     * @param instanceId 实例 ID
+     */
+    void remove(String instanceId);
+
+    /**
+     * 是否为持久存储。持久存储的轨迹生命周期由存储自身的保留策略决定，
+     * 不随实例从实例存储中淘汰或临时实例结束而删除。
+     *
+     * @return 持久存储返回 true
+     */
+    default boolean isDurable() {
+        return false;
+    }
+
+    /**
+     * 存储中已有轨迹的最大实例序号（{@code PI-<seq>}），引擎据此续接实例 ID，
+     * 避免重启后新实例与旧轨迹重名而被合并。
+     *
+     * @return 最大实例序号，非持久存储返回 0
+     */
+    default long maxInstanceSeq() {
+        return 0L;
+    }
+
+    /**
+     * 按实例遍历存储中现有的轨迹，供倒排索引等派生结构补建；不支持遍历的存储不回调。
+     *
+     * @param action 回调（实例 ID，步骤列表）
+     */
+    default void forEachTrace(BiConsumer<String, List<TraceStep>> action) {
+    }
+
+    /**
+     * 设置存储自行淘汰实例轨迹（超出容量预算、分段被保留策略删除等）时的回调，
+     * 经 {@link #remove(String)} 显式删除的实例不回调。回调在存储内部锁内执行，应保持轻量。
+     *
+     * @param listener 淘汰回调（实例 ID），null 表示取消
+     */
+    default void setEvictionListener(Consumer<String> listener) {
+    }
+
+    /**
+     * 在定时服务上登记存储自身的周期保留任务（如按年龄删除分段），引擎设置存储时调用；
+     * 没有周期任务的存储忽略。
+     *
+     * @param scheduler 定时服务
+     */
+    default void scheduleRetention(TimeoutScheduler scheduler) {
+    }
 }
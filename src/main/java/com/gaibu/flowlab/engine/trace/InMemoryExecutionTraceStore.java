@@ -1,9 +1,11 @@
 package com.gaibu.flowlab.engine.trace;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 /**
  * 内存轨迹存储。
@@ -11,17 +13,39 @@ import java.util.Map;
 public class InMemoryExecutionTraceStore implements ExecutionTraceStore {
 
     /**
-     * 实例轨迹索引。
+     * 实例轨迹索引，多个引擎线程可并发追加不同实例的轨迹。
      */
-    private final Map<String, List<TraceStep>> stepsByInstance = new LinkedHashMap<>();
+    private final Map<String, List<TraceStep>> stepsByInstance = new ConcurrentHashMap<>();
 
     @Override
     public void append(TraceStep step) {
-        stepsByInstance.computeIfAbsent(step.getInstanceId(), key -> new ArrayList<>()).add(step);
+        stepsByInstance.computeIfAbsent(step.getInstanceId(), key -> Collections.synchronizedList(new ArrayList<>())).add(step);
     }
 
     @Override
     public List<TraceStep> getByInstanceId(String instanceId) {
-        return List.copyOf(stepsByInstance.getOrDefault(instanceId, List.of()));
+        List<TraceStep> steps = stepsByInstance.get(instanceId);
+        if (steps == null) {
+            return List.of();
+        }
+        synchronized (steps) {
+            return List.copyOf(steps);
+        }
+    }
+
+    @Override
+    public void remove(String instanceId) {
+        stepsByInstance.remove(instanceId);
+    }
+
+    @Override
+    public void forEachTrace(BiConsumer<String, List<TraceStep>> action) {
+        stepsByInstance.forEach((instanceId, steps) -> {
+            List<TraceStep> snapshot;
+            synchronized (steps) {
+                snapshot = List.copyOf(steps);
+            }
+            action.accept(instanceId, snapshot);
+        });
     }
 }
@@ -0,0 +1,36 @@
+package com.gaibu.flowlab.engine.trace;
+
+/**
+ * 轨迹存储容量预算。单实例超过 headSteps + tailSteps 步时保留最早与最近的步骤，中间步骤丢弃；
+ * 全局步数或估算字节数超出预算时，按最近使用顺序整实例淘汰。
+ *
+ * @param headSteps 单实例保留的最早步骤数
+ * @param tailSteps 单实例保留的最近步骤数
+ * @param maxTotalSteps 全局保留步数上限
+ * @param maxTotalBytes 全局估算字节上限
+ */
+public record TraceBudget(int headSteps, int tailSteps, long maxTotalSteps, long maxTotalBytes) {
+
+    /**
+     * 默认预算：单实例首 64 步与末 192 步，全局 100 万步或 256MB。
+     */
+    public static final TraceBudget DEFAULT = new TraceBudget(64, 192, 1_000_000L, 256L * 1024 * 1024);
+
+    public TraceBudget {
+        if (headSteps < 0 || tailSteps < 0 || headSteps + tailSteps == 0) {
+            throw new IllegalArgumentException("headSteps and tailSteps must be >= 0 and not both 0");
+        }
+        if (maxTotalSteps <= 0 || maxTotalBytes <= 0) {
+            throw new IllegalArgumentException("maxTotalSteps and maxTotalBytes must be > 0");
+        }
+    }
+
+    /**
+     * 单实例保留步数上限。
+     *
+     * @return headSteps + tailSteps
+     */
+    public int maxStepsPerInstance() {
+        return headSteps + tailSteps;
+    }
+}
@@ -0,0 +1,52 @@
+package com.gaibu.flowlab.engine.trace;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ERROR_ONLY 模式下的实例内轨迹缓冲，只由推进该实例的线程访问，无需同步。
+ * 超出容量时丢弃最早的步骤，仅保留失败前最近的轨迹。
+ */
+public final class TraceBuffer {
+
+    private final ArrayDeque<TraceEvent> events = new ArrayDeque<>();
+
+    private final int capacity;
+
+    private long dropped;
+
+    public TraceBuffer(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * 缓冲事件。
+     *
+     * @param event 轨迹事件
+     */
+    public void add(TraceEvent event) {
+        if (events.size() == capacity) {
+            events.pollFirst();
+            dropped++;
+        }
+        events.addLast(event);
+    }
+
+    /**
+     * 取出缓冲内容，有丢弃时以截断标记开头。
+     *
+     * @param instanceId 实例 ID
+     * @return 缓冲的事件
+     */
+    public List<TraceEvent> drain(String instanceId) {
+        List<TraceEvent> drained = new ArrayList<>(events.size() + 1);
+        if (dropped > 0) {
+            drained.add(TraceEvent.truncated(instanceId, dropped));
+        }
+        drained.addAll(events);
+        events.clear();
+        dropped = 0;
+        return drained;
+    }
+}
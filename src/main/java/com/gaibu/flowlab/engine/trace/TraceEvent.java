@@ -0,0 +1,154 @@
+package com.gaibu.flowlab.engine.trace;
+
+import com.gaibu.flowlab.engine.execution.instruction.ForkInstruction;
+import com.gaibu.flowlab.engine.execution.instruction.Instruction;
+import com.gaibu.flowlab.engine.execution.instruction.JoinInstruction;
+import com.gaibu.flowlab.engine.execution.instruction.MoveInstruction;
+import com.gaibu.flowlab.engine.runtime.NodeId;
+import com.gaibu.flowlab.engine.runtime.TokenId;
+import com.gaibu.flowlab.engine.trace.enums.TraceEventType;
+
+/**
+ * 紧凑轨迹事件：引擎线程只记录引用与时间戳，字符串格式化与目标列表构建推迟到写入线程。
+ *
+ * @param type 事件类型
+ * @param instanceId 实例 ID
+ * @param tokenId Token ID
+ * @param fromNode 当前节点
+ * @param instruction 节点指令，仅 STEP 有效
+ * @param errorMessage 失败原因，仅 FAILURE 有效
+ * @param timestamp 记录时间戳（毫秒）
+ * @param droppedSteps 丢弃步骤数，仅 TRUNCATED 有效
+ * @param startNanos 节点开始执行时间（纳秒），0 表示未计时
+ * @param endNanos 节点执行结束时间（纳秒）
+ * @param queueWaitNanos 调度排队时长（纳秒）
+ * @param threadName 执行线程名
+ */
+public record TraceEvent(
+        TraceEventType type,
+        String instanceId,
+        TokenId tokenId,
+        NodeId fromNode,
+        Instruction instruction,
+        String errorMessage,
+        long timestamp,
+        long droppedSteps,
+        long startNanos,
+        long endNanos,
+        long queueWaitNanos,
+        String threadName) {
+
+    /**
+     * 节点执行成功事件（未计时）。
+     */
+    public static TraceEvent step(String instanceId, TokenId tokenId, NodeId fromNode, Instruction instruction) {
+        return step(instanceId, tokenId, fromNode, instruction, 0L, 0L, 0L, null);
+    }
+
+    /**
+     * 节点执行成功事件。
+     */
+    public static TraceEvent step(
+            String instanceId,
+            TokenId tokenId,
+            NodeId fromNode,
+            Instruction instruction,
+            long startNanos,
+            long endNanos,
+            long queueWaitNanos,
+            String threadName) {
+        return new TraceEvent(TraceEventType.STEP, instanceId, tokenId, fromNode, instruction, null,
+                System.currentTimeMillis(), 0L, startNanos, endNanos, queueWaitNanos, threadName);
+    }
+
+    /**
+     * 节点执行失败事件（未计时）。
+     */
+    public static TraceEvent failure(String instanceId, TokenId tokenId, NodeId fromNode, String errorMessage) {
+        return failure(instanceId, tokenId, fromNode, errorMessage, 0L, 0L, 0L, null);
+    }
+
+    /**
+     * 节点执行失败事件。
+     */
+    public static TraceEvent failure(
+            String instanceId,
+            TokenId tokenId,
+            NodeId fromNode,
+            String errorMessage,
+            long startNanos,
+            long endNanos,
+            long queueWaitNanos,
+            String threadName) {
+        return new TraceEvent(TraceEventType.FAILURE, instanceId, tokenId, fromNode, null, errorMessage,
+                System.currentTimeMillis(), 0L, startNanos, endNanos, queueWaitNanos, threadName);
+    }
+
+    /**
+     * 步骤丢弃标记事件。
+     */
+    public static TraceEvent truncated(String instanceId, long droppedSteps) {
+        return new TraceEvent(TraceEventType.TRUNCATED, instanceId, null, null, null, null, 0L, droppedSteps,
+                0L, 0L, 0L, null);
+    }
+
+    /**
+     * 删除实例轨迹事件，与追加事件经同一队列保证先后顺序；持久存储忽略此事件。
+     */
+    public static TraceEvent removal(String instanceId) {
+        return new TraceEvent(TraceEventType.REMOVE, instanceId, null, null, null, null, 0L, 0L,
+                0L, 0L, 0L, null);
+    }
+
+    /**
+     * 将事件写入轨迹存储。
+     *
+     * @param store 轨迹存储
+     */
+    public void applyTo(ExecutionTraceStore store) {
+        switch (type) {
+            case REMOVE -> {
+                if (!store.isDurable()) {
+                    store.remove(instanceId);
+                }
+            }
+            case TRUNCATED -> store.append(TraceStep.truncated(instanceId, droppedSteps));
+            default -> store.append(toStep());
+        }
+    }
+
+    /**
+     * 构建轨迹步骤。
+     *
+     * @return 轨迹步骤
+     */
+    public TraceStep toStep() {
+        TraceStep step = new TraceStep();
+        step.setInstanceId(instanceId);
+        step.setTokenId(tokenId.value());
+        step.setFromNodeId(fromNode.value());
+        step.setTimestamp(timestamp);
+        step.setStartNanos(startNanos);
+        step.setEndNanos(endNanos);
+        step.setQueueWaitNanos(queueWaitNanos);
+        step.setThreadName(threadName);
+        if (type == TraceEventType.FAILURE) {
+            step.setInstructionType("FAILURE");
+            step.setSuccess(false);
+            step.setErrorMessage(errorMessage);
+            return step;
+        }
+        step.setInstructionType(instruction.getClass().getSimpleName());
+        step.setSuccess(true);
+        if (instruction instanceof MoveInstruction move) {
+            step.getToNodeIds().add(move.nextNode().value());
+        } else if (instruction instanceof ForkInstruction fork) {
+            for (NodeId next : fork.nextNodes()) {
+                step.getToNodeIds().add(next.value());
+            }
+        } else if (instruction instanceof JoinInstruction join) {
+            step.getToNodeIds().add(join.joinNode().value());
+        }
+        return step;
+    }
+}
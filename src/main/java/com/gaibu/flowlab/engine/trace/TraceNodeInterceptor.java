@@ -1,75 +1,126 @@
 package com.gaibu.flowlab.engine.trace;
 
 import com.gaibu.flowlab.engine.execution.ExecutionContext;
-import com.gaibu.flowlab.engine.execution.instruction.CompleteInstruction;
-import com.gaibu.flowlab.engine.execution.instruction.FailInstruction;
-import com.gaibu.flowlab.engine.execution.instruction.ForkInstruction;
 import com.gaibu.flowlab.engine.execution.instruction.Instruction;
-import com.gaibu.flowlab.engine.execution.instruction.JoinInstruction;
-import com.gaibu.flowlab.engine.execution.instruction.MoveInstruction;
 import com.gaibu.flowlab.engine.interceptor.NodeInterceptor;
+import com.gaibu.flowlab.engine.interceptor.ProcessInterceptor;
+import com.gaibu.flowlab.engine.runtime.ProcessInstance;
+import com.gaibu.flowlab.engine.runtime.Token;
+import com.gaibu.flowlab.engine.trace.enums.TraceMode;
 
 import java.util.List;
 
 /**
  * 轨迹采集拦截器。
+ * <p>
+ * 按实例启动时确定的 {@link TraceMode} 采集：OFF 仅读取一次实例字段即返回；ERROR_ONLY 在实例内缓冲，
+ * 实例失败时发布、完成时丢弃；FULL 直接发布。引擎线程只构建紧凑的 {@link TraceEvent}，
+ * 轨迹步骤由 {@link TraceSink} 负责生成与写入。同时作为流程拦截器在实例结束时处理缓冲。
  */
-public class TraceNodeInterceptor implements NodeInterceptor {
+public class TraceNodeInterceptor implements NodeInterceptor, ProcessInterceptor {
 
     /**
-     * 轨迹存储。
+     * ERROR_ONLY 模式单实例缓冲的最大步骤数。
      */
-    private final ExecutionTraceStore traceStore;
+    public static final int ERROR_BUFFER_CAPACITY = 256;
+
+    /**
+     * 轨迹出口。
+     */
+    private final TraceSink traceSink;
 
     public TraceNodeInterceptor(ExecutionTraceStore traceStore) {
-        this.traceStore = traceStore;
+        this(new DirectTraceSink(traceStore));
+    }
+
+    public TraceNodeInterceptor(TraceSink traceSink) {
+        this.traceSink = traceSink;
     }
 
     @Override
     public void before(ExecutionContext ctx) {
+        if (ctx.instance().getTraceMode() == TraceMode.OFF) {
+            return;
+        }
+        ctx.token().setStepStartNanos(System.nanoTime());
     }
 
     @Override
     public void afterSuccess(ExecutionContext ctx, Instruction instruction) {
-        TraceStep step = baseStep(ctx, instruction.getClass().getSimpleName(), true);
-        step.getToNodeIds().addAll(resolveTargets(instruction));
-        traceStore.append(step);
+        ProcessInstance instance = ctx.instance();
+        TraceMode mode = instance.getTraceMode();
+        if (mode == TraceMode.OFF) {
+            return;
+        }
+        Token token = ctx.token();
+        long end = System.nanoTime();
+        long start = token.getStepStartNanos();
+        record(instance, mode, TraceEvent.step(instance.getId(), token.getId(), ctx.node().getId(), instruction,
+                start, end, queueWait(token, start), Thread.currentThread().getName()));
+        // 后续步骤（含分叉出的子 Token）从本步结束时刻开始排队。
+        token.setReadyNanos(end);
     }
 
     @Override
     public void afterFailure(ExecutionContext ctx, Throwable ex) {
-        TraceStep step = baseStep(ctx, "FAILURE", false);
-        step.setErrorMessage(ex.getMessage());
-        traceStore.append(step);
+        ProcessInstance instance = ctx.instance();
+        TraceMode mode = instance.getTraceMode();
+        if (mode == TraceMode.OFF) {
+            return;
+        }
+        Token token = ctx.token();
+        long end = System.nanoTime();
+        long start = token.getStepStartNanos();
+        record(instance, mode, TraceEvent.failure(instance.getId(), token.getId(), ctx.node().getId(), ex.getMessage(),
+                start, end, queueWait(token, start), Thread.currentThread().getName()));
+        // 失败后重试的 Token 从本步结束时刻开始排队（退避结束时由执行循环重置）。
+        token.setReadyNanos(end);
+    }
+
+    @Override
+    public void beforeStart(ProcessInstance instance) {
+        if (instance.getTraceMode() == TraceMode.OFF) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (Token token : instance.getActiveTokens()) {
+            token.setReadyNanos(now);
+        }
     }
 
-    private TraceStep baseStep(ExecutionContext ctx, String instructionType, boolean success) {
-        TraceStep step = new TraceStep();
-        step.setInstanceId(ctx.instance().getId());
-        step.setTokenId(ctx.token().getId().value());
-        step.setFromNodeId(ctx.node().getId().value());
-        step.setInstructionType(instructionType);
-        step.setSuccess(success);
-        step.setTimestamp(System.currentTimeMillis());
-        return step;
+    @Override
+    public void onCompleted(ProcessInstance instance) {
+        instance.setTraceBuffer(null);
     }
 
-    private List<String> resolveTargets(Instruction instruction) {
-        if (instruction instanceof MoveInstruction move) {
-            return List.of(move.nextNode().value());
-        }
-        if (instruction instanceof ForkInstruction fork) {
-            return fork.nextNodes().stream().map(nodeId -> nodeId.value()).toList();
+    @Override
+    public void onFailed(ProcessInstance instance, Throwable ex) {
+        TraceBuffer buffer = instance.getTraceBuffer();
+        if (buffer == null) {
+            return;
         }
-        if (instruction instanceof JoinInstruction join) {
-            return List.of(join.joinNode().value());
+        instance.setTraceBuffer(null);
+        List<TraceEvent> events = buffer.drain(instance.getId());
+        for (int i = 0; i < events.size(); i++) {
+            traceSink.publish(events.get(i));
         }
-        if (instruction instanceof CompleteInstruction) {
-            return List.of();
+    }
+
+    private static long queueWait(Token token, long start) {
+        long ready = token.getReadyNanos();
+        return ready == 0L || start == 0L ? 0L : Math.max(0L, start - ready);
+    }
+
+    private void record(ProcessInstance instance, TraceMode mode, TraceEvent event) {
+        if (mode != TraceMode.ERROR_ONLY) {
+            traceSink.publish(event);
+            return;
         }
-        if (instruction instanceof FailInstruction) {
-            return List.of();
+        TraceBuffer buffer = instance.getTraceBuffer();
+        if (buffer == null) {
+            buffer = new TraceBuffer(ERROR_BUFFER_CAPACITY);
+            instance.setTraceBuffer(buffer);
         }
-        return List.of();
+        buffer.add(event);
     }
 }
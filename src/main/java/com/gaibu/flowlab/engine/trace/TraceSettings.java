@@ -0,0 +1,60 @@
+package com.gaibu.flowlab.engine.trace;
+
+import com.gaibu.flowlab.engine.trace.enums.TraceMode;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 轨迹采集设置，可按流程定义或单次启动指定。
+ *
+ * @param mode 采集模式
+ * @param sampleRate 采样率 [0,1]，仅 SAMPLED 模式有效
+ */
+public record TraceSettings(TraceMode mode, double sampleRate) {
+
+    /**
+     * 不采集。
+     */
+    public static final TraceSettings OFF = new TraceSettings(TraceMode.OFF, 0D);
+
+    /**
+     * 仅失败实例采集。
+     */
+    public static final TraceSettings ERROR_ONLY = new TraceSettings(TraceMode.ERROR_ONLY, 0D);
+
+    /**
+     * 完整采集（引擎默认）。
+     */
+    public static final TraceSettings FULL = new TraceSettings(TraceMode.FULL, 1D);
+
+    public TraceSettings {
+        if (mode == null) {
+            throw new IllegalArgumentException("mode must not be null");
+        }
+        if (!(sampleRate >= 0D && sampleRate <= 1D)) {
+            throw new IllegalArgumentException("sampleRate must be in [0, 1]");
+        }
+    }
+
+    /**
+     * 按实例采样。
+     *
+     * @param rate 采样率 [0,1]
+     * @return 采样设置
+     */
+    public static TraceSettings sampled(double rate) {
+        return new TraceSettings(TraceMode.SAMPLED, rate);
+    }
+
+    /**
+     * 为新实例确定实际模式：SAMPLED 在启动时一次性决定为 FULL 或 OFF，执行期不再判断。
+     *
+     * @return OFF、ERROR_ONLY 或 FULL
+     */
+    public TraceMode resolve() {
+        if (mode != TraceMode.SAMPLED) {
+            return mode;
+        }
+        return ThreadLocalRandom.current().nextDouble() < sampleRate ? TraceMode.FULL : TraceMode.OFF;
+    }
+}
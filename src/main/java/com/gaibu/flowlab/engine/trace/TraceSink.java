@@ -0,0 +1,19 @@
+package com.gaibu.flowlab.engine.trace;
+
+/**
+ * 轨迹事件出口，由采集拦截器发布事件。
+ */
+public interface TraceSink {
+
+    /**
+     * 发布轨迹事件。
+     *
+     * @param event 轨迹事件
+     */
+    void publish(TraceEvent event);
+
+    /**
+     * 等待此前发布的事件全部写入存储，用于读取轨迹前。
+     */
+    void flush();
+}
@@ -0,0 +1,12 @@
+package com.gaibu.flowlab.engine.trace;
+
+/**
+ * 异步轨迹出口指标快照。
+ *
+ * @param published 累计入队事件数
+ * @param written 累计写入存储的事件数
+ * @param dropped 因队列已满丢弃的累计事件数
+ * @param pending 队列中待写入的事件数
+ */
+public record TraceSinkStats(long published, long written, long dropped, int pending) {
+}
@@ -15,6 +15,11 @@ import java.util.List;
 @NoArgsConstructor
 public class TraceStep {
 
+    /**
+     * 截断标记步骤的指令类型。
+     */
+    public static final String TRUNCATED = "TRUNCATED";
+
     /**
      * 流程实例 ID。
      */
@@ -54,4 +59,63 @@ public class TraceStep {
      * 记录时间戳。
      */
     private long timestamp;
+
+    /**
+     * 截断标记处被丢弃的步骤数，仅 instructionType=TRUNCATED 时有效。
+     */
+    private long droppedSteps;
+
+    /**
+     * 节点开始执行时间（{@link System#nanoTime()}），0 表示未计时。
+     */
+    private long startNanos;
+
+    /**
+     * 节点执行结束时间（{@link System#nanoTime()}），异步节点含等待结果的时间。
+     */
+    private long endNanos;
+
+    /**
+     * 进入调度队列到开始执行的等待时长（纳秒）。
+     */
+    private long queueWaitNanos;
+
+    /**
+     * 执行线程名，异步节点为恢复执行的线程。
+     */
+    private String threadName;
+
+    /**
+     * 创建截断标记步骤，表示此处有步骤因容量限制被丢弃。
+     *
+     * @param instanceId 实例 ID
+     * @param droppedSteps 丢弃的步骤数
+     * @return 标记步骤
+     */
+    public static TraceStep truncated(String instanceId, long droppedSteps) {
+        TraceStep step = new TraceStep();
+        step.setInstanceId(instanceId);
+        step.setInstructionType(TRUNCATED);
+        step.setSuccess(true);
+        step.setDroppedSteps(droppedSteps);
+        return step;
+    }
+
+    /**
+     * 节点执行耗时（纳秒），未计时返回 0。
+     *
+     * @return 耗时
+     */
+    public long getDurationNanos() {
+        return startNanos == 0L ? 0L : endNanos - startNanos;
+    }
+
+    /**
+     * 是否为截断标记。
+     *
+     * @return 是截断标记返回 true
+     */
+    public boolean isTruncationMarker() {
+        return TRUNCATED.equals(instructionType);
+    }
 }
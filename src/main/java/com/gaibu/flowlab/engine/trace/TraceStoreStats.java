@@ -0,0 +1,13 @@
+package com.gaibu.flowlab.engine.trace;
+
+/**
+ * 轨迹存储占用快照。
+ *
+ * @param instances 保留轨迹的实例数
+ * @param steps 保留的步骤数
+ * @param estimatedBytes 保留步骤的估算占用（字节，粗略值）
+ * @param evictedInstances 因超出全局预算被整体淘汰的累计实例数
+ * @param droppedSteps 因超出单实例上限被丢弃的累计步骤数
+ */
+public record TraceStoreStats(int instances, long steps, long estimatedBytes, long evictedInstances, long droppedSteps) {
+}
@@ -0,0 +1,33 @@
+package com.gaibu.flowlab.engine.trace.analysis;
+
+/**
+ * 单个 Token（分支）的耗时汇总。
+ *
+ * @param tokenId Token ID
+ * @param firstNodeId 分支首个节点
+ * @param lastNodeId 分支最后节点
+ * @param steps 步骤数
+ * @param startNanos 首步开始时间（纳秒）
+ * @param endNanos 末步结束时间（纳秒）
+ * @param busyNanos 各步执行耗时合计
+ * @param queueWaitNanos 各步排队时长合计
+ */
+public record BranchTiming(
+        String tokenId,
+        String firstNodeId,
+        String lastNodeId,
+        int steps,
+        long startNanos,
+        long endNanos,
+        long busyNanos,
+        long queueWaitNanos) {
+
+    /**
+     * 分支跨度（首步开始到末步结束）。
+     *
+     * @return 纳秒
+     */
+    public long durationNanos() {
+        return endNanos - startNanos;
+    }
+}
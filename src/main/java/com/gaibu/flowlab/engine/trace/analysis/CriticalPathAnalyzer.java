@@ -0,0 +1,114 @@
+package com.gaibu.flowlab.engine.trace.analysis;
+
+import com.gaibu.flowlab.engine.trace.ExecutionTraceStore;
+import com.gaibu.flowlab.engine.trace.TraceStep;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 轨迹关键路径分析器。
+ * <p>
+ * 在 {@link TraceDag} 上从最晚结束的步骤沿最晚结束的前驱回溯得到关键路径，同时汇总各分支耗时与汇聚等待。
+ */
+public class CriticalPathAnalyzer {
+
+    /**
+     * 轨迹存储。
+     */
+    private final ExecutionTraceStore traceStore;
+
+    public CriticalPathAnalyzer(ExecutionTraceStore traceStore) {
+        this.traceStore = traceStore;
+    }
+
+    /**
+     * 分析实例轨迹。
+     *
+     * @param instanceId 实例 ID
+     * @return 分析结果
+     */
+    public CriticalPathReport analyze(String instanceId) {
+        return analyze(instanceId, traceStore.getByInstanceId(instanceId));
+    }
+
+    /**
+     * 分析给定步骤。
+     *
+     * @param instanceId 实例 ID
+     * @param trace 实例轨迹
+     * @return 分析结果
+     */
+    public static CriticalPathReport analyze(String instanceId, List<TraceStep> trace) {
+        TraceDag dag = TraceDag.build(trace);
+        List<TraceStep> steps = dag.steps();
+        int size = steps.size();
+        if (size == 0) {
+            return CriticalPathReport.empty(instanceId);
+        }
+
+        List<JoinWait> joinWaits = new ArrayList<>();
+        int last = 0;
+        for (int i = 0; i < size; i++) {
+            if (dag.isJoin(i)) {
+                collectJoinWaits(steps, steps.get(i), dag.predecessors(i), joinWaits);
+            }
+            if (steps.get(i).getEndNanos() > steps.get(last).getEndNanos()) {
+                last = i;
+            }
+        }
+
+        List<TraceStep> path = new ArrayList<>();
+        for (int current = last; current >= 0; ) {
+            path.add(steps.get(current));
+            int next = -1;
+            for (int pred : dag.predecessors(current)) {
+                if (next < 0 || steps.get(pred).getEndNanos() > steps.get(next).getEndNanos()) {
+                    next = pred;
+                }
+            }
+            current = next;
+        }
+        Collections.reverse(path);
+        long total = path.get(path.size() - 1).getEndNanos() - path.get(0).getStartNanos();
+        return new CriticalPathReport(instanceId, List.copyOf(path), total, branches(steps), List.copyOf(joinWaits));
+    }
+
+    private static void collectJoinWaits(List<TraceStep> steps, TraceStep join, int[] arrivals, List<JoinWait> sink) {
+        long latest = Long.MIN_VALUE;
+        for (int arrival : arrivals) {
+            latest = Math.max(latest, steps.get(arrival).getEndNanos());
+        }
+        for (int arrival : arrivals) {
+            TraceStep step = steps.get(arrival);
+            sink.add(new JoinWait(join.getFromNodeId(), step.getTokenId(), step.getFromNodeId(), latest - step.getEndNanos()));
+        }
+    }
+
+    private static List<BranchTiming> branches(List<TraceStep> steps) {
+        Map<String, List<TraceStep>> byToken = new LinkedHashMap<>();
+        for (TraceStep step : steps) {
+            byToken.computeIfAbsent(step.getTokenId(), key -> new ArrayList<>()).add(step);
+        }
+        List<BranchTiming> branches = new ArrayList<>(byToken.size());
+        for (Map.Entry<String, List<TraceStep>> entry : byToken.entrySet()) {
+            List<TraceStep> tokenSteps = entry.getValue();
+            long busy = 0L;
+            long queueWait = 0L;
+            long end = Long.MIN_VALUE;
+            for (TraceStep step : tokenSteps) {
+                busy += step.getDurationNanos();
+                queueWait += step.getQueueWaitNanos();
+                end = Math.max(end, step.getEndNanos());
+            }
+            TraceStep first = tokenSteps.get(0);
+            TraceStep lastStep = tokenSteps.get(tokenSteps.size() - 1);
+            branches.add(new BranchTiming(entry.getKey(), first.getFromNodeId(), lastStep.getFromNodeId(),
+                    tokenSteps.size(), first.getStartNanos(), end, busy, queueWait));
+        }
+        return List.copyOf(branches);
+    }
+}
@@ -0,0 +1,32 @@
+package com.gaibu.flowlab.engine.trace.analysis;
+
+import com.gaibu.flowlab.engine.trace.TraceStep;
+
+import java.util.List;
+
+/**
+ * 实例执行耗时分析结果。
+ *
+ * @param instanceId 实例 ID
+ * @param criticalPath 关键路径步骤，按执行先后排列
+ * @param totalNanos 关键路径跨度（首步开始到末步结束）
+ * @param branches 各分支耗时，按开始时间排列
+ * @param joinWaits 汇聚等待，按汇聚发生先后排列
+ */
+public record CriticalPathReport(
+        String instanceId,
+        List<TraceStep> criticalPath,
+        long totalNanos,
+        List<BranchTiming> branches,
+        List<JoinWait> joinWaits) {
+
+    /**
+     * 空结果，实例无计时步骤时返回。
+     *
+     * @param instanceId 实例 ID
+     * @return 空结果
+     */
+    public static CriticalPathReport empty(String instanceId) {
+        return new CriticalPathReport(instanceId, List.of(), 0L, List.of(), List.of());
+    }
+}
@@ -0,0 +1,12 @@
+package com.gaibu.flowlab.engine.trace.analysis;
+
+/**
+ * 汇聚节点上单个到达分支的等待时间。
+ *
+ * @param joinNodeId 汇聚节点 ID
+ * @param tokenId 到达分支的 Token ID
+ * @param arrivalNodeId 到达前最后执行的节点 ID
+ * @param waitNanos 到达后等待最晚分支的时长，最晚到达者为 0
+ */
+public record JoinWait(String joinNodeId, String tokenId, String arrivalNodeId, long waitNanos) {
+}
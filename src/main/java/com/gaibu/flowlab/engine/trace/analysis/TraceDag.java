@@ -0,0 +1,154 @@
+package com.gaibu.flowlab.engine.trace.analysis;
+
+import com.gaibu.flowlab.engine.trace.TraceStep;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 由计时步骤重建的 Token 依赖图。
+ * <p>
+ * 同一 Token 的相邻步骤前后相连；Token 的首步连到此前指向该节点且最晚结束的步骤（分叉）；
+ * 汇聚节点的执行步骤另外连到各分支在该节点上的到达步骤（分支 Token 在到达后不再执行）。
+ * 未计时步骤与截断标记不参与建图。
+ */
+public final class TraceDag {
+
+    private static final int[] NONE = new int[0];
+
+    /**
+     * 计时步骤，按开始时间排列。
+     */
+    private final List<TraceStep> steps;
+
+    /**
+     * 各步骤的前驱下标。
+     */
+    private final int[][] predecessors;
+
+    /**
+     * 各步骤是否为所属 Token 的首步。
+     */
+    private final boolean[] tokenHead;
+
+    private TraceDag(List<TraceStep> steps, int[][] predecessors, boolean[] tokenHead) {
+        this.steps = steps;
+        this.predecessors = predecessors;
+        this.tokenHead = tokenHead;
+    }
+
+    /**
+     * 由实例轨迹建图。
+     *
+     * @param trace 实例轨迹
+     * @return 依赖图
+     */
+    public static TraceDag build(List<TraceStep> trace) {
+        List<TraceStep> steps = new ArrayList<>(trace.size());
+        for (TraceStep step : trace) {
+            if (!step.isTruncationMarker() && step.getStartNanos() != 0L) {
+                steps.add(step);
+            }
+        }
+        steps.sort(Comparator.comparingLong(TraceStep::getStartNanos));
+
+        int size = steps.size();
+        int[] previousOfToken = new int[size];
+        Map<String, Integer> lastIndexByToken = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Integer previous = lastIndexByToken.put(steps.get(i).getTokenId(), i);
+            previousOfToken[i] = previous == null ? -1 : previous;
+        }
+        Map<String, List<Integer>> arrivalsByNode = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            for (String target : steps.get(i).getToNodeIds()) {
+                arrivalsByNode.computeIfAbsent(target, key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        int[][] predecessors = new int[size][];
+        boolean[] tokenHead = new boolean[size];
+        boolean[] consumed = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            TraceStep step = steps.get(i);
+            List<Integer> candidates = arrivalsByNode.getOrDefault(step.getFromNodeId(), List.of());
+            int previous = previousOfToken[i];
+            if (previous < 0) {
+                tokenHead[i] = true;
+                int parent = latestArrival(steps, candidates, i, step);
+                predecessors[i] = parent < 0 ? NONE : new int[]{parent};
+                continue;
+            }
+            List<Integer> preds = new ArrayList<>(2);
+            preds.add(previous);
+            for (int candidate : candidates) {
+                TraceStep arrival = steps.get(candidate);
+                if (!consumed[candidate]
+                        && lastIndexByToken.get(arrival.getTokenId()) == candidate
+                        && !arrival.getTokenId().equals(step.getTokenId())
+                        && arrival.getEndNanos() <= step.getStartNanos()) {
+                    consumed[candidate] = true;
+                    preds.add(candidate);
+                }
+            }
+            predecessors[i] = preds.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new TraceDag(List.copyOf(steps), predecessors, tokenHead);
+    }
+
+    /**
+     * 计时步骤，按开始时间排列。
+     *
+     * @return 步骤列表
+     */
+    public List<TraceStep> steps() {
+        return steps;
+    }
+
+    /**
+     * 步骤的前驱下标：同 Token 前一步在前，其余为分叉父步骤或汇聚到达步骤。
+     *
+     * @param index 步骤下标
+     * @return 前驱下标
+     */
+    public int[] predecessors(int index) {
+        return predecessors[index];
+    }
+
+    /**
+     * 是否为所属 Token 的首步，首步的前驱即分叉父步骤。
+     *
+     * @param index 步骤下标
+     * @return 是首步返回 true
+     */
+    public boolean isTokenHead(int index) {
+        return tokenHead[index];
+    }
+
+    /**
+     * 是否为汇聚步骤（除同 Token 前一步外还有其他分支到达）。
+     *
+     * @param index 步骤下标
+     * @return 是汇聚步骤返回 true
+     */
+    public boolean isJoin(int index) {
+        return !tokenHead[index] && predecessors[index].length > 1;
+    }
+
+    private static int latestArrival(List<TraceStep> steps, List<Integer> candidates, int self, TraceStep step) {
+        int best = -1;
+        for (int candidate : candidates) {
+            TraceStep arrival = steps.get(candidate);
+            if (candidate == self || arrival.getEndNanos() > step.getStartNanos()) {
+                continue;
+            }
+            if (best < 0 || arrival.getEndNanos() > steps.get(best).getEndNanos()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,124 @@
+package com.gaibu.flowlab.engine.trace.analysis;
+
+import com.gaibu.flowlab.engine.trace.TraceStep;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 耗时分析结果渲染器，输出 Markdown 表格或 Mermaid 关键路径图。
+ */
+public class TraceTimingRenderer {
+
+    /**
+     * 渲染 Markdown 表格：关键路径、分支耗时与汇聚等待。
+     *
+     * @param report 分析结果
+     * @return Markdown 文本
+     */
+    public String renderTable(CriticalPathReport report) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Critical path: ").append(millis(report.totalNanos())).append('\n');
+        sb.append('\n');
+        sb.append("| # | Node | Token | Thread | Queue wait | Duration |\n");
+        sb.append("|---|------|-------|--------|------------|----------|\n");
+        List<TraceStep> path = report.criticalPath();
+        for (int i = 0; i < path.size(); i++) {
+            TraceStep step = path.get(i);
+            sb.append("| ").append(i + 1)
+                    .append(" | ").append(step.getFromNodeId())
+                    .append(" | ").append(step.getTokenId())
+                    .append(" | ").append(step.getThreadName())
+                    .append(" | ").append(millis(step.getQueueWaitNanos()))
+                    .append(" | ").append(millis(step.getDurationNanos()))
+                    .append(" |\n");
+        }
+
+        sb.append('\n');
+        sb.append("| Token | From | To | Steps | Span | Busy | Queue wait |\n");
+        sb.append("|-------|------|----|-------|------|------|------------|\n");
+        for (BranchTiming branch : report.branches()) {
+            sb.append("| ").append(branch.tokenId())
+                    .append(" | ").append(branch.firstNodeId())
+                    .append(" | ").append(branch.lastNodeId())
+                    .append(" | ").append(branch.steps())
+                    .append(" | ").append(millis(branch.durationNanos()))
+                    .append(" | ").append(millis(branch.busyNanos()))
+                    .append(" | ").append(millis(branch.queueWaitNanos()))
+                    .append(" |\n");
+        }
+
+        if (!report.joinWaits().isEmpty()) {
+            sb.append('\n');
+            sb.append("| Join | Token | Arrived from | Wait |\n");
+            sb.append("|------|-------|--------------|------|\n");
+            for (JoinWait wait : report.joinWaits()) {
+                sb.append("| ").append(wait.joinNodeId())
+                        .append(" | ").append(wait.tokenId())
+                        .append(" | ").append(wait.arrivalNodeId())
+                        .append(" | ").append(millis(wait.waitNanos()))
+                        .append(" |\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 渲染 Mermaid 关键路径图：节点标注执行耗时，连线标注排队时长，汇聚等待以虚线标出。
+     *
+     * @param report 分析结果
+     * @return Mermaid flowchart 文本
+     */
+    public String renderMermaid(CriticalPathReport report) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("flowchart LR\n");
+        List<TraceStep> path = report.criticalPath();
+        for (int i = 0; i < path.size(); i++) {
+            TraceStep step = path.get(i);
+            sb.append("    P").append(i).append("[\"").append(step.getFromNodeId())
+                    .append("<br/>").append(millis(step.getDurationNanos())).append("\"]\n");
+        }
+        for (int i = 1; i < path.size(); i++) {
+            sb.append("    P").append(i - 1).append(" -->|wait ")
+                    .append(millis(path.get(i).getQueueWaitNanos())).append("| P").append(i).append('\n');
+        }
+        List<JoinWait> joinWaits = report.joinWaits();
+        int waitIndex = 0;
+        for (JoinWait wait : joinWaits) {
+            int joinAt = indexOf(path, wait.joinNodeId());
+            if (joinAt < 0 || wait.waitNanos() == 0L) {
+                continue;
+            }
+            String alias = "W" + waitIndex++;
+            sb.append("    ").append(alias).append("([\"").append(wait.arrivalNodeId()).append(" / ")
+                    .append(wait.tokenId()).append("\"])\n");
+            sb.append("    ").append(alias).append(" -. \"idle ").append(millis(wait.waitNanos()))
+                    .append("\" .-> P").append(joinAt).append('\n');
+        }
+        if (!path.isEmpty()) {
+            sb.append("    classDef critical stroke-width:3px\n");
+            sb.append("    class ");
+            for (int i = 0; i < path.size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append('P').append(i);
+            }
+            sb.append(" critical\n");
+        }
+        return sb.toString();
+    }
+
+    private static int indexOf(List<TraceStep> path, String nodeId) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            if (nodeId.equals(path.get(i).getFromNodeId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f ms", nanos / 1_000_000D);
+    }
+}
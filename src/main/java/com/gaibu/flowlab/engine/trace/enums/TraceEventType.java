@@ -0,0 +1,29 @@
+package com.gaibu.flowlab.engine.trace.enums;
+
+import lombok.Getter;
+
+/**
+ * 轨迹事件类型。
+ */
+@Getter
+public enum TraceEventType {
+    STEP("step", "节点执行成功"),
+    FAILURE("failure", "节点执行失败"),
+    TRUNCATED("truncated", "缓冲溢出导致的步骤丢弃标记"),
+    REMOVE("remove", "删除实例轨迹");
+
+    /**
+     * 枚举编码。
+     */
+    private final String code;
+
+    /**
+     * 枚举语义描述。
+     */
+    private final String desc;
+
+    TraceEventType(String code, String desc) {
+        this.code = code;
+        this.desc = desc;
+    }
+}
@@ -0,0 +1,29 @@
+package com.gaibu.flowlab.engine.trace.enums;
+
+import lombok.Getter;
+
+/**
+ * 执行轨迹采集模式。
+ */
+@Getter
+public enum TraceMode {
+    OFF("off", "不采集"),
+    SAMPLED("sampled", "按实例以固定概率采样，命中的实例完整采集"),
+    ERROR_ONLY("error_only", "实例内缓冲，仅实例失败时写入存储"),
+    FULL("full", "完整采集");
+
+    /**
+     * 枚举编码。
+     */
+    private final String code;
+
+    /**
+     * 枚举语义描述。
+     */
+    private final String desc;
+
+    TraceMode(String code, String desc) {
+        this.code = code;
+        this.desc = desc;
+    }
+}
@@ -0,0 +1,27 @@
+package com.gaibu.flowlab.engine.trace.enums;
+
+import lombok.Getter;
+
+/**
+ * 异步轨迹队列已满时的处理策略。
+ */
+@Getter
+public enum TraceOverflowPolicy {
+    DROP("drop", "丢弃事件并计数，引擎线程不等待"),
+    BLOCK("block", "引擎线程等待队列空位，轨迹不丢失");
+
+    /**
+     * 枚举编码。
+     */
+    private final String code;
+
+    /**
+     * 枚举语义描述。
+     */
+    private final String desc;
+
+    TraceOverflowPolicy(String code, String desc) {
+        this.code = code;
+        this.desc = desc;
+    }
+}
@@ -0,0 +1,194 @@
+package com.gaibu.flowlab.engine.trace.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.gaibu.flowlab.engine.trace.ExecutionTraceStore;
+import com.gaibu.flowlab.engine.trace.TraceStep;
+import com.gaibu.flowlab.engine.trace.analysis.TraceDag;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 轨迹导出为 Chrome Trace Event JSON，可直接在 Perfetto 或 chrome://tracing 打开。
+ * <p>
+ * 每个实例为一个进程，每个 Token 为一条轨道；节点执行为完整时长切片（ph=X），调度排队时长为同轨道上
+ * 紧邻其前的 queued 切片；分叉与汇聚依据 {@link TraceDag} 以流箭头（ph=s/f）连接。时间以首步开始前的
+ * 就绪时刻为零点，单位微秒。未计时步骤与截断标记不导出。
+ */
+public class ChromeTraceExporter {
+
+    /**
+     * 导出文件中实例对应的进程号。
+     */
+    private static final int PID = 1;
+
+    private static final double NANOS_PER_MICRO = 1_000D;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * 轨迹存储。
+     */
+    private final ExecutionTraceStore traceStore;
+
+    public ChromeTraceExporter(ExecutionTraceStore traceStore) {
+        this.traceStore = traceStore;
+    }
+
+    /**
+     * 导出实例轨迹为 JSON 字符串。
+     *
+     * @param instanceId 实例 ID
+     * @return Chrome Trace Event JSON
+     */
+    public String export(String instanceId) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export(instanceId, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 导出实例轨迹到输出流，输出流不会被关闭。
+     *
+     * @param instanceId 实例 ID
+     * @param out 输出流
+     */
+    public void export(String instanceId, OutputStream out) {
+        TraceDag dag = TraceDag.build(traceStore.getByInstanceId(instanceId));
+        try (JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            json.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            write(json, instanceId, dag);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to export trace: " + instanceId, ex);
+        }
+    }
+
+    private void write(JsonGenerator json, String instanceId, TraceDag dag) throws IOException {
+        List<TraceStep> steps = dag.steps();
+        long origin = Long.MAX_VALUE;
+        Map<String, Integer> tracks = new LinkedHashMap<>();
+        for (TraceStep step : steps) {
+            origin = Math.min(origin, step.getStartNanos() - step.getQueueWaitNanos());
+            tracks.putIfAbsent(step.getTokenId(), tracks.size() + 1);
+        }
+
+        json.writeStartObject();
+        json.writeStringField("displayTimeUnit", "ms");
+        json.writeObjectFieldStart("otherData");
+        json.writeStringField("instanceId", instanceId);
+        json.writeEndObject();
+        json.writeArrayFieldStart("traceEvents");
+
+        metadata(json, "process_name", 0, instanceId);
+        for (Map.Entry<String, Integer> track : tracks.entrySet()) {
+            metadata(json, "thread_name", track.getValue(), track.getKey());
+            json.writeStartObject();
+            json.writeStringField("ph", "M");
+            json.writeStringField("name", "thread_sort_index");
+            json.writeNumberField("pid", PID);
+            json.writeNumberField("tid", track.getValue());
+            json.writeObjectFieldStart("args");
+            json.writeNumberField("sort_index", track.getValue());
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+
+        for (TraceStep step : steps) {
+            int tid = tracks.get(step.getTokenId());
+            if (step.getQueueWaitNanos() > 0L) {
+                json.writeStartObject();
+                json.writeStringField("ph", "X");
+                json.writeStringField("name", "queued");
+                json.writeStringField("cat", "queue");
+                json.writeNumberField("pid", PID);
+                json.writeNumberField("tid", tid);
+                json.writeNumberField("ts", micros(step.getStartNanos() - step.getQueueWaitNanos() - origin));
+                json.writeNumberField("dur", micros(step.getQueueWaitNanos()));
+                json.writeEndObject();
+            }
+            json.writeStartObject();
+            json.writeStringField("ph", "X");
+            json.writeStringField("name", step.getFromNodeId());
+            json.writeStringField("cat", step.isSuccess() ? "node" : "failure");
+            json.writeNumberField("pid", PID);
+            json.writeNumberField("tid", tid);
+            json.writeNumberField("ts", micros(step.getStartNanos() - origin));
+            json.writeNumberField("dur", micros(step.getDurationNanos()));
+            json.writeObjectFieldStart("args");
+            json.writeStringField("instruction", step.getInstructionType());
+            json.writeStringField("thread", step.getThreadName());
+            json.writeNumberField("queueWaitUs", micros(step.getQueueWaitNanos()));
+            if (!step.getToNodeIds().isEmpty()) {
+                json.writeArrayFieldStart("targets");
+                for (String target : step.getToNodeIds()) {
+                    json.writeString(target);
+                }
+                json.writeEndArray();
+            }
+            if (step.getErrorMessage() != null) {
+                json.writeStringField("error", step.getErrorMessage());
+            }
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+
+        int flowId = 0;
+        for (int i = 0; i < steps.size(); i++) {
+            TraceStep step = steps.get(i);
+            for (int pred : dag.predecessors(i)) {
+                TraceStep source = steps.get(pred);
+                if (source.getTokenId().equals(step.getTokenId())) {
+                    continue;
+                }
+                flowId++;
+                String name = dag.isTokenHead(i) ? "fork" : "join";
+                // 起点取源切片内最后时刻，终点绑定到目标切片。
+                long sourceTs = Math.max(source.getStartNanos(), source.getEndNanos() - 1L);
+                flow(json, "s", name, flowId, tracks.get(source.getTokenId()), micros(sourceTs - origin));
+                flow(json, "f", name, flowId, tracks.get(step.getTokenId()), micros(step.getStartNanos() - origin));
+            }
+        }
+
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private static void metadata(JsonGenerator json, String name, int tid, String value) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("ph", "M");
+        json.writeStringField("name", name);
+        json.writeNumberField("pid", PID);
+        json.writeNumberField("tid", tid);
+        json.writeObjectFieldStart("args");
+        json.writeStringField("name", value);
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private static void flow(JsonGenerator json, String phase, String name, int id, int tid, double ts) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("ph", phase);
+        json.writeStringField("name", name);
+        json.writeStringField("cat", "flow");
+        json.writeNumberField("id", id);
+        json.writeNumberField("pid", PID);
+        json.writeNumberField("tid", tid);
+        json.writeNumberField("ts", ts);
+        if ("f".equals(phase)) {
+            json.writeStringField("bp", "e");
+        }
+        json.writeEndObject();
+    }
+
+    private static double micros(long nanos) {
+        return nanos / NANOS_PER_MICRO;
+    }
+}
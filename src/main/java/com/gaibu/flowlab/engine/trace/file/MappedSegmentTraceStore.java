@@ -0,0 +1,349 @@
+package com.gaibu.flowlab.engine.trace.file;
+
+import com.gaibu.flowlab.engine.scheduler.TimeoutScheduler;
+import com.gaibu.flowlab.engine.trace.ExecutionTraceStore;
+import com.gaibu.flowlab.engine.trace.TraceStep;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 基于内存映射分段文件的轨迹存储。
+ * <p>
+ * 步骤以紧凑二进制记录追加到当前分段，分段写满后封存并滚动到新文件。节点 ID 等字符串按分段字典编码，
+ * 时间戳按差值编码；每个分段在内存中只保留字典与实例首末记录位置的稀疏索引，查询时仅解码命中区间。
+ * 滚动时按总大小与分段年龄删除最旧分段；配置了 maxAge 时另由 {@link #scheduleRetention(TimeoutScheduler)}
+ * 登记的周期任务按年龄清理，写入停滞的日志同样会过期。重新打开目录时扫描已有分段重建索引并继续追加。
+ * <p>
+ * 作为持久存储，轨迹不随实例从实例存储中淘汰而删除，只由分段保留策略回收。
+ * 显式调用 {@link #remove(String)} 只移除索引，记录本身随所在分段被删除时回收。
+ */
+public class MappedSegmentTraceStore implements ExecutionTraceStore, AutoCloseable {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("trace-(\\d{20})\\.seg");
+
+    /**
+     * 周期保留任务的最短与最长间隔。
+     */
+    private static final Duration MIN_RETENTION_INTERVAL = Duration.ofSeconds(1);
+    private static final Duration MAX_RETENTION_INTERVAL = Duration.ofHours(1);
+
+    private final Path directory;
+
+    private final TraceLogOptions options;
+
+    /**
+     * 已封存分段，按序号从旧到新。
+     */
+    private final Deque<TraceSegment> sealed = new ArrayDeque<>();
+
+    private final TraceSegment.Encoder encoder = new TraceSegment.Encoder();
+
+    /**
+     * 当前可写分段。
+     */
+    private TraceSegment active;
+
+    /**
+     * 已封存分段的写入字节数合计。
+     */
+    private long sealedBytes;
+
+    private long deletedSegments;
+
+    /**
+     * 分段删除导致实例轨迹完全消失时的回调。
+     */
+    private Consumer<String> evictionListener;
+
+    /**
+     * 已登记周期保留任务的定时服务，换用其他定时服务后旧任务停止。
+     */
+    private volatile TimeoutScheduler retentionScheduler;
+
+    private boolean closed;
+
+    public MappedSegmentTraceStore(Path directory) {
+        this(directory, TraceLogOptions.DEFAULT);
+    }
+
+    public MappedSegmentTraceStore(Path directory, TraceLogOptions options) {
+        this.directory = directory;
+        this.options = options;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to create trace directory: " + directory, ex);
+        }
+        openExisting();
+    }
+
+    @Override
+    public synchronized void append(TraceStep step) {
+        ensureOpen();
+        if (active.append(step, encoder)) {
+            return;
+        }
+        if (active.position() == TraceSegment.HEADER_BYTES) {
+            throw new IllegalArgumentException("Trace step exceeds segment size " + options.segmentBytes());
+        }
+        roll();
+        if (!active.append(step, encoder)) {
+            throw new IllegalArgumentException("Trace step exceeds segment size " + options.segmentBytes());
+        }
+    }
+
+    @Override
+    public synchronized List<TraceStep> getByInstanceId(String instanceId) {
+        ensureOpen();
+        List<TraceStep> steps = new ArrayList<>();
+        for (TraceSegment segment : sealed) {
+            segment.read(instanceId, steps);
+        }
+        active.read(instanceId, steps);
+        return steps;
+    }
+
+    @Override
+    public synchronized void remove(String instanceId) {
+        ensureOpen();
+        for (TraceSegment segment : sealed) {
+            segment.forget(instanceId);
+        }
+        active.forget(instanceId);
+    }
+
+    @Override
+    public boolean isDurable() {
+        return true;
+    }
+
+    @Override
+    public synchronized long maxInstanceSeq() {
+        ensureOpen();
+        long max = active.maxInstanceSeq();
+        for (TraceSegment segment : sealed) {
+            max = Math.max(max, segment.maxInstanceSeq());
+        }
+        return max;
+    }
+
+    @Override
+    public synchronized void forEachTrace(BiConsumer<String, List<TraceStep>> action) {
+        ensureOpen();
+        Set<String> instanceIds = new LinkedHashSet<>();
+        for (TraceSegment segment : sealed) {
+            instanceIds.addAll(segment.instanceIds());
+        }
+        instanceIds.addAll(active.instanceIds());
+        for (String instanceId : instanceIds) {
+            action.accept(instanceId, getByInstanceId(instanceId));
+        }
+    }
+
+    @Override
+    public synchronized void setEvictionListener(Consumer<String> listener) {
+        this.evictionListener = listener;
+    }
+
+    /**
+     * 按 maxAge 登记周期保留任务，间隔为 maxAge 的一半（1 秒至 1 小时）；未配置 maxAge 时不登记。
+     * 任务仅弱引用存储，存储关闭或不再使用后停止；文件删除在公共线程池执行，不占用定时线程。
+     *
+     * @param scheduler 定时服务
+     */
+    @Override
+    public void scheduleRetention(TimeoutScheduler scheduler) {
+        if (options.maxAge() == null || retentionScheduler == scheduler) {
+            return;
+        }
+        retentionScheduler = scheduler;
+        Duration half = options.maxAge().dividedBy(2);
+        Duration interval = half.compareTo(MIN_RETENTION_INTERVAL) < 0
+                ? MIN_RETENTION_INTERVAL
+                : half.compareTo(MAX_RETENTION_INTERVAL) > 0 ? MAX_RETENTION_INTERVAL : half;
+        scheduleRetention(new WeakReference<>(this), scheduler, interval.toNanos());
+    }
+
+    /**
+     * 按总大小与年龄删除最旧的已封存分段。当前分段的最后一条记录也已超过 maxAge 时先将其封存，
+     * 使写入停滞的日志同样按年龄回收。
+     *
+     * @return 本次删除的分段数
+     */
+    public synchronized int enforceRetention() {
+        ensureOpen();
+        long minTimestamp = options.maxAge() == null
+                ? Long.MIN_VALUE
+                : System.currentTimeMillis() - options.maxAge().toMillis();
+        if (active.position() > TraceSegment.HEADER_BYTES && active.lastTimestamp() < minTimestamp) {
+            sealActive();
+        }
+        int deleted = 0;
+        Iterator<TraceSegment> iterator = sealed.iterator();
+        while (iterator.hasNext()) {
+            TraceSegment oldest = iterator.next();
+            // 当前分段按写满计算，保证其写满前总量也不超上限。
+            boolean overSize = sealedBytes + options.segmentBytes() > options.maxTotalBytes();
+            if (!overSize && oldest.lastTimestamp() >= minTimestamp) {
+                break;
+            }
+            iterator.remove();
+            sealedBytes -= oldest.position();
+            List<String> instanceIds = evictionListener != null ? oldest.instanceIds() : List.of();
+            oldest.delete();
+            deleted++;
+            for (String instanceId : instanceIds) {
+                if (!containsInstance(instanceId)) {
+                    evictionListener.accept(instanceId);
+                }
+            }
+        }
+        deletedSegments += deleted;
+        return deleted;
+    }
+
+    /**
+     * 将当前分段刷写到磁盘。
+     */
+    public synchronized void force() {
+        ensureOpen();
+        active.force();
+    }
+
+    /**
+     * 返回分段占用快照。
+     *
+     * @return 占用快照
+     */
+    public synchronized TraceLogStats stats() {
+        int instances = active.instanceCount();
+        for (TraceSegment segment : sealed) {
+            instances += segment.instanceCount();
+        }
+        return new TraceLogStats(sealed.size() + 1, sealedBytes + active.position(), instances, deletedSegments);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        active.force();
+        active.close();
+        for (TraceSegment segment : sealed) {
+            segment.close();
+        }
+    }
+
+    private boolean containsInstance(String instanceId) {
+        if (active.contains(instanceId)) {
+            return true;
+        }
+        for (TraceSegment segment : sealed) {
+            if (segment.contains(instanceId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void roll() {
+        sealActive();
+        enforceRetention();
+    }
+
+    private void sealActive() {
+        active.seal();
+        sealed.addLast(active);
+        sealedBytes += active.position();
+        active = TraceSegment.create(segmentPath(active.sequence() + 1), active.sequence() + 1, options.segmentBytes());
+    }
+
+    /**
+     * 执行一次周期保留。
+     *
+     * @return 存储已关闭返回 false
+     */
+    private synchronized boolean enforceScheduledRetention() {
+        if (closed) {
+            return false;
+        }
+        enforceRetention();
+        return true;
+    }
+
+    private static void scheduleRetention(
+            WeakReference<MappedSegmentTraceStore> ref, TimeoutScheduler scheduler, long intervalNanos) {
+        scheduler.schedule(() -> CompletableFuture.runAsync(() -> {
+            MappedSegmentTraceStore target = ref.get();
+            if (target == null || target.retentionScheduler != scheduler) {
+                return;
+            }
+            boolean open = true;
+            try {
+                open = target.enforceScheduledRetention();
+            } finally {
+                if (open) {
+                    scheduleRetention(ref, scheduler, intervalNanos);
+                }
+            }
+        }), intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void openExisting() {
+        List<Long> found = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    found.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to list trace directory: " + directory, ex);
+        }
+        found.sort(null);
+        if (found.isEmpty()) {
+            active = TraceSegment.create(segmentPath(0), 0, options.segmentBytes());
+            return;
+        }
+        for (int i = 0; i < found.size() - 1; i++) {
+            long sequence = found.get(i);
+            TraceSegment segment = TraceSegment.open(segmentPath(sequence), sequence, false);
+            sealed.addLast(segment);
+            sealedBytes += segment.position();
+        }
+        long last = found.get(found.size() - 1);
+        active = TraceSegment.open(segmentPath(last), last, true);
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("trace-%020d.seg", sequence));
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Trace store is closed: " + directory);
+        }
+    }
+}
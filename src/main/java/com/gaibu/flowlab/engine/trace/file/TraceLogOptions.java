@@ -0,0 +1,35 @@
+package com.gaibu.flowlab.engine.trace.file;
+
+import java.time.Duration;
+
+/**
+ * 文件轨迹日志配置。
+ *
+ * @param segmentBytes 单个分段文件大小（字节），写满后滚动到新分段
+ * @param maxTotalBytes 所有分段写入量上限（当前分段按写满计），超出时删除最旧分段
+ * @param maxAge 分段最后一条记录的最长保留时间，null 表示不按时间删除
+ */
+public record TraceLogOptions(int segmentBytes, long maxTotalBytes, Duration maxAge) {
+
+    /**
+     * 默认配置：64MB 分段，总量 4GB，保留 7 天。
+     */
+    public static final TraceLogOptions DEFAULT = new TraceLogOptions(64 * 1024 * 1024, 4L * 1024 * 1024 * 1024, Duration.ofDays(7));
+
+    /**
+     * 分段文件最小大小。
+     */
+    static final int MIN_SEGMENT_BYTES = 4096;
+
+    public TraceLogOptions {
+        if (segmentBytes < MIN_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("segmentBytes must be >= " + MIN_SEGMENT_BYTES);
+        }
+        if (maxTotalBytes < segmentBytes) {
+            throw new IllegalArgumentException("maxTotalBytes must be >= segmentBytes");
+        }
+        if (maxAge != null && (maxAge.isNegative() || maxAge.isZero())) {
+            throw new IllegalArgumentException("maxAge must be > 0");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.gaibu.flowlab.engine.trace.file;
+
+/**
+ * 文件轨迹日志占用快照。
+ *
+ * @param segments 现存分段数（含当前分段）
+ * @param usedBytes 各分段已写入字节数合计
+ * @param indexedInstances 稀疏索引条目数（同一实例跨分段时分别计数）
+ * @param deletedSegments 累计按保留规则删除的分段数
+ */
+public record TraceLogStats(int segments, long usedBytes, int indexedInstances, long deletedSegments) {
+}
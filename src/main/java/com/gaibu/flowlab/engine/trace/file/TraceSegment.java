@@ -0,0 +1,557 @@
+package com.gaibu.flowlab.engine.trace.file;
+
+import com.gaibu.flowlab.engine.runtime.ProcessInstance;
+import com.gaibu.flowlab.engine.trace.TraceStep;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单个内存映射轨迹分段。
+ * <p>
+ * 文件布局：16 字节头（魔数、版本、创建时间），之后依次为记录，全 0 字节表示数据结束。记录类型：
+ * <ul>
+ *     <li>DEFINE：字典项（编号 + UTF-8 文本），首次出现的实例 ID、节点 ID、指令类型在引用前写入；</li>
+ *     <li>STEP：轨迹步骤，字符串以字典编号引用，时间戳与开始纳秒为相对上一条记录的 zigzag 变长差值，
+ *     结束时间以耗时表示。</li>
+ * </ul>
+ * 字典与实例索引只在内存中保存；分段自描述，重新打开时扫描一次即可重建。实例索引为稀疏索引，
+ * 只记录实例在本分段中的首末记录位置及首条记录前的时间戳基准，查询时仅解码该区间。
+ */
+final class TraceSegment {
+
+    static final int MAGIC = 0x464C5447;
+
+    static final int VERSION = 2;
+
+    static final int HEADER_BYTES = 16;
+
+    private static final byte RECORD_END = 0;
+    private static final byte RECORD_DEFINE = 1;
+    private static final byte RECORD_STEP = 2;
+
+    private static final int FLAG_SUCCESS = 1;
+    private static final int FLAG_ERROR = 1 << 1;
+    private static final int FLAG_NUMERIC_TOKEN = 1 << 2;
+    private static final int FLAG_DROPPED = 1 << 3;
+    private static final int FLAG_TIMED = 1 << 4;
+
+    private static final String TOKEN_PREFIX = "TK-";
+
+    private final Path path;
+
+    private final long sequence;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    /**
+     * 字典：编号 -> 文本（编号从 1 开始，0 表示 null）。
+     */
+    private final List<String> strings = new ArrayList<>();
+
+    /**
+     * 字典反查，仅可写分段维护。
+     */
+    private Map<String, Integer> stringIds;
+
+    /**
+     * 稀疏实例索引（key=实例 ID，value={首记录偏移, 末记录偏移, 首记录前时间戳, 首记录前开始纳秒}）。
+     */
+    private final Map<String, long[]> instanceIndex = new HashMap<>();
+
+    private int position;
+
+    private long lastTimestamp;
+
+    private long lastStartNanos;
+
+    private TraceSegment(Path path, long sequence, FileChannel channel, MappedByteBuffer buffer, boolean writable) {
+        this.path = path;
+        this.sequence = sequence;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.stringIds = writable ? new HashMap<>() : null;
+        strings.add(null);
+    }
+
+    /**
+     * 创建可写分段。
+     */
+    static TraceSegment create(Path path, long sequence, int segmentBytes) {
+        try {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            TraceSegment segment = new TraceSegment(path, sequence, channel, buffer, true);
+            long now = System.currentTimeMillis();
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putLong(8, now);
+            segment.position = HEADER_BYTES;
+            segment.lastTimestamp = now;
+            return segment;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to create trace segment: " + path, ex);
+        }
+    }
+
+    /**
+     * 打开已有分段并扫描重建字典与索引。
+     *
+     * @param writable 是否继续追加
+     */
+    static TraceSegment open(Path path, long sequence, boolean writable) {
+        try {
+            FileChannel channel = writable
+                    ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                    : FileChannel.open(path, StandardOpenOption.READ);
+            MappedByteBuffer buffer = channel.map(
+                    writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (channel.size() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                channel.close();
+                throw new IllegalStateException("Not a trace segment: " + path);
+            }
+            TraceSegment segment = new TraceSegment(path, sequence, channel, buffer, writable);
+            segment.rebuild();
+            return segment;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open trace segment: " + path, ex);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    int position() {
+        return position;
+    }
+
+    long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    boolean contains(String instanceId) {
+        return instanceIndex.containsKey(instanceId);
+    }
+
+    /**
+     * 本分段索引中的实例 ID，按首条记录位置排序。
+     */
+    List<String> instanceIds() {
+        List<String> ids = new ArrayList<>(instanceIndex.keySet());
+        ids.sort((a, b) -> Long.compare(instanceIndex.get(a)[0], instanceIndex.get(b)[0]));
+        return ids;
+    }
+
+    int instanceCount() {
+        return instanceIndex.size();
+    }
+
+    /**
+     * 索引中 {@code PI-<seq>} 形式实例 ID 的最大序号。
+     */
+    long maxInstanceSeq() {
+        long max = 0L;
+        String prefix = ProcessInstance.ID_PREFIX;
+        for (String instanceId : instanceIndex.keySet()) {
+            if (instanceId.startsWith(prefix)) {
+                try {
+                    max = Math.max(max, Long.parseLong(instanceId, prefix.length(), instanceId.length(), 10));
+                } catch (NumberFormatException ignored) {
+                    // 非引擎生成的实例 ID 不参与续接。
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * 追加步骤。
+     *
+     * @param step 轨迹步骤
+     * @param scratch 编码缓冲
+     * @return 剩余空间不足时返回 false，分段不变
+     */
+    boolean append(TraceStep step, Encoder scratch) {
+        scratch.reset(this);
+        String instanceId = step.getInstanceId();
+        int instanceRef = scratch.ref(instanceId);
+        int fromRef = scratch.ref(step.getFromNodeId());
+        int typeRef = scratch.ref(step.getInstructionType());
+        List<String> targets = step.getToNodeIds();
+        int[] targetRefs = new int[targets.size()];
+        for (int i = 0; i < targetRefs.length; i++) {
+            targetRefs[i] = scratch.ref(targets.get(i));
+        }
+        String tokenId = step.getTokenId();
+        long numericToken = parseToken(tokenId);
+        int tokenRef = numericToken > 0 ? 0 : scratch.ref(tokenId);
+        boolean timed = step.getStartNanos() != 0L;
+        int threadRef = timed ? scratch.ref(step.getThreadName()) : 0;
+
+        int flags = (step.isSuccess() ? FLAG_SUCCESS : 0)
+                | (step.getErrorMessage() != null ? FLAG_ERROR : 0)
+                | (numericToken > 0 ? FLAG_NUMERIC_TOKEN : 0)
+                | (step.getDroppedSteps() > 0 ? FLAG_DROPPED : 0)
+                | (timed ? FLAG_TIMED : 0);
+        String errorMessage = step.getErrorMessage();
+        ByteBuffer out = scratch.recordStart(128 + 10 * targetRefs.length
+                + (errorMessage == null ? 0 : 5 + 3 * errorMessage.length()));
+        out.put(RECORD_STEP);
+        out.put((byte) flags);
+        Codec.putVarLong(out, instanceRef);
+        if (numericToken > 0) {
+            Codec.putVarLong(out, numericToken);
+        } else {
+            Codec.putVarLong(out, tokenRef);
+        }
+        Codec.putVarLong(out, fromRef);
+        Codec.putVarLong(out, typeRef);
+        Codec.putVarLong(out, Codec.zigzag(step.getTimestamp() - lastTimestamp));
+        if (timed) {
+            Codec.putVarLong(out, Codec.zigzag(step.getStartNanos() - lastStartNanos));
+        }
+        Codec.putVarLong(out, targetRefs.length);
+        for (int ref : targetRefs) {
+            Codec.putVarLong(out, ref);
+        }
+        if (errorMessage != null) {
+            Codec.putString(out, errorMessage);
+        }
+        if (step.getDroppedSteps() > 0) {
+            Codec.putVarLong(out, step.getDroppedSteps());
+        }
+        if (timed) {
+            Codec.putVarLong(out, Math.max(0L, step.getEndNanos() - step.getStartNanos()));
+            Codec.putVarLong(out, Math.max(0L, step.getQueueWaitNanos()));
+            Codec.putVarLong(out, threadRef);
+        }
+
+        ByteBuffer encoded = scratch.finish();
+        // 末尾保留 1 字节结束标记。
+        if (encoded.remaining() > buffer.capacity() - position - 1) {
+            return false;
+        }
+        int recordOffset = position + scratch.recordOffset();
+        buffer.put(position, encoded, 0, encoded.remaining());
+        position += encoded.remaining();
+        scratch.commit();
+        long[] entry = instanceIndex.get(instanceId);
+        if (entry == null) {
+            instanceIndex.put(instanceId, new long[]{recordOffset, recordOffset, lastTimestamp, lastStartNanos});
+        } else {
+            entry[1] = recordOffset;
+        }
+        lastTimestamp = step.getTimestamp();
+        if (timed) {
+            lastStartNanos = step.getStartNanos();
+        }
+        return true;
+    }
+
+    /**
+     * 读取实例在本分段中的步骤，只解码索引区间内的记录。
+     */
+    void read(String instanceId, List<TraceStep> sink) {
+        long[] entry = instanceIndex.get(instanceId);
+        if (entry == null) {
+            return;
+        }
+        ByteBuffer in = buffer.duplicate();
+        in.position((int) entry[0]);
+        long timestamp = entry[2];
+        long startNanos = entry[3];
+        while (in.position() <= entry[1]) {
+            byte type = in.get();
+            if (type == RECORD_DEFINE) {
+                skipDefine(in);
+                continue;
+            }
+            StepHeader header = readHeader(in, timestamp, startNanos);
+            timestamp = header.timestamp;
+            startNanos = header.startNanos;
+            if (instanceId.equals(strings.get(header.instanceRef))) {
+                sink.add(readBody(in, header, instanceId));
+            } else {
+                skipBody(in, header);
+            }
+        }
+    }
+
+    /**
+     * 移除实例索引，记录保留在文件中。
+     */
+    void forget(String instanceId) {
+        instanceIndex.remove(instanceId);
+    }
+
+    /**
+     * 刷盘。
+     */
+    void force() {
+        buffer.force();
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to close trace segment: " + path, ex);
+        }
+    }
+
+    /**
+     * 封存：不再追加，释放字典反查表。
+     */
+    void seal() {
+        force();
+        stringIds = null;
+    }
+
+    void delete() {
+        close();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to delete trace segment: " + path, ex);
+        }
+    }
+
+    private void rebuild() {
+        ByteBuffer in = buffer.duplicate();
+        in.position(HEADER_BYTES);
+        long timestamp = buffer.getLong(8);
+        long startNanos = 0L;
+        while (in.hasRemaining()) {
+            int offset = in.position();
+            byte type = in.get();
+            if (type == RECORD_END) {
+                in.position(offset);
+                break;
+            }
+            if (type == RECORD_DEFINE) {
+                int id = (int) Codec.getVarLong(in);
+                String value = Codec.getString(in);
+                while (strings.size() <= id) {
+                    strings.add(null);
+                }
+                strings.set(id, value);
+                if (stringIds != null) {
+                    stringIds.put(value, id);
+                }
+                continue;
+            }
+            StepHeader header = readHeader(in, timestamp, startNanos);
+            String instanceId = strings.get(header.instanceRef);
+            long[] entry = instanceIndex.get(instanceId);
+            if (entry == null) {
+                instanceIndex.put(instanceId, new long[]{offset, offset, timestamp, startNanos});
+            } else {
+                entry[1] = offset;
+            }
+            timestamp = header.timestamp;
+            startNanos = header.startNanos;
+            skipBody(in, header);
+        }
+        position = in.position();
+        lastTimestamp = timestamp;
+        lastStartNanos = startNanos;
+    }
+
+    private StepHeader readHeader(ByteBuffer in, long previousTimestamp, long previousStartNanos) {
+        StepHeader header = new StepHeader();
+        header.flags = in.get();
+        header.instanceRef = (int) Codec.getVarLong(in);
+        header.token = Codec.getVarLong(in);
+        header.fromRef = (int) Codec.getVarLong(in);
+        header.typeRef = (int) Codec.getVarLong(in);
+        header.timestamp = previousTimestamp + Codec.unzigzag(Codec.getVarLong(in));
+        header.startNanos = (header.flags & FLAG_TIMED) != 0
+                ? previousStartNanos + Codec.unzigzag(Codec.getVarLong(in))
+                : previousStartNanos;
+        return header;
+    }
+
+    private TraceStep readBody(ByteBuffer in, StepHeader header, String instanceId) {
+        TraceStep step = new TraceStep();
+        step.setInstanceId(instanceId);
+        step.setTokenId((header.flags & FLAG_NUMERIC_TOKEN) != 0
+                ? TOKEN_PREFIX + header.token
+                : strings.get((int) header.token));
+        step.setFromNodeId(strings.get(header.fromRef));
+        step.setInstructionType(strings.get(header.typeRef));
+        step.setSuccess((header.flags & FLAG_SUCCESS) != 0);
+        step.setTimestamp(header.timestamp);
+        int targets = (int) Codec.getVarLong(in);
+        for (int i = 0; i < targets; i++) {
+            step.getToNodeIds().add(strings.get((int) Codec.getVarLong(in)));
+        }
+        if ((header.flags & FLAG_ERROR) != 0) {
+            step.setErrorMessage(Codec.getString(in));
+        }
+        if ((header.flags & FLAG_DROPPED) != 0) {
+            step.setDroppedSteps(Codec.getVarLong(in));
+        }
+        if ((header.flags & FLAG_TIMED) != 0) {
+            step.setStartNanos(header.startNanos);
+            step.setEndNanos(header.startNanos + Codec.getVarLong(in));
+            step.setQueueWaitNanos(Codec.getVarLong(in));
+            step.setThreadName(strings.get((int) Codec.getVarLong(in)));
+        }
+        return step;
+    }
+
+    private void skipBody(ByteBuffer in, StepHeader header) {
+        int targets = (int) Codec.getVarLong(in);
+        for (int i = 0; i < targets; i++) {
+            Codec.getVarLong(in);
+        }
+        if ((header.flags & FLAG_ERROR) != 0) {
+            int length = (int) Codec.getVarLong(in);
+            in.position(in.position() + length);
+        }
+        if ((header.flags & FLAG_DROPPED) != 0) {
+            Codec.getVarLong(in);
+        }
+        if ((header.flags & FLAG_TIMED) != 0) {
+            Codec.getVarLong(in);
+            Codec.getVarLong(in);
+            Codec.getVarLong(in);
+        }
+    }
+
+    private void skipDefine(ByteBuffer in) {
+        Codec.getVarLong(in);
+        int length = (int) Codec.getVarLong(in);
+        in.position(in.position() + length);
+    }
+
+    private static long parseToken(String tokenId) {
+        if (tokenId == null || !tokenId.startsWith(TOKEN_PREFIX) || tokenId.length() == TOKEN_PREFIX.length()) {
+            return -1L;
+        }
+        long value = 0;
+        for (int i = TOKEN_PREFIX.length(); i < tokenId.length(); i++) {
+            char c = tokenId.charAt(i);
+            if (c < '0' || c > '9' || value > (Long.MAX_VALUE - 9) / 10) {
+                return -1L;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * 步骤记录头。
+     */
+    private static final class StepHeader {
+        private byte flags;
+        private int instanceRef;
+        private long token;
+        private int fromRef;
+        private int typeRef;
+        private long timestamp;
+        private long startNanos;
+    }
+
+    /**
+     * 记录编码缓冲，由写入方复用。新出现的字典项先以 DEFINE 记录写在步骤之前，
+     * 写入成功后才登记到分段字典，空间不足回滚时不留下无效编号。
+     */
+    static final class Encoder {
+
+        private ByteBuffer defines = ByteBuffer.allocate(1024);
+
+        private ByteBuffer record = ByteBuffer.allocate(1024);
+
+        private final List<String> pending = new ArrayList<>();
+
+        private final Map<String, Integer> pendingIds = new HashMap<>();
+
+        private TraceSegment segment;
+
+        void reset(TraceSegment target) {
+            segment = target;
+            defines.clear();
+            record.clear();
+            pending.clear();
+            pendingIds.clear();
+        }
+
+        int ref(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer id = segment.stringIds.get(value);
+            if (id == null) {
+                id = pendingIds.get(value);
+            }
+            if (id == null) {
+                id = segment.strings.size() + pending.size();
+                pending.add(value);
+                pendingIds.put(value, id);
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                defines = ensure(defines, 1 + 10 + 5 + bytes.length);
+                defines.put(RECORD_DEFINE);
+                Codec.putVarLong(defines, id);
+                Codec.putVarLong(defines, bytes.length);
+                defines.put(bytes);
+            }
+            return id;
+        }
+
+        ByteBuffer recordStart(int maxBytes) {
+            record = ensure(record, maxBytes);
+            return record;
+        }
+
+        int recordOffset() {
+            return defines.position();
+        }
+
+        ByteBuffer finish() {
+            defines = ensure(defines, record.position());
+            int definesLength = defines.position();
+            defines.put(record.array(), 0, record.position());
+            ByteBuffer encoded = defines.duplicate();
+            encoded.flip();
+            defines.position(definesLength);
+            return encoded;
+        }
+
+        void commit() {
+            for (String value : pending) {
+                segment.stringIds.put(value, segment.strings.size());
+                segment.strings.add(value);
+            }
+        }
+
+        private static ByteBuffer ensure(ByteBuffer buffer, int extra) {
+            if (buffer.remaining() >= extra) {
+                return buffer;
+            }
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + extra));
+            buffer.flip();
+            larger.put(buffer);
+            return larger;
+        }
+    }
+}
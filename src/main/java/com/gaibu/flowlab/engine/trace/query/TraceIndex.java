@@ -0,0 +1,312 @@
+package com.gaibu.flowlab.engine.trace.query;
+
+import com.gaibu.flowlab.engine.scheduler.TimeoutScheduler;
+import com.gaibu.flowlab.engine.trace.ExecutionTraceStore;
+import com.gaibu.flowlab.engine.trace.TraceStep;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 轨迹倒排索引。
+ * <p>
+ * 作为轨迹存储的装饰器，在步骤写入时增量维护三类位图：节点 -> 经过的实例、失败节点 -> 实例、
+ * 连线 -> 实例。实例 ID 映射为稠密序号作为位图下标；实例被移除时先从存活位图中清除，
+ * 待移除数累计到一定规模后统一从各位图清理并回收序号，使位图长度随存活实例数而非历史实例数增长。
+ * 订阅存储自行淘汰的实例（容量预算、分段保留策略），并可经 {@link #backfill()} 按存储中现有轨迹补建，
+ * 使查询结果与存储中可查看的轨迹一致。
+ */
+public class TraceIndex implements ExecutionTraceStore {
+
+    /**
+     * 触发清理的最小待移除序号数。
+     */
+    private static final int COMPACT_MIN_REMOVED = 1024;
+
+    /**
+     * 被装饰的轨迹存储。
+     */
+    private final ExecutionTraceStore delegate;
+
+    /**
+     * 实例 ID -> 序号。
+     */
+    private final Map<String, Integer> ordinals = new HashMap<>();
+
+    /**
+     * 序号 -> 实例 ID，空闲序号为 null。
+     */
+    private final List<String> instanceIds = new ArrayList<>();
+
+    /**
+     * 节点 ID -> 经过的实例。
+     */
+    private final Map<String, BitSet> visited = new HashMap<>();
+
+    /**
+     * 节点 ID -> 在该节点失败的实例。
+     */
+    private final Map<String, BitSet> failed = new HashMap<>();
+
+    /**
+     * 来源节点 ID -> 目标节点 ID -> 走过该连线的实例。
+     */
+    private final Map<String, Map<String, BitSet>> edges = new HashMap<>();
+
+    /**
+     * 存活实例。
+     */
+    private final BitSet live = new BitSet();
+
+    /**
+     * 已移除、尚未从各位图清理的序号。
+     */
+    private final BitSet removed = new BitSet();
+
+    /**
+     * 可复用的序号。
+     */
+    private final BitSet free = new BitSet();
+
+    /**
+     * 补建期间被移除或淘汰的实例，补建结束后再次清除；非补建期间为 null。
+     */
+    private Set<String> removedDuringBackfill;
+
+    public TraceIndex(ExecutionTraceStore delegate) {
+        this.delegate = delegate;
+        delegate.setEvictionListener(this::forget);
+    }
+
+    /**
+     * 返回被装饰的轨迹存储。
+     *
+     * @return 轨迹存储
+     */
+    public ExecutionTraceStore delegate() {
+        return delegate;
+    }
+
+    /**
+     * 取消对存储淘汰事件的订阅，索引停用或被替换时调用。
+     */
+    public void detach() {
+        delegate.setEvictionListener(null);
+    }
+
+    /**
+     * 按存储中现有轨迹补建索引。
+     * <p>
+     * 应在索引已成为写入目标后调用：存储快照之后写入的步骤经 {@link #append(TraceStep)} 照常索引，
+     * 不会遗漏；快照中已在补建期间被移除或淘汰的实例在补建结束时清除，不会因旧快照重新出现。
+     * 补建只在单个步骤粒度持有索引锁，不阻塞并发写入。
+     */
+    public void backfill() {
+        synchronized (this) {
+            removedDuringBackfill = new HashSet<>();
+        }
+        try {
+            delegate.forEachTrace((instanceId, steps) -> {
+                synchronized (this) {
+                    if (removedDuringBackfill.contains(instanceId)) {
+                        return;
+                    }
+                    for (int i = 0; i < steps.size(); i++) {
+                        index(steps.get(i));
+                    }
+                }
+            });
+        } finally {
+            synchronized (this) {
+                Set<String> removedIds = removedDuringBackfill;
+                removedDuringBackfill = null;
+                removedIds.forEach(this::forget);
+            }
+        }
+    }
+
+    @Override
+    public void append(TraceStep step) {
+        delegate.append(step);
+        synchronized (this) {
+            if (removedDuringBackfill != null) {
+                // 被淘汰后又继续写入的实例以新写入为准。
+                removedDuringBackfill.remove(step.getInstanceId());
+            }
+            index(step);
+        }
+    }
+
+    @Override
+    public List<TraceStep> getByInstanceId(String instanceId) {
+        return delegate.getByInstanceId(instanceId);
+    }
+
+    @Override
+    public void remove(String instanceId) {
+        delegate.remove(instanceId);
+        forget(instanceId);
+    }
+
+    @Override
+    public boolean isDurable() {
+        return delegate.isDurable();
+    }
+
+    @Override
+    public long maxInstanceSeq() {
+        return delegate.maxInstanceSeq();
+    }
+
+    @Override
+    public void scheduleRetention(TimeoutScheduler scheduler) {
+        delegate.scheduleRetention(scheduler);
+    }
+
+    /**
+     * 查询命中的实例 ID，按首次写入轨迹的顺序（序号复用后不保证）返回。
+     *
+     * @param query 查询条件
+     * @param limit 最多返回数
+     * @return 实例 ID 列表
+     */
+    public synchronized List<String> find(TraceQuery query, int limit) {
+        BitSet hits = query.evaluate(this);
+        hits.and(live);
+        List<String> result = new ArrayList<>(Math.min(limit, hits.cardinality()));
+        for (int i = hits.nextSetBit(0); i >= 0 && result.size() < limit; i = hits.nextSetBit(i + 1)) {
+            result.add(instanceIds.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * 统计命中的实例数。
+     *
+     * @param query 查询条件
+     * @return 实例数
+     */
+    public synchronized int count(TraceQuery query) {
+        BitSet hits = query.evaluate(this);
+        hits.and(live);
+        return hits.cardinality();
+    }
+
+    /**
+     * 已索引的存活实例数。
+     *
+     * @return 实例数
+     */
+    public synchronized int size() {
+        return ordinals.size();
+    }
+
+    synchronized BitSet visitedBits(String nodeId) {
+        return copy(visited.get(nodeId));
+    }
+
+    synchronized BitSet failedBits(String nodeId) {
+        return copy(failed.get(nodeId));
+    }
+
+    synchronized BitSet edgeBits(String fromNodeId, String toNodeId) {
+        Map<String, BitSet> outgoing = edges.get(fromNodeId);
+        return copy(outgoing == null ? null : outgoing.get(toNodeId));
+    }
+
+    private synchronized void index(TraceStep step) {
+        if (step.isTruncationMarker()) {
+            return;
+        }
+        int ordinal = ordinalOf(step.getInstanceId());
+        String from = step.getFromNodeId();
+        bits(visited, from).set(ordinal);
+        if (!step.isSuccess()) {
+            bits(failed, from).set(ordinal);
+        }
+        List<String> targets = step.getToNodeIds();
+        if (targets.isEmpty()) {
+            return;
+        }
+        Map<String, BitSet> outgoing = edges.computeIfAbsent(from, key -> new HashMap<>());
+        for (int i = 0; i < targets.size(); i++) {
+            String to = targets.get(i);
+            bits(visited, to).set(ordinal);
+            bits(outgoing, to).set(ordinal);
+        }
+    }
+
+    private synchronized void forget(String instanceId) {
+        if (removedDuringBackfill != null) {
+            removedDuringBackfill.add(instanceId);
+        }
+        Integer ordinal = ordinals.remove(instanceId);
+        if (ordinal == null) {
+            return;
+        }
+        live.clear(ordinal);
+        removed.set(ordinal);
+        instanceIds.set(ordinal, null);
+        int pending = removed.cardinality();
+        if (pending >= COMPACT_MIN_REMOVED && pending >= live.cardinality()) {
+            compact();
+        }
+    }
+
+    private int ordinalOf(String instanceId) {
+        Integer existing = ordinals.get(instanceId);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = free.nextSetBit(0);
+        if (ordinal >= 0) {
+            free.clear(ordinal);
+            instanceIds.set(ordinal, instanceId);
+        } else {
+            ordinal = instanceIds.size();
+            instanceIds.add(instanceId);
+        }
+        ordinals.put(instanceId, ordinal);
+        live.set(ordinal);
+        return ordinal;
+    }
+
+    /**
+     * 从全部位图清除已移除序号并回收，空位图一并删除。
+     */
+    private void compact() {
+        clear(visited);
+        clear(failed);
+        edges.values().removeIf(outgoing -> {
+            clear(outgoing);
+            return outgoing.isEmpty();
+        });
+        free.or(removed);
+        removed.clear();
+    }
+
+    private void clear(Map<String, BitSet> index) {
+        index.values().removeIf(bits -> {
+            bits.andNot(removed);
+            return bits.isEmpty();
+        });
+    }
+
+    private static BitSet bits(Map<String, BitSet> index, String key) {
+        BitSet bits = index.get(key);
+        if (bits == null) {
+            bits = new BitSet();
+            index.put(key, bits);
+        }
+        return bits;
+    }
+
+    private static BitSet copy(BitSet bits) {
+        return bits == null ? new BitSet() : (BitSet) bits.clone();
+    }
+}
@@ -0,0 +1,157 @@
+package com.gaibu.flowlab.engine.trace.query;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * 轨迹查询条件，可按 AND/OR 组合。
+ * <p>
+ * 每个条件在 {@link TraceIndex} 上求值为实例序号位图，组合条件直接做位运算。
+ */
+public interface TraceQuery {
+
+    /**
+     * 经过指定节点（作为来源或目标）的实例。
+     *
+     * @param nodeId 节点 ID
+     * @return 查询条件
+     */
+    static TraceQuery visited(String nodeId) {
+        return new Visited(nodeId);
+    }
+
+    /**
+     * 在指定节点执行失败的实例。
+     *
+     * @param nodeId 节点 ID
+     * @return 查询条件
+     */
+    static TraceQuery failedAt(String nodeId) {
+        return new FailedAt(nodeId);
+    }
+
+    /**
+     * 走过指定连线的实例，例如网关的某个分支。
+     *
+     * @param fromNodeId 来源节点 ID
+     * @param toNodeId 目标节点 ID
+     * @return 查询条件
+     */
+    static TraceQuery edge(String fromNodeId, String toNodeId) {
+        return new Edge(fromNodeId, toNodeId);
+    }
+
+    /**
+     * 同时满足全部条件。
+     *
+     * @param queries 子条件
+     * @return 查询条件
+     */
+    static TraceQuery and(TraceQuery... queries) {
+        return new And(List.of(queries));
+    }
+
+    /**
+     * 满足任一条件。
+     *
+     * @param queries 子条件
+     * @return 查询条件
+     */
+    static TraceQuery or(TraceQuery... queries) {
+        return new Or(List.of(queries));
+    }
+
+    /**
+     * 求值为实例序号位图，返回值归调用方所有。
+     *
+     * @param index 轨迹索引
+     * @return 命中实例位图
+     */
+    BitSet evaluate(TraceIndex index);
+
+    /**
+     * 节点经过条件。
+     *
+     * @param nodeId 节点 ID
+     */
+    record Visited(String nodeId) implements TraceQuery {
+
+        @Override
+        public BitSet evaluate(TraceIndex index) {
+            return index.visitedBits(nodeId);
+        }
+    }
+
+    /**
+     * 节点失败条件。
+     *
+     * @param nodeId 节点 ID
+     */
+    record FailedAt(String nodeId) implements TraceQuery {
+
+        @Override
+        public BitSet evaluate(TraceIndex index) {
+            return index.failedBits(nodeId);
+        }
+    }
+
+    /**
+     * 连线条件。
+     *
+     * @param fromNodeId 来源节点 ID
+     * @param toNodeId 目标节点 ID
+     */
+    record Edge(String fromNodeId, String toNodeId) implements TraceQuery {
+
+        @Override
+        public BitSet evaluate(TraceIndex index) {
+            return index.edgeBits(fromNodeId, toNodeId);
+        }
+    }
+
+    /**
+     * 与条件。
+     *
+     * @param queries 子条件
+     */
+    record And(List<TraceQuery> queries) implements TraceQuery {
+
+        public And {
+            if (queries.isEmpty()) {
+                throw new IllegalArgumentException("and() requires at least one query");
+            }
+        }
+
+        @Override
+        public BitSet evaluate(TraceIndex index) {
+            BitSet result = queries.get(0).evaluate(index);
+            for (int i = 1; i < queries.size() && !result.isEmpty(); i++) {
+                result.and(queries.get(i).evaluate(index));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 或条件。
+     *
+     * @param queries 子条件
+     */
+    record Or(List<TraceQuery> queries) implements TraceQuery {
+
+        public Or {
+            if (queries.isEmpty()) {
+                throw new IllegalArgumentException("or() requires at least one query");
+            }
+        }
+
+        @Override
+        public BitSet evaluate(TraceIndex index) {
+            BitSet result = queries.get(0).evaluate(index);
+            for (int i = 1; i < queries.size(); i++) {
+                result.or(queries.get(i).evaluate(index));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.gaibu.flowlab.benchmark;
+
+import com.gaibu.flowlab.engine.api.BatchStartResult;
+import com.gaibu.flowlab.engine.api.impl.DefaultProcessEngine;
+import com.gaibu.flowlab.engine.runtime.ProcessInstance;
+import com.gaibu.flowlab.parser.impl.MermaidProcessParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量启动基准：循环调用 start、顺序 startBatch、并行 startBatch。
+ * <p>
+ * 运行：{@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.gaibu.flowlab.benchmark.BatchStartBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchStartBenchmark {
+
+    private static final String DSL = """
+            flowchart TD
+            S(Start) --> G1{AND}
+            G1 --> A[TaskA]
+            G1 --> B[TaskB]
+            A --> J{AND}
+            B --> J
+            J --> X{XOR}
+            X -->|amount > 1000| H[High]
+            X -->|default| L[Low]
+            H --> E(End)
+            L --> E
+            """;
+
+    /**
+     * 每次调用启动的实例数。
+     */
+    @Param({"10000"})
+    public int batchSize;
+
+    /**
+     * 启动变量。
+     */
+    private List<Map<String, Object>> inputs;
+
+    /**
+     * 被测引擎。
+     */
+    private DefaultProcessEngine engine;
+
+    @Setup
+    public void setUp() {
+        engine = new DefaultProcessEngine();
+        engine.deploy(new MermaidProcessParser().parse("batch-bench", DSL));
+        inputs = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            inputs.add(Map.of("amount", i));
+        }
+    }
+
+    @Benchmark
+    public int startLoop() {
+        int completed = 0;
+        for (Map<String, Object> variables : inputs) {
+            ProcessInstance instance = engine.start("batch-bench", variables);
+            completed += instance.getFailureCause() == null ? 1 : 0;
+        }
+        return completed;
+    }
+
+    @Benchmark
+    public int startBatch() {
+        BatchStartResult result = engine.startBatch("batch-bench", inputs);
+        return result.completedCount();
+    }
+
+    @Benchmark
+    public int startBatchParallel() {
+        BatchStartResult result = engine.startBatch("batch-bench", inputs, Runtime.getRuntime().availableProcessors());
+        return result.completedCount();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BatchStartBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
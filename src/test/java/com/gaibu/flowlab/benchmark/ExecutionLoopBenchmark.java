@@ -0,0 +1,118 @@
+package com.gaibu.flowlab.benchmark;
+
+import com.gaibu.flowlab.engine.execution.ExecutionLoop;
+import com.gaibu.flowlab.engine.execution.InstanceDriver;
+import com.gaibu.flowlab.engine.execution.InstructionHandler;
+import com.gaibu.flowlab.engine.execution.TokenFactory;
+import com.gaibu.flowlab.engine.graph.ExecutableGraph;
+import com.gaibu.flowlab.engine.graph.GraphCompiler;
+import com.gaibu.flowlab.engine.interceptor.NodeInterceptor;
+import com.gaibu.flowlab.engine.runtime.Execution;
+import com.gaibu.flowlab.engine.runtime.ExecutionId;
+import com.gaibu.flowlab.engine.runtime.IdAllocator;
+import com.gaibu.flowlab.engine.runtime.ProcessInstance;
+import com.gaibu.flowlab.engine.runtime.ScopeId;
+import com.gaibu.flowlab.engine.runtime.Token;
+import com.gaibu.flowlab.engine.runtime.enums.InstanceStatus;
+import com.gaibu.flowlab.engine.runtime.enums.TokenStatus;
+import com.gaibu.flowlab.engine.scheduler.InMemoryScheduler;
+import com.gaibu.flowlab.engine.store.impl.InMemoryVariableStore;
+import com.gaibu.flowlab.parser.impl.MermaidProcessParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 执行循环 Move 步骤基准：一条 {@value #STEPS} 个节点的直线流程，每次调用推进一个 Token 走完全程。
+ * <p>
+ * 配合 GC 分析器运行，{@code gc.alloc.rate.norm} 即每个 Move 步骤的分配字节数，稳态应为 0：
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.gaibu.flowlab.benchmark.ExecutionLoopBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutionLoopBenchmark {
+
+    /**
+     * 单次调用推进的节点数（START 与 END 之间的 TASK 节点数 + 1）。
+     */
+    public static final int STEPS = 1000;
+
+    /**
+     * 空拦截器列表，只测执行循环本身。
+     */
+    private static final List<NodeInterceptor> NO_INTERCEPTORS = List.of();
+
+    private ExecutionLoop loop;
+
+    private ExecutableGraph graph;
+
+    private ProcessInstance instance;
+
+    private InMemoryScheduler scheduler;
+
+    private InstanceDriver driver;
+
+    private Token token;
+
+    @Setup
+    public void setUp() {
+        StringBuilder dsl = new StringBuilder("flowchart TD\nS(Start) --> n1[Step]\n");
+        for (int i = 1; i < STEPS - 1; i++) {
+            dsl.append('n').append(i).append(" --> n").append(i + 1).append("[Step]\n");
+        }
+        dsl.append('n').append(STEPS - 1).append(" --> E(End)\n");
+        graph = new GraphCompiler().compile(new MermaidProcessParser().parse("chain", dsl.toString()));
+
+        IdAllocator idAllocator = new IdAllocator();
+        TokenFactory tokenFactory = new TokenFactory(idAllocator);
+        loop = new ExecutionLoop(new InstructionHandler(tokenFactory));
+        instance = new ProcessInstance();
+        instance.setSeq(idAllocator.next());
+        instance.setStatus(InstanceStatus.RUNNING);
+        instance.setVariables(new InMemoryVariableStore());
+        Execution root = new Execution();
+        root.setId(new ExecutionId(idAllocator.next()));
+        root.setScopeId(ScopeId.ROOT);
+        instance.setRootExecution(root);
+        token = tokenFactory.create(graph.startNodeId(), graph.startNodeIndex(), root);
+        instance.addToken(token);
+        scheduler = new InMemoryScheduler();
+        driver = new InstanceDriver(instance, graph, scheduler);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public Token moveSteps() {
+        token.setCurrentNode(graph.startNodeId());
+        token.setNodeIndex(graph.startNodeIndex());
+        instance.updateTokenStatus(token, TokenStatus.ACTIVE);
+        scheduler.schedule(token);
+        loop.run(driver, NO_INTERCEPTORS);
+        return token;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ExecutionLoopBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,96 @@
+package com.gaibu.flowlab.benchmark;
+
+import com.gaibu.flowlab.engine.expression.CompiledExpression;
+import com.gaibu.flowlab.engine.expression.impl.LiteExpressionEngine;
+import com.gaibu.flowlab.engine.expression.impl.SpelExpressionEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关条件表达式求值基准：SpEL 解释、SpEL 字节码编译、轻量编译引擎。
+ * <p>
+ * 运行：{@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.gaibu.flowlab.benchmark.ExpressionEngineBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionEngineBenchmark {
+
+    /**
+     * 待测表达式（README 示例及其组合）。
+     */
+    @Param({"amount > 1000", "region == 'CN'", "approved", "amount > 1000 && region == 'CN' || !approved"})
+    public String expression;
+
+    /**
+     * 求值变量。
+     */
+    private Map<String, Object> variables;
+
+    /**
+     * SpEL 解释模式。
+     */
+    private CompiledExpression spelInterpreted;
+
+    /**
+     * SpEL MIXED 字节码编译模式。
+     */
+    private CompiledExpression spelCompiled;
+
+    /**
+     * 轻量编译引擎。
+     */
+    private CompiledExpression lite;
+
+    @Setup
+    public void setUp() {
+        variables = new HashMap<>();
+        variables.put("amount", 1500);
+        variables.put("region", "CN");
+        variables.put("approved", Boolean.TRUE);
+        spelInterpreted = new SpelExpressionEngine().compile(expression);
+        spelCompiled = new SpelExpressionEngine(SpelCompilerMode.MIXED).compile(expression);
+        lite = new LiteExpressionEngine().compile(expression);
+    }
+
+    @Benchmark
+    public boolean spelInterpreted() {
+        return spelInterpreted.evaluateBoolean(variables);
+    }
+
+    @Benchmark
+    public boolean spelCompiled() {
+        return spelCompiled.evaluateBoolean(variables);
+    }
+
+    @Benchmark
+    public boolean lite() {
+        return lite.evaluateBoolean(variables);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ExpressionEngineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
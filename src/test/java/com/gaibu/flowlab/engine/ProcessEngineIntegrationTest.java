@@ -1,29 +1,77 @@
 package com.gaibu.flowlab.engine;
 
+import com.gaibu.flowlab.engine.api.BatchStartResult;
+import com.gaibu.flowlab.engine.api.StartOptions;
 import com.gaibu.flowlab.engine.api.impl.DefaultProcessEngine;
 import com.gaibu.flowlab.engine.execution.ExecutionContext;
+import com.gaibu.flowlab.engine.expression.impl.SpelExpressionEngine;
 import com.gaibu.flowlab.engine.execution.instruction.Instruction;
 import com.gaibu.flowlab.engine.interceptor.NodeInterceptor;
 import com.gaibu.flowlab.engine.interceptor.ProcessInterceptor;
+import com.gaibu.flowlab.engine.metrics.EngineMetricsSnapshot;
+import com.gaibu.flowlab.engine.metrics.NodeMetricsSnapshot;
 import com.gaibu.flowlab.engine.runtime.ProcessInstance;
 import com.gaibu.flowlab.engine.runtime.enums.InstanceStatus;
+import com.gaibu.flowlab.engine.runtime.enums.TokenStatus;
+import com.gaibu.flowlab.engine.store.InstanceRetentionPolicy;
+import com.gaibu.flowlab.engine.store.InstanceStoreStats;
+import com.gaibu.flowlab.engine.store.ProcessDefinitionStore;
+import com.gaibu.flowlab.engine.store.impl.InMemoryProcessDefinitionStore;
+import com.gaibu.flowlab.engine.task.AsyncFlowTask;
 import com.gaibu.flowlab.engine.task.FlowTask;
 import com.gaibu.flowlab.engine.task.context.TaskContext;
+import com.gaibu.flowlab.engine.task.impl.BoundedTaskExecutor;
+import com.gaibu.flowlab.engine.task.impl.InMemoryTaskRegistry;
+import com.gaibu.flowlab.engine.task.impl.TaskExecutorProperties;
+import com.gaibu.flowlab.engine.trace.InMemoryExecutionTraceStore;
+import com.gaibu.flowlab.engine.trace.TraceSettings;
+import com.gaibu.flowlab.engine.trace.TraceStep;
+import com.gaibu.flowlab.engine.trace.analysis.CriticalPathReport;
+import com.gaibu.flowlab.engine.trace.analysis.JoinWait;
+import com.gaibu.flowlab.engine.trace.enums.TraceMode;
+import com.gaibu.flowlab.engine.trace.file.MappedSegmentTraceStore;
+import com.gaibu.flowlab.engine.trace.query.TraceQuery;
 import com.gaibu.flowlab.parser.ProcessParser;
+import com.gaibu.flowlab.parser.exception.DefinitionException;
 import com.gaibu.flowlab.parser.impl.MermaidProcessParser;
 import com.gaibu.flowlab.parser.model.entity.ProcessDefinition;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class ProcessEngineIntegrationTest {
 
@@ -85,6 +133,58 @@ class ProcessEngineIntegrationTest {
         assertThat(nodeInterceptor.byInstance.get(i2.getId())).containsExactly("S", "G1", "R", "E");
     }
 
+    @Test
+    void shouldRouteByPrecompiledConditionsInSpelCompiledMode() {
+        String dsl = """
+                flowchart TD
+                S(Start) --> G1{XOR}
+                G1 -->|amount > 1000 && region == 'CN'| A[Approve]
+                G1 -->|#amount > 500| M[Manual]
+                G1 -->|default| R[Reject]
+                A --> E(End)
+                M --> E
+                R --> E
+                """;
+
+        for (SpelCompilerMode mode : List.of(SpelCompilerMode.IMMEDIATE, SpelCompilerMode.MIXED)) {
+            ProcessDefinition definition = parser.parse("p-xor-compiled", dsl);
+            DefaultProcessEngine engine = new DefaultProcessEngine(
+                    new InMemoryProcessDefinitionStore(), new InMemoryTaskRegistry(), new SpelExpressionEngine(mode));
+            RecordingNodeInterceptor nodeInterceptor = new RecordingNodeInterceptor();
+            engine.addNodeInterceptor(nodeInterceptor);
+            engine.deploy(definition);
+
+            assertThat(definition.getOutgoingIndex().get("G1").get(0).getCompiledExpression()).isNotNull();
+            for (int i = 0; i < 20; i++) {
+                ProcessInstance high = engine.start("p-xor-compiled", Map.of("amount", 1500, "region", "CN"));
+                ProcessInstance manual = engine.start("p-xor-compiled", Map.of("amount", 800, "region", "US"));
+                ProcessInstance low = engine.start("p-xor-compiled", Map.of("amount", 100, "region", "CN"));
+
+                assertThat(nodeInterceptor.byInstance.get(high.getId())).containsExactly("S", "G1", "A", "E");
+                assertThat(nodeInterceptor.byInstance.get(manual.getId())).containsExactly("S", "G1", "M", "E");
+                assertThat(nodeInterceptor.byInstance.get(low.getId())).containsExactly("S", "G1", "R", "E");
+            }
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidConditionExpressionAtDeployTime() {
+        String dsl = """
+                flowchart TD
+                S(Start) --> G1{XOR}
+                G1 -->|amount >| A[Approve]
+                G1 -->|default| R[Reject]
+                A --> E(End)
+                R --> E
+                """;
+
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+
+        assertThatThrownBy(() -> engine.deploy(parser.parse("p-invalid-condition", dsl)))
+                .isInstanceOf(DefinitionException.class)
+                .hasMessageContaining("G1 -> A");
+    }
+
     @Test
     void shouldCompleteParallelAndJoinFlow() {
         String dsl = """
@@ -291,6 +391,29 @@ class ProcessEngineIntegrationTest {
         }
     }
 
+    @Test
+    void shouldRebindTaskWhenRegisteredAfterDeploy() {
+        String dsl = """
+                flowchart TD
+                S(Start) --> lateTask[LateTask]
+                lateTask --> E(End)
+                """;
+
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        engine.deploy(parser.parse("late-binding", dsl));
+
+        ProcessInstance before = engine.start("late-binding", Map.of());
+        engine.registerTask("lateTask", ctx -> ctx.setVariable("version", 1));
+        ProcessInstance first = engine.start("late-binding", Map.of());
+        engine.registerTask("lateTask", ctx -> ctx.setVariable("version", 2));
+        ProcessInstance second = engine.start("late-binding", Map.of());
+
+        assertThat(before.getStatus()).isEqualTo(InstanceStatus.COMPLETED);
+        assertThat(before.getVariables().get("version")).isNull();
+        assertThat(first.getVariables().get("version")).isEqualTo(1);
+        assertThat(second.getVariables().get("version")).isEqualTo(2);
+    }
+
     @Test
     void shouldExecuteFlowWithComplexMermaidStyleNodeIds() {
         String dsl = """
@@ -387,6 +510,37 @@ class ProcessEngineIntegrationTest {
         assertThat(nodeInterceptor.byInstance.get(parentInstanceId.getId())).contains("CallChild", "G1", "A", "E");
     }
 
+    @Test
+    void shouldStartSubProcessesOfEphemeralParentAsEphemeral() {
+        String parentDsl = """
+                flowchart TD
+                %% @node:CallChild subProcessId=ephemeralChild
+                S(Start) --> CallChild[[AnyName]]
+                CallChild --> E(End)
+                """;
+        String childDsl = """
+                flowchart TD
+                C0(Start) --> setApprovedTask[SetApproved]
+                setApprovedTask --> C1(End)
+                """;
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        engine.registerTask("setApprovedTask", context -> context.setVariable("approved", true));
+        engine.deploy(parser.parse("ephemeralChild", childDsl));
+        engine.deploy(parser.parse("ephemeralParent", parentDsl));
+
+        ProcessInstance instance = engine.start("ephemeralParent", Map.of(), StartOptions.EPHEMERAL);
+
+        assertThat(instance.getStatus()).isEqualTo(InstanceStatus.COMPLETED);
+        assertThat(instance.getVariables().get("approved")).isEqualTo(true);
+        InstanceStoreStats stats = engine.instanceStoreStats();
+        assertThat(stats.running()).isZero();
+        assertThat(stats.retained()).isZero();
+        assertThat(stats.evicted()).isZero();
+
+        engine.start("ephemeralParent", Map.of());
+        assertThat(engine.instanceStoreStats().retained()).isEqualTo(2);
+    }
+
     @Test
     void shouldRenderExecutionTraceAsMermaid() {
         String dsl = """
@@ -486,6 +640,60 @@ class ProcessEngineIntegrationTest {
         assertThat(taskThread).isNotEqualTo(callerThread);
     }
 
+    @Test
+    void shouldRouteSaturatedSubmissionsThroughRetryWithoutBlockingByDefault() throws Exception {
+        String holdDsl = """
+                flowchart TD
+                %% @node:holdTask async=true
+                S(Start) --> holdTask[HoldTask]
+                holdTask --> E(End)
+                """;
+        String retryDsl = """
+                flowchart TD
+                %% @node:retryTask async=true retry=1
+                S(Start) --> retryTask[RetryTask]
+                retryTask --> E(End)
+                """;
+        TaskExecutorProperties properties = new TaskExecutorProperties();
+        properties.setCorePoolSize(1);
+        properties.setMaxPoolSize(1);
+        properties.setQueueCapacity(0);
+        BoundedTaskExecutor taskExecutor = new BoundedTaskExecutor(properties);
+        DefaultProcessEngine engine = new DefaultProcessEngine(
+                new InMemoryProcessDefinitionStore(), new InMemoryTaskRegistry(), new SpelExpressionEngine(), taskExecutor);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger retryRuns = new AtomicInteger();
+        engine.registerTask("holdTask", ctx -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+        });
+        engine.registerTask("retryTask", ctx -> retryRuns.incrementAndGet());
+        engine.deploy(parser.parse("hold-flow", holdDsl));
+        engine.deploy(parser.parse("saturated-retry-flow", retryDsl));
+
+        try {
+            CompletableFuture<ProcessInstance> holding = engine.startAsync("hold-flow", Map.of());
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            long begin = System.nanoTime();
+            ProcessInstance rejected = engine.start("saturated-retry-flow", Map.of());
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+
+            assertThat(rejected.getStatus()).isEqualTo(InstanceStatus.FAILED);
+            assertThat(rejected.getVariables().snapshot()).containsEntry("process.error.nodeId", "retryTask");
+            assertThat(retryRuns.get()).isZero();
+            assertThat(taskExecutor.stats().rejected()).isEqualTo(2L);
+            assertThat(elapsedMillis).isLessThan(500L);
+
+            release.countDown();
+            assertThat(holding.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(InstanceStatus.COMPLETED);
+        } finally {
+            release.countDown();
+            taskExecutor.shutdown();
+        }
+    }
+
     @Test
     void shouldFailWhenTaskTimeoutFormatIsNotSimpleUnit() {
         String dsl = """
@@ -498,13 +706,926 @@ class ProcessEngineIntegrationTest {
         ProcessDefinition definition = parser.parse("invalid-timeout-format-flow", dsl);
         DefaultProcessEngine engine = new DefaultProcessEngine();
         engine.registerTask("invalidTimeoutTask", ctx -> ctx.setVariable("ok", true));
-        engine.deploy(definition);
 
-        ProcessInstance instance = engine.start("invalid-timeout-format-flow", Map.of());
+        assertThatThrownBy(() -> engine.deploy(definition))
+                .isInstanceOf(DefinitionException.class)
+                .hasMessageContaining("invalidTimeoutTask")
+                .hasMessageContaining("PT5S");
+        assertThatThrownBy(() -> engine.start("invalid-timeout-format-flow", Map.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectInvalidTaskRetryAndAsyncAtDeployTime() {
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        for (String annotation : List.of(
+                "retry=-1", "retry=many", "async=yes", "backoff=1m",
+                "jitter=2", "jitter=abc", "backoff=50ms maxBackoff=10ms")) {
+            String dsl = """
+                    flowchart TD
+                    %% @node:task1 """ + annotation + """
+                    S(Start) --> task1[Task]
+                    task1 --> E(End)
+                    """;
+
+            assertThatThrownBy(() -> engine.deploy(parser.parse("invalid-task-config", dsl)))
+                    .isInstanceOf(DefinitionException.class)
+                    .hasMessageContaining("task1");
+        }
+    }
+
+    @Test
+    void shouldWaitBackoffBetweenTaskRetries() {
+        String dsl = """
+                flowchart TD
+                %% @node:retryTask retry=1 backoff=30ms
+                S(Start) --> retryTask[RetryTask]
+                retryTask --> E(End)
+                """;
+
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        List<Long> attemptNanos = new ArrayList<>();
+        engine.registerTask("retryTask", ctx -> {
+            attemptNanos.add(System.nanoTime());
+            if (attemptNanos.size() == 1) {
+                throw new IllegalStateException("first attempt fails");
+            }
+        });
+        engine.deploy(parser.parse("backoff-flow", dsl));
+
+        ProcessInstance instance = engine.start("backoff-flow", Map.of());
+
+        assertThat(instance.getStatus()).isEqualTo(InstanceStatus.COMPLETED);
+        assertThat(attemptNanos).hasSize(2);
+        assertThat(attemptNanos.get(1) - attemptNanos.get(0)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(30));
+    }
+
+    @Test
+    void shouldReportRetriedAttemptsAsFailuresExcludingBackoff() {
+        String dsl = """
+                flowchart TD
+                %% @node:retryTask retry=2 backoff=50ms
+                S(Start) --> retryTask[RetryTask]
+                retryTask --> E(End)
+                """;
+
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        engine.setTraceIndexEnabled(true);
+        List<String> callbacks = new CopyOnWriteArrayList<>();
+        engine.addNodeInterceptor(new NodeInterceptor() {
+            @Override
+            public void before(ExecutionContext ctx) {
+                callbacks.add("before:" + ctx.node().getId().value());
+            }
+
+            @Override
+            public void afterSuccess(ExecutionContext ctx, Instruction instruction) {
+                callbacks.add("success:" + ctx.node().getId().value());
+            }
+
+            @Override
+            public void afterFailure(ExecutionContext ctx, Throwable ex) {
+                callbacks.add("failure:" + ctx.node().getId().value() + ":" + ex.getMessage());
+            }
+        });
+        AtomicInteger attempts = new AtomicInteger();
+        engine.registerTask("retryTask", ctx -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("attempt " + attempts.get());
+            }
+        });
+        engine.deploy(parser.parse("retry-failure-flow", dsl));
+
+        ProcessInstance instance = engine.start("retry-failure-flow", Map.of());
+
+        assertThat(instance.getStatus()).isEqualTo(InstanceStatus.COMPLETED);
+        assertThat(callbacks.stream().filter(callback -> callback.contains("retryTask")).toList()).containsExactly(
+                "before:retryTask", "failure:retryTask:attempt 1",
+                "before:retryTask", "failure:retryTask:attempt 2",
+                "before:retryTask", "success:retryTask");
+        assertThat(engine.findInstances(TraceQuery.failedAt("retryTask"), 10)).containsExactly(instance.getId());
+
+        List<TraceStep> attemptsTrace = engine.analyzeExecutionTrace(instance.getId()).criticalPath().stream()
+                .filter(step -> "retryTask".equals(step.getFromNodeId()))
+                .toList();
+        assertThat(attemptsTrace).extracting(TraceStep::isSuccess).containsExactly(false, false, true);
+        long backoffNanos = TimeUnit.MILLISECONDS.toNanos(50);
+        assertThat(attemptsTrace).allMatch(step -> step.getDurationNanos() < backoffNanos);
+        assertThat(attemptsTrace).allMatch(step -> step.getQueueWaitNanos() < backoffNanos);
+        assertThat(attemptsTrace.get(2).getStartNanos() - attemptsTrace.get(0).getEndNanos())
+                .isGreaterThanOrEqualTo(3 * backoffNanos);
+    }
+
+    @Test
+    void shouldScheduleRetriesWithoutBlockingLoopThread() throws Exception {
+        String dsl = """
+                flowchart TD
+                %% @node:callApi retry=3 backoff=20ms maxBackoff=30ms jitter=0
+                S(Start) --> callApi[CallApi]
+                callApi --> E(End)
+                """;
+
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        ExecutorService loopThread = Executors.newSingleThreadExecutor();
+        engine.setLoopExecutor(loopThread);
+        List<Long> attemptNanos = new CopyOnWriteArrayList<>();
+        engine.registerTask("callApi", ctx -> {
+            if (Boolean.TRUE.equals(ctx.getVariable("flaky"))) {
+                attemptNanos.add(System.nanoTime());
+                if (attemptNanos.size() < 4) {
+                    throw new IllegalStateException("downstream unavailable");
+                }
+            }
+        });
+        engine.deploy(parser.parse("retry-nonblocking", dsl));
+
+        CompletableFuture<ProcessInstance> flaky = engine.startAsync("retry-nonblocking", Map.of("flaky", true));
+        ProcessInstance healthy = engine.startAsync("retry-nonblocking", Map.of("flaky", false)).get(5, TimeUnit.SECONDS);
+
+        assertThat(healthy.getStatus()).isEqualTo(InstanceStatus.COMPLETED);
+        assertThat(flaky.isDone()).isFalse();
+        assertThat(flaky.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(InstanceStatus.COMPLETED);
+        assertThat(attemptNanos).hasSize(4);
+        long minGap = TimeUnit.MILLISECONDS.toNanos(20);
+        long cappedGap = TimeUnit.MILLISECONDS.toNanos(30);
+        assertThat(attemptNanos.get(1) - attemptNanos.get(0)).isGreaterThanOrEqualTo(minGap);
+        assertThat(attemptNanos.get(2) - attemptNanos.get(1)).isGreaterThanOrEqualTo(cappedGap);
+        assertThat(attemptNanos.get(3) - attemptNanos.get(2)).isGreaterThanOrEqualTo(cappedGap);
+        loopThread.shutdownNow();
+    }
+
+    @Test
+    void shouldWaitForAsyncFlowTaskInSynchronousStart() {
+        String dsl = """
+                flowchart TD
+                S(Start) --> G1{AND}
+                G1 --> fetchA[FetchA]
+                G1 --> fetchB[FetchB]
+                fetchA --> J{AND}
+                fetchB --> J
+                J --> E(End)
+                """;
+
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        RecordingNodeInterceptor nodeInterceptor = new RecordingNodeInterceptor();
+        engine.addNodeInterceptor(nodeInterceptor);
+        engine.registerTask("fetchA", (AsyncFlowTask) ctx -> CompletableFuture.runAsync(
+                () -> ctx.setVariable("a", "A"), CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS)));
+        engine.registerTask("fetchB", (AsyncFlowTask) ctx -> CompletableFuture.runAsync(() -> ctx.setVariable("b", "B")));
+        engine.deploy(parser.parse("async-sync-start", dsl));
+
+        ProcessInstance instance = engine.start("async-sync-start", Map.of());
+
+        assertThat(instance.getStatus()).isEqualTo(InstanceStatus.COMPLETED);
+        assertThat(instance.getVariables().get("a")).isEqualTo("A");
+        assertThat(instance.getVariables().get("b")).isEqualTo("B");
+        List<String> visited = nodeInterceptor.byInstance.get(instance.getId());
+        assertThat(countOf(visited, "J")).isEqualTo(1);
+        assertThat(visited.get(visited.size() - 1)).isEqualTo("E");
+    }
+
+    @Test
+    void shouldDriveManyParkedInstancesFromSingleLoopThread() throws Exception {
+        String dsl = """
+                flowchart TD
+                S(Start) --> callApi[CallApi]
+                callApi --> E(End)
+                """;
+
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        ExecutorService loopThread = Executors.newSingleThreadExecutor();
+        engine.setLoopExecutor(loopThread);
+        List<CompletableFuture<Void>> pending = new CopyOnWriteArrayList<>();
+        Set<String> resumedOn = ConcurrentHashMap.newKeySet();
+        engine.registerTask("callApi", (AsyncFlowTask) ctx -> {
+            CompletableFuture<Void> response = new CompletableFuture<>();
+            pending.add(response);
+            return response;
+        });
+        engine.addNodeInterceptor(new NodeInterceptor() {
+            @Override
+            public void before(ExecutionContext ctx) {
+            }
+
+            @Override
+            public void afterSuccess(ExecutionContext ctx, Instruction instruction) {
+                resumedOn.add(Thread.currentThread().getName());
+            }
+
+            @Override
+            public void afterFailure(ExecutionContext ctx, Throwable ex) {
+            }
+        });
+        engine.deploy(parser.parse("async-many", dsl));
+
+        int count = 2000;
+        List<CompletableFuture<ProcessInstance>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            results.add(engine.startAsync("async-many", Map.of("i", i)));
+        }
+        while (pending.size() < count) {
+            Thread.sleep(5);
+        }
+
+        assertThat(results.stream().noneMatch(CompletableFuture::isDone)).isTrue();
+        pending.forEach(response -> response.complete(null));
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        assertThat(results.stream().allMatch(result -> result.join().getStatus() == InstanceStatus.COMPLETED)).isTrue();
+        assertThat(resumedOn).hasSize(1);
+        loopThread.shutdownNow();
+    }
+
+    @Test
+    void shouldRetryAndFailAsyncFlowTaskWithoutBlocking() throws Exception {
+        String dsl = """
+                flowchart TD
+                %% @node:flaky retry=2 backoff=10ms
+                S(Start) --> flaky[Flaky]
+                flaky --> E(End)
+                """;
+
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        AtomicInteger attempts = new AtomicInteger();
+        engine.registerTask("flaky", (AsyncFlowTask) ctx -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException("downstream unavailable"));
+        });
+        engine.deploy(parser.parse("async-retry", dsl));
+
+        ProcessInstance instance = engine.startAsync("async-retry", Map.of()).get(5, TimeUnit.SECONDS);
 
         assertThat(instance.getStatus()).isEqualTo(InstanceStatus.FAILED);
-        assertThat(instance.getVariables().snapshot())
-                .containsEntry("process.error.nodeId", "invalidTimeoutTask");
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(instance.getVariables().snapshot()).containsEntry("process.error.nodeId", "flaky");
+        assertThat(instance.getFailureCause()).hasMessageContaining("attempts=3");
+    }
+
+    @Test
+    void shouldRouteTimedOutTasksAlongTimeoutEdgeWithoutBlockingLoop() throws Exception {
+        String dsl = """
+                flowchart TD
+                %% @node:callApi timeout=30ms
+                S(Start) --> callApi[CallApi]
+                callApi --> E(End)
+                callApi -->|timeout| fallback[Fallback]
+                fallback --> E
+                """;
+
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        ExecutorService loopThread = Executors.newSingleThreadExecutor();
+        engine.setLoopExecutor(loopThread);
+        List<CompletableFuture<Void>> pending = new CopyOnWriteArrayList<>();
+        engine.registerTask("callApi", (AsyncFlowTask) ctx -> {
+            CompletableFuture<Void> response = new CompletableFuture<>();
+            pending.add(response);
+            return response;
+        });
+        engine.registerTask("fallback", ctx -> ctx.setVariable("fallback", true));
+        engine.deploy(parser.parse("timeout-route", dsl));
+
+        int count = 500;
+        List<CompletableFuture<ProcessInstance>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            results.add(engine.startAsync("timeout-route", Map.of("i", i)));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        assertThat(results).allSatisfy(result -> {
+            ProcessInstance instance = result.join();
+            assertThat(instance.getStatus()).isEqualTo(InstanceStatus.COMPLETED);
+            assertThat(instance.getVariables().get("fallback")).isEqualTo(true);
+        });
+        assertThat(pending).hasSize(count).allMatch(CompletableFuture::isCancelled);
+        assertThat(engine.timeoutScheduler().pendingCount()).isZero();
+        loopThread.shutdownNow();
+    }
+
+    @Test
+    void shouldTrackTokenCountsAndEvictCompletedTokensOnWideFork() {
+        int branches = 200;
+        StringBuilder dsl = new StringBuilder("flowchart TD\nS(Start) --> G{AND}\n");
+        for (int i = 0; i < branches; i++) {
+            dsl.append("G --> T").append(i).append("[Task").append(i).append("]\n");
+            dsl.append("T").append(i).append(" --> J{AND}\n");
+        }
+        dsl.append("J --> E(End)\n");
+        ProcessDefinition definition = parser.parse("wide-fork", dsl.toString());
+
+        DefaultProcessEngine retaining = new DefaultProcessEngine();
+        retaining.deploy(definition);
+        ProcessInstance retained = retaining.start("wide-fork", Map.of());
+
+        DefaultProcessEngine evicting = new DefaultProcessEngine();
+        evicting.setEvictCompletedTokens(true);
+        evicting.deploy(definition);
+        ProcessInstance evicted = evicting.start("wide-fork", Map.of());
+
+        for (ProcessInstance instance : List.of(retained, evicted)) {
+            assertThat(instance.getStatus()).isEqualTo(InstanceStatus.COMPLETED);
+            assertThat(instance.getActiveTokens()).isEmpty();
+            assertThat(instance.tokenCount(TokenStatus.ACTIVE)).isZero();
+            assertThat(instance.tokenCount(TokenStatus.WAITING)).isZero();
+            assertThat(instance.tokenCount(TokenStatus.FAILED)).isZero();
+            assertThat(instance.tokenCount(TokenStatus.COMPLETED)).isEqualTo(branches + 1);
+        }
+        assertThat(retained.getTokensById().size()).isEqualTo(branches + 1);
+        assertThat(evicted.getTokensById().isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldBoundRetainedInstancesAndSkipRegistrationForEphemeralStarts() {
+        String dsl = """
+                flowchart TD
+                %% @node:C subProcessId=SubFlow
+                S(Start) --> A[TaskA]
+                A --> C[[SubFlow]]
+                C --> E(End)
+                """;
+        String subDsl = """
+                flowchart TD
+                S(Start) --> B[TaskB]
+                B --> E(End)
+                """;
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        engine.setInstanceRetentionPolicy(InstanceRetentionPolicy.bounded(4));
+        engine.deploy(parser.parse("SubFlow", subDsl));
+        engine.deploy(parser.parse("retention-flow", dsl));
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(engine.start("retention-flow", Map.of()).getId());
+        }
+
+        // 每次启动产生父、子两个实例，只保留最近结束的 4 个。
+        InstanceStoreStats stats = engine.instanceStoreStats();
+        assertThat(stats.running()).isZero();
+        assertThat(stats.retained()).isEqualTo(4);
+        assertThat(stats.evicted()).isEqualTo(16L);
+        assertThat(engine.getInstanceStatus(ids.get(9))).isEqualTo(InstanceStatus.COMPLETED);
+        assertThat(engine.renderExecutionTraceMermaid(ids.get(9))).contains("\"A\"");
+        assertThatThrownBy(() -> engine.getInstanceStatus(ids.get(0)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Process instance not found");
+
+        ProcessInstance ephemeral = engine.start("retention-flow", Map.of(), StartOptions.EPHEMERAL);
+        assertThat(ephemeral.getStatus()).isEqualTo(InstanceStatus.COMPLETED);
+        assertThatThrownBy(() -> engine.getInstanceStatus(ephemeral.getId()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(engine.instanceStoreStats().running()).isZero();
+    }
+
+    @Test
+    void shouldApplyTraceModesPerProcessAndPerStart() {
+        String dsl = """
+                flowchart TD
+                S(Start) --> A[TaskA]
+                A --> E(End)
+                """;
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        engine.registerTask("A", ctx -> {
+            if (Boolean.TRUE.equals(ctx.getVariable("fail", Boolean.class))) {
+                throw new IllegalStateException("boom");
+            }
+        });
+        engine.deploy(parser.parse("traced", dsl));
+        engine.deploy(parser.parse("untraced", dsl));
+        engine.setTraceSettings("untraced", TraceSettings.OFF);
+
+        ProcessInstance full = engine.start("traced", Map.of());
+        ProcessInstance off = engine.start("untraced", Map.of());
+        ProcessInstance forced = engine.start("untraced", Map.of(), StartOptions.DEFAULT.withTrace(TraceSettings.FULL));
+        ProcessInstance sampledOut = engine.start("traced", Map.of(), StartOptions.DEFAULT.withTrace(TraceSettings.sampled(0D)));
+        ProcessInstance sampledIn = engine.start("traced", Map.of(), StartOptions.DEFAULT.withTrace(TraceSettings.sampled(1D)));
+
+        engine.setDefaultTraceSettings(TraceSettings.ERROR_ONLY);
+        ProcessInstance errorOnlyOk = engine.start("traced", Map.of());
+        ProcessInstance errorOnlyFailed = engine.start("traced", Map.of("fail", true));
+
+        assertThat(off.getProcessId()).isEqualTo("untraced");
+        assertThat(off.getTraceMode()).isEqualTo(TraceMode.OFF);
+        assertThat(sampledOut.getTraceMode()).isEqualTo(TraceMode.OFF);
+        assertThat(sampledIn.getTraceMode()).isEqualTo(TraceMode.FULL);
+        assertThat(engine.renderExecutionTraceMermaid(full.getId())).contains("\"A\"");
+        assertThat(engine.renderExecutionTraceMermaid(forced.getId())).contains("\"A\"");
+        assertThat(engine.renderExecutionTraceMermaid(sampledIn.getId())).contains("\"A\"");
+        assertThat(engine.renderExecutionTraceMermaid(off.getId())).isEqualTo("flowchart TD\n");
+        assertThat(engine.renderExecutionTraceMermaid(sampledOut.getId())).isEqualTo("flowchart TD\n");
+        assertThat(engine.renderExecutionTraceMermaid(errorOnlyOk.getId())).isEqualTo("flowchart TD\n");
+        assertThat(errorOnlyFailed.getStatus()).isEqualTo(InstanceStatus.FAILED);
+        assertThat(errorOnlyFailed.getTraceBuffer()).isNull();
+        assertThat(engine.renderExecutionTraceMermaid(errorOnlyFailed.getId())).contains("FAIL_A");
+    }
+
+    @Test
+    void shouldKeepDurableTracesAfterInstancesAreEvicted() throws Exception {
+        String dsl = """
+                flowchart TD
+                S(Start) --> A[TaskA]
+                A --> E(End)
+                """;
+        Path directory = Files.createTempDirectory("flow-trace-log");
+        try (MappedSegmentTraceStore store = new MappedSegmentTraceStore(directory)) {
+            DefaultProcessEngine engine = new DefaultProcessEngine();
+            engine.setTraceStore(store);
+            engine.setInstanceRetentionPolicy(InstanceRetentionPolicy.bounded(1));
+            engine.deploy(parser.parse("durable-flow", dsl));
+
+            String first = engine.start("durable-flow", Map.of()).getId();
+            engine.start("durable-flow", Map.of());
+            String ephemeral = engine.start("durable-flow", Map.of(), StartOptions.EPHEMERAL).getId();
+
+            assertThat(engine.instanceStoreStats().evicted()).isEqualTo(1L);
+            assertThatThrownBy(() -> engine.getInstanceStatus(first)).isInstanceOf(IllegalArgumentException.class);
+            assertThat(engine.renderExecutionTraceMermaid(first)).contains("\"A\"");
+            assertThat(engine.analyzeExecutionTrace(first).criticalPath()).isNotEmpty();
+            assertThat(engine.exportChromeTrace(ephemeral)).contains("\"traceEvents\"");
+            assertThatThrownBy(() -> engine.renderExecutionTraceMermaid("PI-999999"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Execution trace not found");
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldNotMixStepsOfInstancesFromPreviousRunAfterRestart() throws Exception {
+        String dsl = """
+                flowchart TD
+                S(Start) --> A[TaskA]
+                A --> E(End)
+                """;
+        Path directory = Files.createTempDirectory("flow-trace-log");
+        try {
+            List<String> firstRun = new ArrayList<>();
+            try (MappedSegmentTraceStore store = new MappedSegmentTraceStore(directory)) {
+                DefaultProcessEngine engine = new DefaultProcessEngine();
+                engine.setTraceStore(store);
+                engine.deploy(parser.parse("restart-flow", dsl));
+                for (int i = 0; i < 3; i++) {
+                    firstRun.add(engine.start("restart-flow", Map.of()).getId());
+                }
+                engine.renderExecutionTraceMermaid(firstRun.get(0));
+            }
+
+            try (MappedSegmentTraceStore reopened = new MappedSegmentTraceStore(directory)) {
+                DefaultProcessEngine restarted = new DefaultProcessEngine();
+                restarted.setTraceStore(reopened);
+                restarted.deploy(parser.parse("restart-flow", dsl));
+                String secondRun = restarted.start("restart-flow", Map.of()).getId();
+
+                assertThat(firstRun).doesNotContain(secondRun);
+                restarted.renderExecutionTraceMermaid(secondRun);
+                for (String id : firstRun) {
+                    assertThat(reopened.getByInstanceId(id)).hasSize(3);
+                }
+                assertThat(reopened.getByInstanceId(secondRun)).hasSize(3);
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldFindInstancesByVisitedNodeFailureAndEdge() {
+        String dsl = """
+                flowchart TD
+                S(Start) --> X{XOR}
+                X -->|amount > 1000| H[High]
+                X -->|default| L[Low]
+                H --> E(End)
+                L --> E
+                """;
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        engine.registerTask("H", ctx -> {
+            if (ctx.getVariable("amount", Integer.class) > 5000) {
+                throw new IllegalStateException("limit exceeded");
+            }
+        });
+        engine.registerTask("L", ctx -> {
+        });
+        engine.deploy(parser.parse("approval", dsl));
+        engine.setTraceIndexEnabled(true);
+
+        ProcessInstance low = engine.start("approval", Map.of("amount", 10));
+        ProcessInstance high = engine.start("approval", Map.of("amount", 2000));
+        ProcessInstance failed = engine.start("approval", Map.of("amount", 9000));
+
+        assertThat(engine.findInstances(TraceQuery.edge("X", "H"), 10)).containsExactly(high.getId(), failed.getId());
+        assertThat(engine.findInstances(TraceQuery.failedAt("H"), 10)).containsExactly(failed.getId());
+        assertThat(engine.findInstances(TraceQuery.or(TraceQuery.visited("L"), TraceQuery.failedAt("H")), 10))
+                .containsExactly(low.getId(), failed.getId());
+        assertThat(engine.countInstances(TraceQuery.and(TraceQuery.visited("H"), TraceQuery.visited("E")))).isEqualTo(1);
+    }
+
+    @Test
+    void shouldIndexStepsWrittenWhileTraceIndexIsBackfilling() {
+        String dsl = """
+                flowchart TD
+                S(Start) --> A[TaskA]
+                A --> E(End)
+                """;
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        engine.registerTask("A", ctx -> {
+        });
+        engine.deploy(parser.parse("backfill-flow", dsl));
+        AtomicBoolean armed = new AtomicBoolean();
+        List<String> startedDuringBackfill = new CopyOnWriteArrayList<>();
+        InMemoryExecutionTraceStore store = new InMemoryExecutionTraceStore() {
+            @Override
+            public void forEachTrace(BiConsumer<String, List<TraceStep>> action) {
+                super.forEachTrace(action);
+                if (!armed.compareAndSet(true, false)) {
+                    return;
+                }
+                // 快照取完后另一线程启动实例，等待其轨迹写入存储再结束补建。
+                String instanceId = CompletableFuture.supplyAsync(() -> engine.start("backfill-flow", Map.of()))
+                        .join()
+                        .getId();
+                startedDuringBackfill.add(instanceId);
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (getByInstanceId(instanceId).stream().noneMatch(step -> "E".equals(step.getFromNodeId()))
+                        && System.nanoTime() < deadline) {
+                    Thread.onSpinWait();
+                }
+            }
+        };
+        engine.setTraceStore(store);
+        String before = engine.start("backfill-flow", Map.of()).getId();
+
+        armed.set(true);
+        engine.setTraceIndexEnabled(true);
+        String after = engine.start("backfill-flow", Map.of()).getId();
+
+        assertThat(startedDuringBackfill).hasSize(1);
+        assertThat(engine.findInstances(TraceQuery.visited("E"), 10))
+                .containsExactlyInAnyOrder(before, startedDuringBackfill.get(0), after);
+    }
+
+    @Test
+    void shouldComputeCriticalPathAndJoinWaitAcrossParallelBranches() {
+        String dsl = """
+                flowchart TD
+                %% @node:A async=true
+                %% @node:B async=true
+                S(Start) --> G1{AND}
+                G1 --> A[Slow]
+                G1 --> B[Fast]
+                A --> J{AND}
+                B --> J
+                J --> E(End)
+                """;
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        engine.registerTask("A", ctx -> Thread.sleep(30));
+        engine.registerTask("B", ctx -> Thread.sleep(1));
+        engine.deploy(parser.parse("timed", dsl));
+
+        ProcessInstance instance = engine.start("timed", Map.of());
+        CriticalPathReport report = engine.analyzeExecutionTrace(instance.getId());
+
+        assertThat(report.criticalPath()).extracting(TraceStep::getFromNodeId).containsExactly("S", "G1", "A", "J", "E");
+        assertThat(report.criticalPath().get(2).getDurationNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(30));
+        assertThat(report.criticalPath().get(2).getThreadName()).isNotNull();
+        assertThat(report.totalNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(30));
+        assertThat(report.branches()).hasSize(3);
+        assertThat(report.joinWaits()).hasSize(2);
+        JoinWait fastWait = report.joinWaits().stream().filter(wait -> wait.arrivalNodeId().equals("B")).findFirst().orElseThrow();
+        assertThat(fastWait.joinNodeId()).isEqualTo("J");
+        assertThat(fastWait.waitNanos()).isGreaterThan(0L);
+        assertThat(engine.renderCriticalPathMermaid(instance.getId())).contains("idle");
+        assertThat(engine.renderExecutionTimingTable(instance.getId())).contains("| J |");
+        assertThat(engine.exportChromeTrace(instance.getId())).contains("\"traceEvents\"").contains("\"name\":\"join\"");
+    }
+
+    @Test
+    void shouldCollectNodeMetricsAndObservations() {
+        String dsl = """
+                flowchart TD
+                %% @node:retryTask retry=2 backoff=100ms
+                %% @node:slowTask timeout=30ms retry=1
+                S(Start) --> retryTask[RetryTask]
+                retryTask --> slowTask[SlowTask]
+                slowTask --> failTask[FailTask]
+                failTask --> E(End)
+                """;
+
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        engine.setMetricsEnabled(true);
+        List<String> observed = new CopyOnWriteArrayList<>();
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+
+            @Override
+            public void onStop(Observation.Context context) {
+                observed.add(context.getLowCardinalityKeyValue("node").getValue()
+                        + ":" + context.getLowCardinalityKeyValue("outcome").getValue());
+            }
+        });
+        engine.setObservationRegistry(registry);
+        AtomicInteger attempts = new AtomicInteger();
+        engine.registerTask("retryTask", ctx -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("fail at attempt " + attempts.get());
+            }
+        });
+        AtomicInteger slowAttempts = new AtomicInteger();
+        engine.registerTask("slowTask", ctx -> {
+            if (slowAttempts.incrementAndGet() == 1) {
+                Thread.sleep(500);
+            }
+        });
+        engine.registerTask("failTask", ctx -> {
+            if (Boolean.TRUE.equals(ctx.getVariable("fail"))) {
+                throw new IllegalStateException("boom");
+            }
+        });
+        engine.deploy(parser.parse("metrics-flow", dsl));
+
+        assertThat(engine.start("metrics-flow", Map.of()).getStatus()).isEqualTo(InstanceStatus.COMPLETED);
+        attempts.set(0);
+        assertThat(engine.start("metrics-flow", Map.of("fail", true)).getStatus()).isEqualTo(InstanceStatus.FAILED);
+
+        EngineMetricsSnapshot metrics = engine.metrics();
+        assertThat(metrics.instancesStarted()).isEqualTo(2);
+        assertThat(metrics.instancesCompleted()).isEqualTo(1);
+        assertThat(metrics.instancesFailed()).isEqualTo(1);
+        assertThat(metrics.activeInstances()).isZero();
+        assertThat(metrics.activeTokens()).isZero();
+        assertThat(metrics.taskPool()).isNotNull();
+
+        NodeMetricsSnapshot retry = metrics.node("metrics-flow", "retryTask");
+        assertThat(retry.executions()).isEqualTo(6);
+        assertThat(retry.retries()).isEqualTo(4);
+        assertThat(retry.failures()).isEqualTo(4);
+        assertThat(retry.timeouts()).isZero();
+        assertThat(retry.latency().count()).isEqualTo(6);
+        assertThat(retry.latency().maxNanos()).isLessThan(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(retry.latency().p99Nanos()).isLessThanOrEqualTo(retry.latency().maxNanos());
+
+        NodeMetricsSnapshot slow = metrics.node("metrics-flow", "slowTask");
+        assertThat(slow.executions()).isEqualTo(3);
+        assertThat(slow.failures()).isEqualTo(1);
+        assertThat(slow.timeouts()).isEqualTo(1);
+        assertThat(slow.retries()).isEqualTo(1);
+
+        NodeMetricsSnapshot fail = metrics.node("metrics-flow", "failTask");
+        assertThat(fail.executions()).isEqualTo(2);
+        assertThat(fail.failures()).isEqualTo(1);
+        assertThat(metrics.node("metrics-flow", "E").executions()).isEqualTo(1);
+
+        assertThat(observed).contains("retryTask:retry", "retryTask:success", "failTask:error", "E:success");
+        assertThat(observed.stream().filter("retryTask:retry"::equals).count()).isEqualTo(4);
+
+        // 重复设置替换注册表而非叠加拦截器，NOOP 停止上报。
+        engine.setObservationRegistry(registry);
+        int reported = observed.size();
+        attempts.set(2);
+        assertThat(engine.start("metrics-flow", Map.of()).getStatus()).isEqualTo(InstanceStatus.COMPLETED);
+        assertThat(observed.subList(reported, observed.size())).containsExactly(
+                "S:success", "retryTask:success", "slowTask:success", "failTask:success", "E:success");
+        engine.setObservationRegistry(ObservationRegistry.NOOP);
+        reported = observed.size();
+        attempts.set(2);
+        assertThat(engine.start("metrics-flow", Map.of()).getStatus()).isEqualTo(InstanceStatus.COMPLETED);
+        assertThat(observed).hasSize(reported);
+    }
+
+    @Test
+    void shouldReportRunningInstanceGaugesWithoutMetricsEnabled() throws Exception {
+        String dsl = """
+                flowchart TD
+                S(Start) --> waitTask[Wait]
+                waitTask --> E(End)
+                """;
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        CompletableFuture<Void> response = new CompletableFuture<>();
+        engine.registerTask("waitTask", (AsyncFlowTask) ctx -> response);
+        engine.deploy(parser.parse("gauge-flow", dsl));
+
+        CompletableFuture<ProcessInstance> running = engine.startAsync("gauge-flow", Map.of());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (engine.metrics().waitingTokens() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        EngineMetricsSnapshot metrics = engine.metrics();
+        assertThat(metrics.activeInstances()).isEqualTo(1);
+        assertThat(metrics.waitingTokens()).isEqualTo(1);
+        assertThat(metrics.instancesStarted()).isZero();
+
+        response.complete(null);
+        assertThat(running.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(InstanceStatus.COMPLETED);
+        assertThat(engine.metrics().activeInstances()).isZero();
+    }
+
+    @Test
+    void shouldEmitJfrEventsForStepsInstructionsSubProcessRetryTimeoutAndJoin() throws Exception {
+        String parentDsl = """
+                flowchart TD
+                %% @node:slow timeout=30ms retry=2
+                S(Start) --> CallChild[[Child]]
+                CallChild --> G1{AND}
+                G1 --> A[TaskA]
+                G1 --> B[TaskB]
+                A --> J{AND}
+                B --> J
+                J --> slow[Slow]
+                slow --> E(End)
+                %% @node:CallChild subProcessId=jfrChild
+                """;
+        String childDsl = """
+                flowchart TD
+                C0(Start) --> C1(End)
+                """;
+
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        AtomicInteger attempts = new AtomicInteger();
+        engine.registerTask("slow", ctx -> {
+            if (attempts.incrementAndGet() == 1) {
+                Thread.sleep(200);
+            }
+        });
+        engine.deploy(parser.parse("jfrChild", childDsl));
+        engine.deploy(parser.parse("jfrParent", parentDsl));
+
+        Path file = Files.createTempFile("flowlab", ".jfr");
+        List<RecordedEvent> events;
+        ProcessInstance instance;
+        try {
+            try (Recording recording = new Recording()) {
+                for (String name : List.of("NodeExecution", "Instruction", "SubProcess", "TaskRetry",
+                        "TaskTimeout", "JoinCompleted")) {
+                    recording.enable("flowlab." + name);
+                }
+                recording.start();
+                instance = engine.start("jfrParent", Map.of());
+                recording.stop();
+                recording.dump(file);
+            }
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertThat(instance.getStatus()).isEqualTo(InstanceStatus.COMPLETED);
+        Map<String, List<RecordedEvent>> byType = new LinkedHashMap<>();
+        for (RecordedEvent event : events) {
+            byType.computeIfAbsent(event.getEventType().getName(), key -> new ArrayList<>()).add(event);
+        }
+
+        List<RecordedEvent> steps = byType.get("flowlab.NodeExecution");
+        assertThat(steps).extracting(event -> event.getString("nodeId"))
+                .contains("S", "CallChild", "A", "B", "J", "slow", "E", "C0", "C1");
+        assertThat(steps.stream().filter(event -> "jfrParent".equals(event.getString("processId"))).toList())
+                .allMatch(event -> instance.getId().equals(event.getString("instanceId")));
+        assertThat(steps.stream().filter(event -> "slow".equals(event.getString("nodeId")))
+                .map(event -> event.getString("outcome")).toList())
+                .containsExactly("Retry", "MoveInstruction");
+        assertThat(byType.get("flowlab.Instruction")).extracting(event -> event.getString("instruction"))
+                .contains("MoveInstruction", "ForkInstruction", "CompleteInstruction");
+
+        RecordedEvent subProcess = byType.get("flowlab.SubProcess").get(0);
+        assertThat(subProcess.getString("nodeId")).isEqualTo("CallChild");
+        assertThat(subProcess.getString("subProcessId")).isEqualTo("jfrChild");
+        assertThat(subProcess.getBoolean("completed")).isTrue();
+
+        RecordedEvent timeout = byType.get("flowlab.TaskTimeout").get(0);
+        assertThat(timeout.getString("nodeId")).isEqualTo("slow");
+        assertThat(timeout.getInt("attempt")).isEqualTo(1);
+        RecordedEvent retry = byType.get("flowlab.TaskRetry").get(0);
+        assertThat(retry.getString("nodeId")).isEqualTo("slow");
+        assertThat(retry.getLong("tokenId")).isEqualTo(timeout.getLong("tokenId"));
+
+        RecordedEvent join = byType.get("flowlab.JoinCompleted").get(0);
+        assertThat(join.getString("nodeId")).isEqualTo("J");
+        assertThat(join.getInt("arrivals")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldStartBatchInInputOrderWithCompactResults() {
+        String dsl = """
+                flowchart TD
+                S(Start) --> X{XOR}
+                X -->|amount > 1000| H[High]
+                X -->|default| L[Low]
+                H --> E(End)
+                L --> E
+                """;
+
+        DefaultProcessEngine engine = new DefaultProcessEngine();
+        AtomicInteger completedCallbacks = new AtomicInteger();
+        engine.addProcessInterceptor(new ProcessInterceptor() {
+            @Override
+            public void beforeStart(ProcessInstance instance) {
+            }
+
+            @Override
+            public void onCompleted(ProcessInstance instance) {
+                completedCallbacks.incrementAndGet();
+            }
+
+            @Override
+            public void onFailed(ProcessInstance instance, Throwable ex) {
+            }
+        });
+        engine.registerTask("H", ctx -> {
+            if (ctx.getVariable("amount", Integer.class) % 7 == 0) {
+                throw new IllegalStateException("rejected");
+            }
+        });
+        engine.deploy(parser.parse("batch-flow", dsl));
+
+        List<Map<String, Object>> inputs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            inputs.add(Map.of("amount", i * 3));
+        }
+
+        BatchStartResult sequential = engine.startBatch("batch-flow", inputs);
+        BatchStartResult parallel = engine.startBatch("batch-flow", inputs, 4);
+        BatchStartResult streamed = engine.startBatch("batch-flow", inputs.iterator());
+
+        for (BatchStartResult result : List.of(sequential, parallel, streamed)) {
+            assertThat(result.size()).isEqualTo(1000);
+            for (int i = 0; i < result.size(); i++) {
+                int amount = i * 3;
+                boolean failed = amount > 1000 && amount % 7 == 0;
+                assertThat(result.status(i)).isEqualTo(failed ? InstanceStatus.FAILED : InstanceStatus.COMPLETED);
+                assertThat(result.failureCause(i) != null).isEqualTo(failed);
+                assertThat(engine.getInstanceStatus(result.instanceId(i))).isEqualTo(result.status(i));
+            }
+            assertThat(result.completedCount() + result.failedCount()).isEqualTo(1000);
+        }
+        Set<String> ids = new HashSet<>();
+        for (BatchStartResult result : List.of(sequential, parallel, streamed)) {
+            for (int i = 0; i < result.size(); i++) {
+                ids.add(result.instanceId(i));
+            }
+        }
+        assertThat(ids).hasSize(3000);
+        assertThat(completedCallbacks.get()).isEqualTo(sequential.completedCount() * 3);
+    }
+
+    @Test
+    void shouldStartInstancesConcurrentlyAndCompileGraphOnce() throws Exception {
+        String dsl = """
+                flowchart TD
+                S(Start) --> G1{AND}
+                G1 --> A[TaskA]
+                G1 --> B[TaskB]
+                A --> J{AND}
+                B --> J
+                J --> X{XOR}
+                X -->|amount > 1000| H[High]
+                X -->|default| L[Low]
+                H --> E(End)
+                L --> E
+                """;
+
+        CountingDefinitionStore store = new CountingDefinitionStore();
+        store.put(parser.parse("concurrent-flow", dsl));
+        DefaultProcessEngine engine = new DefaultProcessEngine(store);
+        engine.registerTask("A", ctx -> ctx.setVariable("a", true));
+
+        int threads = 8;
+        int perThread = 50;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<List<ProcessInstance>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                ready.await();
+                List<ProcessInstance> started = new ArrayList<>();
+                for (int i = 0; i < perThread; i++) {
+                    started.add(engine.start("concurrent-flow", Map.of("amount", i * 100)));
+                }
+                return started;
+            }));
+        }
+        ready.countDown();
+
+        Set<String> ids = new HashSet<>();
+        for (Future<List<ProcessInstance>> future : futures) {
+            for (ProcessInstance instance : future.get(30, TimeUnit.SECONDS)) {
+                assertThat(instance.getStatus()).isEqualTo(InstanceStatus.COMPLETED);
+                assertThat(instance.getVariables().get("a")).isEqualTo(true);
+                ids.add(instance.getId());
+            }
+        }
+        pool.shutdown();
+
+        assertThat(ids).hasSize(threads * perThread);
+        assertThat(store.lookups.get()).isEqualTo(1);
     }
 
     private int countOf(List<String> nodes, String nodeId) {
@@ -602,6 +1723,23 @@ class ProcessEngineIntegrationTest {
         }
     }
 
+    private static class CountingDefinitionStore implements ProcessDefinitionStore {
+
+        private final Map<String, ProcessDefinition> definitions = new ConcurrentHashMap<>();
+        private final AtomicInteger lookups = new AtomicInteger();
+
+        @Override
+        public void put(ProcessDefinition definition) {
+            definitions.put(definition.getId(), definition);
+        }
+
+        @Override
+        public ProcessDefinition get(String processId) {
+            lookups.incrementAndGet();
+            return definitions.get(processId);
+        }
+    }
+
     @Configuration
     static class TaskTestConfig {
 
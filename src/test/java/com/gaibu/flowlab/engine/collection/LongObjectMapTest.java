@@ -0,0 +1,68 @@
+package com.gaibu.flowlab.engine.collection;
+
+import com.gaibu.flowlab.engine.runtime.IdAllocator;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongObjectMapTest {
+
+    @Test
+    void shouldBehaveLikeHashMapUnderRandomPutAndRemove() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            // 取值范围较小，制造大量冲突、覆盖与删除回填。
+            long key = 1 + random.nextInt(4096);
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                String value = "v" + i;
+                assertThat(map.put(key, value)).isEqualTo(expected.put(key, value));
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long key = 1; key <= 4096; key++) {
+            assertThat(map.get(key)).isEqualTo(expected.get(key));
+        }
+        assertThat(map.values()).containsExactlyInAnyOrder(expected.values().toArray());
+        assertThatThrownBy(() -> map.put(0L, "zero")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldAllocateUniqueIdsAcrossThreads() throws Exception {
+        IdAllocator allocator = new IdAllocator();
+        ConcurrentLongObjectMap<Long> seen = new ConcurrentLongObjectMap<>();
+        Set<Long> duplicates = ConcurrentHashMap.newKeySet();
+        int threads = 4;
+        int perThread = 50_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    long id = allocator.next();
+                    if (seen.put(id, id) != null) {
+                        duplicates.add(id);
+                    }
+                }
+                done.countDown();
+            });
+            worker.start();
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(duplicates).isEmpty();
+        assertThat(seen.size()).isEqualTo(threads * perThread);
+    }
+}
@@ -0,0 +1,54 @@
+package com.gaibu.flowlab.engine.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MpscArrayQueueTest {
+
+    @Test
+    void shouldDeliverEveryElementInPerProducerOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscArrayQueue<long[]> queue = new MpscArrayQueue<>(1024);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    long[] element = {producer, i};
+                    while (!queue.offer(element)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        long[] next = new long[producers];
+        int received = 0;
+        boolean ordered = true;
+        while (received < producers * perProducer) {
+            long[] element = queue.poll();
+            if (element == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            ordered &= element[1] == next[(int) element[0]];
+            next[(int) element[0]] = element[1] + 1;
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(ordered).isTrue();
+        assertThat(queue.poll()).isNull();
+        assertThat(queue.isEmpty()).isTrue();
+        assertThat(queue.capacity()).isEqualTo(1024);
+    }
+}
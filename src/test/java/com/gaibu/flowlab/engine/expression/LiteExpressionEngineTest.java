@@ -0,0 +1,107 @@
+package com.gaibu.flowlab.engine.expression;
+
+import com.gaibu.flowlab.engine.expression.impl.LiteExpressionEngine;
+import com.gaibu.flowlab.engine.expression.impl.SpelExpressionEngine;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LiteExpressionEngineTest {
+
+    private final LiteExpressionEngine lite = new LiteExpressionEngine();
+
+    private final SpelExpressionEngine spel = new SpelExpressionEngine();
+
+    @Test
+    void shouldMatchSpelResultsForSupportedSubset() {
+        List<String> expressions = List.of(
+                "amount > 1000",
+                "amount >= 1500",
+                "amount < 1000.5",
+                "amount <= 100",
+                "region == 'CN'",
+                "region != \"US\"",
+                "approved",
+                "!approved",
+                "not approved",
+                "approved == true",
+                "amount > 1000 && region == 'CN'",
+                "amount > 1000 and region == 'CN'",
+                "amount < 10 || region == 'CN'",
+                "(amount > 1000 || vip) && !(region == 'US')",
+                "missing == null",
+                "missing != null",
+                "#amount > 500",
+                "#unknown == null",
+                "ratio > 0.5",
+                "big >= 100",
+                "region == 'it''s'",
+                "true",
+                "FALSE"
+        );
+        List<Map<String, Object>> contexts = List.of(
+                vars("amount", 1500, "region", "CN", "approved", true, "vip", false, "missing", null, "ratio", 0.75, "big", 100L),
+                vars("amount", 100, "region", "US", "approved", false, "vip", true, "missing", "x", "ratio", 0.5, "big", new BigDecimal("99.9")),
+                vars("amount", 1000L, "region", "it's", "approved", true, "vip", true, "missing", null, "ratio", 1, "big", 1000)
+        );
+
+        for (String expression : expressions) {
+            assertThat(lite.supports(expression)).isTrue();
+            for (Map<String, Object> context : contexts) {
+                assertThat(lite.evaluateBoolean(expression, context))
+                        .isEqualTo(spel.evaluateBoolean(expression, context));
+            }
+        }
+    }
+
+    @Test
+    void shouldFallBackToSpelForUnsupportedSyntax() {
+        Map<String, Object> context = vars("amount", 1500, "region", "CN", "items", List.of(1, 2, 3));
+
+        for (String expression : List.of("amount * 2 > 2000", "region.startsWith('C')", "items.size() == 3",
+                "amount gt 1000", "amount > 1000L", "region matches 'C.*'")) {
+            assertThat(lite.supports(expression)).isFalse();
+            assertThat(lite.evaluateBoolean(expression, context)).isTrue();
+        }
+    }
+
+    @Test
+    void shouldFailWhenBareVariableIsMissing() {
+        assertThatThrownBy(() -> lite.evaluateBoolean("amount > 1000", Map.of()))
+                .hasMessageContaining("amount");
+    }
+
+    @Test
+    void shouldFailInBothEnginesWhenBareVariableNamesMapProperty() {
+        Map<String, Object> context = vars("amount", 1500);
+
+        for (String expression : List.of("empty", "amount > 1000 && empty", "missing == null")) {
+            assertThatThrownBy(() -> lite.evaluateBoolean(expression, context)).isInstanceOf(RuntimeException.class);
+            assertThatThrownBy(() -> spel.evaluateBoolean(expression, context)).isInstanceOf(RuntimeException.class);
+        }
+        assertThat(spel.evaluateBoolean("#empty == null", context)).isTrue();
+    }
+
+    @Test
+    void shouldCompileOnceAndEvaluateMany() {
+        CompiledExpression compiled = lite.compile("amount > 1000 && region == 'CN'");
+
+        assertThat(compiled.evaluateBoolean(Map.of("amount", 1200, "region", "CN"))).isTrue();
+        assertThat(compiled.evaluateBoolean(Map.of("amount", 1200, "region", "US"))).isFalse();
+        assertThat(compiled.evaluateBoolean(Map.of("amount", 900, "region", "CN"))).isFalse();
+    }
+
+    private static Map<String, Object> vars(Object... keyValues) {
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,108 @@
+package com.gaibu.flowlab.engine.graph;
+
+import com.gaibu.flowlab.engine.execution.instruction.ForkInstruction;
+import com.gaibu.flowlab.engine.execution.instruction.MoveInstruction;
+import com.gaibu.flowlab.engine.runtime.NodeId;
+import com.gaibu.flowlab.parser.impl.MermaidProcessParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GraphCompilerTest {
+
+    @Test
+    void shouldAssignDenseIndexesInBreadthFirstOrderFromStart() {
+        String dsl = """
+                flowchart TD
+                X[Orphan] --> E(End)
+                S(Start) --> G1{AND}
+                G1 --> A[TaskA]
+                G1 --> B[TaskB]
+                A --> J{AND}
+                B --> J
+                J --> E
+                """;
+
+        ExecutableGraph graph = new GraphCompiler().compile(new MermaidProcessParser().parse("indexed", dsl));
+
+        List<String> order = new ArrayList<>();
+        for (int i = 0; i < graph.nodeCount(); i++) {
+            assertThat(graph.node(i).getIndex()).isEqualTo(i);
+            order.add(graph.node(i).getId().value());
+        }
+        assertThat(order).containsExactly("S", "G1", "A", "B", "J", "E", "X");
+        assertThat(graph.startNodeIndex()).isEqualTo(0);
+        assertThat(graph.startNodeId()).isEqualTo(new NodeId("S"));
+        assertThat(graph.indexOf(new NodeId("J"))).isEqualTo(4);
+        assertThat(graph.indexOf(new NodeId("missing"))).isEqualTo(-1);
+        assertThat(graph.node(-1)).isNull();
+    }
+
+    @Test
+    void shouldExposeCsrAdjacencyConsistentWithEdges() {
+        String dsl = """
+                flowchart TD
+                S(Start) --> G1{AND}
+                G1 --> A[TaskA]
+                G1 --> B[TaskB]
+                A --> J{AND}
+                B --> J
+                J --> E(End)
+                """;
+
+        ExecutableGraph graph = new GraphCompiler().compile(new MermaidProcessParser().parse("csr", dsl));
+
+        int fork = graph.indexOf(new NodeId("G1"));
+        int join = graph.indexOf(new NodeId("J"));
+        assertThat(graph.outDegree(fork)).isEqualTo(2);
+        assertThat(graph.inDegree(join)).isEqualTo(2);
+        assertThat(graph.outgoing(fork)).extracting(ExecutableEdge::getTarget)
+                .containsExactly(new NodeId("A"), new NodeId("B"));
+        assertThat(graph.incoming(new NodeId("J"))).isSameAs(graph.incoming(join));
+        for (ExecutableEdge edge : graph.outgoing(fork)) {
+            assertThat(edge.getSourceIndex()).isEqualTo(fork);
+            assertThat(graph.node(edge.getTargetIndex()).getId()).isEqualTo(edge.getTarget());
+        }
+        assertThat(graph.outgoing(graph.indexOf(new NodeId("E")))).isEmpty();
+    }
+
+    @Test
+    void shouldPrecomputeRoutingPlansPerNode() {
+        String dsl = """
+                flowchart TD
+                S(Start) --> G1{AND}
+                G1 --> A[TaskA]
+                G1 --> B[TaskB]
+                A --> J{AND}
+                B --> J
+                J --> X{XOR}
+                X -->|approved| E(End)
+                X -->|default| R[Reject]
+                R --> E
+                """;
+
+        ExecutableGraph graph = new GraphCompiler().compile(new MermaidProcessParser().parse("plans", dsl));
+
+        RoutingPlan start = graph.getNode(new NodeId("S")).getRoutingPlan();
+        assertThat(start.getRoute()).isInstanceOf(MoveInstruction.class);
+        assertThat(start.getRoute()).isSameAs(start.getMoves().get(0));
+
+        RoutingPlan fork = graph.getNode(new NodeId("G1")).getRoutingPlan();
+        assertThat(fork.getRoute()).isInstanceOf(ForkInstruction.class);
+        assertThat(fork.isJoin()).isFalse();
+
+        RoutingPlan join = graph.getNode(new NodeId("J")).getRoutingPlan();
+        assertThat(join.isJoin()).isTrue();
+        assertThat(join.getExpectedArrivals()).isEqualTo(2);
+        assertThat(join.getJoinInstruction().joinNode()).isEqualTo(new NodeId("J"));
+
+        RoutingPlan xor = graph.getNode(new NodeId("X")).getRoutingPlan();
+        assertThat(xor.getDefaultEdge().getTarget()).isEqualTo(new NodeId("R"));
+        assertThat(xor.getDefaultMove().nextIndex()).isEqualTo(graph.indexOf(new NodeId("R")));
+
+        assertThat(graph.getNode(new NodeId("E")).getRoutingPlan().getRoute()).isSameAs(RoutingPlan.COMPLETE);
+    }
+}
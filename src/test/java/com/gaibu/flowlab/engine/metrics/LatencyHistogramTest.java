@@ -0,0 +1,66 @@
+package com.gaibu.flowlab.engine.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTest {
+
+    @Test
+    void shouldMapValuesIntoBucketsWithBoundedRelativeError() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            long value = (long) Math.pow(10, random.nextDouble() * 12);
+            int bucket = LatencyHistogram.bucketOf(value);
+            long highest = LatencyHistogram.highestValueOf(bucket);
+            assertThat(highest).isGreaterThanOrEqualTo(value);
+            assertThat(highest - value).isLessThanOrEqualTo(Math.max(0L, value / 32));
+            if (bucket > 0) {
+                assertThat(LatencyHistogram.highestValueOf(bucket - 1)).isLessThan(value);
+            }
+        }
+        for (long value = 0; value < 32; value++) {
+            assertThat(LatencyHistogram.highestValueOf(LatencyHistogram.bucketOf(value))).isEqualTo(value);
+        }
+    }
+
+    @Test
+    void shouldReportPercentilesCloseToExactValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(42);
+        long[] values = new long[50_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_000L + (long) (random.nextGaussian() * 200_000L + 2_000_000L);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(values.length);
+        assertThat(snapshot.maxNanos()).isEqualTo(values[values.length - 1]);
+        assertWithin(snapshot.p50Nanos(), values[values.length / 2 - 1]);
+        assertWithin(snapshot.p90Nanos(), values[(int) (values.length * 0.9) - 1]);
+        assertWithin(snapshot.p99Nanos(), values[(int) (values.length * 0.99) - 1]);
+        assertThat(snapshot.p999Nanos()).isLessThanOrEqualTo(snapshot.maxNanos());
+    }
+
+    @Test
+    void shouldReturnZerosWhenEmptyAndClampNegativeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.snapshot()).isEqualTo(new LatencySnapshot(0, 0, 0, 0, 0, 0, 0));
+
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(2);
+        assertThat(snapshot.p50Nanos()).isZero();
+        assertThat(snapshot.p999Nanos()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    private static void assertWithin(long actual, long expected) {
+        assertThat(Math.abs(actual - expected)).isLessThanOrEqualTo(expected / 32);
+    }
+}
@@ -0,0 +1,95 @@
+package com.gaibu.flowlab.engine.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedWheelTimerTest {
+
+    @Test
+    void shouldFireAfterDelayAcrossWheelRounds() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 8, "test-timer");
+        try {
+            CountDownLatch fired = new CountDownLatch(1);
+            long begin = System.nanoTime();
+            Timeout timeout = timer.schedule(fired::countDown, 30, TimeUnit.MILLISECONDS);
+
+            assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin)).isGreaterThanOrEqualTo(30L);
+            assertThat(timeout.isExpired()).isTrue();
+            assertThat(timer.pendingCount()).isZero();
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Test
+    void shouldNotFireCancelledTimeout() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 16, "test-timer");
+        try {
+            AtomicInteger fired = new AtomicInteger();
+            CountDownLatch marker = new CountDownLatch(1);
+            Timeout timeout = timer.schedule(fired::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+            timer.schedule(marker::countDown, 60, TimeUnit.MILLISECONDS);
+
+            assertThat(timeout.cancel()).isTrue();
+            assertThat(timeout.cancel()).isFalse();
+            assertThat(marker.await(2, TimeUnit.SECONDS)).isTrue();
+            assertThat(fired.get()).isZero();
+            assertThat(timeout.isCancelled()).isTrue();
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Test
+    void shouldNotFireImmediatelyWhenDelayOverflowsDeadline() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 8, "test-timer");
+        try {
+            AtomicInteger fired = new AtomicInteger();
+            CountDownLatch marker = new CountDownLatch(1);
+            Timeout forever = timer.schedule(fired::incrementAndGet, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            Timeout days = timer.schedule(fired::incrementAndGet, Long.MAX_VALUE, TimeUnit.DAYS);
+            timer.schedule(marker::countDown, 20, TimeUnit.MILLISECONDS);
+
+            assertThat(marker.await(2, TimeUnit.SECONDS)).isTrue();
+            assertThat(fired.get()).isZero();
+            assertThat(forever.isExpired()).isFalse();
+            assertThat(days.isExpired()).isFalse();
+            assertThat(timer.pendingCount()).isEqualTo(2L);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Test
+    void shouldTrackLargeNumberOfDeadlines() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 512, "test-timer");
+        try {
+            int total = 200_000;
+            CountDownLatch fired = new CountDownLatch(total / 2);
+            AtomicInteger leaked = new AtomicInteger();
+            Timeout[] cancelled = new Timeout[total / 2];
+            for (int i = 0; i < total / 2; i++) {
+                timer.schedule(fired::countDown, 10 + (i % 200), TimeUnit.MILLISECONDS);
+                cancelled[i] = timer.schedule(leaked::incrementAndGet, 500 + (i % 200), TimeUnit.MILLISECONDS);
+            }
+            for (Timeout timeout : cancelled) {
+                timeout.cancel();
+            }
+            CountDownLatch marker = new CountDownLatch(1);
+            timer.schedule(marker::countDown, 800, TimeUnit.MILLISECONDS);
+
+            assertThat(fired.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(marker.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(leaked.get()).isZero();
+            assertThat(timer.pendingCount()).isZero();
+        } finally {
+            timer.stop();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.gaibu.flowlab.engine.store;
+
+import com.gaibu.flowlab.engine.runtime.ProcessInstance;
+import com.gaibu.flowlab.engine.scheduler.HashedWheelTimer;
+import com.gaibu.flowlab.engine.store.impl.InMemoryProcessInstanceStore;
+import com.gaibu.flowlab.engine.store.impl.InMemoryVariableStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryProcessInstanceStoreTest {
+
+    @Test
+    void shouldKeepRunningInstancesAndEvictLeastRecentlyUsedTerminated() {
+        List<Long> evicted = new CopyOnWriteArrayList<>();
+        InMemoryProcessInstanceStore store = new InMemoryProcessInstanceStore(
+                InstanceRetentionPolicy.bounded(2), HashedWheelTimer.shared(), instance -> evicted.add(instance.getSeq()));
+        for (long seq = 1; seq <= 4; seq++) {
+            store.register(instance(seq));
+        }
+
+        store.terminate(store.get(1));
+        store.terminate(store.get(2));
+        // 访问 1 使 2 成为最久未访问者。
+        assertThat(store.get(1)).isNotNull();
+        store.terminate(store.get(3));
+
+        assertThat(evicted).containsExactly(2L);
+        assertThat(store.get(2)).isNull();
+        assertThat(store.get(1)).isNotNull();
+        assertThat(store.get(4)).isNotNull();
+        InstanceStoreStats stats = store.stats();
+        assertThat(stats.running()).isEqualTo(1);
+        assertThat(stats.retained()).isEqualTo(2);
+        assertThat(stats.evicted()).isEqualTo(1L);
+        assertThat(stats.estimatedRetainedBytes()).isGreaterThan(0L);
+
+        store.setRetentionPolicy(InstanceRetentionPolicy.bounded(0));
+        assertThat(store.stats().retained()).isZero();
+        assertThat(store.stats().estimatedRetainedBytes()).isZero();
+        store.terminate(store.get(4));
+        assertThat(evicted).containsExactly(2L, 3L, 1L, 4L);
+    }
+
+    @Test
+    void shouldReapExpiredInstancesInBackground() throws Exception {
+        List<Long> evicted = new CopyOnWriteArrayList<>();
+        InMemoryProcessInstanceStore store = new InMemoryProcessInstanceStore(
+                new InstanceRetentionPolicy(100, Duration.ofMillis(50), Duration.ofMillis(20)),
+                HashedWheelTimer.shared(),
+                instance -> evicted.add(instance.getSeq()));
+        for (long seq = 1; seq <= 10; seq++) {
+            ProcessInstance instance = instance(seq);
+            store.register(instance);
+            store.terminate(instance);
+        }
+        assertThat(store.stats().retained()).isEqualTo(10);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (store.stats().retained() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(store.stats().retained()).isZero();
+        assertThat(store.stats().expired()).isEqualTo(10L);
+        assertThat(evicted).hasSize(10);
+        assertThat(store.get(5)).isNull();
+    }
+
+    private ProcessInstance instance(long seq) {
+        ProcessInstance instance = new ProcessInstance();
+        instance.setSeq(seq);
+        instance.setVariables(new InMemoryVariableStore());
+        return instance;
+    }
+}
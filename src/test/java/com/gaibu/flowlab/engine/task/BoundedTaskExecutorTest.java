@@ -0,0 +1,108 @@
+package com.gaibu.flowlab.engine.task;
+
+import com.gaibu.flowlab.engine.task.enums.BackpressurePolicy;
+import com.gaibu.flowlab.engine.task.impl.BoundedTaskExecutor;
+import com.gaibu.flowlab.engine.task.impl.TaskExecutorProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedTaskExecutorTest {
+
+    @Test
+    void shouldRejectAndCountWhenSaturated() throws Exception {
+        BoundedTaskExecutor executor = new BoundedTaskExecutor(properties(BackpressurePolicy.REJECT));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.submit(() -> {
+                started.countDown();
+                return release.await(5, TimeUnit.SECONDS);
+            });
+            executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+            started.await(5, TimeUnit.SECONDS);
+
+            assertThatThrownBy(() -> executor.submit(() -> null))
+                    .isInstanceOf(RejectedExecutionException.class)
+                    .hasMessageContaining("saturated");
+
+            TaskExecutorStats stats = executor.stats();
+            assertThat(stats.active()).isEqualTo(1);
+            assertThat(stats.queued()).isEqualTo(1);
+            assertThat(stats.rejected()).isEqualTo(1L);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRunOnCallerThreadWhenSaturated() throws Exception {
+        BoundedTaskExecutor executor = new BoundedTaskExecutor(properties(BackpressurePolicy.CALLER_RUNS));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+            executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+
+            AtomicReference<String> ranOn = new AtomicReference<>();
+            Future<Object> future = executor.submit(() -> {
+                ranOn.set(Thread.currentThread().getName());
+                return null;
+            });
+
+            assertThat(future.isDone()).isTrue();
+            assertThat(ranOn.get()).isEqualTo(Thread.currentThread().getName());
+            assertThat(executor.stats().callerRuns()).isEqualTo(1L);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldWaitForQueueSpaceWithinBound() throws Exception {
+        TaskExecutorProperties properties = properties(BackpressurePolicy.BOUNDED_WAIT);
+        properties.setMaxWait(Duration.ofSeconds(2));
+        BoundedTaskExecutor executor = new BoundedTaskExecutor(properties);
+        try {
+            executor.submit(() -> {
+                Thread.sleep(50);
+                return null;
+            });
+            executor.submit(() -> null);
+
+            Future<String> waited = executor.submit(() -> Thread.currentThread().getName());
+
+            assertThat(waited.get(2, TimeUnit.SECONDS)).startsWith("test-task-");
+            assertThat(executor.stats().rejected()).isEqualTo(0L);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRejectByDefault() {
+        TaskExecutorProperties defaults = new TaskExecutorProperties();
+
+        assertThat(defaults.getBackpressurePolicy()).isEqualTo(BackpressurePolicy.REJECT);
+    }
+
+    private static TaskExecutorProperties properties(BackpressurePolicy policy) {
+        TaskExecutorProperties properties = new TaskExecutorProperties();
+        properties.setCorePoolSize(1);
+        properties.setMaxPoolSize(1);
+        properties.setQueueCapacity(1);
+        properties.setBackpressurePolicy(policy);
+        properties.setMaxWait(Duration.ofMillis(20));
+        properties.setThreadNamePrefix("test-task-");
+        return properties;
+    }
+}
@@ -0,0 +1,119 @@
+package com.gaibu.flowlab.engine.trace;
+
+import com.gaibu.flowlab.engine.execution.instruction.MoveInstruction;
+import com.gaibu.flowlab.engine.runtime.NodeId;
+import com.gaibu.flowlab.engine.runtime.TokenId;
+import com.gaibu.flowlab.engine.trace.enums.TraceOverflowPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncTraceSinkTest {
+
+    @Test
+    void shouldWriteEventsFromConcurrentPublishersInBatches() throws Exception {
+        BoundedExecutionTraceStore store = new BoundedExecutionTraceStore(new TraceBudget(1_000, 1_000, 1_000_000L, 1L << 30));
+        AsyncTraceSink sink = new AsyncTraceSink(store, 256, 64, TraceOverflowPolicy.BLOCK, "test-trace-writer");
+        int publishers = 4;
+        int steps = 1_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < publishers; p++) {
+            String instanceId = "PI-" + (p + 1);
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < steps; i++) {
+                    sink.publish(TraceEvent.step(instanceId, new TokenId(i + 1), new NodeId("N" + i),
+                            new MoveInstruction(new NodeId("N" + (i + 1)))));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        sink.publish(TraceEvent.removal("PI-4"));
+        sink.flush();
+
+        List<TraceStep> trace = store.getByInstanceId("PI-1");
+        assertThat(trace).hasSize(steps);
+        assertThat(trace.get(0).getFromNodeId()).isEqualTo("N0");
+        assertThat(trace.get(steps - 1).getToNodeIds()).containsExactly("N" + steps);
+        assertThat(store.getByInstanceId("PI-4")).isEmpty();
+        TraceSinkStats stats = sink.stats();
+        assertThat(stats.published()).isEqualTo(publishers * steps + 1L);
+        assertThat(stats.written()).isEqualTo(stats.published());
+        assertThat(stats.dropped()).isZero();
+    }
+
+    @Test
+    void shouldWriteEveryEventPublishedBeforeFlushUnderConcurrentPublishers() throws Exception {
+        InMemoryExecutionTraceStore store = new InMemoryExecutionTraceStore();
+        AsyncTraceSink sink = new AsyncTraceSink(store, 256, 64, TraceOverflowPolicy.BLOCK, "test-trace-writer");
+        int publishers = 4;
+        int steps = 300;
+        List<Thread> threads = new ArrayList<>();
+        List<String> misses = new CopyOnWriteArrayList<>();
+        for (int p = 0; p < publishers; p++) {
+            String instanceId = "PI-" + (p + 1);
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < steps; i++) {
+                    sink.publish(TraceEvent.step(instanceId, new TokenId(i + 1), new NodeId("N" + i),
+                            new MoveInstruction(new NodeId("N" + (i + 1)))));
+                    sink.flush();
+                    if (store.getByInstanceId(instanceId).size() != i + 1) {
+                        misses.add(instanceId + "#" + i);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(misses).isEmpty();
+        assertThat(sink.stats().written()).isEqualTo(publishers * (long) steps);
+    }
+
+    @Test
+    void shouldDropAndCountWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutionTraceStore blockingStore = new ExecutionTraceStore() {
+            @Override
+            public void append(TraceStep step) {
+                try {
+                    release.await(2, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public List<TraceStep> getByInstanceId(String instanceId) {
+                return List.of();
+            }
+
+            @Override
+            public void remove(String instanceId) {
+            }
+        };
+        AsyncTraceSink sink = new AsyncTraceSink(blockingStore, 8, 1, TraceOverflowPolicy.DROP, "test-trace-writer");
+        for (int i = 0; i < 100; i++) {
+            sink.publish(TraceEvent.failure("PI-1", new TokenId(1), new NodeId("A"), "boom"));
+        }
+        release.countDown();
+        sink.flush();
+
+        TraceSinkStats stats = sink.stats();
+        assertThat(stats.dropped()).isGreaterThan(0L);
+        assertThat(stats.published() + stats.dropped()).isEqualTo(100L);
+        assertThat(stats.written()).isEqualTo(stats.published());
+    }
+}
@@ -0,0 +1,71 @@
+package com.gaibu.flowlab.engine.trace;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedExecutionTraceStoreTest {
+
+    @Test
+    void shouldKeepHeadAndTailStepsAndMarkDroppedRange() {
+        BoundedExecutionTraceStore store = new BoundedExecutionTraceStore(new TraceBudget(2, 3, 1_000L, 1_000_000L));
+        for (int i = 0; i < 10; i++) {
+            store.append(step("PI-1", "N" + i, "N" + (i + 1)));
+        }
+
+        List<TraceStep> steps = store.getByInstanceId("PI-1");
+        assertThat(steps).hasSize(6);
+        assertThat(steps.get(0).getFromNodeId()).isEqualTo("N0");
+        assertThat(steps.get(1).getFromNodeId()).isEqualTo("N1");
+        assertThat(steps.get(2).isTruncationMarker()).isTrue();
+        assertThat(steps.get(2).getDroppedSteps()).isEqualTo(5L);
+        assertThat(steps.get(3).getFromNodeId()).isEqualTo("N7");
+        assertThat(steps.get(5).getFromNodeId()).isEqualTo("N9");
+        assertThat(store.stats().steps()).isEqualTo(5L);
+        assertThat(store.stats().droppedSteps()).isEqualTo(5L);
+
+        String mermaid = new ExecutionTraceMermaidRenderer(store).render("PI-1");
+        assertThat(mermaid).contains("... 5 steps dropped ...");
+        assertThat(mermaid).contains(" -.-> ");
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedInstancesOverGlobalBudget() {
+        BoundedExecutionTraceStore store = new BoundedExecutionTraceStore(new TraceBudget(4, 4, 10L, 1_000_000L));
+        for (int i = 0; i < 4; i++) {
+            store.append(step("PI-1", "A" + i, "A" + (i + 1)));
+            store.append(step("PI-2", "B" + i, "B" + (i + 1)));
+        }
+        // 读取 PI-1 使 PI-2 成为最久未使用者。
+        assertThat(store.getByInstanceId("PI-1")).hasSize(4);
+        for (int i = 0; i < 3; i++) {
+            store.append(step("PI-3", "C" + i, "C" + (i + 1)));
+        }
+
+        assertThat(store.getByInstanceId("PI-2")).isEmpty();
+        assertThat(store.getByInstanceId("PI-1")).hasSize(4);
+        assertThat(store.getByInstanceId("PI-3")).hasSize(3);
+        TraceStoreStats stats = store.stats();
+        assertThat(stats.instances()).isEqualTo(2);
+        assertThat(stats.steps()).isEqualTo(7L);
+        assertThat(stats.evictedInstances()).isEqualTo(1L);
+
+        store.remove("PI-1");
+        store.remove("PI-3");
+        assertThat(store.stats().steps()).isZero();
+        assertThat(store.stats().estimatedBytes()).isZero();
+    }
+
+    private TraceStep step(String instanceId, String from, String to) {
+        TraceStep step = new TraceStep();
+        step.setInstanceId(instanceId);
+        step.setTokenId("TK-1");
+        step.setFromNodeId(from);
+        step.setInstructionType("MoveInstruction");
+        step.setSuccess(true);
+        step.getToNodeIds().add(to);
+        return step;
+    }
+}
@@ -0,0 +1,67 @@
+package com.gaibu.flowlab.engine.trace.analysis;
+
+import com.gaibu.flowlab.engine.trace.TraceStep;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CriticalPathAnalyzerTest {
+
+    @Test
+    void shouldFollowLatestPredecessorThroughForkAndJoin() {
+        List<TraceStep> trace = List.of(
+                step("TK-1", "S", 100, 110, 0, "G"),
+                step("TK-1", "G", 110, 120, 0, "A", "B"),
+                step("TK-2", "A", 125, 400, 5, "J"),
+                step("TK-3", "B", 130, 180, 10, "J"),
+                step("TK-2", "J", 405, 410, 5, "E"),
+                step("TK-2", "E", 410, 420, 0),
+                TraceStep.truncated("PI-1", 3L));
+
+        CriticalPathReport report = CriticalPathAnalyzer.analyze("PI-1", trace);
+
+        assertThat(report.criticalPath()).extracting(TraceStep::getFromNodeId).containsExactly("S", "G", "A", "J", "E");
+        assertThat(report.totalNanos()).isEqualTo(320L);
+        assertThat(report.joinWaits()).containsExactly(
+                new JoinWait("J", "TK-2", "A", 0L),
+                new JoinWait("J", "TK-3", "B", 220L));
+        assertThat(report.branches()).containsExactly(
+                new BranchTiming("TK-1", "S", "G", 2, 100, 120, 20, 0),
+                new BranchTiming("TK-2", "A", "E", 3, 125, 420, 290, 10),
+                new BranchTiming("TK-3", "B", "B", 1, 130, 180, 50, 10));
+
+        TraceTimingRenderer renderer = new TraceTimingRenderer();
+        assertThat(renderer.renderTable(report)).contains("| TK-3 | B | B | 1 |");
+        assertThat(renderer.renderMermaid(report)).contains("W0([\"B / TK-3\"])");
+    }
+
+    @Test
+    void shouldReturnEmptyReportWithoutTimedSteps() {
+        TraceStep untimed = new TraceStep();
+        untimed.setInstanceId("PI-1");
+        untimed.setTokenId("TK-1");
+        untimed.setFromNodeId("S");
+
+        CriticalPathReport report = CriticalPathAnalyzer.analyze("PI-1", List.of(untimed));
+
+        assertThat(report.criticalPath()).isEmpty();
+        assertThat(report.totalNanos()).isZero();
+    }
+
+    private static TraceStep step(String tokenId, String from, long start, long end, long queueWait, String... targets) {
+        TraceStep step = new TraceStep();
+        step.setInstanceId("PI-1");
+        step.setTokenId(tokenId);
+        step.setFromNodeId(from);
+        step.setInstructionType("MoveInstruction");
+        step.setSuccess(true);
+        step.setStartNanos(start);
+        step.setEndNanos(end);
+        step.setQueueWaitNanos(queueWait);
+        step.setThreadName("main");
+        step.getToNodeIds().addAll(List.of(targets));
+        return step;
+    }
+}
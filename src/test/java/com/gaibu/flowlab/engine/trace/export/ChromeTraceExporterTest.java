@@ -0,0 +1,78 @@
+package com.gaibu.flowlab.engine.trace.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gaibu.flowlab.engine.trace.InMemoryExecutionTraceStore;
+import com.gaibu.flowlab.engine.trace.TraceStep;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChromeTraceExporterTest {
+
+    @Test
+    void shouldExportTokensAsTracksWithSlicesAndFlows() throws Exception {
+        InMemoryExecutionTraceStore store = new InMemoryExecutionTraceStore();
+        store.append(step("TK-1", "G", 1_000, 3_000, 1_000, true, "A", "B"));
+        store.append(step("TK-2", "A", 4_000, 10_000, 1_000, true, "J"));
+        store.append(step("TK-3", "B", 5_000, 6_000, 2_000, false));
+        store.append(step("TK-2", "J", 10_000, 11_000, 0, true));
+
+        JsonNode root = new ObjectMapper().readTree(new ChromeTraceExporter(store).export("PI-1"));
+
+        assertThat(root.get("otherData").get("instanceId").asText()).isEqualTo("PI-1");
+        List<JsonNode> slices = new ArrayList<>();
+        List<JsonNode> flows = new ArrayList<>();
+        List<String> tracks = new ArrayList<>();
+        for (JsonNode event : root.get("traceEvents")) {
+            String phase = event.get("ph").asText();
+            if ("X".equals(phase)) {
+                slices.add(event);
+            } else if ("s".equals(phase) || "f".equals(phase)) {
+                flows.add(event);
+            } else if ("thread_name".equals(event.get("name").asText())) {
+                tracks.add(event.get("args").get("name").asText());
+            }
+        }
+        assertThat(tracks).containsExactly("TK-1", "TK-2", "TK-3");
+
+        JsonNode first = slices.get(0);
+        assertThat(first.get("ph").asText()).isEqualTo("X");
+        assertThat(first.get("name").asText()).isEqualTo("queued");
+        assertThat(first.get("ts").asDouble()).isEqualTo(0D);
+        assertThat(first.get("dur").asDouble()).isEqualTo(1D);
+        JsonNode gateway = slices.get(1);
+        assertThat(gateway.get("name").asText()).isEqualTo("G");
+        assertThat(gateway.get("ts").asDouble()).isEqualTo(1D);
+        assertThat(gateway.get("dur").asDouble()).isEqualTo(2D);
+        assertThat(gateway.get("args").get("targets").size()).isEqualTo(2);
+        JsonNode failed = slices.stream().filter(slice -> slice.get("name").asText().equals("B")).findFirst().orElseThrow();
+        assertThat(failed.get("cat").asText()).isEqualTo("failure");
+        assertThat(failed.get("tid").asInt()).isEqualTo(3);
+
+        // 两条分叉箭头（G -> A、G -> B），汇聚步骤 J 没有其他分支到达。
+        assertThat(flows).hasSize(4);
+        assertThat(flows.get(0).get("name").asText()).isEqualTo("fork");
+        assertThat(flows.get(0).get("tid").asInt()).isEqualTo(1);
+        assertThat(flows.get(1).get("tid").asInt()).isEqualTo(2);
+        assertThat(flows.get(1).get("bp").asText()).isEqualTo("e");
+    }
+
+    private static TraceStep step(String tokenId, String from, long start, long end, long queueWait, boolean success, String... targets) {
+        TraceStep step = new TraceStep();
+        step.setInstanceId("PI-1");
+        step.setTokenId(tokenId);
+        step.setFromNodeId(from);
+        step.setInstructionType(success ? "MoveInstruction" : "FAILURE");
+        step.setSuccess(success);
+        step.setStartNanos(start);
+        step.setEndNanos(end);
+        step.setQueueWaitNanos(queueWait);
+        step.setThreadName("main");
+        step.getToNodeIds().addAll(List.of(targets));
+        return step;
+    }
+}
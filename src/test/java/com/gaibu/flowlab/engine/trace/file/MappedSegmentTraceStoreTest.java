@@ -0,0 +1,173 @@
+package com.gaibu.flowlab.engine.trace.file;
+
+import com.gaibu.flowlab.engine.scheduler.HashedWheelTimer;
+import com.gaibu.flowlab.engine.trace.ExecutionTraceMermaidRenderer;
+import com.gaibu.flowlab.engine.trace.TraceStep;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedSegmentTraceStoreTest {
+
+    @Test
+    void shouldRoundTripStepsAndRender() throws IOException {
+        Path directory = Files.createTempDirectory("flow-trace-log");
+        try (MappedSegmentTraceStore store = new MappedSegmentTraceStore(directory)) {
+            TraceStep fork = step("PI-1", "TK-1", "A", 1_000L, "B", "C");
+            fork.setStartNanos(7_000_000_000L);
+            fork.setEndNanos(7_000_250_000L);
+            fork.setQueueWaitNanos(1_500L);
+            fork.setThreadName("flow-worker-1");
+            TraceStep failed = step("PI-1", "custom-token", "B", 990L);
+            failed.setSuccess(false);
+            failed.setErrorMessage("boom: 失败");
+            store.append(fork);
+            store.append(step("PI-2", "TK-7", "X", 1_010L, "Y"));
+            store.append(failed);
+            store.append(TraceStep.truncated("PI-1", 42L));
+
+            List<TraceStep> steps = store.getByInstanceId("PI-1");
+            assertThat(steps).hasSize(3);
+            assertThat(steps.get(0).getTokenId()).isEqualTo("TK-1");
+            assertThat(steps.get(0).getToNodeIds()).containsExactly("B", "C");
+            assertThat(steps.get(0).getTimestamp()).isEqualTo(1_000L);
+            assertThat(steps.get(0).isSuccess()).isTrue();
+            assertThat(steps.get(0).getStartNanos()).isEqualTo(7_000_000_000L);
+            assertThat(steps.get(0).getDurationNanos()).isEqualTo(250_000L);
+            assertThat(steps.get(0).getQueueWaitNanos()).isEqualTo(1_500L);
+            assertThat(steps.get(0).getThreadName()).isEqualTo("flow-worker-1");
+            assertThat(steps.get(1).getStartNanos()).isZero();
+            assertThat(steps.get(1).getTokenId()).isEqualTo("custom-token");
+            assertThat(steps.get(1).getTimestamp()).isEqualTo(990L);
+            assertThat(steps.get(1).isSuccess()).isFalse();
+            assertThat(steps.get(1).getErrorMessage()).isEqualTo("boom: 失败");
+            assertThat(steps.get(2).isTruncationMarker()).isTrue();
+            assertThat(steps.get(2).getDroppedSteps()).isEqualTo(42L);
+            assertThat(store.getByInstanceId("PI-2")).hasSize(1);
+
+            String mermaid = new ExecutionTraceMermaidRenderer(store).render("PI-1");
+            assertThat(mermaid).contains("\"A\"");
+            assertThat(mermaid).contains("... 42 steps dropped ...");
+
+            store.remove("PI-2");
+            assertThat(store.getByInstanceId("PI-2")).isEmpty();
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    void shouldRollSegmentsAndRebuildIndexOnReopen() throws IOException {
+        Path directory = Files.createTempDirectory("flow-trace-log");
+        TraceLogOptions options = new TraceLogOptions(TraceLogOptions.MIN_SEGMENT_BYTES, 1L << 30, null);
+        try (MappedSegmentTraceStore store = new MappedSegmentTraceStore(directory, options)) {
+            for (int i = 0; i < 500; i++) {
+                store.append(step("PI-" + (i % 3), "TK-" + i, "N" + i, 10_000L + i, "N" + (i + 1)));
+            }
+            assertThat(store.stats().segments()).isGreaterThan(1);
+            assertThat(store.getByInstanceId("PI-0")).hasSize(167);
+        }
+
+        try (MappedSegmentTraceStore reopened = new MappedSegmentTraceStore(directory, options)) {
+            List<TraceStep> steps = reopened.getByInstanceId("PI-1");
+            assertThat(steps).hasSize(167);
+            assertThat(steps.get(0).getFromNodeId()).isEqualTo("N1");
+            assertThat(steps.get(166).getFromNodeId()).isEqualTo("N499");
+            assertThat(steps.get(166).getTimestamp()).isEqualTo(10_499L);
+
+            assertThat(reopened.maxInstanceSeq()).isEqualTo(2L);
+            reopened.append(step("PI-3", "TK-500", "N500", 10_500L, "END"));
+            assertThat(reopened.getByInstanceId("PI-1")).hasSize(167);
+            assertThat(reopened.getByInstanceId("PI-3")).hasSize(1);
+            assertThat(reopened.maxInstanceSeq()).isEqualTo(3L);
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    void shouldDeleteOldestSegmentsOverSizeLimit() throws IOException {
+        Path directory = Files.createTempDirectory("flow-trace-log");
+        TraceLogOptions options = new TraceLogOptions(TraceLogOptions.MIN_SEGMENT_BYTES, 3L * TraceLogOptions.MIN_SEGMENT_BYTES, null);
+        try (MappedSegmentTraceStore store = new MappedSegmentTraceStore(directory, options)) {
+            List<String> evicted = new ArrayList<>();
+            store.setEvictionListener(evicted::add);
+            for (int i = 0; i < 2_000; i++) {
+                store.append(step("PI-" + i, "TK-" + i, "NODE-" + i, 20_000L + i, "NEXT-" + i));
+            }
+
+            TraceLogStats stats = store.stats();
+            assertThat(stats.deletedSegments()).isGreaterThan(0L);
+            assertThat(stats.usedBytes()).isLessThanOrEqualTo(options.maxTotalBytes());
+            try (Stream<Path> files = Files.list(directory)) {
+                assertThat(files.count()).isEqualTo((long) stats.segments());
+            }
+            assertThat(store.getByInstanceId("PI-0")).isEmpty();
+            assertThat(store.getByInstanceId("PI-1999")).hasSize(1);
+            assertThat(evicted).contains("PI-0");
+            assertThat(evicted).doesNotContain("PI-1999");
+            List<String> remaining = new ArrayList<>();
+            store.forEachTrace((instanceId, steps) -> remaining.add(instanceId));
+            assertThat(remaining.size() + evicted.size()).isEqualTo(2_000);
+            assertThat(remaining.get(remaining.size() - 1)).isEqualTo("PI-1999");
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Test
+    void shouldExpireQuietLogOnScheduledRetention() throws Exception {
+        Path directory = Files.createTempDirectory("flow-trace-log");
+        TraceLogOptions options = new TraceLogOptions(TraceLogOptions.MIN_SEGMENT_BYTES, 1L << 30, Duration.ofSeconds(2));
+        HashedWheelTimer timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 64, "test-timer");
+        try (MappedSegmentTraceStore store = new MappedSegmentTraceStore(directory, options)) {
+            store.append(step("PI-1", "TK-1", "A", 1_000L, "B"));
+            store.append(step("PI-1", "TK-1", "B", 1_001L));
+            assertThat(store.stats().segments()).isEqualTo(1);
+
+            store.scheduleRetention(timer);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!store.getByInstanceId("PI-1").isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+
+            assertThat(store.getByInstanceId("PI-1")).isEmpty();
+            assertThat(store.stats().deletedSegments()).isEqualTo(1L);
+            store.append(step("PI-2", "TK-2", "A", System.currentTimeMillis(), "B"));
+            assertThat(store.getByInstanceId("PI-2")).hasSize(1);
+        } finally {
+            timer.stop();
+            deleteRecursively(directory);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static TraceStep step(String instanceId, String tokenId, String from, long timestamp, String... targets) {
+        TraceStep step = new TraceStep();
+        step.setInstanceId(instanceId);
+        step.setTokenId(tokenId);
+        step.setFromNodeId(from);
+        step.setInstructionType("MOVE");
+        step.setSuccess(true);
+        step.setTimestamp(timestamp);
+        step.getToNodeIds().addAll(List.of(targets));
+        return step;
+    }
+}
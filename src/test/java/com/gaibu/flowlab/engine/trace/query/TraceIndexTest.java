@@ -0,0 +1,99 @@
+package com.gaibu.flowlab.engine.trace.query;
+
+import com.gaibu.flowlab.engine.trace.BoundedExecutionTraceStore;
+import com.gaibu.flowlab.engine.trace.InMemoryExecutionTraceStore;
+import com.gaibu.flowlab.engine.trace.TraceBudget;
+import com.gaibu.flowlab.engine.trace.TraceStep;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraceIndexTest {
+
+    @Test
+    void shouldCombineNodeFailureAndEdgeIndexes() {
+        TraceIndex index = new TraceIndex(new InMemoryExecutionTraceStore());
+        index.append(step("PI-1", "G1", true, "T1"));
+        index.append(step("PI-1", "T1", true, "E"));
+        index.append(step("PI-2", "G1", true, "T3"));
+        index.append(step("PI-2", "T3", false));
+        index.append(step("PI-3", "G1", true, "T3"));
+        index.append(step("PI-3", "T3", true, "E"));
+        index.append(TraceStep.truncated("PI-4", 10L));
+
+        assertThat(index.find(TraceQuery.failedAt("T3"), 10)).containsExactly("PI-2");
+        assertThat(index.find(TraceQuery.edge("G1", "T3"), 10)).containsExactly("PI-2", "PI-3");
+        assertThat(index.find(TraceQuery.and(TraceQuery.edge("G1", "T3"), TraceQuery.visited("E")), 10))
+                .containsExactly("PI-3");
+        assertThat(index.find(TraceQuery.or(TraceQuery.visited("T1"), TraceQuery.failedAt("T3")), 10))
+                .containsExactly("PI-1", "PI-2");
+        assertThat(index.find(TraceQuery.visited("G1"), 2)).containsExactly("PI-1", "PI-2");
+        assertThat(index.count(TraceQuery.visited("missing"))).isZero();
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.getByInstanceId("PI-2")).hasSize(2);
+    }
+
+    @Test
+    void shouldDropRemovedInstancesAndReuseOrdinalsAfterCompaction() {
+        TraceIndex index = new TraceIndex(new InMemoryExecutionTraceStore());
+        int total = 3_000;
+        for (int i = 0; i < total; i++) {
+            index.append(step("PI-" + i, "A", i % 2 == 0, "B"));
+        }
+        assertThat(index.count(TraceQuery.failedAt("A"))).isEqualTo(total / 2);
+
+        for (int i = 0; i < total - 10; i++) {
+            index.remove("PI-" + i);
+        }
+        assertThat(index.size()).isEqualTo(10);
+        assertThat(index.count(TraceQuery.visited("B"))).isEqualTo(10);
+        assertThat(index.find(TraceQuery.failedAt("A"), 10)).hasSize(5);
+        assertThat(index.getByInstanceId("PI-0")).isEmpty();
+
+        index.append(step("PI-new", "A", false));
+        List<String> failed = index.find(TraceQuery.failedAt("A"), 100);
+        assertThat(failed).hasSize(6);
+        assertThat(failed).contains("PI-new");
+        assertThat(index.count(TraceQuery.edge("A", "B"))).isEqualTo(10);
+    }
+
+    @Test
+    void shouldBackfillExistingTracesAndFollowStoreEvictions() {
+        BoundedExecutionTraceStore store = new BoundedExecutionTraceStore(new TraceBudget(4, 4, 4L, Long.MAX_VALUE));
+        store.append(step("PI-1", "G1", true, "T1"));
+        store.append(step("PI-1", "T1", false));
+        store.append(step("PI-2", "G1", true, "T3"));
+
+        TraceIndex index = new TraceIndex(store);
+        assertThat(index.size()).isZero();
+        index.backfill();
+        assertThat(index.find(TraceQuery.visited("G1"), 10)).containsExactly("PI-1", "PI-2");
+        assertThat(index.find(TraceQuery.failedAt("T1"), 10)).containsExactly("PI-1");
+
+        index.append(step("PI-3", "G1", true, "T3"));
+        index.append(step("PI-3", "T3", true, "E"));
+        assertThat(store.getByInstanceId("PI-1")).isEmpty();
+        assertThat(index.find(TraceQuery.visited("G1"), 10)).containsExactly("PI-2", "PI-3");
+        assertThat(index.count(TraceQuery.failedAt("T1"))).isZero();
+        assertThat(index.size()).isEqualTo(2);
+
+        index.detach();
+        index.append(step("PI-4", "G1", true, "T1"));
+        index.append(step("PI-4", "T1", true, "E"));
+        assertThat(store.getByInstanceId("PI-2")).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    private static TraceStep step(String instanceId, String from, boolean success, String... targets) {
+        TraceStep step = new TraceStep();
+        step.setInstanceId(instanceId);
+        step.setTokenId("TK-1");
+        step.setFromNodeId(from);
+        step.setInstructionType(success ? "MoveInstruction" : "FAILURE");
+        step.setSuccess(success);
+        step.getToNodeIds().addAll(List.of(targets));
+        return step;
+    }
+}